@@ -1,64 +1,28 @@
 package com.microblink.wrapper.xamarin;
 
 import android.content.Context;
-import android.content.Intent;
 import android.graphics.Bitmap;
-import android.os.Parcelable;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import com.microblink.hardware.camera.CameraType;
-import com.microblink.recognizers.BaseRecognitionResult;
-import com.microblink.recognizers.IResultHolder;
+import com.microblink.image.Image;
 import com.microblink.recognizers.RecognitionResults;
-import com.microblink.recognizers.blinkbarcode.BarcodeType;
-import com.microblink.recognizers.blinkbarcode.bardecoder.BarDecoderScanResult;
-import com.microblink.recognizers.blinkbarcode.pdf417.Pdf417ScanResult;
-import com.microblink.recognizers.blinkbarcode.usdl.USDLScanResult;
-import com.microblink.recognizers.blinkbarcode.zxing.ZXingScanResult;
-import com.microblink.recognizers.blinkid.austria.back.AustrianIDBackSideRecognitionResult;
-import com.microblink.recognizers.blinkid.austria.front.AustrianIDFrontSideRecognitionResult;
-import com.microblink.recognizers.blinkid.croatia.back.CroatianIDBackSideRecognitionResult;
-import com.microblink.recognizers.blinkid.croatia.front.CroatianIDFrontSideRecognitionResult;
-import com.microblink.recognizers.blinkid.czechia.back.CzechIDBackSideRecognitionResult;
-import com.microblink.recognizers.blinkid.czechia.front.CzechIDFrontSideRecognitionResult;
-import com.microblink.recognizers.blinkid.eudl.EUDLRecognitionResult;
-import com.microblink.recognizers.blinkid.germany.front.GermanIDFrontSideRecognitionResult;
-import com.microblink.recognizers.blinkid.germany.mrz.GermanIDMRZSideRecognitionResult;
-import com.microblink.recognizers.blinkid.malaysia.IKadRecognitionResult;
-import com.microblink.recognizers.blinkid.malaysia.MyKadRecognitionResult;
-import com.microblink.recognizers.blinkid.mrtd.MRTDRecognitionResult;
-import com.microblink.recognizers.blinkid.serbia.back.SerbianIDBackSideRecognitionResult;
-import com.microblink.recognizers.blinkid.serbia.front.SerbianIDFrontSideRecognitionResult;
-import com.microblink.recognizers.blinkid.singapore.SingaporeIDRecognitionResult;
-import com.microblink.recognizers.blinkid.slovakia.back.SlovakIDBackSideRecognitionResult;
-import com.microblink.recognizers.blinkid.slovakia.front.SlovakIDFrontSideRecognitionResult;
-import com.microblink.recognizers.blinkid.slovenia.back.SlovenianIDBackSideRecognitionResult;
-import com.microblink.recognizers.blinkid.slovenia.front.SlovenianIDFrontSideRecognitionResult;
-import com.microblink.recognizers.blinkocr.BlinkOCRRecognitionResult;
-import com.microblink.recognizers.detector.DetectorRecognitionResult;
 import com.microblink.recognizers.settings.RecognitionSettings;
-import com.microblink.recognizers.settings.RecognizerSettings;
-import com.microblink.recognizers.settings.RecognizerSettingsUtils;
-import com.microblink.results.barcode.BarcodeDetailedData;
 import com.microblink.util.Log;
 import com.microblink.util.RecognizerCompatibility;
 import com.microblink.util.RecognizerCompatibilityStatus;
-import com.microblink.wrapper.xamarin.scan.BlinkIDScanActivity;
-
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
-import java.util.ArrayList;
-import java.util.Date;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import com.microblink.wrapper.xamarin.image.DocumentImageStore;
+import com.microblink.wrapper.xamarin.image.NativeImageTracker;
+import com.microblink.wrapper.xamarin.journal.ScanJournal;
+import com.microblink.wrapper.xamarin.result.ResultDeduplicator;
+import com.microblink.wrapper.xamarin.scan.ScanConfiguration;
 
 /**
  * Created by ivan on 2/29/16.
  */
 public class BlinkID {
 
-    private static final String PAYMENT_DATA_KEY = "PaymentDataType";
-
     // result types
     public static final String PDF417_RESULT_TYPE = "PDF417";
     public static final String USDL_RESULT_TYPE = "USDL";
@@ -132,15 +96,22 @@ public class BlinkID {
     public static final String OPT2_KEY = "Opt2";
     public static final String MRZ_RAW_KEY = "MrzText";
 
-    private static final String LOG_TAG = "BlinkId";
-
-    /** Date format for date results */
-    DateFormat mDateFormat = new SimpleDateFormat("dd/MM/yyyy");
+    /** Key that is set to "true" in results repeated within the window of {@link ResultDeduplicator} */
+    public static final String REPEATED_SCAN_KEY = "RepeatedScan";
+    /**
+     * Key of the merged result of a two-sided scan under which result type of the back side is
+     * stored, {@link #RESULT_TYPE_KEY} holds result type of the front side.
+     */
+    public static final String BACK_SIDE_RESULT_TYPE_KEY = "BackSideResultType";
 
     private Context mContext;
     private String mLicenseKey;
     private BlinkIdResultListener mResultListener;
-    private String[] mParserIdentifiers;
+    /** Session of the last started scan, used only by deprecated result delivery */
+    private volatile ScanSession mLastSession;
+    private ScanJournal mScanJournal;
+    private DocumentImageStore mDocumentImageStore;
+    private ResultDeduplicator mResultDeduplicator;
 
     private static BlinkID ourInstance = new BlinkID();
 
@@ -185,6 +156,52 @@ public class BlinkID {
         mResultListener = resultListener;
     }
 
+    /**
+     * Defines the journal to which all scan results are appended before they are delivered to
+     * the result listener.
+     *
+     * @param scanJournal Scan journal, or {@code null} if results should not be journaled.
+     */
+    public void setScanJournal(@Nullable ScanJournal scanJournal) {
+        mScanJournal = scanJournal;
+    }
+
+    /**
+     * Defines the store to which document images are handed instead of delivering live bitmaps
+     * to the result listener. When store is defined, result listener obtains the id of the
+     * stored image in {@link BlinkIdResultListener#onDocumentImageStored(String)}.
+     *
+     * @param documentImageStore Document image store, or {@code null} if images should be
+     *                           delivered as bitmaps.
+     */
+    public void setDocumentImageStore(@Nullable DocumentImageStore documentImageStore) {
+        mDocumentImageStore = documentImageStore;
+    }
+
+    /**
+     * Defines the cache of recently delivered results. When the same document is scanned again
+     * within its window, results are either skipped, in which case result listener obtains
+     * {@link BlinkIdResultListener#onRepeatedResultsSkipped()}, or delivered with
+     * {@link #REPEATED_SCAN_KEY} set, depending on the deduplicator mode. Repeated results are
+     * marked also when they are streamed with the converter passed to
+     * {@link BlinkIdResultListener#onRecognitionResultsAvailable}.
+     *
+     * @param resultDeduplicator Result deduplicator, or {@code null} if all results should be
+     *                           delivered as they are.
+     */
+    public void setResultDeduplicator(@Nullable ResultDeduplicator resultDeduplicator) {
+        mResultDeduplicator = resultDeduplicator;
+    }
+
+    /**
+     * Returns the store to which document images are handed.
+     * @return Document image store, or {@code null} if it is not defined.
+     */
+    @Nullable
+    public DocumentImageStore getDocumentImageStore() {
+        return mDocumentImageStore;
+    }
+
     /**
      * Starts the scan activity. Before scanning, license key, context and result listener
      * have to be defined with setter methods: {@link #setLicenseKey(String)},
@@ -202,53 +219,70 @@ public class BlinkID {
             throw new IllegalStateException("Before scanning, license key, context and result listener" +
                     " have to be defined.");
         }
-        BlinkIdScanSettings.DeviceCameraType cam = scanSettings.getCameraType();
-        CameraType cameraType = CameraType.CAMERA_DEFAULT;
-        if (cam == BlinkIdScanSettings.DeviceCameraType.CAMERA_FRONTFACE) {
-            cameraType = CameraType.CAMERA_FRONTFACE;
-        } else if (cam == BlinkIdScanSettings.DeviceCameraType.CAMERA_BACKFACE) {
-            cameraType = CameraType.CAMERA_BACKFACE;
+        // recognition settings are built with the overridable hook
+        RecognitionSettings recognitionSettings = buildRecognitionSettings(scanSettings,
+                ScanSession.toCameraType(scanSettings.getCameraType()));
+        // session takes a snapshot of current state, so later changes affect only new scans
+        ScanSession session = new ScanSession(mContext, mLicenseKey, scanSettings, recognitionSettings, mResultListener);
+        applySessionState(session);
+        mLastSession = session;
+        session.start();
+    }
+
+    /**
+     * Creates the session that delivers results of a scan restored after process death, when
+     * session of the original scan no longer exists. Results are delivered to the result
+     * listener, journal, document image store and deduplicator defined at the time of the call,
+     * typically re-defined by the application on startup.
+     *
+     * @param context Context of the application, used if context was not defined with
+     *                {@link #setContext(Context)}.
+     * @param licenseKey License key of the restored scan, or {@code null} to use the license key
+     *                   defined with {@link #setLicenseKey(String)}.
+     * @param configuration Already built settings of the restored scan.
+     * @return Session of the restored scan, or {@code null} if result listener or license key is
+     *         not defined.
+     */
+    @Nullable
+    public ScanSession restoreSession(@NonNull Context context, @Nullable String licenseKey,
+                                      @NonNull ScanConfiguration configuration) {
+        if (licenseKey == null) {
+            licenseKey = mLicenseKey;
         }
-        RecognitionSettings recognitionSettings = buildRecognitionSettings(scanSettings, cameraType);
-        if (recognitionSettings.getRecognizerSettingsArray().length == 0) {
-            throw new IllegalScanSettingsException("At least one recognizer/parser/detector must be active.");
+        if (mResultListener == null || licenseKey == null) {
+            return null;
         }
-        mParserIdentifiers = scanSettings.getParserIdentifiers();
+        ScanSession session = new ScanSession(mContext != null ? mContext : context, licenseKey, configuration,
+                mResultListener);
+        applySessionState(session);
+        return session;
+    }
 
-        Intent scanIntent = buildScanIntent(recognitionSettings, scanSettings.getAcceptedImageNames(), cameraType);
-        Log.i(this, "Starting scan intent");
-        mContext.startActivity(scanIntent);
+    private void applySessionState(ScanSession session) {
+        session.setScanJournal(mScanJournal);
+        session.setDocumentImageStore(mDocumentImageStore);
+        session.setResultDeduplicator(mResultDeduplicator);
     }
 
     /**
-     * This method builds scan intent for BlinkID.
+     * @return Session through which results of deprecated delivery are delivered: session of
+     *         the last started scan, or session restored from current state if no scan was
+     *         started since process start.
      */
-    private Intent buildScanIntent(RecognitionSettings settings, String[] acceptedImageNames, CameraType cameraType) {
-
-        // first create intent for provided ScanCard activity
-        final Intent intent = new Intent(mContext, BlinkIDScanActivity.class);
-        intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
-
-        // In order for scanning to work, you must enter a valid licence key. Without licence key,
-        // scanning will not work. Licence key is bound the the package name of your app, so when
-        // obtaining your licence key from Microblink make sure you give us the correct package name
-        // of your app. You can obtain your licence key at http://microblink.com/login or contact us
-        // at http://help.microblink.com.
-        // Licence key also defines which recognizers are enabled and which are not. Since the licence
-        // key validation is performed on image processing thread in native code, all enabled recognizers
-        // that are disallowed by licence key will be turned off without any error and information
-        // about turning them off will be logged to ADB logcat.
-        intent.putExtra(BlinkIDScanActivity.EXTRAS_LICENSE_KEY, mLicenseKey);
-
-        intent.putExtra(BlinkIDScanActivity.EXTRAS_CAMERA_TYPE, (Parcelable) cameraType);
-        intent.putExtra(BlinkIDScanActivity.EXTRAS_ACCEPTED_IMAGE_NAMES_ARRAY, acceptedImageNames);
-        intent.putExtra(BlinkIDScanActivity.EXTRAS_RECOGNITION_SETTINGS, settings);
-
-        return intent;
+    @Nullable
+    private ScanSession getDeliverySession() {
+        ScanSession session = mLastSession;
+        if (session == null && mContext != null) {
+            session = restoreSession(mContext, null, new ScanConfiguration(new RecognitionSettings(),
+                    CameraType.CAMERA_DEFAULT, new String[0]));
+        }
+        return session;
     }
 
     /**
-     * This method creates the recognition settings for scan activity.
+     * This method creates the recognition settings for scan activity. It is called by
+     * {@link #scan(BlinkIdScanSettings)}, so subclasses can customize the settings. In two-sided
+     * scanning, these are settings of the front side.
      *
      * @param scanSettings Scan settings which define recognizers that will be used to scan
      *                     corresponding document types.
@@ -257,607 +291,51 @@ public class BlinkID {
      * @return Recognition settings for scan activity.
      */
     protected RecognitionSettings buildRecognitionSettings(BlinkIdScanSettings scanSettings, CameraType cameraType) {
-        // initialize scanning settings object
-        RecognitionSettings recognitionSettings = new RecognitionSettings();
-
-        // with setNumMsBeforeTimeout you can define number of miliseconds that must pass
-        // after first partial scan result has arrived before scan activity triggers a timeout.
-        // Timeout is good for preventing infinitely long scanning experience when user attempts
-        // to scan damaged or unsupported slip. After timeout, scan activity will return only
-        // data that was read successfully. This might be incomplete data.
-        recognitionSettings.setNumMsBeforeTimeout(2000);
-
-        // If you add more recognizers to recognizer settings array, you can choose whether you
-        // want to have the ability to obtain multiple scan results from same video frame. For example,
-        // if both payment slip and payment barcode are visible on a single frame, by setting
-        // setAllowMultipleScanResultsOnSingleImage to true you can obtain both scan results
-        // from barcode and slip. If this is false (default), you will get the first valid result
-        // (i.e. first result that contains all required data). Having this option turned off
-        // creates better and faster user experience.
-        recognitionSettings.setAllowMultipleScanResultsOnSingleImage(
-                scanSettings.shouldAllowMultipleScanResultsOnSingleImage());
-
-        RecognizerSettings[] settingsArray = scanSettings.createRecognizerSettingsArray();
-        if (!RecognizerCompatibility.cameraHasAutofocus(cameraType, mContext)) {
-            settingsArray = RecognizerSettingsUtils.filterOutRecognizersThatRequireAutofocus(settingsArray);
-        }
-
-        // Add array with recognizer settings so that scan activity will know
-        // what do you want to scan. Setting recognizer settings array is mandatory.
-        recognitionSettings.setRecognizerSettingsArray(settingsArray);
-        return recognitionSettings;
+        return ScanSession.buildRecognitionSettings(mContext, scanSettings, cameraType);
     }
 
     /**
-     * This method is called by scan activity when recognition is done.
+     * This method is called by scan activity when recognition is done. Results are delivered
+     * through the session of the last scan started with {@link #scan(BlinkIdScanSettings)}, or
+     * through a session restored from current state, see {@link #restoreSession}.
      *
      * @param results Recognition results.
+     * @param documentImage Image of the scanned document, or {@code null} if not available.
+     * @deprecated Scan activity delivers results to its own {@link ScanSession}, use
+     *             {@link ScanSession#onScanningDone(RecognitionResults, Bitmap)}.
      */
-    public void onScanningDone(RecognitionResults results, Bitmap documentImage) {
-        BaseRecognitionResult[] resultsArr = results.getRecognitionResults();
-        if (resultsArr != null && resultsArr.length > 0) {
-            List<Map<String, String>> resultList = new ArrayList<>();
-            boolean shouldReturnImage = false;
-            for (BaseRecognitionResult result : resultsArr) {
-                if (result instanceof AustrianIDFrontSideRecognitionResult) {
-                    resultList.add(buildAustrianIdFrontResult((AustrianIDFrontSideRecognitionResult) result));
-                    shouldReturnImage = true;
-                } else if (result instanceof AustrianIDBackSideRecognitionResult) {
-                    resultList.add(buildAustrianIdBackResult((AustrianIDBackSideRecognitionResult) result));
-                    shouldReturnImage = true;
-                } else if (result instanceof CzechIDFrontSideRecognitionResult) {
-                    resultList.add(buildCzIdFrontResult((CzechIDFrontSideRecognitionResult) result));
-                    shouldReturnImage = true;
-                } else if (result instanceof CzechIDBackSideRecognitionResult) {
-                    resultList.add(buildCzIdBackResult((CzechIDBackSideRecognitionResult) result));
-                    shouldReturnImage = true;
-                } else if (result instanceof CroatianIDFrontSideRecognitionResult) {
-                    resultList.add(buildCroIdFrontResult((CroatianIDFrontSideRecognitionResult) result));
-                    shouldReturnImage = true;
-                } else if (result instanceof CroatianIDBackSideRecognitionResult) {
-                    resultList.add(buildCroIdBackResult((CroatianIDBackSideRecognitionResult) result));
-                    shouldReturnImage = true;
-                } else if (result instanceof GermanIDMRZSideRecognitionResult) {
-                    resultList.add(buildGermanIdMRZSideResult((GermanIDMRZSideRecognitionResult) result));
-                    shouldReturnImage = true;
-                } else if (result instanceof GermanIDFrontSideRecognitionResult) {
-                    resultList.add(buildGermanIdFrontResult((GermanIDFrontSideRecognitionResult) result));
-                    shouldReturnImage = true;
-                } else if (result instanceof SerbianIDBackSideRecognitionResult) {
-                    resultList.add(buildSerbianIdBackResult((SerbianIDBackSideRecognitionResult) result));
-                    shouldReturnImage = true;
-                } else if (result instanceof SerbianIDFrontSideRecognitionResult) {
-                    resultList.add(buildSerbianIdFrontResult((SerbianIDFrontSideRecognitionResult) result));
-                    shouldReturnImage = true;
-                } else if (result instanceof SlovakIDBackSideRecognitionResult) {
-                    resultList.add(buildSlovakIdBackResult((SlovakIDBackSideRecognitionResult) result));
-                    shouldReturnImage = true;
-                } else if (result instanceof SlovakIDFrontSideRecognitionResult) {
-                    resultList.add(buildSlovakIdFrontResult((SlovakIDFrontSideRecognitionResult) result));
-                    shouldReturnImage = true;
-                } else if (result instanceof SlovenianIDBackSideRecognitionResult) {
-                    resultList.add(buildSlovenianIdBackResult((SlovenianIDBackSideRecognitionResult) result));
-                    shouldReturnImage = true;
-                } else if (result instanceof SlovenianIDFrontSideRecognitionResult) {
-                    resultList.add(buildSlovenianIdFrontResult((SlovenianIDFrontSideRecognitionResult) result));
-                    shouldReturnImage = true;
-                } else if (result instanceof SingaporeIDRecognitionResult) {
-                    resultList.add(buildSingaporeIdResult((SingaporeIDRecognitionResult) result));
-                    shouldReturnImage = true;
-                } else if (result instanceof USDLScanResult) {
-                    resultList.add(buildUSDLResult((USDLScanResult) result));
-                } else if (result instanceof EUDLRecognitionResult) {
-                    resultList.add(buildEUDLResult((EUDLRecognitionResult) result));
-                    shouldReturnImage = true;
-                } else if (result instanceof MyKadRecognitionResult) {
-                    resultList.add(buildMyKadResult((MyKadRecognitionResult) result));
-                    shouldReturnImage = true;
-                } else if (result instanceof IKadRecognitionResult) {
-                    resultList.add(buildIKadResult((IKadRecognitionResult) result));
-                    shouldReturnImage = true;
-                } else if (result instanceof Pdf417ScanResult) {
-                    resultList.add(buildPdf417Result((Pdf417ScanResult) result));
-                } else if (result instanceof BarDecoderScanResult) {
-                    resultList.add(buildBarDecoderResult((BarDecoderScanResult) result));
-                } else if (result instanceof ZXingScanResult) {
-                    resultList.add(buildZxingResult((ZXingScanResult) result));
-                } else if (result instanceof BlinkOCRRecognitionResult) {
-                    resultList.add(buildOcrResult((BlinkOCRRecognitionResult) result));
-                } else if (result instanceof MRTDRecognitionResult) {
-                    resultList.add(buildMRTDResult((MRTDRecognitionResult) result));
-                    shouldReturnImage = true;
-                } else if (result instanceof DetectorRecognitionResult) {
-                    resultList.add(buildIdCardDetectorResult((DetectorRecognitionResult) result));
-                    shouldReturnImage = true;
-                } else {
-                    throw new RuntimeException("Unknown result type: "
-                            + result.getClass().toString() + " in result array.");
-                }
-            }
-            if (documentImage != null && shouldReturnImage) {
-                mResultListener.onDocumentImageAvailable(documentImage);
-            }
-            mResultListener.onResultsAvailable(resultList);
+    @Deprecated
+    public void onScanningDone(RecognitionResults results, @Nullable Bitmap documentImage) {
+        ScanSession session = getDeliverySession();
+        if (session != null) {
+            session.onScanningDone(results, documentImage);
         } else {
-            mResultListener.onResultsAvailable(null);
-        }
-
-    }
-
-    /**
-     * Builds result map for Pdf417 scan result.
-     */
-    private Map<String, String> buildPdf417Result(Pdf417ScanResult res) {
-        // getStringData getter will return the string version of barcode contents
-        String barcodeData = res.getStringData();
-        // getRawData getter will return the raw data information object of barcode contents
-        BarcodeDetailedData rawData = res.getRawData();
-
-        Map<String, String> resultMap = new HashMap<>();
-        resultMap.put(RESULT_TYPE_KEY, PDF417_RESULT_TYPE);
-        resultMap.put(BARCODE_TYPE_KEY, "PDF417");
-        resultMap.put(BARCODE_DATA_KEY, barcodeData);
-
-        // BarcodeDetailedData contains information about barcode's binary layout, if you
-        // are only interested in raw bytes, you can obtain them with getAllData getter
-        if (rawData != null) {
-            byte[] rawDataBuffer = rawData.getAllData();
-            resultMap.put(BARCODE_RAW_DATA_KEY, byteArrayToHex(rawDataBuffer));
-        }
-
-        return resultMap;
-    }
-
-    /**
-     * Builds result map for BarDecoder scan result.
-     */
-    private Map<String, String> buildBarDecoderResult(BarDecoderScanResult res) {
-        // with getBarcodeType you can obtain barcode type enum that tells you the type of decoded barcode
-        BarcodeType type = res.getBarcodeType();
-        // as with PDF417, getStringData will return the string contents of barcode
-        String barcodeData = res.getStringData();
-
-        Map<String, String> resultMap = new HashMap<>();
-        resultMap.put(RESULT_TYPE_KEY, BARDECODER_RESULT_TYPE);
-        String typeName = type != null ? type.name() : UNKNOWN_RESULT_TYPE;
-        resultMap.put(BARCODE_TYPE_KEY, typeName);
-        resultMap.put(BARCODE_DATA_KEY, barcodeData);
-        return resultMap;
-    }
-
-    /**
-     * Builds result map for Zxing scan result.
-     */
-    private Map<String, String> buildZxingResult(ZXingScanResult res) {
-        // with getBarcodeType you can obtain barcode type enum that tells you the type of decoded barcode
-        BarcodeType type = res.getBarcodeType();
-
-        // as with PDF417, getStringData will return the string contents of barcode
-        String barcodeData = res.getStringData();
-
-        Map<String, String> resultMap = new HashMap<>();
-        resultMap.put(RESULT_TYPE_KEY, ZXING_RESULT_TYPE);
-        String typeName = type != null ? type.name() : UNKNOWN_RESULT_TYPE;
-        resultMap.put(BARCODE_TYPE_KEY, typeName);
-        resultMap.put(BARCODE_DATA_KEY, barcodeData);
-        return resultMap;
-    }
-
-    /**
-     * Builds result map for USDL scan result.
-     */
-    private Map<String, String> buildUSDLResult(USDLScanResult res) {
-        return buildKeyValueResult(res, USDL_RESULT_TYPE);
-    }
-
-    /**
-     * Builds result map for MyKad scan result.
-     */
-    private Map<String, String> buildMyKadResult(MyKadRecognitionResult res) {
-        return buildKeyValueResult(res, MYKAD_RESULT_TYPE);
-    }
-
-    /**
-     * Builds result map for Malaysian iKad scan result.
-     */
-    private Map<String, String> buildIKadResult(IKadRecognitionResult result) {
-        Map<String, String> resultMap = new HashMap<>();
-        resultMap.put(RESULT_TYPE_KEY, IKAD_RESULT_TYPE);
-
-        resultMap.put(FULL_NAME_KEY, result.getFullName());
-        resultMap.put(ADDRESS_KEY, result.getAddress());
-        Date dateOfBirth = result.getDateOfBirth();
-        if (dateOfBirth != null) {
-            resultMap.put(DATE_OF_BIRTH_KEY, mDateFormat.format(dateOfBirth));
-        }
-        resultMap.put(EMPLOYER_KEY, result.getEmployer());
-        Date dateOfExpiry = result.getExpiryDate();
-        if (dateOfExpiry != null) {
-            resultMap.put(DATE_OF_EXPIRY_KEY, mDateFormat.format(dateOfExpiry));
+            Log.w(this, "Scanning done without started scan or result listener, results are dropped");
         }
-        resultMap.put(NATIONALITY_KEY, result.getNationality());
-        resultMap.put(PASSPORT_NUMBER_KEY, result.getPassportNumber());
-        resultMap.put(SECTOR_KEY, result.getSector());
-        resultMap.put(SEX_KEY, result.getSex());
-
-        return resultMap;
     }
 
     /**
-     * Builds result map for EUDL scan result.
-     */
-    private Map<String, String> buildEUDLResult(EUDLRecognitionResult res) {
-        Map<String, String> resultMap = buildKeyValueResult(res, EUDL_RESULT_TYPE);
-        resultMap.put(EUDL_COUNTRY_KEY, res.getCountry().name());
-        return resultMap;
-    }
-
-    /**
-     * Builds result map for MRTD scan result.
+     * This method is called by scan activity when recognition is done. Results are delivered
+     * through the session of the last scan started with {@link #scan(BlinkIdScanSettings)}, or
+     * through a session restored from current state, see {@link #restoreSession}.
+     * Ownership of the document image is transferred to this method.
+     *
+     * @param results Recognition results.
+     * @param documentImage Native image of the scanned document, or {@code null} if not available.
+     * @deprecated Scan activity delivers results to its own {@link ScanSession}, use
+     *             {@link ScanSession#onScanningDone(RecognitionResults, Image)}.
      */
-    private Map<String, String> buildMRTDResult(MRTDRecognitionResult res) {
-        Map<String, String> resultMap = new HashMap<>();
-        resultMap.put(RESULT_TYPE_KEY, MRTD_RESULT_TYPE);
-        resultMap.put(PRIMARY_ID_KEY, res.getPrimaryId());
-        resultMap.put(SECONDARY_ID_KEY, res.getSecondaryId());
-        resultMap.put(DATE_OF_BIRTH_KEY, mDateFormat.format(res.getDateOfBirth()));
-        resultMap.put(DATE_OF_BIRTH_RAW_KEY, res.getRawDateOfBirth());
-        resultMap.put(SEX_KEY, res.getSex());
-        resultMap.put(NATIONALITY_KEY, res.getNationality());
-        resultMap.put(DOCUMENT_CODE_KEY, res.getDocumentCode());
-        resultMap.put(ISSUER_KEY, res.getIssuer());
-        resultMap.put(DATE_OF_EXPIRY_KEY, mDateFormat.format(res.getDateOfExpiry()));
-        resultMap.put(DATE_OF_EXPIRY_RAW_KEY, res.getRawDateOfExpiry());
-        resultMap.put(OPT2_KEY, res.getOpt2());
-        resultMap.put(OPT1_KEY, res.getOpt1());
-        resultMap.put(DOCUMENT_NUMBER_KEY, res.getDocumentNumber());
-        resultMap.put(MRZ_RAW_KEY, res.getMRZText());
-
-        return resultMap;
-    }
-
-    private Map<String, String> buildCzIdBackResult(CzechIDBackSideRecognitionResult result) {
-        Map<String, String> resultMap = buildMRTDResult(result);
-        resultMap.put(RESULT_TYPE_KEY, CZ_ID_BACK_RESULT_TYPE);
-
-        resultMap.put(ADDRESS_KEY, result.getAddress());
-        resultMap.put(ISSUING_AUTHORITY_KEY, result.getAuthority());
-        resultMap.put(PERSONAL_NUMBER_KEY, result.getPersonalNumber());
-
-        return resultMap;
-    }
-
-    private Map<String, String> buildCzIdFrontResult(CzechIDFrontSideRecognitionResult result) {
-        Map<String, String> resultMap = new HashMap<>();
-        resultMap.put(RESULT_TYPE_KEY, CZ_ID_FRONT_RESULT_TYPE);
-
-        resultMap.put(FIRST_NAME_KEY, result.getFirstName());
-        resultMap.put(LAST_NAME_KEY, result.getLastName());
-        resultMap.put(DOCUMENT_NUMBER_KEY, result.getIdentityCardNumber());
-        resultMap.put(SEX_KEY, result.getSex());
-        resultMap.put(PLACE_OF_BIRTH_KEY, result.getPlaceOfBirth());
-
-        Date dateOfBirth = result.getDateOfBirth();
-        if (dateOfBirth != null) {
-            resultMap.put(DATE_OF_BIRTH_KEY, mDateFormat.format(dateOfBirth));
-        }
-        Date dateOfIssue = result.getDateOfIssue();
-        if (dateOfIssue != null) {
-            resultMap.put(DATE_OF_ISSUE_KEY, mDateFormat.format(dateOfIssue));
-
-        }
-        Date dateOfExpiry = result.getDateOfExpiry();
-        if (dateOfExpiry != null) {
-            resultMap.put(DATE_OF_EXPIRY_KEY, mDateFormat.format(dateOfExpiry));
-
-        }
-
-        return resultMap;
-    }
-
-    private Map<String, String> buildAustrianIdBackResult(AustrianIDBackSideRecognitionResult result) {
-        Map<String, String> resultMap = buildMRTDResult(result);
-        resultMap.put(RESULT_TYPE_KEY, AUT_ID_BACK_RESULT_TYPE);
-
-        resultMap.put(PLACE_OF_BIRTH_KEY, result.getPlaceOfBirth());
-        resultMap.put(EYE_COLOR_KEY, result.getEyeColour());
-        resultMap.put(ISSUING_AUTHORITY_KEY, result.getIssuingAuthority());
-        resultMap.put(PRINCIPAL_RESIDENCE_AT_ISSUANCE_KEY, result.getPrincipalResidenceAtIssuance());
-        resultMap.put(HEIGHT_KEY, Integer.toString(result.getHeight()));
-
-        Date dateOfIssue = result.getDateOfIssuance();
-        if (dateOfIssue != null) {
-            resultMap.put(DATE_OF_ISSUE_KEY, mDateFormat.format(dateOfIssue));
-
-        }
-
-        return resultMap;
-    }
-
-    private Map<String, String> buildAustrianIdFrontResult(AustrianIDFrontSideRecognitionResult result) {
-        Map<String, String> resultMap = new HashMap<>();
-
-        resultMap.put(RESULT_TYPE_KEY, AUT_ID_FRONT_RESULT_TYPE);
-
-        resultMap.put(FIRST_NAME_KEY, result.getFirstName());
-        resultMap.put(LAST_NAME_KEY, result.getLastName());
-        resultMap.put(DOCUMENT_NUMBER_KEY, result.getIdentityCardNumber());
-        resultMap.put(SEX_KEY, result.getSex());
-
-        Date dateOfBirth = result.getDateOfBirth();
-        if (dateOfBirth != null) {
-            resultMap.put(DATE_OF_BIRTH_KEY, mDateFormat.format(dateOfBirth));
-        }
-
-        return resultMap;
-    }
-
-    private Map<String,String> buildCroIdFrontResult(CroatianIDFrontSideRecognitionResult result) {
-        Map<String, String> resultMap = new HashMap<>();
-        resultMap.put(RESULT_TYPE_KEY, CRO_ID_FRONT_RESULT_TYPE);
-
-        resultMap.put(FIRST_NAME_KEY, result.getFirstName());
-        resultMap.put(LAST_NAME_KEY, result.getLastName());
-        resultMap.put(DOCUMENT_NUMBER_KEY, result.getIdentityCardNumber());
-        resultMap.put(SEX_KEY, result.getSex());
-        resultMap.put(CITIZENSHIP_KEY, result.getCitizenship());
-        Date dateOfBirth = result.getDateOfBirth();
-        if (dateOfBirth != null) {
-            resultMap.put(DATE_OF_BIRTH_KEY, mDateFormat.format(dateOfBirth));
-        }
-        Date dateOfExpiry = result.getDocumentDateOfExpiry();
-        if (dateOfExpiry != null) {
-            resultMap.put(DATE_OF_EXPIRY_KEY, mDateFormat.format(dateOfExpiry));
-
-        }
-
-        return resultMap;
-    }
-
-    private Map<String,String> buildCroIdBackResult(CroatianIDBackSideRecognitionResult result) {
-        Map<String, String> resultMap = buildMRTDResult(result);
-        resultMap.put(RESULT_TYPE_KEY, CRO_ID_BACK_RESULT_TYPE);
-        resultMap.put(ADDRESS_KEY, result.getAddress());
-        resultMap.put(ISSUING_AUTHORITY_KEY, result.getIssuingAuthority());
-        Date dateOfIssue = result.getDocumentDateOfIssue();
-        if (dateOfIssue != null) {
-            resultMap.put(DATE_OF_ISSUE_KEY, mDateFormat.format(dateOfIssue));
-
-        }
-
-        return resultMap;
-    }
-
-    private Map<String, String> buildGermanIdFrontResult(GermanIDFrontSideRecognitionResult result) {
-        Map<String, String> resultMap = new HashMap<>();
-        resultMap.put(RESULT_TYPE_KEY, DE_ID_FRONT_RESULT_TYPE);
-
-        resultMap.put(FIRST_NAME_KEY, result.getFirstName());
-        resultMap.put(LAST_NAME_KEY, result.getLastName());
-        resultMap.put(NATIONALITY_KEY, result.getNationality());
-        resultMap.put(PLACE_OF_BIRTH_KEY, result.getPlaceOfBirth());
-        Date dateOfBirth = result.getDateOfBirth();
-        if (dateOfBirth != null) {
-            resultMap.put(DATE_OF_BIRTH_KEY, mDateFormat.format(dateOfBirth));
-        }
-        resultMap.put(DOCUMENT_NUMBER_KEY, result.getIdentityCardNumber());
-        Date dateOfExpiry = result.getDateOfExpiry();
-        if (dateOfExpiry != null) {
-            resultMap.put(DATE_OF_EXPIRY_KEY, mDateFormat.format(dateOfExpiry));
-
-        }
-
-        return resultMap;
-    }
-
-    private Map<String,String> buildGermanIdMRZSideResult(GermanIDMRZSideRecognitionResult result) {
-        Map<String, String> resultMap = buildMRTDResult(result);
-        resultMap.put(RESULT_TYPE_KEY, DE_ID_MRZ_SIDE_RESULT_TYPE);
-
-        String address = result.getAddress();
-        if (address != null && !address.isEmpty()) {
-            resultMap.put(ADDRESS_KEY, address);
-        }
-
-        String authority = result.getAuthority();
-        if (authority != null && !authority.isEmpty()) {
-            resultMap.put(AUTHORITY_KEY, authority);
-        }
-
-        Date dateOfIssue = result.getDateOfIssue();
-        if (dateOfIssue != null) {
-            resultMap.put(DATE_OF_ISSUE_KEY, mDateFormat.format(dateOfIssue));
-        }
-
-        String eyeColor = result.getEyeColour();
-        if (eyeColor != null && !eyeColor.isEmpty()) {
-            resultMap.put(EYE_COLOR_KEY, eyeColor);
-        }
-
-        int height = result.getHeight();
-        if (height != 0) {
-            resultMap.put(HEIGHT_KEY, Integer.toString(height) + " cm");
-        }
-
-        return resultMap;
-    }
-
-    private Map<String, String> buildSerbianIdFrontResult(SerbianIDFrontSideRecognitionResult result) {
-        Map<String, String> resultMap = new HashMap<>();
-        resultMap.put(RESULT_TYPE_KEY, SRB_ID_FRONT_RESULT_TYPE);
-
-        Date dateOfIssue = result.getIssuingDate();
-        if (dateOfIssue != null) {
-            resultMap.put(DATE_OF_ISSUE_KEY, mDateFormat.format(dateOfIssue));
-
-        }
-        Date dateOfExpiry = result.getValidUntil();
-        if (dateOfExpiry != null) {
-            resultMap.put(DATE_OF_EXPIRY_KEY, mDateFormat.format(dateOfExpiry));
-
-        }
-        resultMap.put(DOCUMENT_NUMBER_KEY, result.getDocumentNumber());
-
-        return resultMap;
-    }
-
-    private Map<String,String> buildSerbianIdBackResult(SerbianIDBackSideRecognitionResult result) {
-        Map<String, String> resultMap = buildMRTDResult(result);
-        resultMap.put(RESULT_TYPE_KEY, SRB_ID_BACK_RESULT_TYPE);
-
-        return resultMap;
-    }
-
-    private Map<String, String> buildSlovakIdFrontResult(SlovakIDFrontSideRecognitionResult result) {
-        Map<String, String> resultMap = new HashMap<>();
-        resultMap.put(RESULT_TYPE_KEY, SVK_ID_FRONT_RESULT_TYPE);
-
-        resultMap.put(FIRST_NAME_KEY, result.getFirstName());
-        resultMap.put(LAST_NAME_KEY, result.getLastName());
-        resultMap.put(NATIONALITY_KEY, result.getNationality());
-        resultMap.put(SEX_KEY, result.getSex());
-        resultMap.put(DOCUMENT_NUMBER_KEY, result.getIdentityCardNumber());
-        resultMap.put(ISSUING_AUTHORITY_KEY, result.getIssuingAuthority());
-        Date dateOfBirth = result.getDateOfBirth();
-        if (dateOfBirth != null) {
-            resultMap.put(DATE_OF_BIRTH_KEY, mDateFormat.format(dateOfBirth));
-        }
-        resultMap.put(PERSONAL_NUMBER_KEY, result.getPersonalNumber());
-        Date dateOfExpiry = result.getDateOfExpiry();
-        if (dateOfExpiry != null) {
-            resultMap.put(DATE_OF_EXPIRY_KEY, mDateFormat.format(dateOfExpiry));
-        }
-        Date dateOfIssue = result.getDateOfIssue();
-        if (dateOfIssue != null) {
-            resultMap.put(DATE_OF_ISSUE_KEY, mDateFormat.format(dateOfIssue));
-        }
-
-        return resultMap;
-    }
-
-    private Map<String,String> buildSlovakIdBackResult(SlovakIDBackSideRecognitionResult result) {
-        Map<String, String> resultMap = buildMRTDResult(result);
-        resultMap.put(RESULT_TYPE_KEY, SVK_ID_BACK_RESULT_TYPE);
-
-        resultMap.put(ADDRESS_KEY, result.getAddress());
-        resultMap.put(SURNAME_AT_BIRTH_KEY, result.getSurnameAtBirth());
-        resultMap.put(PLACE_OF_BIRTH_KEY, result.getPlaceOfBirth());
-        resultMap.put(SPECIAL_REMARKS_KEY, result.getSpecialRemarks());
-
-        return resultMap;
-    }
-
-    private Map<String, String> buildSlovenianIdFrontResult(SlovenianIDFrontSideRecognitionResult result) {
-        Map<String, String> resultMap = new HashMap<>();
-        resultMap.put(RESULT_TYPE_KEY, SVN_ID_FRONT_RESULT_TYPE);
-
-        resultMap.put(FIRST_NAME_KEY, result.getFirstName());
-        resultMap.put(LAST_NAME_KEY, result.getLastName());
-        resultMap.put(SEX_KEY, result.getSex());
-        resultMap.put(NATIONALITY_KEY, result.getNationality());
-        Date dateOfBirth = result.getDateOfBirth();
-        if (dateOfBirth != null) {
-            resultMap.put(DATE_OF_BIRTH_KEY, mDateFormat.format(dateOfBirth));
-
-        }
-        Date dateOfExpiry = result.getDateOfExpiry();
-        if (dateOfExpiry != null) {
-            resultMap.put(DATE_OF_EXPIRY_KEY, mDateFormat.format(dateOfExpiry));
-        }
-
-        return resultMap;
-    }
-
-    private Map<String,String> buildSlovenianIdBackResult(SlovenianIDBackSideRecognitionResult result) {
-        Map<String, String> resultMap = buildMRTDResult(result);
-        resultMap.put(RESULT_TYPE_KEY, SVN_ID_BACK_RESULT_TYPE);
-
-        resultMap.put(ADDRESS_KEY, result.getAddress());
-        resultMap.put(AUTHORITY_KEY, result.getAuthority());
-        Date dateOfIssue = result.getDateOfIssue();
-        if (dateOfIssue != null) {
-            resultMap.put(DATE_OF_ISSUE_KEY, mDateFormat.format(dateOfIssue));
-        }
-
-        return resultMap;
-    }
-
-    private Map<String,String> buildSingaporeIdResult(SingaporeIDRecognitionResult result) {
-        Map<String, String> resultMap = new HashMap<>();
-
-        SingaporeIDRecognitionResult.SingaporeIDClassification classification =  result.getDocumentClassification();
-        if (classification == SingaporeIDRecognitionResult.SingaporeIDClassification.BACK_SIDE) {
-            resultMap.put(RESULT_TYPE_KEY, SINGAPORE_ID_BACK_RESULT_TYPE);
-
-            resultMap.put(BLOOD_GROUP_KEY, result.getBloodGroup());
-            Date dateOfIssue = result.getDocumentDateOfIssue();
-            if (dateOfIssue != null) {
-                resultMap.put(DATE_OF_ISSUE_KEY, mDateFormat.format(dateOfIssue));
-            }
-            resultMap.put(ADDRESS_KEY, result.getAddress());
+    @Deprecated
+    public void onScanningDone(RecognitionResults results, @Nullable Image documentImage) {
+        ScanSession session = getDeliverySession();
+        if (session != null) {
+            session.onScanningDone(results, documentImage);
         } else {
-            resultMap.put(RESULT_TYPE_KEY, SINGAPORE_ID_FRONT_RESULT_TYPE);
-
-            resultMap.put(DOCUMENT_NUMBER_KEY, result.getCardNumber());
-            resultMap.put(FULL_NAME_KEY, result.getName());
-            resultMap.put(RACE_KEY, result.getRace());
-            Date dateOfBirth = result.getDateOfBirth();
-            if (dateOfBirth != null) {
-                resultMap.put(DATE_OF_BIRTH_KEY, mDateFormat.format(dateOfBirth));
+            Log.w(this, "Scanning done without started scan or result listener, results are dropped");
+            if (documentImage != null) {
+                NativeImageTracker.dispose(documentImage);
             }
-            resultMap.put(SEX_KEY, result.getSex());
-            resultMap.put(COUNTRY_OF_BIRTH_KEY, result.getCountryOfBirth());
-        }
-
-        return resultMap;
-    }
-
-    private Map<String, String> buildOcrResult(BlinkOCRRecognitionResult result) {
-        Map<String, String> resultMap = new HashMap<>();
-        resultMap.put(RESULT_TYPE_KEY, OCR_RESULT_TYPE);
-
-        for (String parserId: mParserIdentifiers) {
-            String parserRes = result.getParsedResult(parserId);
-            if (parserRes != null && !parserRes.isEmpty()) {
-                resultMap.put(parserId, parserRes);
-            }
-        }
-
-        return resultMap;
-    }
-
-    private Map<String,String> buildIdCardDetectorResult(DetectorRecognitionResult result) {
-        Map<String, String> resultMap = new HashMap<>();
-        resultMap.put(RESULT_TYPE_KEY, ID_CARD_DETECTOR_RESULT_TYPE);
-
-        return resultMap;
-    }
-
-
-    private Map<String, String> buildKeyValueResult(BaseRecognitionResult res, String resultType) {
-        Map<String, String> resultMap = new HashMap<>();
-        IResultHolder resultHolder = res.getResultHolder();
-        for (String key : resultHolder.keySet()) {
-            if (key.equals(PAYMENT_DATA_KEY)) {
-                continue;
-            }
-            Object value = resultHolder.getObject(key);
-            if (value instanceof String) {
-                resultMap.put(key, (String) value);
-            } else {
-                Log.d(LOG_TAG, "Ignoring non string key '" + key + "'");
-            }
-        }
-        resultMap.put(RESULT_TYPE_KEY, resultType);
-        return resultMap;
-    }
-
-    private String byteArrayToHex(byte[] data) {
-        StringBuilder sb = new StringBuilder();
-        for (byte b : data) {
-            sb.append(String.format("%02x", b));
         }
-        return sb.toString();
     }
 
 }
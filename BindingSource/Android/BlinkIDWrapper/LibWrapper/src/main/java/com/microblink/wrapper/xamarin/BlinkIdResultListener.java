@@ -4,6 +4,11 @@ import android.graphics.Bitmap;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
+import com.microblink.recognizers.BaseRecognitionResult;
+import com.microblink.wrapper.xamarin.image.BitmapPool;
+import com.microblink.wrapper.xamarin.result.RecognitionResultConverter;
+import com.microblink.wrapper.xamarin.scan.ScanStats;
+
 import java.util.List;
 import java.util.Map;
 
@@ -15,11 +20,52 @@ import java.util.Map;
  *
  */
 public abstract class BlinkIdResultListener {
+    /**
+     * This method is called before results are converted to maps. Listener that serializes
+     * results can write them directly with given converter, for example with
+     * {@link RecognitionResultConverter#writeJson(BaseRecognitionResult[], java.io.OutputStream)},
+     * and return {@code true} to skip building of result maps and the
+     * {@link #onResultsAvailable(List)} call. Default implementation returns {@code false}.
+     * @param results Non-empty array of recognition results.
+     * @param converter Converter that produces the same fields as result maps, including
+     *                  {@link BlinkID#REPEATED_SCAN_KEY} for repeated results.
+     * @return {@code true} if results were consumed by this method.
+     */
+    public boolean onRecognitionResultsAvailable(@NonNull BaseRecognitionResult[] results,
+                                                 @NonNull RecognitionResultConverter converter) {
+        return false;
+    }
+
+    /**
+     * This method is called instead of
+     * {@link #onRecognitionResultsAvailable(BaseRecognitionResult[], RecognitionResultConverter)}
+     * when both sides of the document were scanned, see
+     * {@link BlinkIdScanSettings#setTwoSidedScanning(boolean)}. Unlike the merged result map
+     * delivered to {@link #onResultsAvailable(List)}, results of the sides are not merged, so
+     * listener knows from which side each result comes. Default implementation passes results
+     * of both sides, front side first, to
+     * {@link #onRecognitionResultsAvailable(BaseRecognitionResult[], RecognitionResultConverter)}.
+     * @param frontSideResults Recognition results of the front side, may be empty.
+     * @param backSideResults Recognition results of the back side, may be empty.
+     * @param converter Converter that produces the same fields as result maps.
+     * @return {@code true} if results were consumed by this method.
+     */
+    public boolean onTwoSidedRecognitionResultsAvailable(@NonNull BaseRecognitionResult[] frontSideResults,
+                                                         @NonNull BaseRecognitionResult[] backSideResults,
+                                                         @NonNull RecognitionResultConverter converter) {
+        BaseRecognitionResult[] results = new BaseRecognitionResult[frontSideResults.length + backSideResults.length];
+        System.arraycopy(frontSideResults, 0, results, 0, frontSideResults.length);
+        System.arraycopy(backSideResults, 0, results, frontSideResults.length, backSideResults.length);
+        return onRecognitionResultsAvailable(results, converter);
+    }
+
     /**
      * This method is called when recognition is done and results are available.
      * @param results List of recognition results, or {@code null} if nothing was scanned.
      *                Each list element is a map that contains result from one successful
      *                recognizer whose type is stored under {@link BlinkID#RESULT_TYPE_KEY} key.
+     *                Results of a two-sided scan are merged into a single map, see
+     *                {@link BlinkID#BACK_SIDE_RESULT_TYPE_KEY}.
      */
     public abstract void onResultsAvailable(@Nullable List<Map<String, String>> results);
 
@@ -28,4 +74,48 @@ public abstract class BlinkIdResultListener {
      * @param image Image of the scanned document.
      */
     public abstract void onDocumentImageAvailable(@NonNull Bitmap image);
+
+    /**
+     * This method is called instead of {@link #onDocumentImageAvailable(Bitmap)} when
+     * document image store is defined with {@link BlinkID#setDocumentImageStore}. Image is
+     * encoded to the store in background and can be obtained with
+     * {@link com.microblink.wrapper.xamarin.image.DocumentImageStore#get(String)}.
+     * @param scanId Id under which the image of the scanned document is stored.
+     */
+    public void onDocumentImageStored(@NonNull String scanId) {
+    }
+
+    /**
+     * Returns the document image obtained in {@link #onDocumentImageAvailable(Bitmap)} to the
+     * shared bitmap pool, so the next scan can reuse its memory. Image must not be used after
+     * this call.
+     * @param image Image of the scanned document.
+     */
+    public void releaseDocumentImage(@NonNull Bitmap image) {
+        BitmapPool.getShared().put(image);
+    }
+
+    /**
+     * This method is called instead of delivering results when result deduplicator defined with
+     * {@link BlinkID#setResultDeduplicator} skipped results of a document that was scanned again
+     * within its window.
+     */
+    public void onRepeatedResultsSkipped() {
+    }
+
+    /**
+     * This method is called when result validator defined with
+     * {@link BlinkIdScanSettings#setResultValidator} rejected results of a scan. Results are
+     * not delivered and scanning continues in the same session.
+     */
+    public void onResultsRejected() {
+    }
+
+    /**
+     * This method is called after results of a scan were delivered. Statistics of several
+     * sessions can be aggregated with {@link ScanStats#add(ScanStats)}.
+     * @param scanStats Frame, detection and conversion counters of the scan.
+     */
+    public void onScanStatsAvailable(@NonNull ScanStats scanStats) {
+    }
 }
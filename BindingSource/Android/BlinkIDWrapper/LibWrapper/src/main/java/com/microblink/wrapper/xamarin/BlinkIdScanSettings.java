@@ -3,48 +3,18 @@ package com.microblink.wrapper.xamarin;
 import android.content.Context;
 import android.support.annotation.Nullable;
 
-import com.microblink.detectors.document.DocumentDetectorSettings;
-import com.microblink.detectors.document.DocumentSpecification;
-import com.microblink.detectors.document.DocumentSpecificationPreset;
 import com.microblink.hardware.camera.CameraType;
-import com.microblink.recognizers.blinkbarcode.bardecoder.BarDecoderRecognizerSettings;
-import com.microblink.recognizers.blinkbarcode.pdf417.Pdf417RecognizerSettings;
-import com.microblink.recognizers.blinkbarcode.usdl.USDLRecognizerSettings;
-import com.microblink.recognizers.blinkbarcode.zxing.ZXingRecognizerSettings;
-import com.microblink.recognizers.blinkid.austria.back.AustrianIDBackSideRecognizerSettings;
-import com.microblink.recognizers.blinkid.austria.front.AustrianIDFrontSideRecognizerSettings;
-import com.microblink.recognizers.blinkid.croatia.back.CroatianIDBackSideRecognizerSettings;
-import com.microblink.recognizers.blinkid.croatia.front.CroatianIDFrontSideRecognizerSettings;
-import com.microblink.recognizers.blinkid.czechia.back.CzechIDBackSideRecognizerSettings;
-import com.microblink.recognizers.blinkid.czechia.front.CzechIDFrontSideRecognizerSettings;
-import com.microblink.recognizers.blinkid.eudl.EUDLCountry;
-import com.microblink.recognizers.blinkid.eudl.EUDLRecognizerSettings;
-import com.microblink.recognizers.blinkid.germany.front.GermanIDFrontSideRecognizerSettings;
-import com.microblink.recognizers.blinkid.germany.mrz.GermanIDMRZSideRecognizerSettings;
-import com.microblink.recognizers.blinkid.malaysia.IKadRecognizerSettings;
-import com.microblink.recognizers.blinkid.malaysia.MyKadRecognizerSettings;
-import com.microblink.recognizers.blinkid.mrtd.MRTDRecognizerSettings;
-import com.microblink.recognizers.blinkid.serbia.back.SerbianIDBackSideRecognizerSettings;
-import com.microblink.recognizers.blinkid.serbia.front.SerbianIDFrontSideRecognizerSettings;
-import com.microblink.recognizers.blinkid.singapore.SingaporeIDRecognizerSettings;
-import com.microblink.recognizers.blinkid.slovakia.back.SlovakIDBackSideRecognizerSettings;
-import com.microblink.recognizers.blinkid.slovakia.front.SlovakIDFrontSideRecognizerSettings;
-import com.microblink.recognizers.blinkid.slovenia.back.SlovenianIDBackSideRecognizerSettings;
-import com.microblink.recognizers.blinkid.slovenia.front.SlovenianIDFrontSideRecognizerSettings;
-import com.microblink.recognizers.blinkocr.BlinkOCRRecognizerSettings;
 import com.microblink.recognizers.blinkocr.parser.OcrParserSettings;
-import com.microblink.recognizers.blinkocr.parser.generic.AmountParserSettings;
-import com.microblink.recognizers.blinkocr.parser.generic.DateParserSettings;
-import com.microblink.recognizers.blinkocr.parser.generic.EMailParserSettings;
-import com.microblink.recognizers.blinkocr.parser.generic.IbanParserSettings;
-import com.microblink.recognizers.blinkocr.parser.generic.RawParserSettings;
-import com.microblink.recognizers.blinkocr.parser.licenseplates.LicensePlatesParserSettings;
-import com.microblink.recognizers.blinkocr.parser.mobilecoupons.MobileCouponsParserSettings;
-import com.microblink.recognizers.blinkocr.parser.regex.RegexParserSettings;
-import com.microblink.recognizers.blinkocr.parser.vin.VinParserSettings;
-import com.microblink.recognizers.detector.DetectorRecognizerSettings;
 import com.microblink.recognizers.settings.RecognizerSettings;
 import com.microblink.util.RecognizerCompatibility;
+import com.microblink.wrapper.xamarin.recognizer.BarcodeRecognizers;
+import com.microblink.wrapper.xamarin.recognizer.DetectorRecognizers;
+import com.microblink.wrapper.xamarin.recognizer.DriverLicenseRecognizers;
+import com.microblink.wrapper.xamarin.recognizer.MrtdRecognizers;
+import com.microblink.wrapper.xamarin.recognizer.NationalIdRecognizers;
+import com.microblink.wrapper.xamarin.recognizer.OcrRecognizers;
+import com.microblink.wrapper.xamarin.recognizer.RecognizerFamily;
+import com.microblink.wrapper.xamarin.result.ResultValidator;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -59,10 +29,6 @@ import java.util.Set;
  */
 public class BlinkIdScanSettings {
 
-    private static final String EUDL_FULL_DOCUMENT_IMAGE_NAME = "EUDL";
-    private static final String MRTD_FULL_DOCUMENT_IMAGE_NAME = "MRTD";
-    private static final String ID_CARD_DETECTOR_IMAGE_NAME = "DocumentDetector/IDCard";
-
     private ArrayList<RecognizerSettings> mRecognizers;
     private Map<String, OcrParserSettings> mParsers;
     private DeviceCameraType mCameraType;
@@ -70,6 +36,9 @@ public class BlinkIdScanSettings {
     private Set<String> mAcceptedImageNames;
 
     private boolean mAllowMultipleScanResultsOnSingleImage;
+    private CaptureProfile mCaptureProfile;
+    private ResultValidator mResultValidator;
+    private boolean mTwoSidedScanning;
 
     /**
      * Settings constructor that accepts camera type that will be used as argument.
@@ -126,6 +95,77 @@ public class BlinkIdScanSettings {
         return mAllowMultipleScanResultsOnSingleImage;
     }
 
+    /**
+     * Defines the camera capture profile. If profile is not defined, it is chosen from enabled
+     * recognizers and parsers, see {@link #getCaptureProfile()}.
+     * @param captureProfile Capture profile, or {@code null} to choose it from enabled recognizers.
+     */
+    public void setCaptureProfile(@Nullable CaptureProfile captureProfile) {
+        mCaptureProfile = captureProfile;
+    }
+
+    /**
+     * Returns the camera capture profile. If profile was not defined, {@link CaptureProfile#BARCODE}
+     * is returned when only barcode recognizers are enabled, {@link CaptureProfile#TEXT} when OCR
+     * parsers are enabled and {@link CaptureProfile#DOCUMENT} otherwise.
+     * @return Capture profile that will be used.
+     */
+    public CaptureProfile getCaptureProfile() {
+        if (mCaptureProfile != null) {
+            return mCaptureProfile;
+        }
+        if (!mParsers.isEmpty()) {
+            return CaptureProfile.TEXT;
+        }
+        for (RecognizerSettings recognizer : mRecognizers) {
+            if (!RecognizerFamily.isBarcodeClass(recognizer.getClass())) {
+                return CaptureProfile.DOCUMENT;
+            }
+        }
+        return mRecognizers.isEmpty() ? CaptureProfile.DOCUMENT : CaptureProfile.BARCODE;
+    }
+
+    /**
+     * Defines the validator that is run on results before the scan is finished. If validator
+     * rejects any result, results are not delivered and scanning continues, e.g. after a wrong
+     * MRZ check digit was read. Built-in validators are available in
+     * {@link com.microblink.wrapper.xamarin.result.ResultValidators}. Only built-in validators
+     * are restored together with the scan after process death.
+     * @param resultValidator Result validator, or {@code null} to accept all results.
+     */
+    public void setResultValidator(@Nullable ResultValidator resultValidator) {
+        mResultValidator = resultValidator;
+    }
+
+    @Nullable
+    ResultValidator getResultValidator() {
+        return mResultValidator;
+    }
+
+    /**
+     * Enables guided scanning of both sides of an ID card in a single scan. Front side
+     * recognizers and parsers are active first. After the front side is scanned, camera keeps
+     * running and back side recognizers, e.g. {@link #addRecognizerCroatianIdBack()} or
+     * {@link #addRecognizerGermanIdMrzSide()}, are activated. Results of both sides are
+     * delivered as one merged result whose back side result type is stored under
+     * {@link BlinkID#BACK_SIDE_RESULT_TYPE_KEY}, followed by images of both sides. Streaming
+     * listeners receive results of both sides separately, see
+     * {@link BlinkIdResultListener#onTwoSidedRecognitionResultsAvailable}. Has no effect if
+     * recognizers of only one side are added.
+     * @param twoSidedScanning Whether front and back side are scanned one after another.
+     */
+    public void setTwoSidedScanning(boolean twoSidedScanning) {
+        mTwoSidedScanning = twoSidedScanning;
+    }
+
+    /**
+     * @return {@code true} if both sides of the ID card are scanned one after another, see
+     *         {@link #setTwoSidedScanning(boolean)}.
+     */
+    public boolean isTwoSidedScanning() {
+        return mTwoSidedScanning;
+    }
+
     /**
      * Adds recognizer for back side of the Austrian ID card if it is supported on current device
      * and chosen camera type.
@@ -133,9 +173,7 @@ public class BlinkIdScanSettings {
      * camera type, {@code false} otherwise.
      */
     public boolean addRecognizerAustrianIdBack() {
-        AustrianIDBackSideRecognizerSettings ausIdBack = new AustrianIDBackSideRecognizerSettings();
-        ausIdBack.setDisplayFullDocumentImage(true);
-        return addRecognizer(ausIdBack, AustrianIDBackSideRecognizerSettings.FULL_DOCUMENT_IMAGE);
+        return addRecognizer(NationalIdRecognizers.createAustrianIdBack(), NationalIdRecognizers.AUSTRIAN_ID_BACK_IMAGE_NAME);
     }
 
     /**
@@ -145,9 +183,7 @@ public class BlinkIdScanSettings {
      * camera type, {@code false} otherwise.
      */
     public boolean addRecognizerAustrianIdFront() {
-        AustrianIDFrontSideRecognizerSettings ausIdFront = new AustrianIDFrontSideRecognizerSettings();
-        ausIdFront.setDisplayFullDocumentImage(true);
-        return addRecognizer(ausIdFront, AustrianIDFrontSideRecognizerSettings.FULL_DOCUMENT_IMAGE);
+        return addRecognizer(NationalIdRecognizers.createAustrianIdFront(), NationalIdRecognizers.AUSTRIAN_ID_FRONT_IMAGE_NAME);
     }
 
     /**
@@ -157,9 +193,7 @@ public class BlinkIdScanSettings {
      * camera type, {@code false} otherwise.
      */
     public boolean addRecognizerCroatianIdBack() {
-        CroatianIDBackSideRecognizerSettings croIdBack = new CroatianIDBackSideRecognizerSettings();
-        croIdBack.setDisplayFullDocumentImage(true);
-        return addRecognizer(croIdBack, CroatianIDBackSideRecognizerSettings.FULL_DOCUMENT_IMAGE);
+        return addRecognizer(NationalIdRecognizers.createCroatianIdBack(), NationalIdRecognizers.CROATIAN_ID_BACK_IMAGE_NAME);
     }
 
     /**
@@ -169,9 +203,7 @@ public class BlinkIdScanSettings {
      * camera type, {@code false} otherwise.
      */
     public boolean addRecognizerCroatianIdFront() {
-        CroatianIDFrontSideRecognizerSettings croIdFront = new CroatianIDFrontSideRecognizerSettings();
-        croIdFront.setDisplayFullDocumentImage(true);
-        return addRecognizer(croIdFront, CroatianIDFrontSideRecognizerSettings.FULL_DOCUMENT_IMAGE);
+        return addRecognizer(NationalIdRecognizers.createCroatianIdFront(), NationalIdRecognizers.CROATIAN_ID_FRONT_IMAGE_NAME);
     }
 
     /**
@@ -181,9 +213,7 @@ public class BlinkIdScanSettings {
      * camera type, {@code false} otherwise.
      */
     public boolean addRecognizerCzechIdBack() {
-        CzechIDBackSideRecognizerSettings czIdBack = new CzechIDBackSideRecognizerSettings();
-        czIdBack.setDisplayFullDocumentImage(true);
-        return addRecognizer(czIdBack, CzechIDBackSideRecognizerSettings.FULL_DOCUMENT_IMAGE);
+        return addRecognizer(NationalIdRecognizers.createCzechIdBack(), NationalIdRecognizers.CZECH_ID_BACK_IMAGE_NAME);
     }
 
     /**
@@ -193,9 +223,7 @@ public class BlinkIdScanSettings {
      * camera type, {@code false} otherwise.
      */
     public boolean addRecognizerCzechIdFront() {
-        CzechIDFrontSideRecognizerSettings czIdFront = new CzechIDFrontSideRecognizerSettings();
-        czIdFront.setDisplayFullDocumentImage(true);
-        return addRecognizer(czIdFront, CzechIDFrontSideRecognizerSettings.FULL_DOCUMENT_IMAGE);
+        return addRecognizer(NationalIdRecognizers.createCzechIdFront(), NationalIdRecognizers.CZECH_ID_FRONT_IMAGE_NAME);
     }
 
     /**
@@ -205,9 +233,7 @@ public class BlinkIdScanSettings {
      * camera type, {@code false} otherwise.
      */
     public boolean addRecognizerGermanIdFront() {
-        GermanIDFrontSideRecognizerSettings deIdFront = new GermanIDFrontSideRecognizerSettings();
-        deIdFront.setDisplayFullDocumentImage(true);
-        return addRecognizer(deIdFront, GermanIDFrontSideRecognizerSettings.FULL_DOCUMENT_IMAGE);
+        return addRecognizer(NationalIdRecognizers.createGermanIdFront(), NationalIdRecognizers.GERMAN_ID_FRONT_IMAGE_NAME);
     }
 
     /**
@@ -218,9 +244,7 @@ public class BlinkIdScanSettings {
      * camera type, {@code false} otherwise.
      */
     public boolean addRecognizerGermanIdMrzSide() {
-        GermanIDMRZSideRecognizerSettings deIdMrz = new GermanIDMRZSideRecognizerSettings();
-        deIdMrz.setDisplayFullDocumentImage(true);
-        return addRecognizer(deIdMrz, GermanIDMRZSideRecognizerSettings.FULL_DOCUMENT_IMAGE);
+        return addRecognizer(NationalIdRecognizers.createGermanIdMrzSide(), NationalIdRecognizers.GERMAN_ID_MRZ_IMAGE_NAME);
     }
 
     /**
@@ -230,9 +254,7 @@ public class BlinkIdScanSettings {
      * camera type, {@code false} otherwise.
      */
     public boolean addRecognizerSerbianIdBack() {
-        SerbianIDBackSideRecognizerSettings srbIdBack = new SerbianIDBackSideRecognizerSettings();
-        srbIdBack.setDisplayFullDocumentImage(true);
-        return addRecognizer(srbIdBack, SerbianIDBackSideRecognizerSettings.FULL_DOCUMENT_IMAGE);
+        return addRecognizer(NationalIdRecognizers.createSerbianIdBack(), NationalIdRecognizers.SERBIAN_ID_BACK_IMAGE_NAME);
     }
 
     /**
@@ -242,9 +264,7 @@ public class BlinkIdScanSettings {
      * camera type, {@code false} otherwise.
      */
     public boolean addRecognizerSerbianIdFront() {
-        SerbianIDFrontSideRecognizerSettings srbIdFront = new SerbianIDFrontSideRecognizerSettings();
-        srbIdFront.setReturnFullDocumentPhoto(true);
-        return addRecognizer(srbIdFront, SerbianIDFrontSideRecognizerSettings.FULL_DOCUMENT_IMAGE);
+        return addRecognizer(NationalIdRecognizers.createSerbianIdFront(), NationalIdRecognizers.SERBIAN_ID_FRONT_IMAGE_NAME);
     }
 
     /**
@@ -254,9 +274,7 @@ public class BlinkIdScanSettings {
      * camera type, {@code false} otherwise.
      */
     public boolean addRecognizerSlovakIdBack() {
-        SlovakIDBackSideRecognizerSettings svkIdBack = new SlovakIDBackSideRecognizerSettings();
-        svkIdBack.setDisplayFullDocumentImage(true);
-        return addRecognizer(svkIdBack, SlovakIDBackSideRecognizerSettings.FULL_DOCUMENT_IMAGE);
+        return addRecognizer(NationalIdRecognizers.createSlovakIdBack(), NationalIdRecognizers.SLOVAK_ID_BACK_IMAGE_NAME);
     }
 
     /**
@@ -266,9 +284,7 @@ public class BlinkIdScanSettings {
      * camera type, {@code false} otherwise.
      */
     public boolean addRecognizerSlovakIdFront() {
-        SlovakIDFrontSideRecognizerSettings svkIdFront = new SlovakIDFrontSideRecognizerSettings();
-        svkIdFront.setDisplayFullDocumentImage(true);
-        return addRecognizer(svkIdFront, SlovakIDFrontSideRecognizerSettings.FULL_DOCUMENT_IMAGE);
+        return addRecognizer(NationalIdRecognizers.createSlovakIdFront(), NationalIdRecognizers.SLOVAK_ID_FRONT_IMAGE_NAME);
     }
 
     /**
@@ -278,9 +294,7 @@ public class BlinkIdScanSettings {
      * camera type, {@code false} otherwise.
      */
     public boolean addRecognizerSlovenianIdBack() {
-        SlovenianIDBackSideRecognizerSettings svnIdBack = new SlovenianIDBackSideRecognizerSettings();
-        svnIdBack.setDisplayFullDocumentImage(true);
-        return addRecognizer(svnIdBack, SlovenianIDBackSideRecognizerSettings.FULL_DOCUMENT_IMAGE);
+        return addRecognizer(NationalIdRecognizers.createSlovenianIdBack(), NationalIdRecognizers.SLOVENIAN_ID_BACK_IMAGE_NAME);
     }
 
     /**
@@ -290,9 +304,7 @@ public class BlinkIdScanSettings {
      * camera type, {@code false} otherwise.
      */
     public boolean addRecognizerSlovenianIdFront() {
-        SlovenianIDFrontSideRecognizerSettings svnIdFront = new SlovenianIDFrontSideRecognizerSettings();
-        svnIdFront.setDisplayFullDocumentImage(true);
-        return addRecognizer(svnIdFront, SlovenianIDFrontSideRecognizerSettings.FULL_DOCUMENT_IMAGE);
+        return addRecognizer(NationalIdRecognizers.createSlovenianIdFront(), NationalIdRecognizers.SLOVENIAN_ID_FRONT_IMAGE_NAME);
     }
 
     /**
@@ -302,9 +314,7 @@ public class BlinkIdScanSettings {
      * camera type, {@code false} otherwise.
      */
     public boolean addRecognizerSingaporeId() {
-        SingaporeIDRecognizerSettings singaporeId = new SingaporeIDRecognizerSettings();
-        singaporeId.setDisplayFullDocumentImage(true);
-        return addRecognizer(singaporeId, SingaporeIDRecognizerSettings.FULL_DOCUMENT_IMAGE_NAME);
+        return addRecognizer(NationalIdRecognizers.createSingaporeId(), NationalIdRecognizers.SINGAPORE_ID_IMAGE_NAME);
     }
 
     /**
@@ -314,9 +324,7 @@ public class BlinkIdScanSettings {
      * camera type, {@code false} otherwise.
      */
     public boolean addRecognizerMyKad() {
-        MyKadRecognizerSettings myKad = new MyKadRecognizerSettings();
-        myKad.setShowFullDocument(true);
-        return addRecognizer(myKad, MyKadRecognizerSettings.FULL_DOCUMENT_IMAGE);
+        return addRecognizer(NationalIdRecognizers.createMyKad(), NationalIdRecognizers.MYKAD_IMAGE_NAME);
     }
 
     /**
@@ -326,9 +334,7 @@ public class BlinkIdScanSettings {
      * camera type, {@code false} otherwise.
      */
     public boolean addRecognizerIKad() {
-        IKadRecognizerSettings iKad = new IKadRecognizerSettings();
-        iKad.setShowFullDocumentImage(true);
-        return addRecognizer(iKad, IKadRecognizerSettings.FULL_DOCUMENT_IMAGE);
+        return addRecognizer(NationalIdRecognizers.createIKad(), NationalIdRecognizers.IKAD_IMAGE_NAME);
     }
 
     /**
@@ -338,9 +344,7 @@ public class BlinkIdScanSettings {
      * camera type, {@code false} otherwise.
      */
     public boolean addRecognizerMRTD() {
-        MRTDRecognizerSettings mrtd = new MRTDRecognizerSettings();
-        mrtd.setShowFullDocument(true);
-        return addRecognizer(mrtd, MRTD_FULL_DOCUMENT_IMAGE_NAME);
+        return addRecognizer(MrtdRecognizers.createMRTD(), MrtdRecognizers.MRTD_IMAGE_NAME);
     }
 
     /**
@@ -350,7 +354,7 @@ public class BlinkIdScanSettings {
      * camera type, {@code false} otherwise.
      */
     public boolean addRecognizerUSDL() {
-        return addRecognizer(new USDLRecognizerSettings());
+        return addRecognizer(DriverLicenseRecognizers.createUSDL());
     }
 
     /**
@@ -360,12 +364,7 @@ public class BlinkIdScanSettings {
      * camera type, {@code false} otherwise.
      */
     public boolean addRecognizerAustrianDL() {
-        // To specify we want to perform EUDL (EU Driver's License) recognition,
-        // prepare settings for EUDL recognizer. Pass country as parameter to EUDLRecognizerSettings
-        // constructor. Here we choose Austria.
-        EUDLRecognizerSettings ausDL = new EUDLRecognizerSettings(EUDLCountry.EUDL_COUNTRY_AUSTRIA);
-        ausDL.setShowFullDocument(true);
-        return addRecognizer(ausDL, EUDL_FULL_DOCUMENT_IMAGE_NAME);
+        return addRecognizer(DriverLicenseRecognizers.createAustrianDL(), DriverLicenseRecognizers.EUDL_IMAGE_NAME);
     }
 
     /**
@@ -375,12 +374,7 @@ public class BlinkIdScanSettings {
      * camera type, {@code false} otherwise.
      */
     public boolean addRecognizerUKDL() {
-        // To specify we want to perform EUDL (EU Driver's License) recognition,
-        // prepare settings for EUDL recognizer. Pass country as parameter to EUDLRecognizerSettings
-        // constructor. Here we choose UK.
-        EUDLRecognizerSettings ukDL =  new EUDLRecognizerSettings(EUDLCountry.EUDL_COUNTRY_UK);
-        ukDL.setShowFullDocument(true);
-        return addRecognizer(ukDL, EUDL_FULL_DOCUMENT_IMAGE_NAME);
+        return addRecognizer(DriverLicenseRecognizers.createUKDL(), DriverLicenseRecognizers.EUDL_IMAGE_NAME);
     }
 
     /**
@@ -390,12 +384,7 @@ public class BlinkIdScanSettings {
      * camera type, {@code false} otherwise.
      */
     public boolean addRecognizerDEDL() {
-        // To specify we want to perform EUDL (EU Driver's License) recognition,
-        // prepare settings for EUDL recognizer. Pass country as parameter to EUDLRecognizerSettings
-        // constructor. Here we choose Germany.
-        EUDLRecognizerSettings deDL =  new EUDLRecognizerSettings(EUDLCountry.EUDL_COUNTRY_GERMANY);
-        deDL.setShowFullDocument(true);
-        return addRecognizer(deDL, EUDL_FULL_DOCUMENT_IMAGE_NAME);
+        return addRecognizer(DriverLicenseRecognizers.createGermanDL(), DriverLicenseRecognizers.EUDL_IMAGE_NAME);
     }
 
     /**
@@ -406,9 +395,7 @@ public class BlinkIdScanSettings {
      * camera type, {@code false} otherwise.
      */
     public boolean addRecognizerEUDL() {
-        EUDLRecognizerSettings eudl = buildEUDLRecognizerSettings();
-        eudl.setShowFullDocument(true);
-        return addRecognizer(eudl, EUDL_FULL_DOCUMENT_IMAGE_NAME);
+        return addRecognizer(DriverLicenseRecognizers.createEUDL(), DriverLicenseRecognizers.EUDL_IMAGE_NAME);
     }
 
     /**
@@ -418,7 +405,7 @@ public class BlinkIdScanSettings {
      * camera type, {@code false} otherwise.
      */
     public boolean addRecognizerPdf417() {
-        return addRecognizer(buildPdf417RecognizerSettings());
+        return addRecognizer(BarcodeRecognizers.createPdf417());
     }
 
     /**
@@ -428,7 +415,7 @@ public class BlinkIdScanSettings {
      * with algorithms implemented by Microblink team. Enabled barcodes are: code 128 and code 39.
      */
     public boolean addRecognizerBarDecoder() {
-        return addRecognizer(buildBardecoderRecognizerSettings());
+        return addRecognizer(BarcodeRecognizers.createBardecoder());
     }
 
     /**
@@ -439,7 +426,7 @@ public class BlinkIdScanSettings {
      * camera type, {@code false} otherwise.
      */
     public boolean addRecognizerZxing() {
-        return addRecognizer(buildZxingRecognizerSettings());
+        return addRecognizer(BarcodeRecognizers.createZxing());
     }
 
     /**
@@ -451,7 +438,7 @@ public class BlinkIdScanSettings {
      *                 ocr parsers will be returned only if result from this parser is available.
      */
     public boolean addParserRaw(String uniqueIdentifier, boolean required) {
-        return addParser(uniqueIdentifier, new RawParserSettings(), required);
+        return addParser(uniqueIdentifier, OcrRecognizers.createRawParser(), required);
     }
 
     /**
@@ -463,7 +450,7 @@ public class BlinkIdScanSettings {
      *                 ocr parsers will be returned only if result from this parser is available.
      */
     public boolean addParserAmount(String uniqueIdentifier, boolean required) {
-        return addParser(uniqueIdentifier, new AmountParserSettings(), required);
+        return addParser(uniqueIdentifier, OcrRecognizers.createAmountParser(), required);
     }
 
     /**
@@ -475,7 +462,7 @@ public class BlinkIdScanSettings {
      *                 ocr parsers will be returned only if result from this parser is available.
      */
     public boolean addParserDate(String uniqueIdentifier, boolean required) {
-        return addParser(uniqueIdentifier, new DateParserSettings(), required);
+        return addParser(uniqueIdentifier, OcrRecognizers.createDateParser(), required);
     }
 
     /**
@@ -487,7 +474,7 @@ public class BlinkIdScanSettings {
      *                 ocr parsers will be returned only if result from this parser is available.
      */
     public boolean addParserEmail(String uniqueIdentifier, boolean required) {
-        return addParser(uniqueIdentifier, new EMailParserSettings(), required);
+        return addParser(uniqueIdentifier, OcrRecognizers.createEmailParser(), required);
     }
 
     /**
@@ -499,7 +486,7 @@ public class BlinkIdScanSettings {
      *                 ocr parsers will be returned only if result from this parser is available.
      */
     public boolean addParserIBAN(String uniqueIdentifier, boolean required) {
-        return addParser(uniqueIdentifier, new IbanParserSettings(), required);
+        return addParser(uniqueIdentifier, OcrRecognizers.createIbanParser(), required);
     }
 
     /**
@@ -511,7 +498,7 @@ public class BlinkIdScanSettings {
      *                 ocr parsers will be returned only if result from this parser is available.
      */
     public boolean addParserVIN(String uniqueIdentifier, boolean required) {
-        return addParser(uniqueIdentifier, new VinParserSettings(), required);
+        return addParser(uniqueIdentifier, OcrRecognizers.createVinParser(), required);
     }
 
     /**
@@ -523,7 +510,7 @@ public class BlinkIdScanSettings {
      *                 ocr parsers will be returned only if result from this parser is available.
      */
     public boolean addParserLicensePlates(String uniqueIdentifier, boolean required) {
-        return addParser(uniqueIdentifier, new LicensePlatesParserSettings(), required);
+        return addParser(uniqueIdentifier, OcrRecognizers.createLicensePlatesParser(), required);
     }
 
     /**
@@ -536,7 +523,7 @@ public class BlinkIdScanSettings {
      *                 ocr parsers will be returned only if result from this parser is available.
      */
     public boolean addParserRegex(String uniqueIdentifier, String regex, boolean required) {
-        return addParser(uniqueIdentifier, new RegexParserSettings(regex), required);
+        return addParser(uniqueIdentifier, OcrRecognizers.createRegexParser(regex), required);
     }
 
     /**
@@ -552,7 +539,7 @@ public class BlinkIdScanSettings {
      *                 ocr parsers will be returned only if result from this parser is available.
      */
     public boolean addParserMobileCoupons(String uniqueIdentifier, String prefixString, int USSDCodeLength, boolean required) {
-        return addParser(uniqueIdentifier, new MobileCouponsParserSettings(prefixString, USSDCodeLength), required);
+        return addParser(uniqueIdentifier, OcrRecognizers.createMobileCouponsParser(prefixString, USSDCodeLength), required);
     }
 
     /**
@@ -561,95 +548,7 @@ public class BlinkIdScanSettings {
      * camera type, {@code false} otherwise. Detector returns document image.
      */
     public boolean addDetectorIdCard() {
-        return addRecognizer(buildIdCardDetectorRecognizerSettings(), ID_CARD_DETECTOR_IMAGE_NAME);
-    }
-
-
-    /**
-     * Builds {@link DetectorRecognizerSettings} which define settings for detection of
-     * various document types, enabled document type is ID card.
-     */
-    private DetectorRecognizerSettings buildIdCardDetectorRecognizerSettings() {
-        DocumentSpecification idSpec = DocumentSpecification.createFromPreset(
-                DocumentSpecificationPreset.DOCUMENT_SPECIFICATION_PRESET_ID1_CARD);
-        DocumentDetectorSettings dds = new DocumentDetectorSettings( new DocumentSpecification[] {idSpec});
-        dds.setNumStableDetectionsThreshold(2);
-        return new DetectorRecognizerSettings(dds);
-    }
-
-    /**
-     * Builds {@link ZXingRecognizerSettings} which define settings for scanning various barcode
-     * types, enabled barcodes are: QR code, Aztec code, code 128, code 39, Data matrix, ean 13,
-     * ean 8, UPC A, UPC E
-     */
-    private ZXingRecognizerSettings buildZxingRecognizerSettings() {
-        // ZXingRecognizerSettings define settings for scanning various barcode types, by
-        // default all barcode types are disabled
-        ZXingRecognizerSettings zxingSettings = new ZXingRecognizerSettings();
-
-        // by default all barcode types are disabled
-        zxingSettings.setScanQRCode(true);
-        zxingSettings.setScanAztecCode(true);
-        zxingSettings.setScanCode128(true);
-        zxingSettings.setScanCode39(true);
-        zxingSettings.setScanDataMatrixCode(true);
-        zxingSettings.setScanEAN13Code(true);
-        zxingSettings.setScanEAN8Code(true);
-        zxingSettings.setScanITFCode(false);
-        zxingSettings.setScanUPCACode(true);
-        zxingSettings.setScanUPCECode(true);
-        // By setting this to true, you will enable scanning of barcodes with inverse
-        // intensity values (i.e. white barcodes on dark background). This option can
-        // significantly increase recognition time. Default is false
-        zxingSettings.setInverseScanning(false);
-        return zxingSettings;
-    }
-
-    /**
-     * Builds {@link BarDecoderRecognizerSettings} which define settings for scanning 1D barcodes
-     * with algorithms implemented by Microblink team. Enabled barcodes are: code 128 and code 39.
-     */
-    private BarDecoderRecognizerSettings buildBardecoderRecognizerSettings() {
-        // BarDecoderRecognizerSettings define settings for scanning 1D barcodes with algorithms
-        // implemented by Microblink team.
-        BarDecoderRecognizerSettings oneDimensionalRecognizerSettings = new BarDecoderRecognizerSettings();
-
-        oneDimensionalRecognizerSettings.setScanCode128(true);
-        oneDimensionalRecognizerSettings.setScanCode39(true);
-        // By setting this to true, you will enable scanning of barcodes with inverse
-        // intensity values (i.e. white barcodes on dark background). This option can
-        // significantly increase recognition time. Default is false
-        oneDimensionalRecognizerSettings.setInverseScanning(false);
-        return oneDimensionalRecognizerSettings;
-    }
-
-
-    /**
-     * Builds {@link EUDLRecognizerSettings} which define settings for scanning
-     * EUDL (EU Driver's License). Enabled driver licenses are all supported EU licenses.
-     */
-    private EUDLRecognizerSettings buildEUDLRecognizerSettings() {
-        // To specify we want to perform EUDL (EU Driver's License) recognition,
-        // prepare settings for EUDL recognizer. Pass country as parameter to EUDLRecognizerSettings
-        // constructor. Here we choose auto detection (one of supported licenses).
-        return new EUDLRecognizerSettings(EUDLCountry.EUDL_COUNTRY_AUTO);
-    }
-
-    /**
-     * Builds {@link Pdf417RecognizerSettings} which define settings for scanning plain PDF417
-     * barcodes.
-     */
-    private Pdf417RecognizerSettings buildPdf417RecognizerSettings() {
-        // Pdf417RecognizerSettings define the settings for scanning plain PDF417 barcodes.
-        Pdf417RecognizerSettings pdf417RecognizerSettings = new Pdf417RecognizerSettings();
-        // Set this to true to scan barcodes which don't have quiet zone (white area) around it
-        // Use only if necessary because it drastically slows down the recognition process
-        pdf417RecognizerSettings.setNullQuietZoneAllowed(true);
-        // Set this to true to scan even barcode not compliant with standards
-        // For example, malformed PDF417 barcodes which were incorrectly encoded
-        // Use only if necessary because it slows down the recognition process
-        pdf417RecognizerSettings.setUncertainScanning(false);
-        return pdf417RecognizerSettings;
+        return addRecognizer(DetectorRecognizers.createIdCardDetector(), DetectorRecognizers.ID_CARD_IMAGE_NAME);
     }
 
     private boolean addRecognizer(RecognizerSettings recognizerSettings, @Nullable String fullDocumentImageName) {
@@ -657,12 +556,8 @@ public class BlinkIdScanSettings {
             RecognizerSettings curRec = it.next();
             if (recognizerSettings.getClass().equals(curRec.getClass())) {
                 it.remove();
-                // check for EUDL, same recognizer cannot be included multiple times. If adding
-                // EUDL recognizers for more than one country, use one EUDL recognizer that will
-                // detect country (EUDL_COUNTRY_AUTO)
-                if (recognizerSettings instanceof EUDLRecognizerSettings &&
-                        ((EUDLRecognizerSettings) curRec).getCountry() != ((EUDLRecognizerSettings) recognizerSettings).getCountry() ) {
-                    recognizerSettings = buildEUDLRecognizerSettings();
+                if (RecognizerFamily.forClass(curRec.getClass()) == RecognizerFamily.DRIVER_LICENSE) {
+                    recognizerSettings = DriverLicenseRecognizers.merge(curRec, recognizerSettings);
                 }
                 break;
             }
@@ -687,20 +582,65 @@ public class BlinkIdScanSettings {
         return true;
     }
 
+    /**
+     * @return Settings of all recognizers, or only of front side recognizers if both sides are
+     *         scanned one after another.
+     */
     RecognizerSettings[] createRecognizerSettingsArray() {
-        ArrayList<RecognizerSettings> settingsList = new ArrayList<>(mRecognizers);
+        boolean splitSides = splitsSides();
+        ArrayList<RecognizerSettings> settingsList = new ArrayList<>(mRecognizers.size() + 1);
+        for (RecognizerSettings recognizer : mRecognizers) {
+            if (!splitSides || !NationalIdRecognizers.isBackSide(recognizer.getClass())) {
+                settingsList.add(recognizer);
+            }
+        }
         if (!mParsers.isEmpty()) {
-            BlinkOCRRecognizerSettings ocrRec = new BlinkOCRRecognizerSettings();
-            for (String identifier : mParsers.keySet()) {
-                ocrRec.addParser(identifier, mParsers.get(identifier));
+            settingsList.add(OcrRecognizers.createRecognizer(mParsers));
+        }
+        RecognizerSettings[] settingsArray = new RecognizerSettings[settingsList.size()];
+        settingsArray = settingsList.toArray(settingsArray);
+        return settingsArray;
+    }
+
+    /**
+     * @return Settings of back side recognizers, or {@code null} if both sides are not scanned
+     *         one after another.
+     */
+    @Nullable
+    RecognizerSettings[] createBackSideRecognizerSettingsArray() {
+        if (!splitsSides()) {
+            return null;
+        }
+        ArrayList<RecognizerSettings> settingsList = new ArrayList<>();
+        for (RecognizerSettings recognizer : mRecognizers) {
+            if (NationalIdRecognizers.isBackSide(recognizer.getClass())) {
+                settingsList.add(recognizer);
             }
-            settingsList.add(ocrRec);
         }
         RecognizerSettings[] settingsArray = new RecognizerSettings[settingsList.size()];
         settingsArray = settingsList.toArray(settingsArray);
         return settingsArray;
     }
 
+    /**
+     * @return {@code true} if two-sided scanning is enabled and recognizers of both sides are added.
+     */
+    private boolean splitsSides() {
+        if (!mTwoSidedScanning) {
+            return false;
+        }
+        boolean hasFront = !mParsers.isEmpty();
+        boolean hasBack = false;
+        for (RecognizerSettings recognizer : mRecognizers) {
+            if (NationalIdRecognizers.isBackSide(recognizer.getClass())) {
+                hasBack = true;
+            } else {
+                hasFront = true;
+            }
+        }
+        return hasFront && hasBack;
+    }
+
     String[] getParserIdentifiers() {
         String[] identifiers = new String[mParsers.size()];
         int i = 0;
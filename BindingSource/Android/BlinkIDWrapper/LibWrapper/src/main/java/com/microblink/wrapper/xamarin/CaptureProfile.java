@@ -0,0 +1,141 @@
+package com.microblink.wrapper.xamarin;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.support.annotation.NonNull;
+
+import com.microblink.hardware.camera.VideoResolutionPreset;
+
+/**
+ * Camera capture profile that is applied to the camera before scanning starts. Profile defines
+ * preview resolution tier, target frame rate and focus mode, so simple scans such as barcodes
+ * do not run the same high resolution preview as full document OCR.
+ *
+ * Camera API does not allow choosing the frame rate directly, so target frame rate is advisory:
+ * it is compared with the measured frame rate that is reported when scan is done.
+ */
+public class CaptureProfile implements Parcelable {
+
+    /**
+     * Preview resolution tier.
+     */
+    public enum ResolutionTier {
+        LOW(VideoResolutionPreset.VIDEO_RESOLUTION_480p),
+        MEDIUM(VideoResolutionPreset.VIDEO_RESOLUTION_720p),
+        HIGH(VideoResolutionPreset.VIDEO_RESOLUTION_1080p),
+        MAX(VideoResolutionPreset.VIDEO_RESOLUTION_MAX_AVAILABLE);
+
+        private final VideoResolutionPreset mPreset;
+
+        ResolutionTier(VideoResolutionPreset preset) {
+            mPreset = preset;
+        }
+
+        VideoResolutionPreset getPreset() {
+            return mPreset;
+        }
+    }
+
+    /**
+     * Camera focus mode.
+     */
+    public enum FocusMode {
+        /** Continuous video focus, best for fast scanning of moving documents */
+        VIDEO,
+        /** Photo focus with higher quality frames, best for small text */
+        PHOTO
+    }
+
+    /** Profile for barcodes, medium resolution at high frame rate. */
+    public static final CaptureProfile BARCODE = new CaptureProfile("Barcode", ResolutionTier.MEDIUM, 30, FocusMode.VIDEO);
+    /** Profile for identity documents and MRZ, high resolution with video focus. */
+    public static final CaptureProfile DOCUMENT = new CaptureProfile("Document", ResolutionTier.HIGH, 24, FocusMode.VIDEO);
+    /** Profile for OCR of free text, high resolution with photo focus. */
+    public static final CaptureProfile TEXT = new CaptureProfile("Text", ResolutionTier.HIGH, 15, FocusMode.PHOTO);
+
+    private final String mName;
+    private final ResolutionTier mResolutionTier;
+    private final int mTargetFps;
+    private final FocusMode mFocusMode;
+
+    /**
+     * @param name Name of the profile that is used when measured frame rate is reported.
+     * @param resolutionTier Preview resolution tier.
+     * @param targetFps Target number of processed frames per second.
+     * @param focusMode Camera focus mode.
+     */
+    public CaptureProfile(@NonNull String name, @NonNull ResolutionTier resolutionTier, int targetFps,
+                          @NonNull FocusMode focusMode) {
+        mName = name;
+        mResolutionTier = resolutionTier;
+        mTargetFps = targetFps;
+        mFocusMode = focusMode;
+    }
+
+    @NonNull
+    public String getName() {
+        return mName;
+    }
+
+    @NonNull
+    public ResolutionTier getResolutionTier() {
+        return mResolutionTier;
+    }
+
+    public int getTargetFps() {
+        return mTargetFps;
+    }
+
+    @NonNull
+    public FocusMode getFocusMode() {
+        return mFocusMode;
+    }
+
+    /**
+     * @return Video resolution preset that corresponds to the resolution tier.
+     */
+    @NonNull
+    public VideoResolutionPreset getVideoResolutionPreset() {
+        return mResolutionTier.getPreset();
+    }
+
+    @Override
+    public String toString() {
+        return "CaptureProfile{" +
+                "mName=" + mName +
+                ", mResolutionTier=" + mResolutionTier +
+                ", mTargetFps=" + mTargetFps +
+                ", mFocusMode=" + mFocusMode +
+                '}';
+    }
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    @Override
+    public void writeToParcel(Parcel dest, int flags) {
+        dest.writeString(this.mName);
+        dest.writeInt(this.mResolutionTier.ordinal());
+        dest.writeInt(this.mTargetFps);
+        dest.writeInt(this.mFocusMode.ordinal());
+    }
+
+    protected CaptureProfile(Parcel in) {
+        this.mName = in.readString();
+        this.mResolutionTier = ResolutionTier.values()[in.readInt()];
+        this.mTargetFps = in.readInt();
+        this.mFocusMode = FocusMode.values()[in.readInt()];
+    }
+
+    public static final Creator<CaptureProfile> CREATOR = new Creator<CaptureProfile>() {
+        public CaptureProfile createFromParcel(Parcel source) {
+            return new CaptureProfile(source);
+        }
+
+        public CaptureProfile[] newArray(int size) {
+            return new CaptureProfile[size];
+        }
+    };
+}
@@ -0,0 +1,570 @@
+package com.microblink.wrapper.xamarin;
+
+import android.content.Context;
+import android.content.Intent;
+import android.graphics.Bitmap;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.microblink.hardware.camera.CameraType;
+import com.microblink.image.Image;
+import com.microblink.recognizers.BaseRecognitionResult;
+import com.microblink.recognizers.RecognitionResults;
+import com.microblink.recognizers.settings.RecognitionSettings;
+import com.microblink.recognizers.settings.RecognizerSettings;
+import com.microblink.recognizers.settings.RecognizerSettingsUtils;
+import com.microblink.util.Log;
+import com.microblink.util.RecognizerCompatibility;
+import com.microblink.wrapper.xamarin.image.BitmapPool;
+import com.microblink.wrapper.xamarin.image.DocumentImageStore;
+import com.microblink.wrapper.xamarin.image.NativeImageTracker;
+import com.microblink.wrapper.xamarin.journal.ScanJournal;
+import com.microblink.wrapper.xamarin.result.RecognitionResultConverter;
+import com.microblink.wrapper.xamarin.result.ResultDeduplicator;
+import com.microblink.wrapper.xamarin.result.ResultValidators;
+import com.microblink.wrapper.xamarin.scan.BlinkIDScanActivity;
+import com.microblink.wrapper.xamarin.scan.ScanConfiguration;
+import com.microblink.wrapper.xamarin.scan.ScanSessionRegistry;
+import com.microblink.wrapper.xamarin.scan.ScanStats;
+import com.microblink.wrapper.xamarin.trace.TraceSection;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Single scan with its own settings, result listener and result converter.
+ *
+ * Session does not share any mutable state with other sessions, so several sessions can be
+ * started concurrently from different screens and each one delivers its results only to its
+ * own listener. Optional journal and document image store must be defined before the session
+ * is started.
+ */
+public class ScanSession {
+
+    /** Front side count of results that are not merged from both sides of the document */
+    private static final int NOT_TWO_SIDED = -1;
+    private static final BaseRecognitionResult[] NO_RESULTS = new BaseRecognitionResult[0];
+    private static final Image[] NO_IMAGES = new Image[0];
+
+    private final Context mContext;
+    private final String mLicenseKey;
+    private final BlinkIdResultListener mResultListener;
+    private final ScanConfiguration mConfiguration;
+    private final RecognitionResultConverter mResultConverter;
+
+    private ScanJournal mScanJournal;
+    private DocumentImageStore mDocumentImageStore;
+    private ResultDeduplicator mResultDeduplicator;
+
+    /**
+     * Creates the scan session.
+     *
+     * @param context Context used to start the scan activity.
+     * @param licenseKey License key for the application package name.
+     * @param scanSettings Scan settings which define recognizers that will be used to scan
+     *                     corresponding document types and camera type that will be used. Settings
+     *                     are built immediately, so later changes do not affect this session.
+     * @param resultListener Listener that obtains results of this session.
+     *
+     * @throws IllegalScanSettingsException If scanSettings are not valid, scan settings are valid
+     *                                      if at least one recognizer or parser or detector is active.
+     */
+    public ScanSession(@NonNull Context context, @NonNull String licenseKey, @NonNull BlinkIdScanSettings scanSettings,
+                       @NonNull BlinkIdResultListener resultListener) throws IllegalScanSettingsException {
+        this(context, licenseKey, scanSettings, null, resultListener);
+    }
+
+    /**
+     * Creates the scan session with recognition settings that were already built, e.g. by
+     * {@link BlinkID#buildRecognitionSettings(BlinkIdScanSettings, CameraType)}.
+     *
+     * @param recognitionSettings Recognition settings built from scanSettings, or {@code null}
+     *                            to build them with {@link #buildRecognitionSettings}.
+     */
+    ScanSession(@NonNull Context context, @NonNull String licenseKey, @NonNull BlinkIdScanSettings scanSettings,
+                @Nullable RecognitionSettings recognitionSettings, @NonNull BlinkIdResultListener resultListener)
+            throws IllegalScanSettingsException {
+        mContext = context.getApplicationContext() != null ? context.getApplicationContext() : context;
+        mLicenseKey = licenseKey;
+        mResultListener = resultListener;
+
+        CameraType cameraType = toCameraType(scanSettings.getCameraType());
+        if (recognitionSettings == null) {
+            recognitionSettings = buildRecognitionSettings(mContext, scanSettings, cameraType);
+        }
+        if (recognitionSettings.getRecognizerSettingsArray().length == 0) {
+            throw new IllegalScanSettingsException("At least one recognizer/parser/detector must be active.");
+        }
+        RecognitionSettings backSideRecognitionSettings = null;
+        RecognizerSettings[] backSideSettingsArray = scanSettings.createBackSideRecognizerSettingsArray();
+        if (backSideSettingsArray != null) {
+            backSideRecognitionSettings = buildRecognitionSettings(mContext, scanSettings, cameraType, backSideSettingsArray);
+            if (backSideRecognitionSettings.getRecognizerSettingsArray().length == 0) {
+                // back side recognizers require autofocus, scan only the front side
+                backSideRecognitionSettings = null;
+            }
+        }
+        String[] parserIdentifiers = scanSettings.getParserIdentifiers();
+        mConfiguration = new ScanConfiguration(recognitionSettings, cameraType, scanSettings.getAcceptedImageNames(),
+                scanSettings.getCaptureProfile(), backSideRecognitionSettings, parserIdentifiers,
+                scanSettings.getResultValidator());
+        mResultConverter = new RecognitionResultConverter(parserIdentifiers);
+    }
+
+    /**
+     * Creates the session of a scan whose settings were built by an earlier session, e.g. when
+     * scan activity is restored after process death and the original session is gone.
+     *
+     * @param context Context of the application.
+     * @param licenseKey License key for the application package name.
+     * @param configuration Already built settings of the scan.
+     * @param resultListener Listener that obtains results of this session.
+     */
+    ScanSession(@NonNull Context context, @NonNull String licenseKey, @NonNull ScanConfiguration configuration,
+                @NonNull BlinkIdResultListener resultListener) {
+        mContext = context.getApplicationContext() != null ? context.getApplicationContext() : context;
+        mLicenseKey = licenseKey;
+        mResultListener = resultListener;
+        mConfiguration = configuration;
+        mResultConverter = new RecognitionResultConverter(configuration.getParserIdentifiers());
+    }
+
+    /**
+     * @return Camera type that corresponds to given device camera type.
+     */
+    @NonNull
+    static CameraType toCameraType(@Nullable BlinkIdScanSettings.DeviceCameraType cam) {
+        if (cam == BlinkIdScanSettings.DeviceCameraType.CAMERA_FRONTFACE) {
+            return CameraType.CAMERA_FRONTFACE;
+        } else if (cam == BlinkIdScanSettings.DeviceCameraType.CAMERA_BACKFACE) {
+            return CameraType.CAMERA_BACKFACE;
+        }
+        return CameraType.CAMERA_DEFAULT;
+    }
+
+    /**
+     * This method creates the recognition settings for scan activity.
+     *
+     * @param context Context used for checking camera features.
+     * @param scanSettings Scan settings which define recognizers that will be used to scan
+     *                     corresponding document types.
+     * @param cameraType Camera type that will be used.
+     * @return Recognition settings for scan activity.
+     */
+    static RecognitionSettings buildRecognitionSettings(Context context, BlinkIdScanSettings scanSettings, CameraType cameraType) {
+        return buildRecognitionSettings(context, scanSettings, cameraType, scanSettings.createRecognizerSettingsArray());
+    }
+
+    /**
+     * This method creates the recognition settings with given recognizers, e.g. recognizers of
+     * the back side in two-sided scanning.
+     */
+    private static RecognitionSettings buildRecognitionSettings(Context context, BlinkIdScanSettings scanSettings,
+                                                                CameraType cameraType, RecognizerSettings[] settingsArray) {
+        // initialize scanning settings object
+        RecognitionSettings recognitionSettings = new RecognitionSettings();
+
+        // with setNumMsBeforeTimeout you can define number of miliseconds that must pass
+        // after first partial scan result has arrived before scan activity triggers a timeout.
+        // Timeout is good for preventing infinitely long scanning experience when user attempts
+        // to scan damaged or unsupported slip. After timeout, scan activity will return only
+        // data that was read successfully. This might be incomplete data.
+        recognitionSettings.setNumMsBeforeTimeout(2000);
+
+        // If you add more recognizers to recognizer settings array, you can choose whether you
+        // want to have the ability to obtain multiple scan results from same video frame. For example,
+        // if both payment slip and payment barcode are visible on a single frame, by setting
+        // setAllowMultipleScanResultsOnSingleImage to true you can obtain both scan results
+        // from barcode and slip. If this is false (default), you will get the first valid result
+        // (i.e. first result that contains all required data). Having this option turned off
+        // creates better and faster user experience.
+        recognitionSettings.setAllowMultipleScanResultsOnSingleImage(
+                scanSettings.shouldAllowMultipleScanResultsOnSingleImage());
+
+        if (!RecognizerCompatibility.cameraHasAutofocus(cameraType, context)) {
+            settingsArray = RecognizerSettingsUtils.filterOutRecognizersThatRequireAutofocus(settingsArray);
+        }
+
+        // Add array with recognizer settings so that scan activity will know
+        // what do you want to scan. Setting recognizer settings array is mandatory.
+        recognitionSettings.setRecognizerSettingsArray(settingsArray);
+        return recognitionSettings;
+    }
+
+    /**
+     * Defines the journal to which results of this session are appended before they are
+     * delivered to the result listener.
+     *
+     * @param scanJournal Scan journal, or {@code null} if results should not be journaled.
+     */
+    public void setScanJournal(@Nullable ScanJournal scanJournal) {
+        mScanJournal = scanJournal;
+    }
+
+    /**
+     * Defines the store to which document image of this session is handed instead of
+     * delivering live bitmap to the result listener.
+     *
+     * @param documentImageStore Document image store, or {@code null} if image should be
+     *                           delivered as bitmap.
+     */
+    public void setDocumentImageStore(@Nullable DocumentImageStore documentImageStore) {
+        mDocumentImageStore = documentImageStore;
+    }
+
+    /**
+     * Defines the cache of recently delivered results that is used to skip or mark results
+     * of a document that was scanned again right after a successful scan. Deduplicator is
+     * typically shared by all sessions.
+     *
+     * @param resultDeduplicator Result deduplicator, or {@code null} if all results should be
+     *                           delivered as they are.
+     */
+    public void setResultDeduplicator(@Nullable ResultDeduplicator resultDeduplicator) {
+        mResultDeduplicator = resultDeduplicator;
+    }
+
+    /**
+     * @return Converter used for results of this session.
+     */
+    @NonNull
+    public RecognitionResultConverter getResultConverter() {
+        return mResultConverter;
+    }
+
+    /**
+     * @return License key used by this session.
+     */
+    @NonNull
+    public String getLicenseKey() {
+        return mLicenseKey;
+    }
+
+    /**
+     * @return Built settings that are used by scan activity.
+     */
+    @NonNull
+    public ScanConfiguration getConfiguration() {
+        return mConfiguration;
+    }
+
+    /**
+     * Runs the result validator defined with {@link BlinkIdScanSettings#setResultValidator}, which
+     * is kept in the scan configuration. This method is called by scan activity before the scan
+     * is finished.
+     *
+     * @param results Recognition results.
+     * @return {@code false} if any result was rejected and scanning should continue.
+     */
+    public boolean validateResults(@NonNull RecognitionResults results) {
+        BaseRecognitionResult rejected = ResultValidators.findRejected(mConfiguration.getResultValidator(),
+                results.getRecognitionResults());
+        if (rejected != null) {
+            Log.i(this, "Result {} rejected by validator", rejected.getClass().getSimpleName());
+            mResultListener.onResultsRejected();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Starts the scan activity for this session.
+     */
+    public void start() {
+        Log.i(this, "Starting scan intent");
+        String sessionToken = ScanSessionRegistry.register(this);
+        try {
+            mContext.startActivity(buildScanIntent(sessionToken));
+        } catch (RuntimeException e) {
+            // activity will never unregister the session, so it would keep this session reachable
+            ScanSessionRegistry.unregister(sessionToken);
+            throw e;
+        }
+    }
+
+    /**
+     * This method builds scan intent for this session.
+     *
+     * @param sessionToken Token under which this session is registered in {@link ScanSessionRegistry}.
+     */
+    private Intent buildScanIntent(String sessionToken) {
+
+        // first create intent for provided ScanCard activity
+        final Intent intent = new Intent(mContext, BlinkIDScanActivity.class);
+        intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
+
+        // In order for scanning to work, you must enter a valid licence key. Without licence key,
+        // scanning will not work. Licence key is bound the the package name of your app, so when
+        // obtaining your licence key from Microblink make sure you give us the correct package name
+        // of your app. You can obtain your licence key at http://microblink.com/login or contact us
+        // at http://help.microblink.com.
+        // Licence key also defines which recognizers are enabled and which are not. Since the licence
+        // key validation is performed on image processing thread in native code, all enabled recognizers
+        // that are disallowed by licence key will be turned off without any error and information
+        // about turning them off will be logged to ADB logcat.
+        intent.putExtra(BlinkIDScanActivity.EXTRAS_LICENSE_KEY, mLicenseKey);
+
+        // session is handed over in-process, intent carries only the session token
+        intent.putExtra(BlinkIDScanActivity.EXTRAS_SESSION_TOKEN, sessionToken);
+
+        return intent;
+    }
+
+    /**
+     * This method is called by scan activity when recognition is done.
+     *
+     * @param results Recognition results.
+     * @param documentImage Image of the scanned document, or {@code null} if not available.
+     */
+    public void onScanningDone(@NonNull RecognitionResults results, @Nullable Bitmap documentImage) {
+        TraceSection.begin(TraceSection.SCANNING_DONE);
+        try {
+            deliverResults(results.getRecognitionResults(), NOT_TWO_SIDED, documentImage, NO_IMAGES, null);
+        } finally {
+            TraceSection.end();
+        }
+    }
+
+    /**
+     * This method is called by scan activity when recognition is done. If document image store
+     * is defined, native image is handed to the store without converting it on the calling thread.
+     * Ownership of the document image is transferred to this method.
+     *
+     * @param results Recognition results.
+     * @param documentImage Native image of the scanned document, or {@code null} if not available.
+     */
+    public void onScanningDone(@NonNull RecognitionResults results, @Nullable Image documentImage) {
+        onScanningDone(results, documentImage, null);
+    }
+
+    /**
+     * This method is called by scan activity when recognition is done. Time spent converting
+     * the results is recorded to given statistics, which are then delivered with
+     * {@link BlinkIdResultListener#onScanStatsAvailable(ScanStats)}.
+     *
+     * @param results Recognition results.
+     * @param documentImage Native image of the scanned document, or {@code null} if not available.
+     * @param scanStats Statistics of the scan, or {@code null} if not available.
+     */
+    public void onScanningDone(@NonNull RecognitionResults results, @Nullable Image documentImage,
+                               @Nullable ScanStats scanStats) {
+        TraceSection.begin(TraceSection.SCANNING_DONE);
+        try {
+            deliverResults(results.getRecognitionResults(), NOT_TWO_SIDED, null, new Image[] {documentImage}, scanStats);
+        } finally {
+            TraceSection.end();
+        }
+        if (scanStats != null) {
+            mResultListener.onScanStatsAvailable(scanStats);
+        }
+    }
+
+    /**
+     * This method is called by scan activity when both sides of the document were scanned, see
+     * {@link BlinkIdScanSettings#setTwoSidedScanning(boolean)}. Results of both sides are
+     * delivered as one merged result, values of the front side take precedence and result type
+     * of the back side is stored under {@link BlinkID#BACK_SIDE_RESULT_TYPE_KEY}. Streaming
+     * listener receives results of the sides separately. Images of
+     * both sides are delivered one after another, front side first. Ownership of the document
+     * images is transferred to this method.
+     *
+     * @param frontSideResults Recognition results of the front side.
+     * @param frontSideImage Native image of the front side, or {@code null} if not available.
+     * @param backSideResults Recognition results of the back side.
+     * @param backSideImage Native image of the back side, or {@code null} if not available.
+     * @param scanStats Statistics of the scan, or {@code null} if not available.
+     */
+    public void onScanningDone(@NonNull RecognitionResults frontSideResults, @Nullable Image frontSideImage,
+                               @NonNull RecognitionResults backSideResults, @Nullable Image backSideImage,
+                               @Nullable ScanStats scanStats) {
+        TraceSection.begin(TraceSection.SCANNING_DONE);
+        try {
+            BaseRecognitionResult[] front = nonNull(frontSideResults.getRecognitionResults());
+            deliverResults(concat(front, backSideResults.getRecognitionResults()), front.length, null,
+                    new Image[] {frontSideImage, backSideImage}, scanStats);
+        } finally {
+            TraceSection.end();
+        }
+        if (scanStats != null) {
+            mResultListener.onScanStatsAvailable(scanStats);
+        }
+    }
+
+    /**
+     * Concatenates results of both sides.
+     */
+    @Nullable
+    private static BaseRecognitionResult[] concat(@Nullable BaseRecognitionResult[] first, @Nullable BaseRecognitionResult[] second) {
+        if (first == null || first.length == 0) {
+            return second;
+        }
+        if (second == null || second.length == 0) {
+            return first;
+        }
+        BaseRecognitionResult[] results = new BaseRecognitionResult[first.length + second.length];
+        System.arraycopy(first, 0, results, 0, first.length);
+        System.arraycopy(second, 0, results, first.length, second.length);
+        return results;
+    }
+
+    @NonNull
+    private static BaseRecognitionResult[] nonNull(@Nullable BaseRecognitionResult[] results) {
+        return results != null ? results : NO_RESULTS;
+    }
+
+    /**
+     * @param frontSideCount Number of front side results at the start of the array if results
+     *                       of both sides of the document are merged into a single result map,
+     *                       {@link #NOT_TWO_SIDED} otherwise.
+     * @param documentImages Native images of the scanned document, elements may be {@code null}.
+     */
+    private void deliverResults(@Nullable BaseRecognitionResult[] resultsArr, int frontSideCount,
+                                @Nullable Bitmap documentBitmap, @NonNull Image[] documentImages,
+                                @Nullable ScanStats scanStats) {
+        if (resultsArr != null && resultsArr.length > 0) {
+            boolean repeated = mResultDeduplicator != null
+                    && mResultDeduplicator.checkAndRecord(resultsArr, mResultConverter, System.currentTimeMillis());
+            if (repeated && mResultDeduplicator.getMode() == ResultDeduplicator.Mode.SKIP) {
+                Log.i(this, "Skipping repeated scan results");
+                disposeAll(documentImages);
+                mResultListener.onRepeatedResultsSkipped();
+                return;
+            }
+            // in mark mode both streamed results and result maps carry the repeat mark
+            RecognitionResultConverter converter = repeated ? mResultConverter.markedAsRepeated() : mResultConverter;
+            boolean shouldReturnImage = false;
+            for (BaseRecognitionResult result : resultsArr) {
+                shouldReturnImage |= RecognitionResultConverter.carriesDocumentImage(result);
+            }
+            // when results are consumed by streaming them, maps are built only for the journal
+            long listenerStartNanos = System.nanoTime();
+            boolean mergeResults = frontSideCount != NOT_TWO_SIDED;
+            boolean consumed;
+            if (mergeResults) {
+                consumed = mResultListener.onTwoSidedRecognitionResultsAvailable(
+                        Arrays.copyOfRange(resultsArr, 0, frontSideCount),
+                        Arrays.copyOfRange(resultsArr, frontSideCount, resultsArr.length), converter);
+            } else {
+                consumed = mResultListener.onRecognitionResultsAvailable(resultsArr, converter);
+            }
+            // time of the application listener is not conversion time of the wrapper
+            long conversionStartNanos = System.nanoTime();
+            long listenerNanos = conversionStartNanos - listenerStartNanos;
+            List<Map<String, String>> resultList = null;
+            if (!consumed || mScanJournal != null) {
+                resultList = new ArrayList<>(mergeResults ? 1 : resultsArr.length);
+                for (int i = 0; i < resultsArr.length; ++i) {
+                    Map<String, String> resultMap = converter.toMap(resultsArr[i]);
+                    if (mergeResults && i >= frontSideCount) {
+                        // merged map keeps result type of the front side, back side is marked separately
+                        resultMap.put(BlinkID.BACK_SIDE_RESULT_TYPE_KEY, resultMap.get(BlinkID.RESULT_TYPE_KEY));
+                    }
+                    if (mergeResults && !resultList.isEmpty()) {
+                        mergeInto(resultList.get(0), resultMap);
+                    } else {
+                        resultList.add(resultMap);
+                    }
+                }
+            }
+            boolean hasImage = shouldReturnImage && (documentBitmap != null || hasAny(documentImages));
+            long conversionNanos = System.nanoTime() - conversionStartNanos;
+            if (hasImage && mDocumentImageStore != null) {
+                List<String> scanIds = new ArrayList<>(documentImages.length + 1);
+                if (documentBitmap != null) {
+                    String scanId = UUID.randomUUID().toString();
+                    mDocumentImageStore.put(scanId, documentBitmap);
+                    scanIds.add(scanId);
+                }
+                for (Image documentImage : documentImages) {
+                    if (documentImage != null) {
+                        String scanId = UUID.randomUUID().toString();
+                        mDocumentImageStore.put(scanId, documentImage);
+                        scanIds.add(scanId);
+                    }
+                }
+                journalResults(resultList, scanIds);
+                for (String scanId : scanIds) {
+                    mResultListener.onDocumentImageStored(scanId);
+                }
+            } else {
+                journalResults(resultList, null);
+                if (hasImage) {
+                    if (documentBitmap != null) {
+                        mResultListener.onDocumentImageAvailable(documentBitmap);
+                    }
+                    for (Image documentImage : documentImages) {
+                        if (documentImage != null) {
+                            long imageConversionStartNanos = System.nanoTime();
+                            Bitmap bitmap = convertToBitmap(documentImage);
+                            conversionNanos += System.nanoTime() - imageConversionStartNanos;
+                            mResultListener.onDocumentImageAvailable(bitmap);
+                        }
+                    }
+                }
+                disposeAll(documentImages);
+            }
+            if (scanStats != null) {
+                scanStats.recordConversion(conversionNanos);
+                scanStats.recordResultListener(listenerNanos);
+            }
+            if (!consumed) {
+                mResultListener.onResultsAvailable(resultList);
+            }
+        } else {
+            disposeAll(documentImages);
+            mResultListener.onResultsAvailable(null);
+        }
+
+    }
+
+    /**
+     * Adds values of the other result that are not yet in the merged result.
+     */
+    private static void mergeInto(Map<String, String> merged, Map<String, String> other) {
+        for (Map.Entry<String, String> entry : other.entrySet()) {
+            if (!merged.containsKey(entry.getKey())) {
+                merged.put(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private static boolean hasAny(Image[] images) {
+        for (Image image : images) {
+            if (image != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void disposeAll(Image[] images) {
+        for (Image image : images) {
+            if (image != null) {
+                NativeImageTracker.dispose(image);
+            }
+        }
+    }
+
+    private static Bitmap convertToBitmap(Image image) {
+        // listener returns the bitmap to the pool with BlinkIdResultListener.releaseDocumentImage
+        return BitmapPool.getShared().convertToBitmap(image);
+    }
+
+    /**
+     * Appends results to the scan journal, if journal is defined.
+     */
+    private void journalResults(@Nullable List<Map<String, String>> resultList, @Nullable List<String> imageReferences) {
+        if (mScanJournal != null && resultList != null) {
+            try {
+                mScanJournal.append(System.currentTimeMillis(), resultList, imageReferences);
+            } catch (IOException e) {
+                Log.e(this, e, "Failed to append scan results to the journal");
+            }
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.microblink.wrapper.xamarin.image;
+
+import android.content.ComponentCallbacks2;
+import android.graphics.Bitmap;
+import android.graphics.Rect;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.microblink.image.Image;
+import com.microblink.image.ImageFormat;
+import com.microblink.util.Log;
+import com.microblink.wrapper.xamarin.trace.TraceSection;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Size-capped pool of mutable bitmaps bucketed by width, height and config. Document images
+ * are converted and decoded into pooled bitmaps, so back-to-back scans reuse the same
+ * multi-megabyte allocations instead of churning the heap.
+ *
+ * Bitmaps that are no longer used are returned with {@link #put(Bitmap)}. When total size of
+ * pooled bitmaps exceeds the byte cap, least recently returned bitmaps are recycled.
+ */
+public class BitmapPool {
+
+    private static final int MAX_DEFAULT_BYTES = 32 * 1024 * 1024;
+
+    private static BitmapPool sShared;
+
+    private final long mMaxBytes;
+    private long mSizeBytes;
+
+    /** Pooled bitmaps by bucket key */
+    private final Map<Long, ArrayDeque<Bitmap>> mBuckets = new HashMap<>();
+    /** All pooled bitmaps, least recently returned first */
+    private final ArrayDeque<Bitmap> mLru = new ArrayDeque<>();
+
+    /**
+     * @return Pool shared by scan sessions and document image stores. Its cap is 1/8 of the
+     *         maximum heap size, but at most 32 MB.
+     */
+    @NonNull
+    public static synchronized BitmapPool getShared() {
+        if (sShared == null) {
+            sShared = new BitmapPool(Math.min(Runtime.getRuntime().maxMemory() / 8, MAX_DEFAULT_BYTES));
+        }
+        return sShared;
+    }
+
+    /**
+     * @param maxBytes Maximum total size of pooled bitmaps in bytes.
+     */
+    public BitmapPool(long maxBytes) {
+        mMaxBytes = maxBytes;
+    }
+
+    private static long bucketKey(int width, int height, Bitmap.Config config) {
+        return ((long) width << 34) | ((long) height << 4) | config.ordinal();
+    }
+
+    private static long sizeOf(Bitmap bitmap) {
+        return (long) bitmap.getRowBytes() * bitmap.getHeight();
+    }
+
+    /**
+     * Returns pooled bitmap of given size and config, or creates a new one. Content of pooled
+     * bitmap is undefined.
+     */
+    @NonNull
+    public Bitmap get(int width, int height, @NonNull Bitmap.Config config) {
+        Bitmap bitmap = poll(width, height, config);
+        if (bitmap == null) {
+            bitmap = Bitmap.createBitmap(width, height, config);
+        }
+        return bitmap;
+    }
+
+    /**
+     * Removes bitmap of given size and config from the pool.
+     * @return Pooled bitmap, or {@code null} if there is no such bitmap in the pool.
+     */
+    @Nullable
+    public synchronized Bitmap poll(int width, int height, @NonNull Bitmap.Config config) {
+        ArrayDeque<Bitmap> bucket = mBuckets.get(bucketKey(width, height, config));
+        if (bucket == null || bucket.isEmpty()) {
+            return null;
+        }
+        Bitmap bitmap = bucket.pollLast();
+        mLru.removeFirstOccurrence(bitmap);
+        mSizeBytes -= sizeOf(bitmap);
+        return bitmap;
+    }
+
+    /**
+     * Returns the bitmap to the pool, caller must not use it afterwards. Immutable bitmaps and
+     * bitmaps larger than the pool are recycled.
+     */
+    public void put(@NonNull Bitmap bitmap) {
+        if (bitmap.isRecycled()) {
+            return;
+        }
+        long size = sizeOf(bitmap);
+        if (!bitmap.isMutable() || size > mMaxBytes) {
+            bitmap.recycle();
+            return;
+        }
+        synchronized (this) {
+            long key = bucketKey(bitmap.getWidth(), bitmap.getHeight(), bitmap.getConfig());
+            ArrayDeque<Bitmap> bucket = mBuckets.get(key);
+            if (bucket == null) {
+                bucket = new ArrayDeque<>();
+                mBuckets.put(key, bucket);
+            }
+            bucket.addLast(bitmap);
+            mLru.addLast(bitmap);
+            mSizeBytes += size;
+            trimToSize(mMaxBytes);
+        }
+    }
+
+    /**
+     * Recycles least recently returned bitmaps until total size fits into given size.
+     */
+    private void trimToSize(long maxBytes) {
+        while (mSizeBytes > maxBytes && !mLru.isEmpty()) {
+            Bitmap eldest = mLru.pollFirst();
+            mBuckets.get(bucketKey(eldest.getWidth(), eldest.getHeight(), eldest.getConfig())).remove(eldest);
+            mSizeBytes -= sizeOf(eldest);
+            eldest.recycle();
+        }
+        Iterator<ArrayDeque<Bitmap>> it = mBuckets.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().isEmpty()) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Shrinks the pool according to the trim memory level reported by
+     * {@link ComponentCallbacks2#onTrimMemory(int)}.
+     */
+    public synchronized void trimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE) {
+            trimToSize(0);
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            trimToSize(mMaxBytes / 2);
+        }
+        Log.d(this, "Trimmed bitmap pool for level {} to {} bytes", level, mSizeBytes);
+    }
+
+    /**
+     * Recycles all pooled bitmaps.
+     */
+    public synchronized void clear() {
+        trimToSize(0);
+    }
+
+    /**
+     * @return Total size of pooled bitmaps in bytes.
+     */
+    public synchronized long getSizeBytes() {
+        return mSizeBytes;
+    }
+
+    /**
+     * Converts native image to bitmap. BGRA images are copied directly into a pooled bitmap,
+     * other images are converted by {@link Image#convertToBitmap()}. Image is not disposed.
+     */
+    @Nullable
+    public Bitmap convertToBitmap(@NonNull Image image) {
+        TraceSection.begin(TraceSection.CONVERT_TO_BITMAP);
+        try {
+            ByteBuffer buffer = image.getBuffer();
+            int width = image.getWidth();
+            int height = image.getHeight();
+            Rect roi = image.getROI();
+            boolean fullRoi = roi == null || (roi.left == 0 && roi.top == 0 && roi.width() == width && roi.height() == height);
+            if (buffer == null || !fullRoi || image.getImageFormat() != ImageFormat.BGRA_8888
+                    || image.getPixelStride() != 4 || image.getRowStride() % 4 != 0) {
+                return image.convertToBitmap();
+            }
+            // BGRA bytes read as little endian ints are ARGB colors
+            IntBuffer pixels = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            int rowStride = image.getRowStride() / 4;
+            int[] row = new int[width];
+            Bitmap bitmap = get(width, height, Bitmap.Config.ARGB_8888);
+            for (int y = 0; y < height; ++y) {
+                pixels.position(y * rowStride);
+                pixels.get(row, 0, width);
+                for (int x = 0; x < width; ++x) {
+                    row[x] |= 0xff000000;
+                }
+                bitmap.setPixels(row, 0, width, 0, y, width, 1);
+            }
+            return bitmap;
+        } finally {
+            TraceSection.end();
+        }
+    }
+}
@@ -0,0 +1,410 @@
+package com.microblink.wrapper.xamarin.image;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Process;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.WorkerThread;
+
+import com.microblink.image.Image;
+import com.microblink.util.Log;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Size-capped disk cache of document images keyed by scan id.
+ *
+ * Images are encoded on a background thread, so handing an image to the store does not block
+ * the caller and the live bitmap is returned to the {@link BitmapPool} as soon as it has been
+ * written. When total size of
+ * the stored images exceeds the byte cap, least recently used images are evicted. Images are
+ * decoded only when requested, optionally downsampled to the requested size.
+ */
+public class DocumentImageStore {
+
+    private static final String FILE_SUFFIX = ".img";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+    private static final int DEFAULT_QUALITY = 90;
+
+    private final File mDirectory;
+    private final long mMaxBytes;
+    private final ExecutorService mExecutor;
+
+    private Bitmap.CompressFormat mCompressFormat = Bitmap.CompressFormat.JPEG;
+    private int mQuality = DEFAULT_QUALITY;
+    private BitmapPool mBitmapPool = BitmapPool.getShared();
+
+    /** Sizes of stored images in access order, eldest first. */
+    private final LinkedHashMap<String, Long> mEntries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, WriteTask> mPendingWrites = new HashMap<>();
+    private long mTotalBytes;
+
+    /**
+     * Creates the store in given directory, images already present in the directory are
+     * indexed in order of their modification time.
+     * @param directory Directory in which images are stored, it is created if it does not exist.
+     * @param maxBytes Maximum total size of stored images in bytes.
+     */
+    public DocumentImageStore(@NonNull File directory, long maxBytes) {
+        mDirectory = directory;
+        mMaxBytes = maxBytes;
+        if (!mDirectory.isDirectory() && !mDirectory.mkdirs()) {
+            Log.e(this, "Cannot create image store directory {}", mDirectory);
+        }
+        mExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(@NonNull final Runnable r) {
+                return new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                        r.run();
+                    }
+                }, "DocumentImageStore");
+            }
+        });
+        indexExistingImages();
+    }
+
+    private void indexExistingImages() {
+        File[] files = mDirectory.listFiles();
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File lhs, File rhs) {
+                long diff = lhs.lastModified() - rhs.lastModified();
+                return diff < 0 ? -1 : (diff > 0 ? 1 : 0);
+            }
+        });
+        synchronized (this) {
+            for (File file : files) {
+                String name = file.getName();
+                if (name.endsWith(FILE_SUFFIX)) {
+                    long size = file.length();
+                    mEntries.put(name.substring(0, name.length() - FILE_SUFFIX.length()), size);
+                    mTotalBytes += size;
+                } else if (name.endsWith(TEMP_FILE_SUFFIX)) {
+                    // leftover of interrupted write
+                    deleteFile(file);
+                }
+            }
+            evictIfNeeded();
+        }
+    }
+
+    /**
+     * Defines format in which images are encoded. Default is JPEG with quality 90.
+     * @param compressFormat Compress format.
+     * @param quality Compression quality, 0-100.
+     */
+    public void setCompressFormat(@NonNull Bitmap.CompressFormat compressFormat, int quality) {
+        mCompressFormat = compressFormat;
+        mQuality = quality;
+    }
+
+    /**
+     * Defines the pool into which images are converted and decoded, and to which written images
+     * are returned. Default is {@link BitmapPool#getShared()}.
+     * @param bitmapPool Bitmap pool.
+     */
+    public void setBitmapPool(@NonNull BitmapPool bitmapPool) {
+        mBitmapPool = bitmapPool;
+    }
+
+    /**
+     * Stores the bitmap under given scan id. Store takes ownership of the bitmap, it is encoded
+     * on the background thread and returned to the bitmap pool after that, so caller must not
+     * use it afterwards.
+     * @param scanId Scan id, may contain only letters, digits, '-' and '_'.
+     * @param image Document image.
+     */
+    public void put(@NonNull String scanId, @NonNull final Bitmap image) {
+        enqueueWrite(scanId, new BitmapSource() {
+            @Override
+            public Bitmap acquire() {
+                return image;
+            }
+        });
+    }
+
+    /**
+     * Stores the native image under given scan id. Store takes ownership of the image, it is
+     * converted and encoded on the background thread and disposed after that, so caller must
+     * not use it afterwards.
+     * @param scanId Scan id, may contain only letters, digits, '-' and '_'.
+     * @param image Document image.
+     */
+    public void put(@NonNull String scanId, @NonNull final Image image) {
+        enqueueWrite(scanId, new BitmapSource() {
+            @Override
+            public Bitmap acquire() {
+                try {
+                    return mBitmapPool.convertToBitmap(image);
+                } finally {
+                    NativeImageTracker.dispose(image);
+                }
+            }
+        });
+    }
+
+    private void enqueueWrite(@NonNull String scanId, BitmapSource source) {
+        checkScanId(scanId);
+        synchronized (this) {
+            WriteTask previous = mPendingWrites.get(scanId);
+            if (previous != null) {
+                // previous write still releases its image, but its result is discarded
+                previous.mDiscarded = true;
+            }
+            WriteTask task = new WriteTask(scanId, source);
+            mPendingWrites.put(scanId, task);
+            task.mFuture = mExecutor.submit(task);
+        }
+    }
+
+    @WorkerThread
+    private void write(WriteTask task) {
+        String scanId = task.mScanId;
+        File temp = new File(mDirectory, scanId + TEMP_FILE_SUFFIX);
+        Bitmap bitmap = null;
+        boolean written = false;
+        try {
+            bitmap = task.mSource.acquire();
+            if (bitmap != null && !task.mDiscarded) {
+                OutputStream out = new BufferedOutputStream(new FileOutputStream(temp));
+                try {
+                    written = bitmap.compress(mCompressFormat, mQuality, out);
+                } finally {
+                    out.close();
+                }
+            }
+        } catch (IOException e) {
+            Log.e(this, e, "Failed to write image {}", scanId);
+        } finally {
+            if (bitmap != null) {
+                mBitmapPool.put(bitmap);
+            }
+        }
+
+        synchronized (this) {
+            if (mPendingWrites.get(scanId) == task) {
+                mPendingWrites.remove(scanId);
+            }
+            File file = getFile(scanId);
+            if (task.mDiscarded) {
+                deleteFile(temp);
+            } else if (written && temp.renameTo(file)) {
+                Long previousSize = mEntries.put(scanId, file.length());
+                if (previousSize != null) {
+                    mTotalBytes -= previousSize;
+                }
+                mTotalBytes += file.length();
+                evictIfNeeded();
+            } else {
+                Log.e(this, "Image {} was not stored", scanId);
+                deleteFile(temp);
+            }
+        }
+    }
+
+    /**
+     * Removes least recently used images until total size fits into the byte cap. The most
+     * recently used image is always kept.
+     */
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<String, Long>> it = mEntries.entrySet().iterator();
+        while (mTotalBytes > mMaxBytes && mEntries.size() > 1 && it.hasNext()) {
+            Map.Entry<String, Long> eldest = it.next();
+            it.remove();
+            mTotalBytes -= eldest.getValue();
+            deleteFile(getFile(eldest.getKey()));
+            Log.d(this, "Evicted image {}", eldest.getKey());
+        }
+    }
+
+    /**
+     * Returns {@code true} if image for given scan id is stored or is being stored.
+     * @param scanId Scan id.
+     */
+    public synchronized boolean contains(@NonNull String scanId) {
+        return mPendingWrites.containsKey(scanId) || mEntries.containsKey(scanId);
+    }
+
+    /**
+     * Decodes the full resolution image stored for given scan id. If image is still being
+     * written, this method waits until it is written.
+     * @param scanId Scan id.
+     * @return Decoded image, or {@code null} if there is no image for given scan id.
+     */
+    @Nullable
+    @WorkerThread
+    public Bitmap get(@NonNull String scanId) {
+        return get(scanId, 0, 0);
+    }
+
+    /**
+     * Decodes the image stored for given scan id, downsampled by the largest power of 2 that
+     * keeps it at least as large as the requested size. If image is still being written, this
+     * method waits until it is written. Full resolution images are decoded into a pooled bitmap
+     * when possible, return it with {@link BitmapPool#put(Bitmap)} when it is no longer needed.
+     * @param scanId Scan id.
+     * @param reqWidth Requested width, or 0 for full resolution.
+     * @param reqHeight Requested height, or 0 for full resolution.
+     * @return Decoded image, or {@code null} if there is no image for given scan id.
+     */
+    @Nullable
+    @WorkerThread
+    public Bitmap get(@NonNull String scanId, int reqWidth, int reqHeight) {
+        awaitPendingWrite(scanId);
+        File file;
+        synchronized (this) {
+            // lookup also marks the image as recently used
+            if (mEntries.get(scanId) == null) {
+                return null;
+            }
+            file = getFile(scanId);
+        }
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeFile(file.getPath(), options);
+        if (reqWidth > 0 && reqHeight > 0) {
+            options.inSampleSize = calculateInSampleSize(options.outWidth, options.outHeight, reqWidth, reqHeight);
+        }
+        options.inJustDecodeBounds = false;
+        options.inMutable = true;
+        // before KitKat, reused bitmap must match the decoded size exactly
+        Bitmap reusable = options.inSampleSize <= 1 && options.outWidth > 0 && options.outHeight > 0
+                ? mBitmapPool.poll(options.outWidth, options.outHeight, Bitmap.Config.ARGB_8888) : null;
+        if (reusable != null) {
+            options.inBitmap = reusable;
+            try {
+                Bitmap decoded = BitmapFactory.decodeFile(file.getPath(), options);
+                if (decoded != null) {
+                    return decoded;
+                }
+            } catch (IllegalArgumentException e) {
+                Log.d(this, "Cannot decode image {} into pooled bitmap: {}", scanId, e.getMessage());
+            }
+            options.inBitmap = null;
+            mBitmapPool.put(reusable);
+        }
+        return BitmapFactory.decodeFile(file.getPath(), options);
+    }
+
+    static int calculateInSampleSize(int width, int height, int reqWidth, int reqHeight) {
+        int inSampleSize = 1;
+        while (width / (inSampleSize * 2) >= reqWidth && height / (inSampleSize * 2) >= reqHeight) {
+            inSampleSize *= 2;
+        }
+        return inSampleSize;
+    }
+
+    private void awaitPendingWrite(String scanId) {
+        Future<?> pending = null;
+        synchronized (this) {
+            WriteTask task = mPendingWrites.get(scanId);
+            if (task != null) {
+                pending = task.mFuture;
+            }
+        }
+        if (pending != null) {
+            try {
+                pending.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                Log.e(this, e, "Writing of image {} failed", scanId);
+            }
+        }
+    }
+
+    /**
+     * Removes image stored for given scan id.
+     * @param scanId Scan id.
+     */
+    public synchronized void remove(@NonNull String scanId) {
+        WriteTask pending = mPendingWrites.remove(scanId);
+        if (pending != null) {
+            pending.mDiscarded = true;
+        }
+        Long size = mEntries.remove(scanId);
+        if (size != null) {
+            mTotalBytes -= size;
+            deleteFile(getFile(scanId));
+        }
+    }
+
+    /**
+     * @return Total size of stored images in bytes.
+     */
+    public synchronized long getSizeBytes() {
+        return mTotalBytes;
+    }
+
+    /**
+     * Stops the background thread. Images that are already queued are still written.
+     */
+    public void shutdown() {
+        mExecutor.shutdown();
+    }
+
+    private File getFile(String scanId) {
+        return new File(mDirectory, scanId + FILE_SUFFIX);
+    }
+
+    private void deleteFile(File file) {
+        if (file.exists() && !file.delete()) {
+            Log.w(this, "Cannot delete {}", file);
+        }
+    }
+
+    private static void checkScanId(String scanId) {
+        if (scanId.isEmpty()) {
+            throw new IllegalArgumentException("Scan id must not be empty");
+        }
+        for (int i = 0; i < scanId.length(); ++i) {
+            char c = scanId.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '-' && c != '_') {
+                throw new IllegalArgumentException("Illegal character '" + c + "' in scan id " + scanId);
+            }
+        }
+    }
+
+    private interface BitmapSource {
+        Bitmap acquire();
+    }
+
+    private final class WriteTask implements Runnable {
+        final String mScanId;
+        final BitmapSource mSource;
+        Future<?> mFuture;
+        volatile boolean mDiscarded;
+
+        WriteTask(String scanId, BitmapSource source) {
+            mScanId = scanId;
+            mSource = source;
+        }
+
+        @Override
+        public void run() {
+            write(this);
+        }
+    }
+}
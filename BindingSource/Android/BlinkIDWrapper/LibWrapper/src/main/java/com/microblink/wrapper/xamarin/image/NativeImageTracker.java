@@ -0,0 +1,190 @@
+package com.microblink.wrapper.xamarin.image;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.microblink.image.Image;
+import com.microblink.util.Log;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Accounting of native images held by the wrapper. Every image the wrapper clones is tracked
+ * on behalf of the scan session that owns it and released with {@link #dispose(Image)}.
+ *
+ * When tracking is enabled, typically in debug builds, the tracker counts live native images
+ * and their bytes per session. An image that is garbage collected without being disposed
+ * released its native memory only in the finalizer, so it is reported as a leak together with
+ * the place where it was tracked. When tracking is disabled, {@link #dispose(Image)} only
+ * disposes the image.
+ */
+public final class NativeImageTracker {
+
+    private static volatile boolean sEnabled = false;
+
+    private static final ReferenceQueue<Image> sQueue = new ReferenceQueue<>();
+    /** Tracked images that are not disposed, images are only weakly referenced */
+    private static final WeakHashMap<Image, TrackedImage> sTracked = new WeakHashMap<>();
+    /** Keeps references reachable, so they are enqueued when their image is collected */
+    private static final Set<TrackedImage> sReferences = new HashSet<>();
+    private static final Map<String, SessionStats> sStats = new HashMap<>();
+
+    private NativeImageTracker() {
+    }
+
+    /**
+     * Enables or disables tracking. Images tracked while tracking was enabled are still
+     * accounted for when they are disposed.
+     */
+    public static void setEnabled(boolean enabled) {
+        sEnabled = enabled;
+    }
+
+    public static boolean isEnabled() {
+        return sEnabled;
+    }
+
+    /**
+     * Starts tracking of the image.
+     * @param image Native image that is now held by the wrapper.
+     * @param session Session on behalf of which the image is held, e.g. scan session or scan view.
+     * @return The image.
+     */
+    @NonNull
+    public static Image track(@NonNull Image image, @NonNull Object session) {
+        if (!sEnabled) {
+            return image;
+        }
+        String sessionName = sessionName(session);
+        long bytes = (long) image.getRowStride() * image.getHeight();
+        synchronized (NativeImageTracker.class) {
+            pollLeaks();
+            TrackedImage tracked = new TrackedImage(image, sessionName, bytes, new Throwable("Image tracked here"));
+            sTracked.put(image, tracked);
+            sReferences.add(tracked);
+            SessionStats stats = getStats(sessionName);
+            ++stats.mLiveImages;
+            stats.mLiveBytes += bytes;
+            stats.mPeakBytes = Math.max(stats.mPeakBytes, stats.mLiveBytes);
+        }
+        return image;
+    }
+
+    /**
+     * Disposes the image and stops its tracking.
+     * @param image Native image, or {@code null}.
+     */
+    public static void dispose(@Nullable Image image) {
+        if (image == null) {
+            return;
+        }
+        synchronized (NativeImageTracker.class) {
+            TrackedImage tracked = sTracked.remove(image);
+            if (tracked != null) {
+                sReferences.remove(tracked);
+                SessionStats stats = getStats(tracked.mSessionName);
+                --stats.mLiveImages;
+                stats.mLiveBytes -= tracked.mBytes;
+            }
+        }
+        image.dispose();
+    }
+
+    /**
+     * Logs number and bytes of live native images of the session and leaks detected so far.
+     * @param session Session given to {@link #track(Image, Object)}.
+     */
+    public static void report(@NonNull Object session) {
+        if (!sEnabled) {
+            return;
+        }
+        String sessionName = sessionName(session);
+        synchronized (NativeImageTracker.class) {
+            pollLeaks();
+            SessionStats stats = sStats.get(sessionName);
+            if (stats == null) {
+                return;
+            }
+            Log.i(NativeImageTracker.class, "{}: {} live native images with {} bytes, peak {} bytes, {} leaked",
+                    sessionName, stats.mLiveImages, stats.mLiveBytes, stats.mPeakBytes, stats.mLeakedImages);
+            if (stats.mLiveImages == 0) {
+                // nothing else can be reported for the session
+                sStats.remove(sessionName);
+            }
+        }
+    }
+
+    /**
+     * @return Number of live native images tracked on behalf of the session.
+     */
+    public static synchronized int getLiveImageCount(@NonNull Object session) {
+        SessionStats stats = sStats.get(sessionName(session));
+        return stats != null ? stats.mLiveImages : 0;
+    }
+
+    /**
+     * @return Bytes of live native images tracked on behalf of the session.
+     */
+    public static synchronized long getLiveBytes(@NonNull Object session) {
+        SessionStats stats = sStats.get(sessionName(session));
+        return stats != null ? stats.mLiveBytes : 0;
+    }
+
+    /**
+     * Reports images that were garbage collected without being disposed.
+     */
+    private static void pollLeaks() {
+        TrackedImage leaked;
+        while ((leaked = (TrackedImage) sQueue.poll()) != null) {
+            if (!sReferences.remove(leaked)) {
+                // image was disposed
+                continue;
+            }
+            SessionStats stats = getStats(leaked.mSessionName);
+            --stats.mLiveImages;
+            stats.mLiveBytes -= leaked.mBytes;
+            ++stats.mLeakedImages;
+            Log.w(NativeImageTracker.class, leaked.mTrackedAt, "{}: native image with {} bytes was not disposed",
+                    leaked.mSessionName, leaked.mBytes);
+        }
+    }
+
+    private static SessionStats getStats(String sessionName) {
+        SessionStats stats = sStats.get(sessionName);
+        if (stats == null) {
+            stats = new SessionStats();
+            sStats.put(sessionName, stats);
+        }
+        return stats;
+    }
+
+    private static String sessionName(Object session) {
+        return session.getClass().getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(session));
+    }
+
+    private static final class TrackedImage extends WeakReference<Image> {
+        final String mSessionName;
+        final long mBytes;
+        final Throwable mTrackedAt;
+
+        TrackedImage(Image image, String sessionName, long bytes, Throwable trackedAt) {
+            super(image, sQueue);
+            mSessionName = sessionName;
+            mBytes = bytes;
+            mTrackedAt = trackedAt;
+        }
+    }
+
+    private static final class SessionStats {
+        int mLiveImages;
+        long mLiveBytes;
+        long mPeakBytes;
+        int mLeakedImages;
+    }
+}
@@ -0,0 +1,483 @@
+package com.microblink.wrapper.xamarin.journal;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of scan results backed by a memory-mapped file. It can be used to keep
+ * scan results on the device while the application is offline.
+ *
+ * Each record is stored as {@code [payload length][CRC32 of payload][payload]}. The payload is
+ * written first and the length last, so a record becomes visible only after it was completely
+ * written. When the journal is opened, records are validated with their checksums and everything
+ * after the last intact record (e.g. a record torn by a crash) is discarded. Journal written
+ * in a different format version is not opened, so its records are never misread.
+ *
+ * Writing a record only copies bytes into the mapped memory, so it is safe to call
+ * {@link #append(long, List, List)} on the result path. Call {@link #sync()} when records
+ * must be flushed to the storage.
+ */
+public class ScanJournal implements Closeable {
+
+    private static final int MAGIC = 0x4d424a31; // "MBJ1"
+    private static final int VERSION = 1;
+    private static final int FILE_HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int MIN_CAPACITY = 64 * 1024;
+    private static final String COMPACT_SUFFIX = ".compact";
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private final File mFile;
+    private final CRC32 mCrc = new CRC32();
+
+    private RandomAccessFile mRandomAccessFile;
+    private FileChannel mChannel;
+    private MappedByteBuffer mBuffer;
+    /** View of the mapped buffer used for relative bulk reads and writes. */
+    private ByteBuffer mView;
+    private int mCapacity;
+    private int mWritePosition;
+    private int mRecordCount;
+
+    /** Buffer in which record payload is encoded before it is copied to the mapped file. */
+    private byte[] mScratch = new byte[4096];
+    private int mScratchLength;
+
+    /**
+     * Opens the journal stored in given file, file is created if it does not exist.
+     * @param file File that holds the journal.
+     * @throws IOException If file cannot be opened, it is not a scan journal or it was written
+     *                     in unsupported format version.
+     */
+    public ScanJournal(@NonNull File file) throws IOException {
+        this(file, MIN_CAPACITY);
+    }
+
+    /**
+     * Opens the journal stored in given file, file is created if it does not exist.
+     * @param file File that holds the journal.
+     * @param initialCapacity Initial size of the mapped region in bytes, region grows when needed.
+     * @throws IOException If file cannot be opened, it is not a scan journal or it was written
+     *                     in unsupported format version.
+     */
+    public ScanJournal(@NonNull File file, int initialCapacity) throws IOException {
+        mFile = file;
+        open(Math.max(initialCapacity, MIN_CAPACITY));
+    }
+
+    private void open(int initialCapacity) throws IOException {
+        mRandomAccessFile = new RandomAccessFile(mFile, "rw");
+        mChannel = mRandomAccessFile.getChannel();
+        long size = mChannel.size();
+        if (size > Integer.MAX_VALUE) {
+            close();
+            throw new IOException("Scan journal is too large: " + mFile);
+        }
+        map((int) Math.max(size, initialCapacity));
+        if (size < FILE_HEADER_SIZE) {
+            mBuffer.putInt(0, MAGIC);
+            mBuffer.putInt(4, VERSION);
+            mWritePosition = FILE_HEADER_SIZE;
+            mRecordCount = 0;
+        } else if (mBuffer.getInt(0) != MAGIC) {
+            close();
+            throw new IOException("File is not a scan journal: " + mFile);
+        } else if (mBuffer.getInt(4) != VERSION) {
+            int version = mBuffer.getInt(4);
+            close();
+            throw new IOException("Unsupported scan journal version " + version + ": " + mFile);
+        } else {
+            recover();
+        }
+    }
+
+    private void map(int capacity) throws IOException {
+        if (mRandomAccessFile.length() < capacity) {
+            mRandomAccessFile.setLength(capacity);
+        }
+        mBuffer = mChannel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        mView = mBuffer.duplicate();
+        mCapacity = capacity;
+    }
+
+    /**
+     * Finds the end of the last intact record and clears everything after it.
+     */
+    private void recover() {
+        int position = FILE_HEADER_SIZE;
+        int count = 0;
+        int length;
+        while ((length = readIntactRecordLength(position)) > 0) {
+            position += RECORD_HEADER_SIZE + length;
+            ++count;
+        }
+        mWritePosition = position;
+        mRecordCount = count;
+        if (position + 4 <= mCapacity && mBuffer.getInt(position) != 0) {
+            // torn record, stale bytes must not be mistaken for records after the next append
+            for (int i = position; i < mCapacity; ++i) {
+                mBuffer.put(i, (byte) 0);
+            }
+        }
+    }
+
+    /**
+     * Returns payload length of the record at given position, or {@code -1} if there is no
+     * intact record at that position.
+     */
+    private int readIntactRecordLength(int position) {
+        if (position + RECORD_HEADER_SIZE > mCapacity) {
+            return -1;
+        }
+        int length = mBuffer.getInt(position);
+        if (length <= 0 || length > mCapacity - position - RECORD_HEADER_SIZE) {
+            return -1;
+        }
+        int crc = mBuffer.getInt(position + 4);
+        readPayload(position, length);
+        mCrc.reset();
+        mCrc.update(mScratch, 0, length);
+        return (int) mCrc.getValue() == crc ? length : -1;
+    }
+
+    private void readPayload(int position, int length) {
+        ensureScratchCapacity(length);
+        mView.position(position + RECORD_HEADER_SIZE);
+        mView.get(mScratch, 0, length);
+    }
+
+    /**
+     * Appends record with scan results to the journal.
+     * @param timestamp Time of the scan in milliseconds since epoch.
+     * @param results Scan results as given to {@link com.microblink.wrapper.xamarin.BlinkIdResultListener}.
+     * @param imageReferences References (e.g. keys or paths) of images that belong to this scan.
+     * @throws IOException If journal cannot grow or it is closed.
+     */
+    public synchronized void append(long timestamp, @Nullable List<Map<String, String>> results,
+                                    @Nullable List<String> imageReferences) throws IOException {
+        ensureOpen();
+        mScratchLength = 0;
+        writeLong(timestamp);
+        if (results == null) {
+            writeInt(-1);
+        } else {
+            writeInt(results.size());
+            for (Map<String, String> result : results) {
+                writeInt(result.size());
+                for (Map.Entry<String, String> entry : result.entrySet()) {
+                    writeString(entry.getKey());
+                    writeString(entry.getValue());
+                }
+            }
+        }
+        if (imageReferences == null) {
+            writeInt(-1);
+        } else {
+            writeInt(imageReferences.size());
+            for (String reference : imageReferences) {
+                writeString(reference);
+            }
+        }
+        writeRecord(mScratch, mScratchLength);
+    }
+
+    private void writeRecord(byte[] payload, int length) throws IOException {
+        // leave room for the zero length that marks the end of the journal
+        ensureCapacity(mWritePosition + RECORD_HEADER_SIZE + length + 4);
+        mCrc.reset();
+        mCrc.update(payload, 0, length);
+        mView.position(mWritePosition + RECORD_HEADER_SIZE);
+        mView.put(payload, 0, length);
+        mBuffer.putInt(mWritePosition + 4, (int) mCrc.getValue());
+        // record is committed by writing its length
+        mBuffer.putInt(mWritePosition, length);
+        mWritePosition += RECORD_HEADER_SIZE + length;
+        ++mRecordCount;
+    }
+
+    private void ensureCapacity(int required) throws IOException {
+        if (required > mCapacity) {
+            int capacity = mCapacity;
+            while (capacity < required) {
+                capacity = capacity > Integer.MAX_VALUE / 2 ? Integer.MAX_VALUE : capacity * 2;
+            }
+            map(capacity);
+        }
+    }
+
+    /**
+     * Sequentially replays all records in the order in which they were appended.
+     * @param visitor Visitor that obtains records, replay stops when it returns {@code false}.
+     * @throws IOException If journal is closed.
+     */
+    public synchronized void replay(@NonNull RecordVisitor visitor) throws IOException {
+        ensureOpen();
+        int position = FILE_HEADER_SIZE;
+        while (position < mWritePosition) {
+            int length = mBuffer.getInt(position);
+            if (!visitor.onRecord(readRecord(position))) {
+                return;
+            }
+            position += RECORD_HEADER_SIZE + length;
+        }
+    }
+
+    /**
+     * Rewrites the journal so that it contains only records accepted by given filter. Retained
+     * records are first written to a temporary file which then replaces the journal file, so
+     * a crash during compaction leaves the journal intact.
+     * @param filter Filter that decides which records are retained.
+     * @throws IOException If compacted journal cannot be written.
+     */
+    public synchronized void compact(@NonNull RecordFilter filter) throws IOException {
+        ensureOpen();
+        File compactedFile = new File(mFile.getPath() + COMPACT_SUFFIX);
+        if (compactedFile.exists() && !compactedFile.delete()) {
+            throw new IOException("Cannot delete stale file " + compactedFile);
+        }
+        ScanJournal compacted = new ScanJournal(compactedFile, mWritePosition);
+        try {
+            int position = FILE_HEADER_SIZE;
+            while (position < mWritePosition) {
+                int length = mBuffer.getInt(position);
+                if (filter.shouldKeep(readRecord(position))) {
+                    readPayload(position, length);
+                    compacted.writeRecord(mScratch, length);
+                }
+                position += RECORD_HEADER_SIZE + length;
+            }
+            compacted.sync();
+        } finally {
+            compacted.close();
+        }
+        close();
+        boolean replaced = compactedFile.renameTo(mFile);
+        open(MIN_CAPACITY);
+        if (!replaced) {
+            throw new IOException("Cannot replace " + mFile + " with compacted journal");
+        }
+    }
+
+    /**
+     * Flushes all appended records to the storage.
+     */
+    public synchronized void sync() {
+        if (mBuffer != null) {
+            mBuffer.force();
+        }
+    }
+
+    /**
+     * @return Number of records in the journal.
+     */
+    public synchronized int getRecordCount() {
+        return mRecordCount;
+    }
+
+    /**
+     * @return Number of bytes used by the journal header and records.
+     */
+    public synchronized int getUsedBytes() {
+        return mWritePosition;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        mBuffer = null;
+        mView = null;
+        if (mRandomAccessFile != null) {
+            try {
+                mRandomAccessFile.close();
+            } finally {
+                mRandomAccessFile = null;
+                mChannel = null;
+            }
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (mBuffer == null) {
+            throw new IOException("Scan journal is closed");
+        }
+    }
+
+    private Record readRecord(int position) {
+        mView.position(position + RECORD_HEADER_SIZE);
+        long timestamp = mView.getLong();
+        List<Map<String, String>> results = null;
+        int resultCount = mView.getInt();
+        if (resultCount >= 0) {
+            results = new ArrayList<>(resultCount);
+            for (int i = 0; i < resultCount; ++i) {
+                int entryCount = mView.getInt();
+                Map<String, String> result = new HashMap<>();
+                for (int j = 0; j < entryCount; ++j) {
+                    String key = readString();
+                    result.put(key, readString());
+                }
+                results.add(result);
+            }
+        }
+        List<String> imageReferences = null;
+        int referenceCount = mView.getInt();
+        if (referenceCount >= 0) {
+            imageReferences = new ArrayList<>(referenceCount);
+            for (int i = 0; i < referenceCount; ++i) {
+                imageReferences.add(readString());
+            }
+        }
+        return new Record(timestamp, results, imageReferences);
+    }
+
+    private String readString() {
+        int length = mView.getInt();
+        if (length < 0) {
+            return null;
+        }
+        ensureScratchCapacity(length);
+        mView.get(mScratch, 0, length);
+        return new String(mScratch, 0, length, UTF8);
+    }
+
+    private void ensureScratchCapacity(int capacity) {
+        if (mScratch.length < capacity) {
+            byte[] scratch = new byte[Math.max(capacity, mScratch.length * 2)];
+            System.arraycopy(mScratch, 0, scratch, 0, mScratchLength);
+            mScratch = scratch;
+        }
+    }
+
+    private void writeInt(int value) {
+        ensureScratchCapacity(mScratchLength + 4);
+        putInt(mScratchLength, value);
+        mScratchLength += 4;
+    }
+
+    private void putInt(int offset, int value) {
+        mScratch[offset] = (byte) (value >>> 24);
+        mScratch[offset + 1] = (byte) (value >>> 16);
+        mScratch[offset + 2] = (byte) (value >>> 8);
+        mScratch[offset + 3] = (byte) value;
+    }
+
+    private void writeLong(long value) {
+        writeInt((int) (value >>> 32));
+        writeInt((int) value);
+    }
+
+    /**
+     * Writes length prefixed UTF-8 encoded string directly to the scratch buffer.
+     */
+    private void writeString(String value) {
+        if (value == null) {
+            writeInt(-1);
+            return;
+        }
+        int lengthOffset = mScratchLength;
+        writeInt(0);
+        int start = mScratchLength;
+        int length = value.length();
+        for (int i = 0; i < length; ++i) {
+            ensureScratchCapacity(mScratchLength + 4);
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                mScratch[mScratchLength++] = (byte) c;
+            } else if (c < 0x800) {
+                mScratch[mScratchLength++] = (byte) (0xc0 | (c >> 6));
+                mScratch[mScratchLength++] = (byte) (0x80 | (c & 0x3f));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                mScratch[mScratchLength++] = (byte) (0xf0 | (codePoint >> 18));
+                mScratch[mScratchLength++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+                mScratch[mScratchLength++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+                mScratch[mScratchLength++] = (byte) (0x80 | (codePoint & 0x3f));
+            } else if (c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE) {
+                // unpaired surrogate cannot be encoded, same replacement as String.getBytes
+                mScratch[mScratchLength++] = (byte) '?';
+            } else {
+                mScratch[mScratchLength++] = (byte) (0xe0 | (c >> 12));
+                mScratch[mScratchLength++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                mScratch[mScratchLength++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+        putInt(lengthOffset, mScratchLength - start);
+    }
+
+    /**
+     * Single journal record.
+     */
+    public static final class Record {
+        private final long mTimestamp;
+        private final List<Map<String, String>> mResults;
+        private final List<String> mImageReferences;
+
+        Record(long timestamp, @Nullable List<Map<String, String>> results, @Nullable List<String> imageReferences) {
+            mTimestamp = timestamp;
+            mResults = results;
+            mImageReferences = imageReferences;
+        }
+
+        /**
+         * @return Time of the scan in milliseconds since epoch.
+         */
+        public long getTimestamp() {
+            return mTimestamp;
+        }
+
+        /**
+         * @return Scan results, or {@code null} if nothing was scanned.
+         */
+        @Nullable
+        public List<Map<String, String>> getResults() {
+            return mResults;
+        }
+
+        /**
+         * @return References of images that belong to the scan, never {@code null}.
+         */
+        @NonNull
+        public List<String> getImageReferences() {
+            if (mImageReferences == null) {
+                return Collections.emptyList();
+            }
+            return mImageReferences;
+        }
+    }
+
+    /**
+     * Visitor that obtains records during {@link #replay(RecordVisitor)}.
+     */
+    public interface RecordVisitor {
+        /**
+         * @param record Next journal record.
+         * @return {@code true} to continue replay, {@code false} to stop it.
+         */
+        boolean onRecord(@NonNull Record record);
+    }
+
+    /**
+     * Filter that decides which records are retained by {@link #compact(RecordFilter)}.
+     */
+    public interface RecordFilter {
+        /**
+         * @param record Journal record.
+         * @return {@code true} if record should be kept in the journal.
+         */
+        boolean shouldKeep(@NonNull Record record);
+    }
+}
@@ -0,0 +1,84 @@
+package com.microblink.wrapper.xamarin.recognizer;
+
+import android.support.annotation.NonNull;
+
+import com.microblink.recognizers.blinkbarcode.bardecoder.BarDecoderRecognizerSettings;
+import com.microblink.recognizers.blinkbarcode.pdf417.Pdf417RecognizerSettings;
+import com.microblink.recognizers.blinkbarcode.zxing.ZXingRecognizerSettings;
+import com.microblink.recognizers.settings.RecognizerSettings;
+
+/**
+ * Settings of {@link RecognizerFamily#BARCODE} recognizers. Barcode recognizers do not return
+ * document image.
+ */
+public final class BarcodeRecognizers {
+
+    private BarcodeRecognizers() {
+    }
+
+    /**
+     * Creates {@link ZXingRecognizerSettings} which define settings for scanning various barcode
+     * types, enabled barcodes are: QR code, Aztec code, code 128, code 39, Data matrix, ean 13,
+     * ean 8, UPC A, UPC E
+     */
+    @NonNull
+    public static RecognizerSettings createZxing() {
+        // ZXingRecognizerSettings define settings for scanning various barcode types, by
+        // default all barcode types are disabled
+        ZXingRecognizerSettings zxingSettings = new ZXingRecognizerSettings();
+
+        // by default all barcode types are disabled
+        zxingSettings.setScanQRCode(true);
+        zxingSettings.setScanAztecCode(true);
+        zxingSettings.setScanCode128(true);
+        zxingSettings.setScanCode39(true);
+        zxingSettings.setScanDataMatrixCode(true);
+        zxingSettings.setScanEAN13Code(true);
+        zxingSettings.setScanEAN8Code(true);
+        zxingSettings.setScanITFCode(false);
+        zxingSettings.setScanUPCACode(true);
+        zxingSettings.setScanUPCECode(true);
+        // By setting this to true, you will enable scanning of barcodes with inverse
+        // intensity values (i.e. white barcodes on dark background). This option can
+        // significantly increase recognition time. Default is false
+        zxingSettings.setInverseScanning(false);
+        return zxingSettings;
+    }
+
+    /**
+     * Creates {@link BarDecoderRecognizerSettings} which define settings for scanning 1D barcodes
+     * with algorithms implemented by Microblink team. Enabled barcodes are: code 128 and code 39.
+     */
+    @NonNull
+    public static RecognizerSettings createBardecoder() {
+        // BarDecoderRecognizerSettings define settings for scanning 1D barcodes with algorithms
+        // implemented by Microblink team.
+        BarDecoderRecognizerSettings oneDimensionalRecognizerSettings = new BarDecoderRecognizerSettings();
+
+        oneDimensionalRecognizerSettings.setScanCode128(true);
+        oneDimensionalRecognizerSettings.setScanCode39(true);
+        // By setting this to true, you will enable scanning of barcodes with inverse
+        // intensity values (i.e. white barcodes on dark background). This option can
+        // significantly increase recognition time. Default is false
+        oneDimensionalRecognizerSettings.setInverseScanning(false);
+        return oneDimensionalRecognizerSettings;
+    }
+
+    /**
+     * Creates {@link Pdf417RecognizerSettings} which define settings for scanning plain PDF417
+     * barcodes.
+     */
+    @NonNull
+    public static RecognizerSettings createPdf417() {
+        // Pdf417RecognizerSettings define the settings for scanning plain PDF417 barcodes.
+        Pdf417RecognizerSettings pdf417RecognizerSettings = new Pdf417RecognizerSettings();
+        // Set this to true to scan barcodes which don't have quiet zone (white area) around it
+        // Use only if necessary because it drastically slows down the recognition process
+        pdf417RecognizerSettings.setNullQuietZoneAllowed(true);
+        // Set this to true to scan even barcode not compliant with standards
+        // For example, malformed PDF417 barcodes which were incorrectly encoded
+        // Use only if necessary because it slows down the recognition process
+        pdf417RecognizerSettings.setUncertainScanning(false);
+        return pdf417RecognizerSettings;
+    }
+}
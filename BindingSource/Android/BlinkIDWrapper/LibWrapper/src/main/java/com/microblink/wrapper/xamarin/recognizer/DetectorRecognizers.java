@@ -0,0 +1,34 @@
+package com.microblink.wrapper.xamarin.recognizer;
+
+import android.support.annotation.NonNull;
+
+import com.microblink.detectors.document.DocumentDetectorSettings;
+import com.microblink.detectors.document.DocumentSpecification;
+import com.microblink.detectors.document.DocumentSpecificationPreset;
+import com.microblink.recognizers.detector.DetectorRecognizerSettings;
+import com.microblink.recognizers.settings.RecognizerSettings;
+
+/**
+ * Settings of {@link RecognizerFamily#DETECTOR} recognizers, which only detect the document
+ * and return its image.
+ */
+public final class DetectorRecognizers {
+
+    public static final String ID_CARD_IMAGE_NAME = "DocumentDetector/IDCard";
+
+    private DetectorRecognizers() {
+    }
+
+    /**
+     * Creates {@link DetectorRecognizerSettings} which define settings for detection of
+     * various document types, enabled document type is ID card.
+     */
+    @NonNull
+    public static RecognizerSettings createIdCardDetector() {
+        DocumentSpecification idSpec = DocumentSpecification.createFromPreset(
+                DocumentSpecificationPreset.DOCUMENT_SPECIFICATION_PRESET_ID1_CARD);
+        DocumentDetectorSettings dds = new DocumentDetectorSettings( new DocumentSpecification[] {idSpec});
+        dds.setNumStableDetectionsThreshold(2);
+        return new DetectorRecognizerSettings(dds);
+    }
+}
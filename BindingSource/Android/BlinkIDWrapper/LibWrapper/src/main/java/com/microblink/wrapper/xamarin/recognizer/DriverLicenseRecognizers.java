@@ -0,0 +1,75 @@
+package com.microblink.wrapper.xamarin.recognizer;
+
+import android.support.annotation.NonNull;
+
+import com.microblink.recognizers.blinkbarcode.usdl.USDLRecognizerSettings;
+import com.microblink.recognizers.blinkid.eudl.EUDLCountry;
+import com.microblink.recognizers.blinkid.eudl.EUDLRecognizerSettings;
+import com.microblink.recognizers.settings.RecognizerSettings;
+
+/**
+ * Settings of {@link RecognizerFamily#DRIVER_LICENSE} recognizers: US driver's licenses, which
+ * are read from PDF417 barcode, and EU driver's licenses.
+ */
+public final class DriverLicenseRecognizers {
+
+    public static final String EUDL_IMAGE_NAME = "EUDL";
+
+    private DriverLicenseRecognizers() {
+    }
+
+    @NonNull
+    public static RecognizerSettings createUSDL() {
+        return new USDLRecognizerSettings();
+    }
+
+    @NonNull
+    public static RecognizerSettings createAustrianDL() {
+        return createEUDL(EUDLCountry.EUDL_COUNTRY_AUSTRIA);
+    }
+
+    @NonNull
+    public static RecognizerSettings createUKDL() {
+        return createEUDL(EUDLCountry.EUDL_COUNTRY_UK);
+    }
+
+    @NonNull
+    public static RecognizerSettings createGermanDL() {
+        return createEUDL(EUDLCountry.EUDL_COUNTRY_GERMANY);
+    }
+
+    /**
+     * Creates EUDL recognizer for all supported EU driver's licenses, country is automatically
+     * detected.
+     */
+    @NonNull
+    public static RecognizerSettings createEUDL() {
+        return createEUDL(EUDLCountry.EUDL_COUNTRY_AUTO);
+    }
+
+    /**
+     * Merges settings of the same driver's license recognizer class. Same recognizer cannot be
+     * included multiple times, so when EUDL recognizers for more than one country are added, one
+     * EUDL recognizer that detects the country (EUDL_COUNTRY_AUTO) is used.
+     * @param existing Settings that were added before.
+     * @param added Settings that are being added, of the same class as existing settings.
+     * @return Settings that replace the existing settings.
+     */
+    @NonNull
+    public static RecognizerSettings merge(@NonNull RecognizerSettings existing, @NonNull RecognizerSettings added) {
+        if (added instanceof EUDLRecognizerSettings
+                && ((EUDLRecognizerSettings) existing).getCountry() != ((EUDLRecognizerSettings) added).getCountry()) {
+            return createEUDL();
+        }
+        return added;
+    }
+
+    private static RecognizerSettings createEUDL(EUDLCountry country) {
+        // To specify we want to perform EUDL (EU Driver's License) recognition,
+        // prepare settings for EUDL recognizer. Pass country as parameter to EUDLRecognizerSettings
+        // constructor.
+        EUDLRecognizerSettings eudl = new EUDLRecognizerSettings(country);
+        eudl.setShowFullDocument(true);
+        return eudl;
+    }
+}
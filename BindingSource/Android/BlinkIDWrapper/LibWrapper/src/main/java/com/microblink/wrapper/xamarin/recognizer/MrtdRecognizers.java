@@ -0,0 +1,26 @@
+package com.microblink.wrapper.xamarin.recognizer;
+
+import android.support.annotation.NonNull;
+
+import com.microblink.recognizers.blinkid.mrtd.MRTDRecognizerSettings;
+import com.microblink.recognizers.settings.RecognizerSettings;
+
+/**
+ * Settings of the {@link RecognizerFamily#MRTD} recognizer, which reads the MRZ of machine
+ * readable travel documents. It is kept apart from {@link NationalIdRecognizers}, so an
+ * application that scans only MRZ does not load settings classes of national ID cards.
+ */
+public final class MrtdRecognizers {
+
+    public static final String MRTD_IMAGE_NAME = "MRTD";
+
+    private MrtdRecognizers() {
+    }
+
+    @NonNull
+    public static RecognizerSettings createMRTD() {
+        MRTDRecognizerSettings mrtd = new MRTDRecognizerSettings();
+        mrtd.setShowFullDocument(true);
+        return mrtd;
+    }
+}
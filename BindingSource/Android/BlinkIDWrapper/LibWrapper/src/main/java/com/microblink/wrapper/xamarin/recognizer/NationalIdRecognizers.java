@@ -0,0 +1,209 @@
+package com.microblink.wrapper.xamarin.recognizer;
+
+import android.support.annotation.NonNull;
+
+import com.microblink.recognizers.blinkid.austria.back.AustrianIDBackSideRecognizerSettings;
+import com.microblink.recognizers.blinkid.austria.front.AustrianIDFrontSideRecognizerSettings;
+import com.microblink.recognizers.blinkid.croatia.back.CroatianIDBackSideRecognizerSettings;
+import com.microblink.recognizers.blinkid.croatia.front.CroatianIDFrontSideRecognizerSettings;
+import com.microblink.recognizers.blinkid.czechia.back.CzechIDBackSideRecognizerSettings;
+import com.microblink.recognizers.blinkid.czechia.front.CzechIDFrontSideRecognizerSettings;
+import com.microblink.recognizers.blinkid.germany.front.GermanIDFrontSideRecognizerSettings;
+import com.microblink.recognizers.blinkid.germany.mrz.GermanIDMRZSideRecognizerSettings;
+import com.microblink.recognizers.blinkid.malaysia.IKadRecognizerSettings;
+import com.microblink.recognizers.blinkid.malaysia.MyKadRecognizerSettings;
+import com.microblink.recognizers.blinkid.serbia.back.SerbianIDBackSideRecognizerSettings;
+import com.microblink.recognizers.blinkid.serbia.front.SerbianIDFrontSideRecognizerSettings;
+import com.microblink.recognizers.blinkid.singapore.SingaporeIDRecognizerSettings;
+import com.microblink.recognizers.blinkid.slovakia.back.SlovakIDBackSideRecognizerSettings;
+import com.microblink.recognizers.blinkid.slovakia.front.SlovakIDFrontSideRecognizerSettings;
+import com.microblink.recognizers.blinkid.slovenia.back.SlovenianIDBackSideRecognizerSettings;
+import com.microblink.recognizers.blinkid.slovenia.front.SlovenianIDFrontSideRecognizerSettings;
+import com.microblink.recognizers.settings.RecognizerSettings;
+
+/**
+ * Settings of {@link RecognizerFamily#NATIONAL_ID} recognizers: national ID cards and Malaysian
+ * documents. All recognizers return the full document image.
+ */
+public final class NationalIdRecognizers {
+
+    public static final String AUSTRIAN_ID_BACK_IMAGE_NAME = AustrianIDBackSideRecognizerSettings.FULL_DOCUMENT_IMAGE;
+    public static final String AUSTRIAN_ID_FRONT_IMAGE_NAME = AustrianIDFrontSideRecognizerSettings.FULL_DOCUMENT_IMAGE;
+    public static final String CROATIAN_ID_BACK_IMAGE_NAME = CroatianIDBackSideRecognizerSettings.FULL_DOCUMENT_IMAGE;
+    public static final String CROATIAN_ID_FRONT_IMAGE_NAME = CroatianIDFrontSideRecognizerSettings.FULL_DOCUMENT_IMAGE;
+    public static final String CZECH_ID_BACK_IMAGE_NAME = CzechIDBackSideRecognizerSettings.FULL_DOCUMENT_IMAGE;
+    public static final String CZECH_ID_FRONT_IMAGE_NAME = CzechIDFrontSideRecognizerSettings.FULL_DOCUMENT_IMAGE;
+    public static final String GERMAN_ID_FRONT_IMAGE_NAME = GermanIDFrontSideRecognizerSettings.FULL_DOCUMENT_IMAGE;
+    public static final String GERMAN_ID_MRZ_IMAGE_NAME = GermanIDMRZSideRecognizerSettings.FULL_DOCUMENT_IMAGE;
+    public static final String SERBIAN_ID_BACK_IMAGE_NAME = SerbianIDBackSideRecognizerSettings.FULL_DOCUMENT_IMAGE;
+    public static final String SERBIAN_ID_FRONT_IMAGE_NAME = SerbianIDFrontSideRecognizerSettings.FULL_DOCUMENT_IMAGE;
+    public static final String SLOVAK_ID_BACK_IMAGE_NAME = SlovakIDBackSideRecognizerSettings.FULL_DOCUMENT_IMAGE;
+    public static final String SLOVAK_ID_FRONT_IMAGE_NAME = SlovakIDFrontSideRecognizerSettings.FULL_DOCUMENT_IMAGE;
+    public static final String SLOVENIAN_ID_BACK_IMAGE_NAME = SlovenianIDBackSideRecognizerSettings.FULL_DOCUMENT_IMAGE;
+    public static final String SLOVENIAN_ID_FRONT_IMAGE_NAME = SlovenianIDFrontSideRecognizerSettings.FULL_DOCUMENT_IMAGE;
+    public static final String SINGAPORE_ID_IMAGE_NAME = SingaporeIDRecognizerSettings.FULL_DOCUMENT_IMAGE_NAME;
+    public static final String MYKAD_IMAGE_NAME = MyKadRecognizerSettings.FULL_DOCUMENT_IMAGE;
+    public static final String IKAD_IMAGE_NAME = IKadRecognizerSettings.FULL_DOCUMENT_IMAGE;
+
+    private static final String BLINKID_PACKAGE = "com.microblink.recognizers.blinkid.";
+
+    /**
+     * Settings and result classes of recognizers that scan the back side of a two-sided ID card.
+     * Sides are listed per recognizer, because the package does not tell the side, e.g. MRZ is on
+     * the back of the current German ID, but on the front of the older one.
+     */
+    private static final String[] BACK_SIDE_CLASSES = {
+            BLINKID_PACKAGE + "austria.back.AustrianIDBackSideRecognizerSettings",
+            BLINKID_PACKAGE + "austria.back.AustrianIDBackSideRecognitionResult",
+            BLINKID_PACKAGE + "croatia.back.CroatianIDBackSideRecognizerSettings",
+            BLINKID_PACKAGE + "croatia.back.CroatianIDBackSideRecognitionResult",
+            BLINKID_PACKAGE + "czechia.back.CzechIDBackSideRecognizerSettings",
+            BLINKID_PACKAGE + "czechia.back.CzechIDBackSideRecognitionResult",
+            BLINKID_PACKAGE + "germany.mrz.GermanIDMRZSideRecognizerSettings",
+            BLINKID_PACKAGE + "germany.mrz.GermanIDMRZSideRecognitionResult",
+            BLINKID_PACKAGE + "serbia.back.SerbianIDBackSideRecognizerSettings",
+            BLINKID_PACKAGE + "serbia.back.SerbianIDBackSideRecognitionResult",
+            BLINKID_PACKAGE + "slovakia.back.SlovakIDBackSideRecognizerSettings",
+            BLINKID_PACKAGE + "slovakia.back.SlovakIDBackSideRecognitionResult",
+            BLINKID_PACKAGE + "slovenia.back.SlovenianIDBackSideRecognizerSettings",
+            BLINKID_PACKAGE + "slovenia.back.SlovenianIDBackSideRecognitionResult"
+    };
+
+    private NationalIdRecognizers() {
+    }
+
+    /**
+     * Returns whether given recognizer settings scan the back side of a two-sided ID card, e.g.
+     * Croatian ID back side or German ID MRZ side. Side is resolved from the class name, so the
+     * class of the other side is not loaded.
+     * @param cls Class of recognizer settings or recognition result.
+     */
+    public static boolean isBackSide(@NonNull Class<?> cls) {
+        String name = cls.getName();
+        for (String backSideClass : BACK_SIDE_CLASSES) {
+            if (name.equals(backSideClass)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @NonNull
+    public static RecognizerSettings createAustrianIdBack() {
+        AustrianIDBackSideRecognizerSettings ausIdBack = new AustrianIDBackSideRecognizerSettings();
+        ausIdBack.setDisplayFullDocumentImage(true);
+        return ausIdBack;
+    }
+
+    @NonNull
+    public static RecognizerSettings createAustrianIdFront() {
+        AustrianIDFrontSideRecognizerSettings ausIdFront = new AustrianIDFrontSideRecognizerSettings();
+        ausIdFront.setDisplayFullDocumentImage(true);
+        return ausIdFront;
+    }
+
+    @NonNull
+    public static RecognizerSettings createCroatianIdBack() {
+        CroatianIDBackSideRecognizerSettings croIdBack = new CroatianIDBackSideRecognizerSettings();
+        croIdBack.setDisplayFullDocumentImage(true);
+        return croIdBack;
+    }
+
+    @NonNull
+    public static RecognizerSettings createCroatianIdFront() {
+        CroatianIDFrontSideRecognizerSettings croIdFront = new CroatianIDFrontSideRecognizerSettings();
+        croIdFront.setDisplayFullDocumentImage(true);
+        return croIdFront;
+    }
+
+    @NonNull
+    public static RecognizerSettings createCzechIdBack() {
+        CzechIDBackSideRecognizerSettings czIdBack = new CzechIDBackSideRecognizerSettings();
+        czIdBack.setDisplayFullDocumentImage(true);
+        return czIdBack;
+    }
+
+    @NonNull
+    public static RecognizerSettings createCzechIdFront() {
+        CzechIDFrontSideRecognizerSettings czIdFront = new CzechIDFrontSideRecognizerSettings();
+        czIdFront.setDisplayFullDocumentImage(true);
+        return czIdFront;
+    }
+
+    @NonNull
+    public static RecognizerSettings createGermanIdFront() {
+        GermanIDFrontSideRecognizerSettings deIdFront = new GermanIDFrontSideRecognizerSettings();
+        deIdFront.setDisplayFullDocumentImage(true);
+        return deIdFront;
+    }
+
+    @NonNull
+    public static RecognizerSettings createGermanIdMrzSide() {
+        GermanIDMRZSideRecognizerSettings deIdMrz = new GermanIDMRZSideRecognizerSettings();
+        deIdMrz.setDisplayFullDocumentImage(true);
+        return deIdMrz;
+    }
+
+    @NonNull
+    public static RecognizerSettings createSerbianIdBack() {
+        SerbianIDBackSideRecognizerSettings srbIdBack = new SerbianIDBackSideRecognizerSettings();
+        srbIdBack.setDisplayFullDocumentImage(true);
+        return srbIdBack;
+    }
+
+    @NonNull
+    public static RecognizerSettings createSerbianIdFront() {
+        SerbianIDFrontSideRecognizerSettings srbIdFront = new SerbianIDFrontSideRecognizerSettings();
+        srbIdFront.setReturnFullDocumentPhoto(true);
+        return srbIdFront;
+    }
+
+    @NonNull
+    public static RecognizerSettings createSlovakIdBack() {
+        SlovakIDBackSideRecognizerSettings svkIdBack = new SlovakIDBackSideRecognizerSettings();
+        svkIdBack.setDisplayFullDocumentImage(true);
+        return svkIdBack;
+    }
+
+    @NonNull
+    public static RecognizerSettings createSlovakIdFront() {
+        SlovakIDFrontSideRecognizerSettings svkIdFront = new SlovakIDFrontSideRecognizerSettings();
+        svkIdFront.setDisplayFullDocumentImage(true);
+        return svkIdFront;
+    }
+
+    @NonNull
+    public static RecognizerSettings createSlovenianIdBack() {
+        SlovenianIDBackSideRecognizerSettings svnIdBack = new SlovenianIDBackSideRecognizerSettings();
+        svnIdBack.setDisplayFullDocumentImage(true);
+        return svnIdBack;
+    }
+
+    @NonNull
+    public static RecognizerSettings createSlovenianIdFront() {
+        SlovenianIDFrontSideRecognizerSettings svnIdFront = new SlovenianIDFrontSideRecognizerSettings();
+        svnIdFront.setDisplayFullDocumentImage(true);
+        return svnIdFront;
+    }
+
+    @NonNull
+    public static RecognizerSettings createSingaporeId() {
+        SingaporeIDRecognizerSettings singaporeId = new SingaporeIDRecognizerSettings();
+        singaporeId.setDisplayFullDocumentImage(true);
+        return singaporeId;
+    }
+
+    @NonNull
+    public static RecognizerSettings createMyKad() {
+        MyKadRecognizerSettings myKad = new MyKadRecognizerSettings();
+        myKad.setShowFullDocument(true);
+        return myKad;
+    }
+
+    @NonNull
+    public static RecognizerSettings createIKad() {
+        IKadRecognizerSettings iKad = new IKadRecognizerSettings();
+        iKad.setShowFullDocumentImage(true);
+        return iKad;
+    }
+}
@@ -0,0 +1,85 @@
+package com.microblink.wrapper.xamarin.recognizer;
+
+import android.support.annotation.NonNull;
+
+import com.microblink.recognizers.blinkocr.BlinkOCRRecognizerSettings;
+import com.microblink.recognizers.blinkocr.parser.OcrParserSettings;
+import com.microblink.recognizers.blinkocr.parser.generic.AmountParserSettings;
+import com.microblink.recognizers.blinkocr.parser.generic.DateParserSettings;
+import com.microblink.recognizers.blinkocr.parser.generic.EMailParserSettings;
+import com.microblink.recognizers.blinkocr.parser.generic.IbanParserSettings;
+import com.microblink.recognizers.blinkocr.parser.generic.RawParserSettings;
+import com.microblink.recognizers.blinkocr.parser.licenseplates.LicensePlatesParserSettings;
+import com.microblink.recognizers.blinkocr.parser.mobilecoupons.MobileCouponsParserSettings;
+import com.microblink.recognizers.blinkocr.parser.regex.RegexParserSettings;
+import com.microblink.recognizers.blinkocr.parser.vin.VinParserSettings;
+import com.microblink.recognizers.settings.RecognizerSettings;
+
+import java.util.Map;
+
+/**
+ * Settings of OCR parsers and of the {@link RecognizerFamily#OCR} recognizer that runs them.
+ */
+public final class OcrRecognizers {
+
+    private OcrRecognizers() {
+    }
+
+    @NonNull
+    public static OcrParserSettings createRawParser() {
+        return new RawParserSettings();
+    }
+
+    @NonNull
+    public static OcrParserSettings createAmountParser() {
+        return new AmountParserSettings();
+    }
+
+    @NonNull
+    public static OcrParserSettings createDateParser() {
+        return new DateParserSettings();
+    }
+
+    @NonNull
+    public static OcrParserSettings createEmailParser() {
+        return new EMailParserSettings();
+    }
+
+    @NonNull
+    public static OcrParserSettings createIbanParser() {
+        return new IbanParserSettings();
+    }
+
+    @NonNull
+    public static OcrParserSettings createVinParser() {
+        return new VinParserSettings();
+    }
+
+    @NonNull
+    public static OcrParserSettings createLicensePlatesParser() {
+        return new LicensePlatesParserSettings();
+    }
+
+    @NonNull
+    public static OcrParserSettings createRegexParser(String regex) {
+        return new RegexParserSettings(regex);
+    }
+
+    @NonNull
+    public static OcrParserSettings createMobileCouponsParser(String prefixString, int USSDCodeLength) {
+        return new MobileCouponsParserSettings(prefixString, USSDCodeLength);
+    }
+
+    /**
+     * Creates OCR recognizer that runs given parsers.
+     * @param parsers Parser settings by parser identifier.
+     */
+    @NonNull
+    public static RecognizerSettings createRecognizer(@NonNull Map<String, OcrParserSettings> parsers) {
+        BlinkOCRRecognizerSettings ocrRec = new BlinkOCRRecognizerSettings();
+        for (Map.Entry<String, OcrParserSettings> parser : parsers.entrySet()) {
+            ocrRec.addParser(parser.getKey(), parser.getValue());
+        }
+        return ocrRec;
+    }
+}
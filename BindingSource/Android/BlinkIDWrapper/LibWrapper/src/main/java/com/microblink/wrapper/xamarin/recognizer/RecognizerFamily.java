@@ -0,0 +1,79 @@
+package com.microblink.wrapper.xamarin.recognizer;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Family of recognizers whose settings and results are handled by the same module. Modules
+ * are loaded only when a recognizer of their family is added or its result is converted, so
+ * an application that scans only MRZ does not load and verify classes of national ID, barcode,
+ * driver's license or OCR recognizers.
+ *
+ * Family of a result is resolved from the package of its class, without instanceof checks
+ * that would load the checked classes.
+ */
+public enum RecognizerFamily {
+    NATIONAL_ID,
+    MRTD,
+    DRIVER_LICENSE,
+    BARCODE,
+    OCR,
+    DETECTOR;
+
+    private static final String RECOGNIZERS_PACKAGE = "com.microblink.recognizers.";
+    private static final String BARCODE_PACKAGE = RECOGNIZERS_PACKAGE + "blinkbarcode.";
+
+    /** Packages of result classes, more specific packages first */
+    private static final String[] PACKAGES = {
+            BARCODE_PACKAGE + "usdl.",
+            RECOGNIZERS_PACKAGE + "blinkid.eudl.",
+            BARCODE_PACKAGE,
+            RECOGNIZERS_PACKAGE + "blinkid.mrtd.",
+            RECOGNIZERS_PACKAGE + "blinkid.",
+            RECOGNIZERS_PACKAGE + "blinkocr.",
+            RECOGNIZERS_PACKAGE + "detector."
+    };
+
+    private static final RecognizerFamily[] PACKAGE_FAMILIES = {
+            DRIVER_LICENSE,
+            DRIVER_LICENSE,
+            BARCODE,
+            MRTD,
+            NATIONAL_ID,
+            OCR,
+            DETECTOR
+    };
+
+    /**
+     * Returns the family of given result or settings class.
+     * @param cls Class of recognition result or recognizer settings.
+     * @return Family, or {@code null} if class does not belong to any family.
+     */
+    @Nullable
+    public static RecognizerFamily forClass(@NonNull Class<?> cls) {
+        for (Class<?> c = cls; c != null; c = c.getSuperclass()) {
+            String name = c.getName();
+            if (name.startsWith(RECOGNIZERS_PACKAGE)) {
+                for (int i = 0; i < PACKAGES.length; ++i) {
+                    if (name.startsWith(PACKAGES[i])) {
+                        return PACKAGE_FAMILIES[i];
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns {@code true} if given result or settings class belongs to a recognizer that reads
+     * barcodes, including US driver's license recognizer.
+     */
+    public static boolean isBarcodeClass(@NonNull Class<?> cls) {
+        for (Class<?> c = cls; c != null; c = c.getSuperclass()) {
+            if (c.getName().startsWith(BARCODE_PACKAGE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
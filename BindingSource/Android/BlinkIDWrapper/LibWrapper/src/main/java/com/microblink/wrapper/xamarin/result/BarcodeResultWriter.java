@@ -0,0 +1,84 @@
+package com.microblink.wrapper.xamarin.result;
+
+import android.support.annotation.Nullable;
+
+import com.microblink.recognizers.BaseRecognitionResult;
+import com.microblink.recognizers.blinkbarcode.BarcodeType;
+import com.microblink.recognizers.blinkbarcode.bardecoder.BarDecoderScanResult;
+import com.microblink.recognizers.blinkbarcode.pdf417.Pdf417ScanResult;
+import com.microblink.recognizers.blinkbarcode.zxing.ZXingScanResult;
+import com.microblink.results.barcode.BarcodeDetailedData;
+import com.microblink.wrapper.xamarin.BlinkID;
+
+import java.io.IOException;
+
+/**
+ * Writes fields of barcode results.
+ */
+final class BarcodeResultWriter extends ResultFamilyWriter {
+
+    private BarcodeResultWriter(RecognitionResultConverter converter) {
+        super(converter);
+    }
+
+    static ResultFamilyWriter create(RecognitionResultConverter converter) {
+        return new BarcodeResultWriter(converter);
+    }
+
+    @Override
+    boolean write(BaseRecognitionResult result, ResultSink sink) throws IOException {
+        if (result instanceof Pdf417ScanResult) {
+            writePdf417Result((Pdf417ScanResult) result, sink);
+        } else if (result instanceof BarDecoderScanResult) {
+            BarDecoderScanResult res = (BarDecoderScanResult) result;
+            writeBarcodeResult(BlinkID.BARDECODER_RESULT_TYPE, res.getBarcodeType(), res.getStringData(), sink);
+        } else if (result instanceof ZXingScanResult) {
+            ZXingScanResult res = (ZXingScanResult) result;
+            writeBarcodeResult(BlinkID.ZXING_RESULT_TYPE, res.getBarcodeType(), res.getStringData(), sink);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    boolean writeIdentity(BaseRecognitionResult result, ResultSink sink) throws IOException {
+        if (result instanceof Pdf417ScanResult) {
+            sink.put(BlinkID.BARCODE_DATA_KEY, ((Pdf417ScanResult) result).getStringData());
+        } else if (result instanceof BarDecoderScanResult) {
+            sink.put(BlinkID.BARCODE_DATA_KEY, ((BarDecoderScanResult) result).getStringData());
+        } else if (result instanceof ZXingScanResult) {
+            sink.put(BlinkID.BARCODE_DATA_KEY, ((ZXingScanResult) result).getStringData());
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Writes fields of Pdf417 scan result.
+     */
+    private void writePdf417Result(Pdf417ScanResult res, ResultSink sink) throws IOException {
+        sink.put(BlinkID.RESULT_TYPE_KEY, BlinkID.PDF417_RESULT_TYPE);
+        sink.put(BlinkID.BARCODE_TYPE_KEY, "PDF417");
+        // getStringData getter will return the string version of barcode contents
+        sink.put(BlinkID.BARCODE_DATA_KEY, res.getStringData());
+
+        // BarcodeDetailedData contains information about barcode's binary layout, if you
+        // are only interested in raw bytes, you can obtain them with getAllData getter
+        BarcodeDetailedData rawData = res.getRawData();
+        if (rawData != null) {
+            sink.put(BlinkID.BARCODE_RAW_DATA_KEY, RecognitionResultConverter.byteArrayToHex(rawData.getAllData()));
+        }
+    }
+
+    /**
+     * Writes fields of BarDecoder and Zxing scan results.
+     */
+    private void writeBarcodeResult(String resultType, @Nullable BarcodeType type, String barcodeData,
+                                    ResultSink sink) throws IOException {
+        sink.put(BlinkID.RESULT_TYPE_KEY, resultType);
+        sink.put(BlinkID.BARCODE_TYPE_KEY, type != null ? type.name() : BlinkID.UNKNOWN_RESULT_TYPE);
+        sink.put(BlinkID.BARCODE_DATA_KEY, barcodeData);
+    }
+}
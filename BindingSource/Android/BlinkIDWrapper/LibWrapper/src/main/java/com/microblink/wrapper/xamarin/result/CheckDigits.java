@@ -0,0 +1,227 @@
+package com.microblink.wrapper.xamarin.result;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Check digit algorithms of machine readable zones, IBANs and VINs. Values are checked
+ * character by character in place, so validating a result does not allocate.
+ */
+public final class CheckDigits {
+
+    private static final int[] MRZ_WEIGHTS = {7, 3, 1};
+
+    private static final int IBAN_MIN_LENGTH = 15;
+    private static final int IBAN_MAX_LENGTH = 34;
+
+    private static final int VIN_LENGTH = 17;
+    private static final int VIN_CHECK_DIGIT_INDEX = 8;
+    private static final int[] VIN_WEIGHTS = {8, 7, 6, 5, 4, 3, 2, 10, 0, 9, 8, 7, 6, 5, 4, 3, 2};
+    /** Transliteration of letters A-Z, 0 marks letters that are not allowed */
+    private static final int[] VIN_LETTER_VALUES = {
+            1, 2, 3, 4, 5, 6, 7, 8, 0, 1, 2, 3, 4, 5, 0, 7, 0, 9, 2, 3, 4, 5, 6, 7, 8, 9
+    };
+
+    private CheckDigits() {
+    }
+
+    /**
+     * Validates check digits of ICAO 9303 machine readable zone in TD1, TD2 or TD3 format.
+     * @param mrzText MRZ lines separated with line feeds.
+     * @return {@code false} if any check digit is wrong, {@code true} if all check digits are
+     *         correct or the format is not known, e.g. MRZ of a visa.
+     */
+    public static boolean isValidMrz(@NonNull CharSequence mrzText) {
+        int end = mrzText.length();
+        while (end > 0 && isLineBreak(mrzText.charAt(end - 1))) {
+            --end;
+        }
+        int line1 = 0;
+        int line2 = nextLine(mrzText, line1, end);
+        int line3 = nextLine(mrzText, line2, end);
+        int length = lineLength(mrzText, line1, end);
+        if (line2 < end && line3 < end && nextLine(mrzText, line3, end) >= end
+                && length == 30 && lineLength(mrzText, line2, end) == 30 && lineLength(mrzText, line3, end) == 30) {
+            return isValidTd1(mrzText, line1, line2);
+        }
+        if (line2 < end && line3 >= end && (length == 36 || length == 44) && lineLength(mrzText, line2, end) == length
+                && mrzText.charAt(line1) != 'V') {
+            return isValidTd2OrTd3(mrzText, line2, length);
+        }
+        return true;
+    }
+
+    private static boolean isValidTd1(CharSequence mrz, int line1, int line2) {
+        // document number longer than 9 characters continues in optional data and has its check digit there
+        boolean documentNumberValid = mrz.charAt(line1 + 14) == '<'
+                || hasValidCheckDigit(mrz, line1 + 5, line1 + 14);
+        if (!documentNumberValid
+                || !hasValidCheckDigit(mrz, line2, line2 + 6)
+                || !hasValidCheckDigit(mrz, line2 + 8, line2 + 14)) {
+            return false;
+        }
+        // composite check digit covers the fields with their check digits as a single value
+        int sum = add(mrzWeightedSum(mrz, line1 + 5, line1 + 30, 0),
+                mrzWeightedSum(mrz, line2, line2 + 7, 25));
+        sum = add(sum, mrzWeightedSum(mrz, line2 + 8, line2 + 15, 32));
+        sum = add(sum, mrzWeightedSum(mrz, line2 + 18, line2 + 29, 39));
+        return sum >= 0 && sum % 10 == mrzValue(mrz.charAt(line2 + 29));
+    }
+
+    private static boolean isValidTd2OrTd3(CharSequence mrz, int line2, int length) {
+        if (!hasValidCheckDigit(mrz, line2, line2 + 9)
+                || !hasValidCheckDigit(mrz, line2 + 13, line2 + 19)
+                || !hasValidCheckDigit(mrz, line2 + 21, line2 + 27)) {
+            return false;
+        }
+        if (length == 44 && !hasValidCheckDigit(mrz, line2 + 28, line2 + 42)) {
+            return false;
+        }
+        int sum = add(mrzWeightedSum(mrz, line2, line2 + 10, 0),
+                mrzWeightedSum(mrz, line2 + 13, line2 + 20, 10));
+        sum = add(sum, mrzWeightedSum(mrz, line2 + 21, line2 + length - 1, 17));
+        return sum >= 0 && sum % 10 == mrzValue(mrz.charAt(line2 + length - 1));
+    }
+
+    /**
+     * Validates MRZ check digit that follows given field.
+     * @param start Index of the first character of the field.
+     * @param end Index just after the field, which is index of its check digit.
+     */
+    private static boolean hasValidCheckDigit(CharSequence mrz, int start, int end) {
+        int sum = mrzWeightedSum(mrz, start, end, 0);
+        return sum >= 0 && sum % 10 == mrzValue(mrz.charAt(end));
+    }
+
+    /**
+     * @param firstPosition Position of the first character within the checked value, which
+     *                      defines its weight.
+     * @return Weighted sum of characters, or -1 if any character is not valid.
+     */
+    private static int mrzWeightedSum(CharSequence mrz, int start, int end, int firstPosition) {
+        int sum = 0;
+        for (int i = start; i < end; ++i) {
+            int value = mrzValue(mrz.charAt(i));
+            if (value < 0) {
+                return -1;
+            }
+            sum += value * MRZ_WEIGHTS[(firstPosition + i - start) % 3];
+        }
+        return sum;
+    }
+
+    private static int add(int sum, int other) {
+        return sum < 0 || other < 0 ? -1 : sum + other;
+    }
+
+    private static int mrzValue(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A' + 10;
+        }
+        if (c == '<') {
+            return 0;
+        }
+        return -1;
+    }
+
+    private static boolean isLineBreak(char c) {
+        return c == '\n' || c == '\r';
+    }
+
+    /**
+     * @return Index of the first character of the next line, or {@code end} if there is none.
+     */
+    private static int nextLine(CharSequence text, int lineStart, int end) {
+        int i = lineStart;
+        while (i < end && !isLineBreak(text.charAt(i))) {
+            ++i;
+        }
+        while (i < end && isLineBreak(text.charAt(i))) {
+            ++i;
+        }
+        return i;
+    }
+
+    private static int lineLength(CharSequence text, int lineStart, int end) {
+        int i = lineStart;
+        while (i < end && !isLineBreak(text.charAt(i))) {
+            ++i;
+        }
+        return i - lineStart;
+    }
+
+    /**
+     * Validates IBAN with ISO 7064 mod 97-10 checksum. Spaces are ignored.
+     * @return {@code true} if IBAN is well formed and its checksum is correct.
+     */
+    public static boolean isValidIban(@NonNull CharSequence iban) {
+        int count = 0;
+        int remainder = 0;
+        // country code and check digits are moved to the end, so they are processed in the second pass
+        for (int i = 0; i < iban.length(); ++i) {
+            char c = iban.charAt(i);
+            if (c == ' ') {
+                continue;
+            }
+            boolean letter = c >= 'A' && c <= 'Z';
+            boolean digit = c >= '0' && c <= '9';
+            if ((count < 2 && !letter) || (count >= 2 && count < 4 && !digit) || (!letter && !digit)) {
+                return false;
+            }
+            if (count >= 4) {
+                remainder = ibanStep(remainder, c);
+            }
+            ++count;
+        }
+        if (count < IBAN_MIN_LENGTH || count > IBAN_MAX_LENGTH) {
+            return false;
+        }
+        int processed = 0;
+        for (int i = 0; processed < 4; ++i) {
+            char c = iban.charAt(i);
+            if (c != ' ') {
+                remainder = ibanStep(remainder, c);
+                ++processed;
+            }
+        }
+        return remainder == 1;
+    }
+
+    private static int ibanStep(int remainder, char c) {
+        if (c <= '9') {
+            return (remainder * 10 + c - '0') % 97;
+        }
+        // letters are replaced with two digits, A = 10 ... Z = 35
+        return (remainder * 100 + c - 'A' + 10) % 97;
+    }
+
+    /**
+     * Validates check digit of VIN as defined by 49 CFR 565. Check digit is mandatory only for
+     * vehicles made for North America, VINs of other vehicles may have any character at
+     * position 9.
+     * @return {@code true} if VIN has 17 valid characters and its check digit is correct.
+     */
+    public static boolean isValidVin(@NonNull CharSequence vin) {
+        if (vin.length() != VIN_LENGTH) {
+            return false;
+        }
+        int sum = 0;
+        for (int i = 0; i < VIN_LENGTH; ++i) {
+            char c = vin.charAt(i);
+            int value;
+            if (c >= '0' && c <= '9') {
+                value = c - '0';
+            } else if (c >= 'A' && c <= 'Z' && VIN_LETTER_VALUES[c - 'A'] != 0) {
+                value = VIN_LETTER_VALUES[c - 'A'];
+            } else {
+                return false;
+            }
+            sum += value * VIN_WEIGHTS[i];
+        }
+        int checkDigit = sum % 11;
+        char expected = checkDigit == 10 ? 'X' : (char) ('0' + checkDigit);
+        return vin.charAt(VIN_CHECK_DIGIT_INDEX) == expected;
+    }
+}
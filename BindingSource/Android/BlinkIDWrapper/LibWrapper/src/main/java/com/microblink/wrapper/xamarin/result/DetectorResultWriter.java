@@ -0,0 +1,36 @@
+package com.microblink.wrapper.xamarin.result;
+
+import com.microblink.recognizers.BaseRecognitionResult;
+import com.microblink.recognizers.detector.DetectorRecognitionResult;
+import com.microblink.wrapper.xamarin.BlinkID;
+
+import java.io.IOException;
+
+/**
+ * Writes results of document detectors, which carry only the document image.
+ */
+final class DetectorResultWriter extends ResultFamilyWriter {
+
+    private DetectorResultWriter(RecognitionResultConverter converter) {
+        super(converter);
+    }
+
+    static ResultFamilyWriter create(RecognitionResultConverter converter) {
+        return new DetectorResultWriter(converter);
+    }
+
+    @Override
+    boolean write(BaseRecognitionResult result, ResultSink sink) throws IOException {
+        if (result instanceof DetectorRecognitionResult) {
+            sink.put(BlinkID.RESULT_TYPE_KEY, BlinkID.ID_CARD_DETECTOR_RESULT_TYPE);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    boolean writeIdentity(BaseRecognitionResult result, ResultSink sink) {
+        // detector results do not identify the document
+        return result instanceof DetectorRecognitionResult;
+    }
+}
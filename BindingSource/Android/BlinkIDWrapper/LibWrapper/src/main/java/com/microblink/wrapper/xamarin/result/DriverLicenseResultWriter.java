@@ -0,0 +1,51 @@
+package com.microblink.wrapper.xamarin.result;
+
+import com.microblink.recognizers.BaseRecognitionResult;
+import com.microblink.recognizers.blinkbarcode.usdl.USDLScanResult;
+import com.microblink.recognizers.blinkid.eudl.EUDLRecognitionResult;
+import com.microblink.wrapper.xamarin.BlinkID;
+
+import java.io.IOException;
+
+/**
+ * Writes fields of US and EU driver's license results.
+ */
+final class DriverLicenseResultWriter extends ResultFamilyWriter {
+
+    private DriverLicenseResultWriter(RecognitionResultConverter converter) {
+        super(converter);
+    }
+
+    static ResultFamilyWriter create(RecognitionResultConverter converter) {
+        return new DriverLicenseResultWriter(converter);
+    }
+
+    @Override
+    boolean write(BaseRecognitionResult result, ResultSink sink) throws IOException {
+        if (result instanceof USDLScanResult) {
+            mConverter.writeKeyValueResult(result, BlinkID.USDL_RESULT_TYPE, null, sink);
+        } else if (result instanceof EUDLRecognitionResult) {
+            writeEUDLResult((EUDLRecognitionResult) result, sink);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    boolean writeIdentity(BaseRecognitionResult result, ResultSink sink) throws IOException {
+        if (result instanceof USDLScanResult || result instanceof EUDLRecognitionResult) {
+            mConverter.writeKeyValueIdentity(result, sink);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Writes fields of EUDL scan result.
+     */
+    private void writeEUDLResult(EUDLRecognitionResult res, ResultSink sink) throws IOException {
+        mConverter.writeKeyValueResult(res, BlinkID.EUDL_RESULT_TYPE, BlinkID.EUDL_COUNTRY_KEY, sink);
+        sink.put(BlinkID.EUDL_COUNTRY_KEY, res.getCountry().name());
+    }
+}
@@ -0,0 +1,71 @@
+package com.microblink.wrapper.xamarin.result;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.microblink.wrapper.xamarin.BlinkID;
+
+/**
+ * Result sink that hashes only the fields which identify the scanned document: result type,
+ * document number, date of birth and barcode data. Other fields are ignored, so the same
+ * document scanned twice produces the same fingerprint even if OCR of other fields differs.
+ */
+public class FingerprintResultSink implements ResultSink {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private long mHash = FNV_OFFSET_BASIS;
+    private boolean mHasIdentity = false;
+
+    @Override
+    public void put(@NonNull String key, @Nullable String value) {
+        if (value == null) {
+            return;
+        }
+        if (BlinkID.RESULT_TYPE_KEY.equals(key)) {
+            hash(key, value);
+        } else if (BlinkID.DOCUMENT_NUMBER_KEY.equals(key)
+                || BlinkID.DATE_OF_BIRTH_KEY.equals(key)
+                || BlinkID.BARCODE_DATA_KEY.equals(key)) {
+            hash(key, value);
+            mHasIdentity = true;
+        }
+    }
+
+    private void hash(String key, String value) {
+        hash(key);
+        hash(value);
+    }
+
+    private void hash(String s) {
+        long h = mHash;
+        for (int i = 0, n = s.length(); i < n; ++i) {
+            h = (h ^ s.charAt(i)) * FNV_PRIME;
+        }
+        // separator, so that ("ab", "c") and ("a", "bc") differ
+        mHash = (h ^ 0xffff) * FNV_PRIME;
+    }
+
+    /**
+     * @return {@code true} if at least one identifying field besides result type was written.
+     */
+    public boolean hasIdentity() {
+        return mHasIdentity;
+    }
+
+    /**
+     * @return Fingerprint of identifying fields written since last reset.
+     */
+    public long getFingerprint() {
+        return mHash;
+    }
+
+    /**
+     * Clears the fingerprint, so the same sink can be reused.
+     */
+    public void reset() {
+        mHash = FNV_OFFSET_BASIS;
+        mHasIdentity = false;
+    }
+}
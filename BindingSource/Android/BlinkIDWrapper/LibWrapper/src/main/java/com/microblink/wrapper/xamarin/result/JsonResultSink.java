@@ -0,0 +1,36 @@
+package com.microblink.wrapper.xamarin.result;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Result sink that writes result fields as name/value pairs of the JSON object that is currently
+ * open in given {@link JsonWriter}. Opening and closing of the object is left to the caller.
+ */
+public class JsonResultSink implements ResultSink {
+
+    private JsonWriter mWriter;
+
+    /**
+     * @param writer JSON writer to which fields are written.
+     */
+    public JsonResultSink(@NonNull JsonWriter writer) {
+        mWriter = writer;
+    }
+
+    /**
+     * Redirects the sink to another JSON writer, so the same sink can be reused.
+     * @param writer JSON writer to which fields are written.
+     */
+    public void setWriter(@NonNull JsonWriter writer) {
+        mWriter = writer;
+    }
+
+    @Override
+    public void put(@NonNull String key, @Nullable String value) throws IOException {
+        mWriter.name(key).value(value);
+    }
+}
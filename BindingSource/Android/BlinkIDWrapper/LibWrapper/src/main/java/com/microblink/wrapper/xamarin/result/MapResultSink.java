@@ -0,0 +1,39 @@
+package com.microblink.wrapper.xamarin.result;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Result sink that collects result fields into a map.
+ */
+public class MapResultSink implements ResultSink {
+
+    private final Map<String, String> mMap;
+
+    public MapResultSink() {
+        this(new HashMap<String, String>());
+    }
+
+    /**
+     * @param map Map to which result fields are put.
+     */
+    public MapResultSink(@NonNull Map<String, String> map) {
+        mMap = map;
+    }
+
+    @Override
+    public void put(@NonNull String key, @Nullable String value) {
+        mMap.put(key, value);
+    }
+
+    /**
+     * @return Map with result fields.
+     */
+    @NonNull
+    public Map<String, String> getMap() {
+        return mMap;
+    }
+}
@@ -0,0 +1,72 @@
+package com.microblink.wrapper.xamarin.result;
+
+import com.microblink.recognizers.BaseRecognitionResult;
+import com.microblink.recognizers.blinkid.mrtd.MRTDRecognitionResult;
+import com.microblink.wrapper.xamarin.BlinkID;
+
+import java.io.IOException;
+
+/**
+ * Writes fields of MRTD results. ID card results that extend MRTD result belong to
+ * {@link NationalIdResultWriter}, which writes their MRZ fields with
+ * {@link #writeMRTDFields(RecognitionResultConverter, MRTDRecognitionResult, ResultSink)}.
+ */
+final class MrtdResultWriter extends ResultFamilyWriter {
+
+    private MrtdResultWriter(RecognitionResultConverter converter) {
+        super(converter);
+    }
+
+    static ResultFamilyWriter create(RecognitionResultConverter converter) {
+        return new MrtdResultWriter(converter);
+    }
+
+    @Override
+    boolean write(BaseRecognitionResult result, ResultSink sink) throws IOException {
+        if (result instanceof MRTDRecognitionResult) {
+            sink.put(BlinkID.RESULT_TYPE_KEY, BlinkID.MRTD_RESULT_TYPE);
+            writeMRTDFields(mConverter, (MRTDRecognitionResult) result, sink);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    boolean writeIdentity(BaseRecognitionResult result, ResultSink sink) throws IOException {
+        if (result instanceof MRTDRecognitionResult) {
+            writeMRTDIdentity((MRTDRecognitionResult) result, sink);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Writes identifying fields of MRTD based results. Raw date of birth is used, so the
+     * identity does not depend on the date format.
+     */
+    static void writeMRTDIdentity(MRTDRecognitionResult res, ResultSink sink) throws IOException {
+        sink.put(BlinkID.DOCUMENT_NUMBER_KEY, res.getDocumentNumber());
+        sink.put(BlinkID.DATE_OF_BIRTH_KEY, res.getRawDateOfBirth());
+    }
+
+    /**
+     * Writes fields that are common for all MRTD based results, without the result type.
+     */
+    static void writeMRTDFields(RecognitionResultConverter converter, MRTDRecognitionResult res, ResultSink sink)
+            throws IOException {
+        sink.put(BlinkID.PRIMARY_ID_KEY, res.getPrimaryId());
+        sink.put(BlinkID.SECONDARY_ID_KEY, res.getSecondaryId());
+        converter.putDate(BlinkID.DATE_OF_BIRTH_KEY, res.getDateOfBirth(), sink);
+        sink.put(BlinkID.DATE_OF_BIRTH_RAW_KEY, res.getRawDateOfBirth());
+        sink.put(BlinkID.SEX_KEY, res.getSex());
+        sink.put(BlinkID.NATIONALITY_KEY, res.getNationality());
+        sink.put(BlinkID.DOCUMENT_CODE_KEY, res.getDocumentCode());
+        sink.put(BlinkID.ISSUER_KEY, res.getIssuer());
+        converter.putDate(BlinkID.DATE_OF_EXPIRY_KEY, res.getDateOfExpiry(), sink);
+        sink.put(BlinkID.DATE_OF_EXPIRY_RAW_KEY, res.getRawDateOfExpiry());
+        sink.put(BlinkID.OPT2_KEY, res.getOpt2());
+        sink.put(BlinkID.OPT1_KEY, res.getOpt1());
+        sink.put(BlinkID.DOCUMENT_NUMBER_KEY, res.getDocumentNumber());
+        sink.put(BlinkID.MRZ_RAW_KEY, res.getMRZText());
+    }
+}
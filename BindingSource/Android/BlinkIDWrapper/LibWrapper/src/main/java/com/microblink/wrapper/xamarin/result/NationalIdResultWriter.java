@@ -0,0 +1,316 @@
+package com.microblink.wrapper.xamarin.result;
+
+import com.microblink.recognizers.BaseRecognitionResult;
+import com.microblink.recognizers.blinkid.austria.back.AustrianIDBackSideRecognitionResult;
+import com.microblink.recognizers.blinkid.austria.front.AustrianIDFrontSideRecognitionResult;
+import com.microblink.recognizers.blinkid.croatia.back.CroatianIDBackSideRecognitionResult;
+import com.microblink.recognizers.blinkid.croatia.front.CroatianIDFrontSideRecognitionResult;
+import com.microblink.recognizers.blinkid.czechia.back.CzechIDBackSideRecognitionResult;
+import com.microblink.recognizers.blinkid.czechia.front.CzechIDFrontSideRecognitionResult;
+import com.microblink.recognizers.blinkid.germany.front.GermanIDFrontSideRecognitionResult;
+import com.microblink.recognizers.blinkid.germany.mrz.GermanIDMRZSideRecognitionResult;
+import com.microblink.recognizers.blinkid.malaysia.IKadRecognitionResult;
+import com.microblink.recognizers.blinkid.malaysia.MyKadRecognitionResult;
+import com.microblink.recognizers.blinkid.mrtd.MRTDRecognitionResult;
+import com.microblink.recognizers.blinkid.serbia.back.SerbianIDBackSideRecognitionResult;
+import com.microblink.recognizers.blinkid.serbia.front.SerbianIDFrontSideRecognitionResult;
+import com.microblink.recognizers.blinkid.singapore.SingaporeIDRecognitionResult;
+import com.microblink.recognizers.blinkid.slovakia.back.SlovakIDBackSideRecognitionResult;
+import com.microblink.recognizers.blinkid.slovakia.front.SlovakIDFrontSideRecognitionResult;
+import com.microblink.recognizers.blinkid.slovenia.back.SlovenianIDBackSideRecognitionResult;
+import com.microblink.recognizers.blinkid.slovenia.front.SlovenianIDFrontSideRecognitionResult;
+import com.microblink.wrapper.xamarin.BlinkID;
+
+import java.io.IOException;
+
+/**
+ * Writes fields of national ID card and Malaysian document results. Fields that ID cards share
+ * with MRTD results are written by {@link MrtdResultWriter}.
+ */
+final class NationalIdResultWriter extends ResultFamilyWriter {
+
+    private NationalIdResultWriter(RecognitionResultConverter converter) {
+        super(converter);
+    }
+
+    static ResultFamilyWriter create(RecognitionResultConverter converter) {
+        return new NationalIdResultWriter(converter);
+    }
+
+    @Override
+    boolean write(BaseRecognitionResult result, ResultSink sink) throws IOException {
+        if (result instanceof AustrianIDFrontSideRecognitionResult) {
+            writeAustrianIdFrontResult((AustrianIDFrontSideRecognitionResult) result, sink);
+        } else if (result instanceof AustrianIDBackSideRecognitionResult) {
+            writeAustrianIdBackResult((AustrianIDBackSideRecognitionResult) result, sink);
+        } else if (result instanceof CzechIDFrontSideRecognitionResult) {
+            writeCzIdFrontResult((CzechIDFrontSideRecognitionResult) result, sink);
+        } else if (result instanceof CzechIDBackSideRecognitionResult) {
+            writeCzIdBackResult((CzechIDBackSideRecognitionResult) result, sink);
+        } else if (result instanceof CroatianIDFrontSideRecognitionResult) {
+            writeCroIdFrontResult((CroatianIDFrontSideRecognitionResult) result, sink);
+        } else if (result instanceof CroatianIDBackSideRecognitionResult) {
+            writeCroIdBackResult((CroatianIDBackSideRecognitionResult) result, sink);
+        } else if (result instanceof GermanIDMRZSideRecognitionResult) {
+            writeGermanIdMRZSideResult((GermanIDMRZSideRecognitionResult) result, sink);
+        } else if (result instanceof GermanIDFrontSideRecognitionResult) {
+            writeGermanIdFrontResult((GermanIDFrontSideRecognitionResult) result, sink);
+        } else if (result instanceof SerbianIDBackSideRecognitionResult) {
+            writeSerbianIdBackResult((SerbianIDBackSideRecognitionResult) result, sink);
+        } else if (result instanceof SerbianIDFrontSideRecognitionResult) {
+            writeSerbianIdFrontResult((SerbianIDFrontSideRecognitionResult) result, sink);
+        } else if (result instanceof SlovakIDBackSideRecognitionResult) {
+            writeSlovakIdBackResult((SlovakIDBackSideRecognitionResult) result, sink);
+        } else if (result instanceof SlovakIDFrontSideRecognitionResult) {
+            writeSlovakIdFrontResult((SlovakIDFrontSideRecognitionResult) result, sink);
+        } else if (result instanceof SlovenianIDBackSideRecognitionResult) {
+            writeSlovenianIdBackResult((SlovenianIDBackSideRecognitionResult) result, sink);
+        } else if (result instanceof SlovenianIDFrontSideRecognitionResult) {
+            writeSlovenianIdFrontResult((SlovenianIDFrontSideRecognitionResult) result, sink);
+        } else if (result instanceof SingaporeIDRecognitionResult) {
+            writeSingaporeIdResult((SingaporeIDRecognitionResult) result, sink);
+        } else if (result instanceof MyKadRecognitionResult) {
+            mConverter.writeKeyValueResult(result, BlinkID.MYKAD_RESULT_TYPE, null, sink);
+        } else if (result instanceof IKadRecognitionResult) {
+            writeIKadResult((IKadRecognitionResult) result, sink);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    boolean writeIdentity(BaseRecognitionResult result, ResultSink sink) throws IOException {
+        if (result instanceof MRTDRecognitionResult) {
+            // back sides and German MRZ side are identified by their MRZ
+            MrtdResultWriter.writeMRTDIdentity((MRTDRecognitionResult) result, sink);
+        } else if (result instanceof AustrianIDFrontSideRecognitionResult) {
+            AustrianIDFrontSideRecognitionResult res = (AustrianIDFrontSideRecognitionResult) result;
+            mConverter.putIdentity(res.getIdentityCardNumber(), res.getDateOfBirth(), sink);
+        } else if (result instanceof CzechIDFrontSideRecognitionResult) {
+            CzechIDFrontSideRecognitionResult res = (CzechIDFrontSideRecognitionResult) result;
+            mConverter.putIdentity(res.getIdentityCardNumber(), res.getDateOfBirth(), sink);
+        } else if (result instanceof CroatianIDFrontSideRecognitionResult) {
+            CroatianIDFrontSideRecognitionResult res = (CroatianIDFrontSideRecognitionResult) result;
+            mConverter.putIdentity(res.getIdentityCardNumber(), res.getDateOfBirth(), sink);
+        } else if (result instanceof GermanIDFrontSideRecognitionResult) {
+            GermanIDFrontSideRecognitionResult res = (GermanIDFrontSideRecognitionResult) result;
+            mConverter.putIdentity(res.getIdentityCardNumber(), res.getDateOfBirth(), sink);
+        } else if (result instanceof SerbianIDFrontSideRecognitionResult) {
+            mConverter.putIdentity(((SerbianIDFrontSideRecognitionResult) result).getDocumentNumber(), null, sink);
+        } else if (result instanceof SlovakIDFrontSideRecognitionResult) {
+            SlovakIDFrontSideRecognitionResult res = (SlovakIDFrontSideRecognitionResult) result;
+            mConverter.putIdentity(res.getIdentityCardNumber(), res.getDateOfBirth(), sink);
+        } else if (result instanceof SlovenianIDFrontSideRecognitionResult) {
+            mConverter.putIdentity(null, ((SlovenianIDFrontSideRecognitionResult) result).getDateOfBirth(), sink);
+        } else if (result instanceof SingaporeIDRecognitionResult) {
+            SingaporeIDRecognitionResult res = (SingaporeIDRecognitionResult) result;
+            if (res.getDocumentClassification() != SingaporeIDRecognitionResult.SingaporeIDClassification.BACK_SIDE) {
+                mConverter.putIdentity(res.getCardNumber(), res.getDateOfBirth(), sink);
+            }
+        } else if (result instanceof MyKadRecognitionResult) {
+            mConverter.writeKeyValueIdentity(result, sink);
+        } else if (result instanceof IKadRecognitionResult) {
+            mConverter.putIdentity(null, ((IKadRecognitionResult) result).getDateOfBirth(), sink);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Writes fields of Malaysian iKad scan result.
+     */
+    private void writeIKadResult(IKadRecognitionResult result, ResultSink sink) throws IOException {
+        sink.put(BlinkID.RESULT_TYPE_KEY, BlinkID.IKAD_RESULT_TYPE);
+
+        sink.put(BlinkID.FULL_NAME_KEY, result.getFullName());
+        sink.put(BlinkID.ADDRESS_KEY, result.getAddress());
+        mConverter.putDate(BlinkID.DATE_OF_BIRTH_KEY, result.getDateOfBirth(), sink);
+        sink.put(BlinkID.EMPLOYER_KEY, result.getEmployer());
+        mConverter.putDate(BlinkID.DATE_OF_EXPIRY_KEY, result.getExpiryDate(), sink);
+        sink.put(BlinkID.NATIONALITY_KEY, result.getNationality());
+        sink.put(BlinkID.PASSPORT_NUMBER_KEY, result.getPassportNumber());
+        sink.put(BlinkID.SECTOR_KEY, result.getSector());
+        sink.put(BlinkID.SEX_KEY, result.getSex());
+    }
+
+    private void writeCzIdBackResult(CzechIDBackSideRecognitionResult result, ResultSink sink) throws IOException {
+        sink.put(BlinkID.RESULT_TYPE_KEY, BlinkID.CZ_ID_BACK_RESULT_TYPE);
+        MrtdResultWriter.writeMRTDFields(mConverter, result, sink);
+
+        sink.put(BlinkID.ADDRESS_KEY, result.getAddress());
+        sink.put(BlinkID.ISSUING_AUTHORITY_KEY, result.getAuthority());
+        sink.put(BlinkID.PERSONAL_NUMBER_KEY, result.getPersonalNumber());
+    }
+
+    private void writeCzIdFrontResult(CzechIDFrontSideRecognitionResult result, ResultSink sink) throws IOException {
+        sink.put(BlinkID.RESULT_TYPE_KEY, BlinkID.CZ_ID_FRONT_RESULT_TYPE);
+
+        sink.put(BlinkID.FIRST_NAME_KEY, result.getFirstName());
+        sink.put(BlinkID.LAST_NAME_KEY, result.getLastName());
+        sink.put(BlinkID.DOCUMENT_NUMBER_KEY, result.getIdentityCardNumber());
+        sink.put(BlinkID.SEX_KEY, result.getSex());
+        sink.put(BlinkID.PLACE_OF_BIRTH_KEY, result.getPlaceOfBirth());
+        mConverter.putDate(BlinkID.DATE_OF_BIRTH_KEY, result.getDateOfBirth(), sink);
+        mConverter.putDate(BlinkID.DATE_OF_ISSUE_KEY, result.getDateOfIssue(), sink);
+        mConverter.putDate(BlinkID.DATE_OF_EXPIRY_KEY, result.getDateOfExpiry(), sink);
+    }
+
+    private void writeAustrianIdBackResult(AustrianIDBackSideRecognitionResult result, ResultSink sink) throws IOException {
+        sink.put(BlinkID.RESULT_TYPE_KEY, BlinkID.AUT_ID_BACK_RESULT_TYPE);
+        MrtdResultWriter.writeMRTDFields(mConverter, result, sink);
+
+        sink.put(BlinkID.PLACE_OF_BIRTH_KEY, result.getPlaceOfBirth());
+        sink.put(BlinkID.EYE_COLOR_KEY, result.getEyeColour());
+        sink.put(BlinkID.ISSUING_AUTHORITY_KEY, result.getIssuingAuthority());
+        sink.put(BlinkID.PRINCIPAL_RESIDENCE_AT_ISSUANCE_KEY, result.getPrincipalResidenceAtIssuance());
+        sink.put(BlinkID.HEIGHT_KEY, Integer.toString(result.getHeight()));
+        mConverter.putDate(BlinkID.DATE_OF_ISSUE_KEY, result.getDateOfIssuance(), sink);
+    }
+
+    private void writeAustrianIdFrontResult(AustrianIDFrontSideRecognitionResult result, ResultSink sink) throws IOException {
+        sink.put(BlinkID.RESULT_TYPE_KEY, BlinkID.AUT_ID_FRONT_RESULT_TYPE);
+
+        sink.put(BlinkID.FIRST_NAME_KEY, result.getFirstName());
+        sink.put(BlinkID.LAST_NAME_KEY, result.getLastName());
+        sink.put(BlinkID.DOCUMENT_NUMBER_KEY, result.getIdentityCardNumber());
+        sink.put(BlinkID.SEX_KEY, result.getSex());
+        mConverter.putDate(BlinkID.DATE_OF_BIRTH_KEY, result.getDateOfBirth(), sink);
+    }
+
+    private void writeCroIdFrontResult(CroatianIDFrontSideRecognitionResult result, ResultSink sink) throws IOException {
+        sink.put(BlinkID.RESULT_TYPE_KEY, BlinkID.CRO_ID_FRONT_RESULT_TYPE);
+
+        sink.put(BlinkID.FIRST_NAME_KEY, result.getFirstName());
+        sink.put(BlinkID.LAST_NAME_KEY, result.getLastName());
+        sink.put(BlinkID.DOCUMENT_NUMBER_KEY, result.getIdentityCardNumber());
+        sink.put(BlinkID.SEX_KEY, result.getSex());
+        sink.put(BlinkID.CITIZENSHIP_KEY, result.getCitizenship());
+        mConverter.putDate(BlinkID.DATE_OF_BIRTH_KEY, result.getDateOfBirth(), sink);
+        mConverter.putDate(BlinkID.DATE_OF_EXPIRY_KEY, result.getDocumentDateOfExpiry(), sink);
+    }
+
+    private void writeCroIdBackResult(CroatianIDBackSideRecognitionResult result, ResultSink sink) throws IOException {
+        sink.put(BlinkID.RESULT_TYPE_KEY, BlinkID.CRO_ID_BACK_RESULT_TYPE);
+        MrtdResultWriter.writeMRTDFields(mConverter, result, sink);
+
+        sink.put(BlinkID.ADDRESS_KEY, result.getAddress());
+        sink.put(BlinkID.ISSUING_AUTHORITY_KEY, result.getIssuingAuthority());
+        mConverter.putDate(BlinkID.DATE_OF_ISSUE_KEY, result.getDocumentDateOfIssue(), sink);
+    }
+
+    private void writeGermanIdFrontResult(GermanIDFrontSideRecognitionResult result, ResultSink sink) throws IOException {
+        sink.put(BlinkID.RESULT_TYPE_KEY, BlinkID.DE_ID_FRONT_RESULT_TYPE);
+
+        sink.put(BlinkID.FIRST_NAME_KEY, result.getFirstName());
+        sink.put(BlinkID.LAST_NAME_KEY, result.getLastName());
+        sink.put(BlinkID.NATIONALITY_KEY, result.getNationality());
+        sink.put(BlinkID.PLACE_OF_BIRTH_KEY, result.getPlaceOfBirth());
+        mConverter.putDate(BlinkID.DATE_OF_BIRTH_KEY, result.getDateOfBirth(), sink);
+        sink.put(BlinkID.DOCUMENT_NUMBER_KEY, result.getIdentityCardNumber());
+        mConverter.putDate(BlinkID.DATE_OF_EXPIRY_KEY, result.getDateOfExpiry(), sink);
+    }
+
+    private void writeGermanIdMRZSideResult(GermanIDMRZSideRecognitionResult result, ResultSink sink) throws IOException {
+        sink.put(BlinkID.RESULT_TYPE_KEY, BlinkID.DE_ID_MRZ_SIDE_RESULT_TYPE);
+        MrtdResultWriter.writeMRTDFields(mConverter, result, sink);
+
+        String address = result.getAddress();
+        if (address != null && !address.isEmpty()) {
+            sink.put(BlinkID.ADDRESS_KEY, address);
+        }
+
+        String authority = result.getAuthority();
+        if (authority != null && !authority.isEmpty()) {
+            sink.put(BlinkID.AUTHORITY_KEY, authority);
+        }
+
+        mConverter.putDate(BlinkID.DATE_OF_ISSUE_KEY, result.getDateOfIssue(), sink);
+
+        String eyeColor = result.getEyeColour();
+        if (eyeColor != null && !eyeColor.isEmpty()) {
+            sink.put(BlinkID.EYE_COLOR_KEY, eyeColor);
+        }
+
+        mConverter.putCentimeters(BlinkID.HEIGHT_KEY, result.getHeight(), sink);
+    }
+
+    private void writeSerbianIdFrontResult(SerbianIDFrontSideRecognitionResult result, ResultSink sink) throws IOException {
+        sink.put(BlinkID.RESULT_TYPE_KEY, BlinkID.SRB_ID_FRONT_RESULT_TYPE);
+
+        mConverter.putDate(BlinkID.DATE_OF_ISSUE_KEY, result.getIssuingDate(), sink);
+        mConverter.putDate(BlinkID.DATE_OF_EXPIRY_KEY, result.getValidUntil(), sink);
+        sink.put(BlinkID.DOCUMENT_NUMBER_KEY, result.getDocumentNumber());
+    }
+
+    private void writeSerbianIdBackResult(SerbianIDBackSideRecognitionResult result, ResultSink sink) throws IOException {
+        sink.put(BlinkID.RESULT_TYPE_KEY, BlinkID.SRB_ID_BACK_RESULT_TYPE);
+        MrtdResultWriter.writeMRTDFields(mConverter, result, sink);
+    }
+
+    private void writeSlovakIdFrontResult(SlovakIDFrontSideRecognitionResult result, ResultSink sink) throws IOException {
+        sink.put(BlinkID.RESULT_TYPE_KEY, BlinkID.SVK_ID_FRONT_RESULT_TYPE);
+
+        sink.put(BlinkID.FIRST_NAME_KEY, result.getFirstName());
+        sink.put(BlinkID.LAST_NAME_KEY, result.getLastName());
+        sink.put(BlinkID.NATIONALITY_KEY, result.getNationality());
+        sink.put(BlinkID.SEX_KEY, result.getSex());
+        sink.put(BlinkID.DOCUMENT_NUMBER_KEY, result.getIdentityCardNumber());
+        sink.put(BlinkID.ISSUING_AUTHORITY_KEY, result.getIssuingAuthority());
+        mConverter.putDate(BlinkID.DATE_OF_BIRTH_KEY, result.getDateOfBirth(), sink);
+        sink.put(BlinkID.PERSONAL_NUMBER_KEY, result.getPersonalNumber());
+        mConverter.putDate(BlinkID.DATE_OF_EXPIRY_KEY, result.getDateOfExpiry(), sink);
+        mConverter.putDate(BlinkID.DATE_OF_ISSUE_KEY, result.getDateOfIssue(), sink);
+    }
+
+    private void writeSlovakIdBackResult(SlovakIDBackSideRecognitionResult result, ResultSink sink) throws IOException {
+        sink.put(BlinkID.RESULT_TYPE_KEY, BlinkID.SVK_ID_BACK_RESULT_TYPE);
+        MrtdResultWriter.writeMRTDFields(mConverter, result, sink);
+
+        sink.put(BlinkID.ADDRESS_KEY, result.getAddress());
+        sink.put(BlinkID.SURNAME_AT_BIRTH_KEY, result.getSurnameAtBirth());
+        sink.put(BlinkID.PLACE_OF_BIRTH_KEY, result.getPlaceOfBirth());
+        sink.put(BlinkID.SPECIAL_REMARKS_KEY, result.getSpecialRemarks());
+    }
+
+    private void writeSlovenianIdFrontResult(SlovenianIDFrontSideRecognitionResult result, ResultSink sink) throws IOException {
+        sink.put(BlinkID.RESULT_TYPE_KEY, BlinkID.SVN_ID_FRONT_RESULT_TYPE);
+
+        sink.put(BlinkID.FIRST_NAME_KEY, result.getFirstName());
+        sink.put(BlinkID.LAST_NAME_KEY, result.getLastName());
+        sink.put(BlinkID.SEX_KEY, result.getSex());
+        sink.put(BlinkID.NATIONALITY_KEY, result.getNationality());
+        mConverter.putDate(BlinkID.DATE_OF_BIRTH_KEY, result.getDateOfBirth(), sink);
+        mConverter.putDate(BlinkID.DATE_OF_EXPIRY_KEY, result.getDateOfExpiry(), sink);
+    }
+
+    private void writeSlovenianIdBackResult(SlovenianIDBackSideRecognitionResult result, ResultSink sink) throws IOException {
+        sink.put(BlinkID.RESULT_TYPE_KEY, BlinkID.SVN_ID_BACK_RESULT_TYPE);
+        MrtdResultWriter.writeMRTDFields(mConverter, result, sink);
+
+        sink.put(BlinkID.ADDRESS_KEY, result.getAddress());
+        sink.put(BlinkID.AUTHORITY_KEY, result.getAuthority());
+        mConverter.putDate(BlinkID.DATE_OF_ISSUE_KEY, result.getDateOfIssue(), sink);
+    }
+
+    private void writeSingaporeIdResult(SingaporeIDRecognitionResult result, ResultSink sink) throws IOException {
+        SingaporeIDRecognitionResult.SingaporeIDClassification classification =  result.getDocumentClassification();
+        if (classification == SingaporeIDRecognitionResult.SingaporeIDClassification.BACK_SIDE) {
+            sink.put(BlinkID.RESULT_TYPE_KEY, BlinkID.SINGAPORE_ID_BACK_RESULT_TYPE);
+
+            sink.put(BlinkID.BLOOD_GROUP_KEY, result.getBloodGroup());
+            mConverter.putDate(BlinkID.DATE_OF_ISSUE_KEY, result.getDocumentDateOfIssue(), sink);
+            sink.put(BlinkID.ADDRESS_KEY, result.getAddress());
+        } else {
+            sink.put(BlinkID.RESULT_TYPE_KEY, BlinkID.SINGAPORE_ID_FRONT_RESULT_TYPE);
+
+            sink.put(BlinkID.DOCUMENT_NUMBER_KEY, result.getCardNumber());
+            sink.put(BlinkID.FULL_NAME_KEY, result.getName());
+            sink.put(BlinkID.RACE_KEY, result.getRace());
+            mConverter.putDate(BlinkID.DATE_OF_BIRTH_KEY, result.getDateOfBirth(), sink);
+            sink.put(BlinkID.SEX_KEY, result.getSex());
+            sink.put(BlinkID.COUNTRY_OF_BIRTH_KEY, result.getCountryOfBirth());
+        }
+    }
+}
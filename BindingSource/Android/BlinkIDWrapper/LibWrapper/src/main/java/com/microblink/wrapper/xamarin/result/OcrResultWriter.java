@@ -0,0 +1,47 @@
+package com.microblink.wrapper.xamarin.result;
+
+import com.microblink.recognizers.BaseRecognitionResult;
+import com.microblink.recognizers.blinkocr.BlinkOCRRecognitionResult;
+import com.microblink.wrapper.xamarin.BlinkID;
+
+import java.io.IOException;
+
+/**
+ * Writes results of OCR parsers.
+ */
+final class OcrResultWriter extends ResultFamilyWriter {
+
+    private OcrResultWriter(RecognitionResultConverter converter) {
+        super(converter);
+    }
+
+    static ResultFamilyWriter create(RecognitionResultConverter converter) {
+        return new OcrResultWriter(converter);
+    }
+
+    @Override
+    boolean write(BaseRecognitionResult result, ResultSink sink) throws IOException {
+        if (result instanceof BlinkOCRRecognitionResult) {
+            writeOcrResult((BlinkOCRRecognitionResult) result, sink);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    boolean writeIdentity(BaseRecognitionResult result, ResultSink sink) {
+        // parsed free text does not identify the document
+        return result instanceof BlinkOCRRecognitionResult;
+    }
+
+    private void writeOcrResult(BlinkOCRRecognitionResult result, ResultSink sink) throws IOException {
+        sink.put(BlinkID.RESULT_TYPE_KEY, BlinkID.OCR_RESULT_TYPE);
+
+        for (String parserId: mConverter.getParserIdentifiers()) {
+            String parserRes = result.getParsedResult(parserId);
+            if (parserRes != null && !parserRes.isEmpty()) {
+                sink.put(parserId, parserRes);
+            }
+        }
+    }
+}
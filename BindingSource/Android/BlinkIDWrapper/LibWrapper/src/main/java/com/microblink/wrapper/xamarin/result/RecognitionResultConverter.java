@@ -0,0 +1,335 @@
+package com.microblink.wrapper.xamarin.result;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.JsonWriter;
+
+import com.microblink.recognizers.BaseRecognitionResult;
+import com.microblink.recognizers.IResultHolder;
+import com.microblink.util.Log;
+import com.microblink.wrapper.xamarin.BlinkID;
+import com.microblink.wrapper.xamarin.recognizer.RecognizerFamily;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Converts recognition results to key/value fields and writes them to a {@link ResultSink}.
+ *
+ * The same conversion is used for building result maps delivered to
+ * {@link com.microblink.wrapper.xamarin.BlinkIdResultListener} and for streaming results
+ * directly to JSON, so both contain the same keys and values. Result type is always written
+ * first, under {@link BlinkID#RESULT_TYPE_KEY} key.
+ */
+public class RecognitionResultConverter {
+
+    private static final String PAYMENT_DATA_KEY = "PaymentDataType";
+
+    /** Keys of key/value results whose values identify the scanned document */
+    private static final String[] IDENTITY_KEYS = {
+            BlinkID.DOCUMENT_NUMBER_KEY, BlinkID.DATE_OF_BIRTH_KEY, BlinkID.BARCODE_DATA_KEY
+    };
+
+    private static final String CENTIMETERS_SUFFIX = " cm";
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * Date format for date results. It is never used for formatting, because date formats are
+     * not thread safe and results may be delivered from several threads at once, each thread
+     * formats with its own copy, see {@link #getDateFormat()}.
+     */
+    private volatile DateFormat mDateFormat = new SimpleDateFormat("dd/MM/yyyy");
+
+    /** Copy of the date format owned by the current thread */
+    private final ThreadLocal<DateFormatCopy> mThreadDateFormat = new ThreadLocal<>();
+
+    private final String[] mParserIdentifiers;
+
+    /** Whether every written result is marked with {@link BlinkID#REPEATED_SCAN_KEY} */
+    private final boolean mMarkRepeated;
+
+    /** Writers of recognizer families by family ordinal, created on first use */
+    private final ResultFamilyWriter[] mWriters = new ResultFamilyWriter[RecognizerFamily.values().length];
+
+    /**
+     * @param parserIdentifiers Identifiers of OCR parsers whose results are written for
+     *                          OCR results, or {@code null} if no parsers are used.
+     */
+    public RecognitionResultConverter(@Nullable String[] parserIdentifiers) {
+        this(parserIdentifiers != null ? parserIdentifiers : new String[0], false);
+    }
+
+    private RecognitionResultConverter(@NonNull String[] parserIdentifiers, boolean markRepeated) {
+        mParserIdentifiers = parserIdentifiers;
+        mMarkRepeated = markRepeated;
+    }
+
+    /**
+     * Returns converter that writes the same fields as this converter, followed by
+     * {@link BlinkID#REPEATED_SCAN_KEY} set to {@code true}. It is used for results that
+     * {@link ResultDeduplicator} recognized as a repeat in
+     * {@link ResultDeduplicator.Mode#MARK} mode.
+     */
+    @NonNull
+    public RecognitionResultConverter markedAsRepeated() {
+        RecognitionResultConverter marked = new RecognitionResultConverter(mParserIdentifiers, true);
+        marked.mDateFormat = mDateFormat;
+        return marked;
+    }
+
+    /**
+     * Defines the format used for date results. Default format is dd/MM/yyyy. Given format is
+     * copied, so later changes of it are not used.
+     * @param dateFormat Date format.
+     */
+    public void setDateFormat(@NonNull DateFormat dateFormat) {
+        mDateFormat = (DateFormat) dateFormat.clone();
+    }
+
+    /**
+     * Returns {@code true} if image of the scanned document should be returned together with
+     * given result.
+     * @param result Recognition result.
+     */
+    public static boolean carriesDocumentImage(@NonNull BaseRecognitionResult result) {
+        Class<?> cls = result.getClass();
+        return RecognizerFamily.forClass(cls) != RecognizerFamily.OCR && !RecognizerFamily.isBarcodeClass(cls);
+    }
+
+    /**
+     * Builds result map for given result.
+     * @param result Recognition result.
+     * @return Map that contains result fields.
+     */
+    @NonNull
+    public Map<String, String> toMap(@NonNull BaseRecognitionResult result) {
+        MapResultSink sink = new MapResultSink();
+        try {
+            write(result, sink);
+        } catch (IOException e) {
+            // map sink does not perform any IO
+            throw new IllegalStateException(e);
+        }
+        return sink.getMap();
+    }
+
+    /**
+     * Writes given results to the output stream as UTF-8 encoded JSON array of objects. Stream
+     * is flushed, but not closed.
+     * @param results Recognition results.
+     * @param out Output stream.
+     * @throws IOException If output stream cannot be written.
+     */
+    public void writeJson(@NonNull BaseRecognitionResult[] results, @NonNull OutputStream out) throws IOException {
+        JsonWriter writer = new JsonWriter(new OutputStreamWriter(out, "UTF-8"));
+        writeJson(results, writer);
+        writer.flush();
+    }
+
+    /**
+     * Writes given results as JSON array of objects.
+     * @param results Recognition results.
+     * @param writer JSON writer.
+     * @throws IOException If JSON writer cannot be written.
+     */
+    public void writeJson(@NonNull BaseRecognitionResult[] results, @NonNull JsonWriter writer) throws IOException {
+        JsonResultSink sink = new JsonResultSink(writer);
+        writer.beginArray();
+        for (BaseRecognitionResult result : results) {
+            writer.beginObject();
+            write(result, sink);
+            writer.endObject();
+        }
+        writer.endArray();
+    }
+
+    /**
+     * Writes given result as JSON object.
+     * @param result Recognition result.
+     * @param writer JSON writer.
+     * @throws IOException If JSON writer cannot be written.
+     */
+    public void writeJson(@NonNull BaseRecognitionResult result, @NonNull JsonWriter writer) throws IOException {
+        writer.beginObject();
+        write(result, new JsonResultSink(writer));
+        writer.endObject();
+    }
+
+    /**
+     * Writes fields of given result to the sink.
+     * @param result Recognition result.
+     * @param sink Destination of result fields.
+     * @throws IOException If sink cannot be written.
+     * @throws RuntimeException If result type is not supported.
+     */
+    public void write(@NonNull BaseRecognitionResult result, @NonNull ResultSink sink) throws IOException {
+        RecognizerFamily family = RecognizerFamily.forClass(result.getClass());
+        if (family == null || !getWriter(family).write(result, sink)) {
+            throw new RuntimeException("Unknown result type: "
+                    + result.getClass().toString() + " in result array.");
+        }
+        if (mMarkRepeated) {
+            sink.put(BlinkID.REPEATED_SCAN_KEY, Boolean.TRUE.toString());
+        }
+    }
+
+    /**
+     * Writes only the fields that identify the scanned document of given result: result type
+     * and, if the result has them, document number, date of birth and barcode data. Fields are
+     * read directly from the result getters, without converting the other fields, so this is
+     * cheap enough to run for every scan, e.g. by {@link ResultDeduplicator}. Values are meant
+     * for comparing documents, e.g. dates are not formatted.
+     * @param result Recognition result.
+     * @param sink Destination of identifying fields.
+     * @throws IOException If sink cannot be written.
+     * @throws RuntimeException If result type is not supported.
+     */
+    void writeIdentity(@NonNull BaseRecognitionResult result, @NonNull ResultSink sink) throws IOException {
+        RecognizerFamily family = RecognizerFamily.forClass(result.getClass());
+        if (family == null) {
+            throw new RuntimeException("Unknown result type: "
+                    + result.getClass().toString() + " in result array.");
+        }
+        sink.put(BlinkID.RESULT_TYPE_KEY, result.getClass().getName());
+        if (!getWriter(family).writeIdentity(result, sink)) {
+            throw new RuntimeException("Unknown result type: "
+                    + result.getClass().toString() + " in result array.");
+        }
+    }
+
+    private ResultFamilyWriter getWriter(RecognizerFamily family) {
+        ResultFamilyWriter writer = mWriters[family.ordinal()];
+        if (writer == null) {
+            Log.d(this, "Loading result writer for {} recognizers", family);
+            // writers are created by their factory methods, which return the base type, so the
+            // verifier does not load writer classes of all families to check this method
+            switch (family) {
+                case NATIONAL_ID:
+                    writer = NationalIdResultWriter.create(this);
+                    break;
+                case MRTD:
+                    writer = MrtdResultWriter.create(this);
+                    break;
+                case DRIVER_LICENSE:
+                    writer = DriverLicenseResultWriter.create(this);
+                    break;
+                case BARCODE:
+                    writer = BarcodeResultWriter.create(this);
+                    break;
+                case OCR:
+                    writer = OcrResultWriter.create(this);
+                    break;
+                default:
+                    writer = DetectorResultWriter.create(this);
+                    break;
+            }
+            mWriters[family.ordinal()] = writer;
+        }
+        return writer;
+    }
+
+    /**
+     * Returns copy of the date format that may be used only by the calling thread. Copy is
+     * created again after the format is changed with {@link #setDateFormat(DateFormat)}.
+     */
+    private DateFormat getDateFormat() {
+        DateFormat dateFormat = mDateFormat;
+        DateFormatCopy copy = mThreadDateFormat.get();
+        if (copy == null || copy.mSource != dateFormat) {
+            copy = new DateFormatCopy(dateFormat);
+            mThreadDateFormat.set(copy);
+        }
+        return copy.mCopy;
+    }
+
+    String[] getParserIdentifiers() {
+        return mParserIdentifiers;
+    }
+
+    void putDate(String key, @Nullable Date date, ResultSink sink) throws IOException {
+        if (date != null) {
+            sink.put(key, getDateFormat().format(date));
+        }
+    }
+
+    /**
+     * Writes length in centimeters, e.g. height of the document holder, with its unit. Zero
+     * length means that the value was not read, so it is not written.
+     */
+    void putCentimeters(String key, int centimeters, ResultSink sink) throws IOException {
+        if (centimeters != 0) {
+            sink.put(key, centimeters + CENTIMETERS_SUFFIX);
+        }
+    }
+
+    void putIdentity(@Nullable String documentNumber, @Nullable Date dateOfBirth, ResultSink sink) throws IOException {
+        sink.put(BlinkID.DOCUMENT_NUMBER_KEY, documentNumber);
+        if (dateOfBirth != null) {
+            sink.put(BlinkID.DATE_OF_BIRTH_KEY, Long.toString(dateOfBirth.getTime()));
+        }
+    }
+
+    /**
+     * Writes identifying values of a key/value result, only if the result holder stores them
+     * under the keys of result maps.
+     */
+    void writeKeyValueIdentity(BaseRecognitionResult res, ResultSink sink) throws IOException {
+        IResultHolder resultHolder = res.getResultHolder();
+        for (String key : IDENTITY_KEYS) {
+            Object value = resultHolder.getObject(key);
+            if (value instanceof String) {
+                sink.put(key, (String) value);
+            }
+        }
+    }
+
+    /**
+     * Writes all string values from the result holder. Result type key and the given excluded
+     * key are skipped, because caller writes them explicitly.
+     */
+    void writeKeyValueResult(BaseRecognitionResult res, String resultType, @Nullable String excludedKey,
+                             ResultSink sink) throws IOException {
+        sink.put(BlinkID.RESULT_TYPE_KEY, resultType);
+        IResultHolder resultHolder = res.getResultHolder();
+        for (String key : resultHolder.keySet()) {
+            if (key.equals(PAYMENT_DATA_KEY) || key.equals(BlinkID.RESULT_TYPE_KEY) || key.equals(excludedKey)) {
+                continue;
+            }
+            Object value = resultHolder.getObject(key);
+            if (value instanceof String) {
+                sink.put(key, (String) value);
+            } else {
+                Log.d(this, "Ignoring non string key '{}'", key);
+            }
+        }
+    }
+
+    static String byteArrayToHex(byte[] data) {
+        char[] hex = new char[data.length * 2];
+        for (int i = 0; i < data.length; ++i) {
+            int b = data[i] & 0xff;
+            hex[2 * i] = HEX_DIGITS[b >>> 4];
+            hex[2 * i + 1] = HEX_DIGITS[b & 0x0f];
+        }
+        return new String(hex);
+    }
+
+    /**
+     * Thread's own copy of the date format, together with the format it was copied from.
+     */
+    private static final class DateFormatCopy {
+        final DateFormat mSource;
+        final DateFormat mCopy;
+
+        DateFormatCopy(DateFormat source) {
+            mSource = source;
+            mCopy = (DateFormat) source.clone();
+        }
+    }
+}
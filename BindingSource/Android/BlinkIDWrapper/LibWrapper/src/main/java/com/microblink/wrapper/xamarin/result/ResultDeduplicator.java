@@ -0,0 +1,132 @@
+package com.microblink.wrapper.xamarin.result;
+
+import android.support.annotation.NonNull;
+
+import com.microblink.recognizers.BaseRecognitionResult;
+import com.microblink.util.Log;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded, time-windowed cache of recently delivered scan results. Results are identified by
+ * a fingerprint of result type, document number, date of birth and barcode data, so the same
+ * document held in front of the camera again right after a successful scan is recognized as
+ * a repeat.
+ *
+ * The window slides: every repeat refreshes the time at which the document was last seen.
+ * When cache is full, the least recently seen document is evicted. Results without any
+ * identifying field, for example free text OCR, are never treated as repeats.
+ */
+public class ResultDeduplicator {
+
+    /**
+     * What is done with repeated results.
+     */
+    public enum Mode {
+        /** Repeated results are not converted nor delivered to the result listener */
+        SKIP,
+        /** Repeated results are delivered with {@link com.microblink.wrapper.xamarin.BlinkID#REPEATED_SCAN_KEY} set */
+        MARK
+    }
+
+    public static final long DEFAULT_WINDOW_MS = 30000;
+    public static final int DEFAULT_CAPACITY = 32;
+
+    private final Mode mMode;
+    private final long mWindowMs;
+    private final int mCapacity;
+
+    /** Time when document was last seen, keyed by fingerprint, ordered from least recently seen */
+    private final LinkedHashMap<Long, Long> mLastSeen;
+    private final FingerprintResultSink mSink = new FingerprintResultSink();
+
+    /**
+     * Creates deduplicator with default window and capacity.
+     * @param mode What is done with repeated results.
+     */
+    public ResultDeduplicator(@NonNull Mode mode) {
+        this(mode, DEFAULT_WINDOW_MS, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param mode What is done with repeated results.
+     * @param windowMs Time in milliseconds after the document was last seen during which the
+     *                 same document is treated as a repeat.
+     * @param capacity Maximum number of remembered documents.
+     */
+    public ResultDeduplicator(@NonNull Mode mode, long windowMs, int capacity) {
+        if (windowMs <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("Window and capacity must be positive");
+        }
+        mMode = mode;
+        mWindowMs = windowMs;
+        mCapacity = capacity;
+        mLastSeen = new LinkedHashMap<Long, Long>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                return size() > mCapacity;
+            }
+        };
+    }
+
+    @NonNull
+    public Mode getMode() {
+        return mMode;
+    }
+
+    public long getWindowMs() {
+        return mWindowMs;
+    }
+
+    public int getCapacity() {
+        return mCapacity;
+    }
+
+    /**
+     * Checks whether given results repeat recently seen results and remembers them as seen.
+     * @param results Non-empty array of recognition results.
+     * @param converter Converter that reads identifying fields of results, other fields are
+     *                  not converted.
+     * @param nowMillis Current time in milliseconds.
+     * @return {@code true} if the same results were seen within the window.
+     */
+    public synchronized boolean checkAndRecord(@NonNull BaseRecognitionResult[] results,
+                                               @NonNull RecognitionResultConverter converter, long nowMillis) {
+        mSink.reset();
+        try {
+            for (BaseRecognitionResult result : results) {
+                converter.writeIdentity(result, mSink);
+            }
+        } catch (IOException e) {
+            // fingerprint sink does not perform any IO
+            throw new IllegalStateException(e);
+        } catch (RuntimeException e) {
+            Log.w(this, "Cannot fingerprint results, they are not deduplicated: {}", e.getMessage());
+            return false;
+        }
+        if (!mSink.hasIdentity()) {
+            return false;
+        }
+        evictExpired(nowMillis);
+        Long previous = mLastSeen.put(mSink.getFingerprint(), nowMillis);
+        return previous != null;
+    }
+
+    private void evictExpired(long nowMillis) {
+        Iterator<Long> it = mLastSeen.values().iterator();
+        // iteration starts at the least recently seen document
+        while (it.hasNext() && nowMillis - it.next() > mWindowMs) {
+            it.remove();
+        }
+    }
+
+    /**
+     * Forgets all remembered documents.
+     */
+    public synchronized void clear() {
+        mLastSeen.clear();
+    }
+}
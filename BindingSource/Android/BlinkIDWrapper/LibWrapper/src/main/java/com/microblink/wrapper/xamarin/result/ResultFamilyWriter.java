@@ -0,0 +1,35 @@
+package com.microblink.wrapper.xamarin.result;
+
+import com.microblink.recognizers.BaseRecognitionResult;
+
+import java.io.IOException;
+
+/**
+ * Writes fields of results of one {@link com.microblink.wrapper.xamarin.recognizer.RecognizerFamily}.
+ * Writer is created by {@link RecognitionResultConverter} when the first result of its family
+ * is converted, so result classes of other families are never loaded.
+ */
+abstract class ResultFamilyWriter {
+
+    final RecognitionResultConverter mConverter;
+
+    ResultFamilyWriter(RecognitionResultConverter converter) {
+        mConverter = converter;
+    }
+
+    /**
+     * Writes fields of given result to the sink.
+     * @return {@code false} if result type is not supported by this writer.
+     * @throws IOException If sink cannot be written.
+     */
+    abstract boolean write(BaseRecognitionResult result, ResultSink sink) throws IOException;
+
+    /**
+     * Writes only the fields that identify the scanned document, read directly from getters of
+     * given result: document number, date of birth or barcode data. Result type is written by
+     * the converter.
+     * @return {@code false} if result type is not supported by this writer.
+     * @throws IOException If sink cannot be written.
+     */
+    abstract boolean writeIdentity(BaseRecognitionResult result, ResultSink sink) throws IOException;
+}
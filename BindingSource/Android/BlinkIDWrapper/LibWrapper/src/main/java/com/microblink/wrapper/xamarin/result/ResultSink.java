@@ -0,0 +1,22 @@
+package com.microblink.wrapper.xamarin.result;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.io.IOException;
+
+/**
+ * Destination to which {@link RecognitionResultConverter} writes fields of a single
+ * recognition result. Each key is written at most once per result.
+ */
+public interface ResultSink {
+
+    /**
+     * Writes one result field.
+     * @param key Field key, one of the keys defined in {@link com.microblink.wrapper.xamarin.BlinkID}
+     *            or parser identifier for OCR results.
+     * @param value Field value, may be {@code null} if recognizer did not return the value.
+     * @throws IOException If underlying destination cannot be written.
+     */
+    void put(@NonNull String key, @Nullable String value) throws IOException;
+}
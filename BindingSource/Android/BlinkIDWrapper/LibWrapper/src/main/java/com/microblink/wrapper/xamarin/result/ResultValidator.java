@@ -0,0 +1,22 @@
+package com.microblink.wrapper.xamarin.result;
+
+import android.support.annotation.NonNull;
+
+import com.microblink.recognizers.BaseRecognitionResult;
+
+/**
+ * Validates recognition results before the scan is finished. If any result of the scan is
+ * rejected, results are not delivered and scanning continues in the same session, so a bad
+ * read does not end the scan. Built-in validators are available in {@link ResultValidators}.
+ *
+ * Validator is called on the thread that delivers the results, so it should not block.
+ */
+public interface ResultValidator {
+
+    /**
+     * @param result Recognition result of the scan.
+     * @return {@code false} if the result should be rejected. Results that the validator does
+     *         not know how to validate should be accepted.
+     */
+    boolean isValid(@NonNull BaseRecognitionResult result);
+}
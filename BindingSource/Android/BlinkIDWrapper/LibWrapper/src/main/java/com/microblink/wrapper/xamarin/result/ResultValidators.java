@@ -0,0 +1,206 @@
+package com.microblink.wrapper.xamarin.result;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.microblink.recognizers.BaseRecognitionResult;
+import com.microblink.recognizers.blinkid.mrtd.MRTDRecognitionResult;
+import com.microblink.recognizers.blinkocr.BlinkOCRRecognitionResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Built-in result validators. Validators check values in place with {@link CheckDigits}, so
+ * they do not allocate when they are run on every scan.
+ *
+ * Built-in validators and their combinations can be described with string values and
+ * rebuilt from them, see {@link #describe(ResultValidator)}, so they survive restoring the scan
+ * after process death.
+ */
+public final class ResultValidators {
+
+    private static final String MRZ_DESCRIPTION = "mrz";
+    private static final String IBAN_DESCRIPTION_PREFIX = "iban:";
+    private static final String VIN_DESCRIPTION_PREFIX = "vin:";
+
+    private static final ResultValidator MRZ = new ResultValidator() {
+        @Override
+        public boolean isValid(@NonNull BaseRecognitionResult result) {
+            if (!(result instanceof MRTDRecognitionResult)) {
+                return true;
+            }
+            String mrzText = ((MRTDRecognitionResult) result).getMRZText();
+            return mrzText == null || mrzText.isEmpty() || CheckDigits.isValidMrz(mrzText);
+        }
+    };
+
+    private ResultValidators() {
+    }
+
+    /**
+     * @return Validator that rejects results of MRZ based recognizers whose machine readable
+     *         zone has a wrong check digit.
+     */
+    @NonNull
+    public static ResultValidator mrz() {
+        return MRZ;
+    }
+
+    /**
+     * @param parserId Identifier of the IBAN parser given to
+     *                 {@link com.microblink.wrapper.xamarin.BlinkIdScanSettings#addParserIBAN}.
+     * @return Validator that rejects OCR results whose parsed IBAN has a wrong checksum.
+     */
+    @NonNull
+    public static ResultValidator iban(@NonNull String parserId) {
+        return new ParsedResultValidator(parserId, ParsedResultValidator.IBAN);
+    }
+
+    /**
+     * Note that check digit is mandatory only for vehicles made for North America.
+     * @param parserId Identifier of the VIN parser given to
+     *                 {@link com.microblink.wrapper.xamarin.BlinkIdScanSettings#addParserVIN}.
+     * @return Validator that rejects OCR results whose parsed VIN has a wrong check digit.
+     */
+    @NonNull
+    public static ResultValidator vin(@NonNull String parserId) {
+        return new ParsedResultValidator(parserId, ParsedResultValidator.VIN);
+    }
+
+    /**
+     * @return Validator that accepts a result only if all given validators accept it.
+     */
+    @NonNull
+    public static ResultValidator allOf(@NonNull ResultValidator... validators) {
+        return new AllOfValidator(validators);
+    }
+
+    /**
+     * Validates all results of a scan.
+     * @param validator Result validator, or {@code null} to accept all results.
+     * @param results Recognition results of the scan, or {@code null} if there are none.
+     * @return Result that was rejected by the validator, or {@code null} if all results are valid.
+     */
+    @Nullable
+    public static BaseRecognitionResult findRejected(@Nullable ResultValidator validator,
+                                                     @Nullable BaseRecognitionResult[] results) {
+        if (validator == null || results == null) {
+            return null;
+        }
+        for (BaseRecognitionResult result : results) {
+            if (!validator.isValid(result)) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Describes given validator with string values from which the same validator can be
+     * rebuilt with {@link #fromDescription(String[])}.
+     * @param validator Result validator, or {@code null}.
+     * @return Description of the validator, or {@code null} if validator is {@code null} or it
+     *         is not built of built-in validators.
+     */
+    @Nullable
+    public static String[] describe(@Nullable ResultValidator validator) {
+        if (validator == null) {
+            return null;
+        }
+        List<String> description = new ArrayList<>();
+        return describeInto(validator, description) ? description.toArray(new String[description.size()]) : null;
+    }
+
+    private static boolean describeInto(ResultValidator validator, List<String> description) {
+        if (validator == MRZ) {
+            description.add(MRZ_DESCRIPTION);
+        } else if (validator instanceof ParsedResultValidator) {
+            ParsedResultValidator parsed = (ParsedResultValidator) validator;
+            description.add((parsed.mType == ParsedResultValidator.IBAN ? IBAN_DESCRIPTION_PREFIX : VIN_DESCRIPTION_PREFIX)
+                    + parsed.mParserId);
+        } else if (validator instanceof AllOfValidator) {
+            // all validators must accept the result, so nesting does not matter
+            for (ResultValidator other : ((AllOfValidator) validator).mValidators) {
+                if (!describeInto(other, description)) {
+                    return false;
+                }
+            }
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Rebuilds validator described with {@link #describe(ResultValidator)}.
+     * @param description Description of the validator, or {@code null}.
+     * @return Validator that accepts a result only if all described validators accept it, or
+     *         {@code null} if description is {@code null}.
+     * @throws IllegalArgumentException If description contains unknown validator.
+     */
+    @Nullable
+    public static ResultValidator fromDescription(@Nullable String[] description) {
+        if (description == null) {
+            return null;
+        }
+        ResultValidator[] validators = new ResultValidator[description.length];
+        for (int i = 0; i < description.length; ++i) {
+            String value = description[i];
+            if (MRZ_DESCRIPTION.equals(value)) {
+                validators[i] = MRZ;
+            } else if (value.startsWith(IBAN_DESCRIPTION_PREFIX)) {
+                validators[i] = iban(value.substring(IBAN_DESCRIPTION_PREFIX.length()));
+            } else if (value.startsWith(VIN_DESCRIPTION_PREFIX)) {
+                validators[i] = vin(value.substring(VIN_DESCRIPTION_PREFIX.length()));
+            } else {
+                throw new IllegalArgumentException("Unknown result validator: " + value);
+            }
+        }
+        return validators.length == 1 ? validators[0] : allOf(validators);
+    }
+
+    private static final class AllOfValidator implements ResultValidator {
+        private final ResultValidator[] mValidators;
+
+        AllOfValidator(ResultValidator[] validators) {
+            mValidators = validators;
+        }
+
+        @Override
+        public boolean isValid(@NonNull BaseRecognitionResult result) {
+            for (ResultValidator validator : mValidators) {
+                if (!validator.isValid(result)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class ParsedResultValidator implements ResultValidator {
+        static final int IBAN = 0;
+        static final int VIN = 1;
+
+        private final String mParserId;
+        private final int mType;
+
+        ParsedResultValidator(String parserId, int type) {
+            mParserId = parserId;
+            mType = type;
+        }
+
+        @Override
+        public boolean isValid(@NonNull BaseRecognitionResult result) {
+            if (!(result instanceof BlinkOCRRecognitionResult)) {
+                return true;
+            }
+            String parsed = ((BlinkOCRRecognitionResult) result).getParsedResult(mParserId);
+            if (parsed == null || parsed.isEmpty()) {
+                // parser is not required or did not return a value
+                return true;
+            }
+            return mType == IBAN ? CheckDigits.isValidIban(parsed) : CheckDigits.isValidVin(parsed);
+        }
+    }
+}
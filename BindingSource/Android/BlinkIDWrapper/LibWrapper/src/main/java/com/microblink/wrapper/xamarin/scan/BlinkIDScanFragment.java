@@ -0,0 +1,183 @@
+package com.microblink.wrapper.xamarin.scan;
+
+import android.annotation.TargetApi;
+import android.app.Activity;
+import android.app.Fragment;
+import android.os.Bundle;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.microblink.wrapper.xamarin.ScanSession;
+
+/**
+ * Fragment that hosts {@link BlinkIDScanView}, so the scanner can be placed inside an existing
+ * screen instead of launching {@link BlinkIDScanActivity}.
+ *
+ * Scan events are delivered to the listener defined with {@link #setScanListener}, or to the host
+ * activity if it implements {@link BlinkIDScanView.ScanListener}. On API level 23 and newer, host
+ * activity must forward permission request results to {@link #onRequestPermissionsResult}.
+ */
+public class BlinkIDScanFragment extends Fragment implements BlinkIDScanView.ScanListener {
+
+    private static final String ARG_SESSION_TOKEN = "ARG_SESSION_TOKEN";
+    private static final String STATE_LICENSE_KEY = "STATE_LICENSE_KEY";
+
+    private BlinkIDScanView mScanView;
+    private String mSessionToken;
+    private BlinkIDScanView.ScanListener mScanListener;
+
+    /**
+     * Creates the fragment that scans with given session.
+     * @param session Scan session whose settings are used and to which results are delivered.
+     * @return New fragment.
+     */
+    @NonNull
+    public static BlinkIDScanFragment newInstance(@NonNull ScanSession session) {
+        Bundle args = new Bundle();
+        args.putString(ARG_SESSION_TOKEN, ScanSessionRegistry.register(session));
+        BlinkIDScanFragment fragment = new BlinkIDScanFragment();
+        fragment.setArguments(args);
+        return fragment;
+    }
+
+    /**
+     * Defines the listener that is notified about scan events.
+     * @param scanListener Scan listener.
+     */
+    public void setScanListener(@Nullable BlinkIDScanView.ScanListener scanListener) {
+        mScanListener = scanListener;
+    }
+
+    /**
+     * @return Hosted scan view, or {@code null} if view is not created.
+     */
+    @Nullable
+    public BlinkIDScanView getScanView() {
+        return mScanView;
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public void onAttach(Activity activity) {
+        super.onAttach(activity);
+        if (mScanListener == null && activity instanceof BlinkIDScanView.ScanListener) {
+            mScanListener = (BlinkIDScanView.ScanListener) activity;
+        }
+    }
+
+    @Override
+    public View onCreateView(LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
+        mScanView = new BlinkIDScanView(getActivity());
+        mScanView.setScanListener(this);
+
+        Bundle args = getArguments();
+        mSessionToken = args != null ? args.getString(ARG_SESSION_TOKEN) : null;
+        ScanSession session = mSessionToken != null ? ScanSessionRegistry.get(mSessionToken) : null;
+        if (session != null) {
+            mScanView.setScanSession(session);
+        } else {
+            // registry does not survive process death, fall back to the saved state
+            ScanConfiguration configuration = savedInstanceState != null
+                    ? ScanConfiguration.restoreFrom(savedInstanceState) : null;
+            if (configuration == null) {
+                throw new IllegalStateException("Scan fragment must be created with newInstance(ScanSession).");
+            }
+            mScanView.setConfiguration(savedInstanceState.getString(STATE_LICENSE_KEY), configuration);
+        }
+        mScanView.create();
+        return mScanView;
+    }
+
+    @Override
+    public void onStart() {
+        super.onStart();
+        mScanView.start();
+    }
+
+    @Override
+    public void onResume() {
+        super.onResume();
+        mScanView.resume();
+    }
+
+    @Override
+    public void onPause() {
+        super.onPause();
+        mScanView.pause();
+    }
+
+    @Override
+    public void onStop() {
+        super.onStop();
+        mScanView.stop();
+    }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        mScanView.destroy();
+        mScanView = null;
+    }
+
+    @Override
+    public void onDestroy() {
+        super.onDestroy();
+        Activity activity = getActivity();
+        if (mSessionToken != null && (isRemoving() || activity == null || activity.isFinishing())) {
+            ScanSessionRegistry.unregister(mSessionToken);
+        }
+    }
+
+    @Override
+    public void onSaveInstanceState(Bundle outState) {
+        super.onSaveInstanceState(outState);
+        if (mScanView != null && mScanView.getConfiguration() != null) {
+            // needed only if process is killed while fragment is in background
+            mScanView.getConfiguration().saveTo(outState);
+            outState.putString(STATE_LICENSE_KEY, mScanView.getLicenseKey());
+        }
+    }
+
+    /**
+     * Starts the next scan without restarting the camera.
+     * @param session Session of the next scan, or {@code null} to scan again with the current session.
+     */
+    public void scanAgain(@Nullable ScanSession session) {
+        mScanView.scanAgain(session);
+    }
+
+    /**
+     * Host activity must forward the permission request result to this method on API level 23 and newer.
+     */
+    @Override
+    @TargetApi(23)
+    public void onRequestPermissionsResult(int requestCode, @NonNull String[] permissions, @NonNull int[] grantResults) {
+        if (mScanView != null) {
+            mScanView.onRequestPermissionsResult(requestCode, permissions, grantResults);
+        }
+    }
+
+    @Override
+    public void onScanDone() {
+        if (mScanListener != null) {
+            mScanListener.onScanDone();
+        }
+    }
+
+    @Override
+    public void onScanCancelled() {
+        if (mScanListener != null) {
+            mScanListener.onScanCancelled();
+        }
+    }
+
+    @Override
+    public void onScanError(@NonNull Throwable error) {
+        if (mScanListener != null) {
+            mScanListener.onScanError(error);
+        }
+    }
+}
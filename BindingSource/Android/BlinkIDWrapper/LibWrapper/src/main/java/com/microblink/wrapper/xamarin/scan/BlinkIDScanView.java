@@ -0,0 +1,1094 @@
+package com.microblink.wrapper.xamarin.scan;
+
+import android.annotation.TargetApi;
+import android.app.Activity;
+import android.content.Context;
+import android.graphics.Rect;
+import android.media.MediaPlayer;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.UiThread;
+import android.util.AttributeSet;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.widget.Button;
+import android.widget.FrameLayout;
+import android.widget.TextView;
+
+import com.microblink.detectors.DetectorResult;
+import com.microblink.detectors.multi.MultiDetectorResult;
+import com.microblink.detectors.points.PointsDetectorResult;
+import com.microblink.detectors.quad.QuadDetectorResult;
+import com.microblink.geometry.Point;
+import com.microblink.geometry.Quadrilateral;
+import com.microblink.hardware.SuccessCallback;
+import com.microblink.hardware.orientation.Orientation;
+import com.microblink.image.Image;
+import com.microblink.image.ImageType;
+import com.microblink.metadata.DetectionMetadata;
+import com.microblink.metadata.ImageMetadata;
+import com.microblink.metadata.Metadata;
+import com.microblink.metadata.MetadataListener;
+import com.microblink.metadata.MetadataSettings;
+import com.microblink.recognition.InvalidLicenceKeyException;
+import com.microblink.recognizers.BaseRecognitionResult;
+import com.microblink.recognizers.RecognitionResults;
+import com.microblink.recognizers.settings.RecognitionSettings;
+import com.microblink.recognizers.settings.RecognizerSettings;
+import com.microblink.util.Log;
+import com.microblink.view.CameraAspectMode;
+import com.microblink.view.CameraEventsListener;
+import com.microblink.view.OnSizeChangedListener;
+import com.microblink.view.OrientationAllowedListener;
+import com.microblink.view.recognition.DetectionStatus;
+import com.microblink.view.recognition.RecognizerView;
+import com.microblink.view.recognition.ScanResultListener;
+import com.microblink.wrapper.xamarin.BlinkID;
+import com.microblink.wrapper.xamarin.CaptureProfile;
+import com.microblink.wrapper.xamarin.R;
+import com.microblink.wrapper.xamarin.ScanSession;
+import com.microblink.wrapper.xamarin.image.NativeImageTracker;
+import com.microblink.wrapper.xamarin.result.ResultValidators;
+import com.microblink.wrapper.xamarin.scan.dots.PointSetRenderer;
+import com.microblink.wrapper.xamarin.scan.dots.PointSetWrapper;
+import com.microblink.wrapper.xamarin.scan.governor.BatteryDeviceSignals;
+import com.microblink.wrapper.xamarin.scan.governor.ProcessingGovernor;
+import com.microblink.wrapper.xamarin.scan.host.RecognizerHost;
+import com.microblink.wrapper.xamarin.scan.host.RecognizerViewHost;
+import com.microblink.wrapper.xamarin.scan.host.ScriptedRecognizerHost;
+import com.microblink.wrapper.xamarin.scan.quadview.QuadViewManager;
+import com.microblink.wrapper.xamarin.scan.quadview.QuadrilateralWrapper;
+import com.microblink.wrapper.xamarin.scan.quadview.XPoint;
+import com.microblink.wrapper.xamarin.scan.replay.DetectionRecorder;
+import com.microblink.wrapper.xamarin.trace.TraceSection;
+import com.microblink.wrapper.xamarin.trace.Tracer;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Timer;
+import java.util.TimerTask;
+
+/**
+ * View that contains the complete BlinkID scanner: {@link RecognizerView} with quad and point set
+ * overlays, status messages, torch and back buttons. It can be embedded into any screen, so
+ * scanning does not require launching {@link BlinkIDScanActivity}.
+ *
+ * Host must forward its lifecycle events to {@link #create()}, {@link #start()}, {@link #resume()},
+ * {@link #pause()}, {@link #stop()} and {@link #destroy()}. After scan is done, camera keeps
+ * running and next scan can be started with {@link #scanAgain(ScanSession)}.
+ */
+public class BlinkIDScanView extends FrameLayout implements ScanResultListener, CameraEventsListener, OnSizeChangedListener, MetadataListener {
+
+    public static final String TAG = "BlinkIDScanView";
+
+    /** Number of frames after which recognition time is measured again when frames are not throttled */
+    private static final int GOVERNOR_MEASUREMENT_INTERVAL_FRAMES = 10;
+
+    /**
+     * Listener that is notified about scan events. All methods are called on UI thread.
+     */
+    public interface ScanListener {
+        /**
+         * Called after results were delivered to the scan session and animations have ended.
+         */
+        void onScanDone();
+
+        /**
+         * Called when user pressed the back button.
+         */
+        void onScanCancelled();
+
+        /**
+         * Called when scanner cannot be started because of invalid license key, when opening of
+         * camera failed or recognition process encountered an error.
+         * @param error The error details.
+         */
+        void onScanError(@NonNull Throwable error);
+    }
+
+    /** Names of the dewarped images that will be accepted */
+    private final Set<String> mAcceptedImageNames = new HashSet<>();
+
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    /** Creates recognizer hosts of scan views, {@code null} to use {@link RecognizerViewHost} */
+    private static volatile RecognizerHost.Factory sRecognizerHostFactory;
+
+    /**
+     * This is a RecognizerView or its stand-in - it contains camera view and can contain camera overlays
+     */
+    private RecognizerHost mRecognizerView;
+
+    /**
+     * This is a back button
+     */
+    private Button mBackButton = null;
+    /**
+     * This is a torch control button
+     */
+    private Button mTorchButton = null;
+    /**
+     * Is torch enabled?
+     */
+    private boolean mTorchEnabled = false;
+    /**
+     * This is a text field that contains status messages
+     */
+    private TextView mStatusTextView = null;
+    /**
+     * MediaPlayer will be used for beep sound
+     */
+    private MediaPlayer mMediaPlayer = null;
+
+    /** CameraPermissionManager is provided helper class that can be used to obtain the permission to use camera.
+     * It is used on Android 6.0 (API level 23) or newer.
+     */
+    private CameraPermissionManager mCameraPermissionManager;
+    /**
+     * Single overlay that draws the viewfinder and detected points.
+     */
+    private DetectionOverlayView mOverlayView = null;
+    /**
+     * Actual viewfinder that draws animations.
+     */
+    protected QuadViewManager mQuadViewManager = null;
+    /**
+     * Draws points detection.
+     */
+    protected PointSetRenderer mPointSetRenderer = null;
+
+    private boolean mCreated = false;
+    private volatile boolean mFinishing = false;
+
+    private Image mLastDewarpedImage;
+
+    /** Whether back side recognizers are active in two-sided scanning */
+    private volatile boolean mScanningBackSide = false;
+    /** Results of the front side in two-sided scanning, {@code null} until the front side is scanned */
+    private RecognitionResults mFrontSideResults;
+    /** Image of the front side, owned by this view until results of both sides are delivered */
+    private Image mFrontSideImage;
+
+    private final FrameRateMeter mFrameRateMeter = new FrameRateMeter();
+    /** Counters of the current scan, a copy is delivered with the results */
+    private final ScanStats mScanStats = new ScanStats();
+    /** Presents detections on overlays, created together with overlays */
+    private DetectionPresenter mDetectionPresenter;
+    /** Records detection metadata stream, {@code null} if stream is not recorded */
+    private volatile DetectionRecorder mDetectionRecorder;
+    /** Detected quad passed to detection listeners, it is reused for every detection */
+    private final QuadrilateralWrapper mDetectedQuad = new QuadrilateralWrapper();
+
+    /** Lowers the amount of work when device is hot, battery is low or frames are slow */
+    private ProcessingGovernor mGovernor;
+    /**
+     * Time at which scanning was resumed, so recognition of the next frame started no earlier,
+     * 0 if the start of the next frame is unknown
+     */
+    private volatile long mFrameStartNanos = 0;
+    /** Number of processed frames since recognition time was last measured */
+    private int mFramesSinceMeasurement = 0;
+    /** Whether dewarped images are currently requested from the recognizer */
+    private boolean mDewarpedImageAllowed = true;
+    /** Whether scanning is paused to lower the frame processing rate or to measure recognition time */
+    private volatile boolean mThrottlePaused = false;
+
+    private final Runnable mResumeThrottledScanning = new Runnable() {
+        @Override
+        public void run() {
+            if (mThrottlePaused) {
+                mThrottlePaused = false;
+                if (mCreated && !mFinishing) {
+                    mFrameStartNanos = System.nanoTime();
+                    mRecognizerView.resumeScanning(false);
+                }
+            }
+        }
+    };
+
+    private String mLicenseKey;
+    private ScanConfiguration mConfiguration;
+    /** Session to which results are delivered, {@code null} if results are delivered through {@link BlinkID} */
+    private ScanSession mSession;
+    private ScanListener mScanListener;
+
+    public BlinkIDScanView(Context context) {
+        this(context, null);
+    }
+
+    public BlinkIDScanView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        if (!isInEditMode()) {
+            mGovernor = new ProcessingGovernor(new BatteryDeviceSignals(context));
+        }
+    }
+
+    /**
+     * Defines the session whose settings are used and to which results are delivered. Must be
+     * called before {@link #create()}.
+     * @param session Scan session.
+     */
+    @UiThread
+    public void setScanSession(@NonNull ScanSession session) {
+        mSession = session;
+        mLicenseKey = session.getLicenseKey();
+        mConfiguration = session.getConfiguration();
+    }
+
+    /**
+     * Defines settings without the session, this is used only when scan activity is restored
+     * after process death or started with parcelled settings. When scan is done, results are
+     * delivered through a session restored with {@link BlinkID#restoreSession}, or through
+     * deprecated {@link BlinkID#onScanningDone(RecognitionResults, Image)} if there is still no
+     * result listener. Results of a two-sided scan cannot be delivered through the deprecated
+     * method, so they are dropped with a warning in that case.
+     */
+    @UiThread
+    void setConfiguration(@Nullable String licenseKey, @NonNull ScanConfiguration configuration) {
+        mSession = null;
+        mLicenseKey = licenseKey;
+        mConfiguration = configuration;
+    }
+
+    @Nullable
+    String getLicenseKey() {
+        return mLicenseKey;
+    }
+
+    /**
+     * @return Settings used by this view, or {@code null} if settings were not defined.
+     */
+    @Nullable
+    public ScanConfiguration getConfiguration() {
+        return mConfiguration;
+    }
+
+    /**
+     * Defines the governor that lowers the amount of work done by the scanner when device is hot,
+     * battery is low or frame processing is slow. By default, governor uses battery signals.
+     * @param governor Processing governor, or {@code null} to always process frames at full rate.
+     */
+    @UiThread
+    public void setProcessingGovernor(@Nullable ProcessingGovernor governor) {
+        mGovernor = governor;
+        if (mCreated) {
+            applyGovernorLevel(governor != null ? governor.getLevel() : ProcessingGovernor.Level.NORMAL);
+        }
+    }
+
+    /**
+     * Defines the listener that is notified about scan events.
+     * @param scanListener Scan listener.
+     */
+    public void setScanListener(@Nullable ScanListener scanListener) {
+        mScanListener = scanListener;
+    }
+
+    /**
+     * Defines the factory of recognizer hosts used by scan views created afterwards, including
+     * the one in {@link BlinkIDScanActivity}. {@link ScriptedRecognizerHost} runs the whole scan
+     * flow without camera and recognizer.
+     * @param factory Recognizer host factory, or {@code null} to use {@link RecognizerView}.
+     */
+    public static void setRecognizerHostFactory(@Nullable RecognizerHost.Factory factory) {
+        sRecognizerHostFactory = factory;
+    }
+
+    /**
+     * Creates the scanner. Scan session must be defined before calling this method.
+     */
+    @UiThread
+    public void create() {
+        if (mConfiguration == null) {
+            throw new IllegalStateException("Scan session must be defined before creating the scan view.");
+        }
+        RecognizerHost.Factory factory = sRecognizerHostFactory;
+        mRecognizerView = (factory != null ? factory : RecognizerViewHost.FACTORY).create(getContext());
+        addView(mRecognizerView.getView(), new LayoutParams(LayoutParams.MATCH_PARENT, LayoutParams.MATCH_PARENT));
+
+        try {
+            mRecognizerView.setLicenseKey(mLicenseKey);
+        } catch (InvalidLicenceKeyException e) {
+            Log.e(this, e, "INVALID LICENCE KEY");
+            notifyError(e);
+            return;
+        }
+
+        mRecognizerView.setCameraType(mConfiguration.getCameraType());
+        applyConfiguration(mConfiguration);
+
+        // scan result listener will be notified when scan result gets available
+        mRecognizerView.setScanResultListener(this);
+        // camera events listener receives events such as when camera preview has started
+        // or there was an error while starting the camera
+        mRecognizerView.setCameraEventsListener(this);
+        // orientation allowed listener is asked if orientation is allowed when device orientation
+        // changes - if orientation is allowed, rotatable views will be rotated to that orientation
+        mRecognizerView.setOrientationAllowedListener(new OrientationAllowedListener() {
+            @Override
+            public boolean isOrientationAllowed(Orientation orientation) {
+                // allow all orientations
+                return true;
+            }
+        });
+
+        // on size changed listener is notified whenever the size of the view is changed (for example
+        // when transforming the view from portrait to landscape or vice versa)
+        mRecognizerView.setOnSizeChangedListener(this);
+
+        // set metadata listener and defined metadata settings
+        // metadata listener will obtain selected metadata
+        mDewarpedImageAllowed = mGovernor == null || mGovernor.getLevel().isDewarpedImageAllowed();
+        mRecognizerView.setMetadataListener(this, createMetadataSettings(mDewarpedImageAllowed));
+
+        // set initial orientation
+        mRecognizerView.setInitialOrientation(Orientation.ORIENTATION_PORTRAIT);
+
+        // animate rotatable views on top of scanner view
+        mRecognizerView.setAnimateRotation(true);
+
+        // set camera aspect mode to FILL - this will use the entire surface
+        // for camera preview, instead of letterboxing it
+        mRecognizerView.setAspectMode(CameraAspectMode.ASPECT_FILL);
+
+        CaptureProfile captureProfile = mConfiguration.getCaptureProfile();
+        if (captureProfile != null) {
+            applyCaptureProfile(captureProfile);
+        }
+
+        if (getContext() instanceof Activity) {
+            // instantiate the camera permission manager
+            mCameraPermissionManager = new CameraPermissionManager((Activity) getContext());
+            // get the built in layout that should be displayed when camera permission is not given
+            View v = mCameraPermissionManager.getAskPermissionOverlay();
+            if (v != null) {
+                // add it to this layout that contains the recognizer view
+                addView(v);
+            }
+        }
+
+        // create scanner (make sure scan settings and listeners were set prior calling create)
+        mRecognizerView.create();
+
+        // after scanner is created, you can add your views to it
+
+        // create overlay that draws the viewfinder and detected points and add it as a child of recognizer view
+        mOverlayView = new DetectionOverlayView(getContext(), 0.11, 0.11,
+                mRecognizerView.getHostScreenOrientation());
+        mRecognizerView.addChildView(mOverlayView, false, 0);
+        mQuadViewManager = new QuadViewManager(mOverlayView.getQuadRenderer());
+        mPointSetRenderer = mOverlayView.getPointSetRenderer();
+        mDetectionPresenter = new DetectionPresenter(mQuadViewManager, mPointSetRenderer, mScanStats);
+
+        // initialize buttons and status view
+        View view = LayoutInflater.from(getContext()).inflate(R.layout.overlay_blinkid_scan, null);
+
+        /** setup back button */
+        mBackButton = (Button) view.findViewById(R.id.defaultBackButton);
+        mBackButton.setText(getContext().getString(R.string.mbHome));
+
+        mBackButton.setOnClickListener(new View.OnClickListener() {
+
+            @Override
+            public void onClick(View v) {
+                if (mScanListener != null) {
+                    mScanListener.onScanCancelled();
+                }
+            }
+        });
+
+        mTorchButton = (Button) view.findViewById(R.id.defaultTorchButton);
+        mTorchButton.setVisibility(View.GONE);
+
+        mStatusTextView = (TextView) view.findViewById(R.id.defaultStatusTextView);
+        // hide status text
+        mStatusTextView.setVisibility(View.INVISIBLE);
+
+        // add buttons and status view as rotatable view to BlinkIdView (it will be rotated even if activity remains in portrait/landscape)
+        // allowed orientations are controlled via OrientationAllowedListener
+        mRecognizerView.addChildView(view, true);
+        mCreated = true;
+
+        if (mGovernor != null && mGovernor.getLevel() != ProcessingGovernor.Level.NORMAL) {
+            applyGovernorLevel(mGovernor.getLevel());
+        }
+    }
+
+    /**
+     * Creates settings which define metadata that will be available in MetadataListener
+     * (onMetadataAvailable method).
+     * @param dewarpedImageAllowed Whether dewarped images may be requested.
+     */
+    private MetadataSettings createMetadataSettings(boolean dewarpedImageAllowed) {
+        MetadataSettings metadataSettings = new MetadataSettings();
+        // detection metadata should be available in MetadataListener
+        // detection metadata are all metadata objects from com.microblink.metadata.detection package
+        metadataSettings.setDetectionMetadataAllowed(true);
+
+        if (dewarpedImageAllowed && !mAcceptedImageNames.isEmpty()) {
+            // define which images should be available in MetadataListener
+            MetadataSettings.ImageMetadataSettings ims = new MetadataSettings.ImageMetadataSettings();
+            // enable dewarped images
+            ims.setDewarpedImageEnabled(true);
+            metadataSettings.setImageMetadataSettings(ims);
+        }
+        return metadataSettings;
+    }
+
+    private void applyConfiguration(ScanConfiguration configuration) {
+        mAcceptedImageNames.clear();
+        for (String imageName: configuration.getAcceptedImageNames()) {
+            mAcceptedImageNames.add(imageName);
+        }
+
+        RecognitionSettings recognitionSettings = configuration.getRecognitionSettings();
+        RecognizerSettings[] settArr = recognitionSettings.getRecognizerSettingsArray();
+
+        // check that settings array is non-empty
+        if (settArr == null || settArr.length == 0) {
+            throw new NullPointerException("Recognizer settings array cannot be null nor empty!");
+        }
+        int nullSettings = 0;
+        for (RecognizerSettings sett : settArr) {
+            if (sett == null) {
+                ++nullSettings;
+            }
+        }
+        if (nullSettings == settArr.length) {
+            throw new NullPointerException("At least one element in recognizer settings array must be non-null!");
+        }
+
+        if (mCreated) {
+            mRecognizerView.reconfigureRecognizers(recognitionSettings);
+        } else {
+            mRecognizerView.setRecognitionSettings(recognitionSettings);
+        }
+    }
+
+    /**
+     * Applies the camera capture profile, this must be done before recognizer view is created.
+     */
+    private void applyCaptureProfile(CaptureProfile captureProfile) {
+        Log.i(this, "Using capture profile {}", captureProfile);
+        mRecognizerView.setVideoResolutionPreset(captureProfile.getVideoResolutionPreset());
+        mRecognizerView.setPhotoMode(captureProfile.getFocusMode() == CaptureProfile.FocusMode.PHOTO);
+    }
+
+    /**
+     * Defines the recorder to which detection metadata stream is written, so the scan can be
+     * replayed with {@link com.microblink.wrapper.xamarin.scan.replay.DetectionReplayer}.
+     * Recorder is not closed by the view.
+     * @param recorder Detection recorder, or {@code null} to stop recording.
+     */
+    public void setDetectionRecorder(@Nullable DetectionRecorder recorder) {
+        mDetectionRecorder = recorder;
+    }
+
+    /**
+     * Returns the average number of frames per second processed during the current scan.
+     * @return Measured frame rate, or 0 if it is not yet known.
+     */
+    public float getMeasuredFrameRate() {
+        return mFrameRateMeter.getFramesPerSecond();
+    }
+
+    @UiThread
+    public void start() {
+        if (mCreated) {
+            mRecognizerView.start();
+        }
+    }
+
+    @UiThread
+    public void resume() {
+        if (mCreated) {
+            mRecognizerView.resume();
+        }
+        mMediaPlayer = MediaPlayer.create(getContext(), R.raw.beep);
+    }
+
+    @UiThread
+    public void pause() {
+        if (mThrottlePaused) {
+            mHandler.removeCallbacks(mResumeThrottledScanning);
+            mThrottlePaused = false;
+            if (mCreated && !mFinishing) {
+                mRecognizerView.resumeScanning(false);
+            }
+        }
+        if (mCreated) {
+            mRecognizerView.pause();
+        }
+        if (mMediaPlayer != null) {
+            mMediaPlayer = null;
+        }
+    }
+
+    @UiThread
+    public void stop() {
+        if (mCreated) {
+            mRecognizerView.stop();
+        }
+    }
+
+    @UiThread
+    public void destroy() {
+        mHandler.removeCallbacks(mResumeThrottledScanning);
+        mThrottlePaused = false;
+        if (mCreated) {
+            mRecognizerView.destroy();
+            mCreated = false;
+        }
+        NativeImageTracker.dispose(mLastDewarpedImage);
+        mLastDewarpedImage = null;
+        discardFrontSide();
+        NativeImageTracker.report(getImageOwner());
+    }
+
+    /**
+     * @return Session on behalf of which native images are held by this view.
+     */
+    private Object getImageOwner() {
+        return mSession != null ? mSession : this;
+    }
+
+    /**
+     * Starts the next scan without restarting the camera. If given session has different settings
+     * than the previous one, recognizers are reconfigured. Dewarped images are available only if
+     * they were requested by the session with which the view was created.
+     * @param session Session of the next scan, or {@code null} to scan again with the current session.
+     */
+    @UiThread
+    public void scanAgain(@Nullable ScanSession session) {
+        if (!mCreated) {
+            throw new IllegalStateException("Scan view is not created.");
+        }
+        boolean reconfigured = false;
+        if (session != null && session != mSession) {
+            mSession = session;
+            mLicenseKey = session.getLicenseKey();
+            if (session.getConfiguration() != mConfiguration) {
+                mConfiguration = session.getConfiguration();
+                applyConfiguration(mConfiguration);
+                reconfigured = true;
+            }
+        }
+        if (mScanningBackSide && !reconfigured) {
+            // next scan starts with the front side again
+            mRecognizerView.reconfigureRecognizers(mConfiguration.getRecognitionSettings());
+        }
+        mScanningBackSide = false;
+        discardFrontSide();
+        mFinishing = false;
+        mFrameRateMeter.reset();
+        mScanStats.reset();
+        mFrameStartNanos = 0;
+        if (mQuadViewManager != null) {
+            mQuadViewManager.resetUpdateCounters();
+            mQuadViewManager.animateQuadToDefaultPosition();
+        }
+        if (mPointSetRenderer != null) {
+            mPointSetRenderer.setTransformedPointSet(null);
+            mPointSetRenderer.resetStartedAnimationCount();
+        }
+        mRecognizerView.resetRecognitionState();
+        mRecognizerView.resumeScanning(true);
+    }
+
+    /**
+     * Plays beep sound.
+     */
+    private void soundNotification() {
+        if (mMediaPlayer != null) {
+            Log.d(TAG, "Playing beep sound");
+            mMediaPlayer.start();
+            mMediaPlayer.setOnCompletionListener(new MediaPlayer.OnCompletionListener() {
+
+                @Override
+                public void onCompletion(MediaPlayer mp) {
+                    if (mMediaPlayer == null) {
+                        mp.release();
+                    }
+                }
+            });
+        }
+    }
+
+    @Override
+    public void onScanningDone(RecognitionResults results) {
+        if (!validateResults(results)) {
+            // bad read, keep scanning in the same session with fresh recognizer state
+            mRecognizerView.resumeScanning(true);
+            return;
+        }
+        if (!mScanningBackSide && mConfiguration.isTwoSided()) {
+            startBackSide(results);
+            return;
+        }
+        mRecognizerView.pauseScanning();
+        mHandler.removeCallbacks(mResumeThrottledScanning);
+        waitForAnimationAndFinish(results);
+    }
+
+    /**
+     * Validates results with the validator of the session, or of the configuration when the view
+     * has no session, e.g. when it is restored after process death before the application
+     * defined the result listener.
+     */
+    private boolean validateResults(RecognitionResults results) {
+        if (mSession != null) {
+            return mSession.validateResults(results);
+        }
+        BaseRecognitionResult rejected = ResultValidators.findRejected(mConfiguration.getResultValidator(),
+                results.getRecognitionResults());
+        if (rejected != null) {
+            Log.i(this, "Result {} rejected by validator", rejected.getClass().getSimpleName());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Keeps results and image of the front side and switches recognizers to the back side
+     * without stopping the camera.
+     */
+    private void startBackSide(RecognitionResults frontSideResults) {
+        Log.i(this, "Front side scanned, switching to back side recognizers");
+        mFrontSideResults = frontSideResults;
+        // ownership of the front side image is kept until results of both sides are delivered
+        mFrontSideImage = mLastDewarpedImage;
+        mLastDewarpedImage = null;
+        mScanningBackSide = true;
+        soundNotification();
+        displayText(R.string.ScanBackSide);
+        if (mQuadViewManager != null) {
+            mQuadViewManager.animateQuadToDefaultPosition();
+        }
+        if (mPointSetRenderer != null) {
+            mPointSetRenderer.setTransformedPointSet(null);
+        }
+        mRecognizerView.reconfigureRecognizers(mConfiguration.getBackSideRecognitionSettings());
+        mRecognizerView.resumeScanning(true);
+    }
+
+    /**
+     * Disposes results and image of the front side that were not delivered.
+     */
+    private void discardFrontSide() {
+        mFrontSideResults = null;
+        NativeImageTracker.dispose(mFrontSideImage);
+        mFrontSideImage = null;
+    }
+
+    private void waitForAnimationAndFinish(final RecognitionResults results) {
+        if (mOverlayView == null) {
+            setResults(results);
+        } else {
+            mFinishing = true;
+            final Timer timer = new Timer();
+            timer.scheduleAtFixedRate(new TimerTask() {
+                @Override
+                public void run() {
+                    if (mOverlayView.isAnimationInProgress()) {
+                        Log.v(BlinkIDScanView.this, "Waiting for animations to end...");
+                    } else {
+                        timer.cancel();
+                        setResults(results);
+                    }
+
+                }
+            }, 0, 100);
+        }
+    }
+
+    private void setResults(RecognitionResults results) {
+        ScanStats scanStats = new ScanStats(mScanStats);
+        CaptureProfile captureProfile = mConfiguration.getCaptureProfile();
+        if (captureProfile != null) {
+            scanStats.setCaptureProfileName(captureProfile.getName());
+        }
+        if (mQuadViewManager != null) {
+            scanStats.recordOverlayAnimations(mQuadViewManager.getAppliedUpdateCount());
+        }
+        if (mPointSetRenderer != null) {
+            scanStats.recordOverlayAnimations(mPointSetRenderer.getStartedAnimationCount());
+        }
+        reportScanStatistics(scanStats);
+        // ownership of the last dewarped image is handed over with the results
+        Image documentImage = mLastDewarpedImage;
+        mLastDewarpedImage = null;
+        ScanSession session = mSession;
+        if (session == null) {
+            // view restored after process death or started with legacy extras, result listener
+            // may have been defined after the scan was started
+            session = BlinkID.getInstance().restoreSession(getContext(), mLicenseKey, mConfiguration);
+        }
+        if (mFrontSideResults != null) {
+            if (session != null) {
+                // ownership of the front side image is handed over as well
+                session.onScanningDone(mFrontSideResults, mFrontSideImage, results, documentImage, scanStats);
+            } else {
+                Log.w(this, "Both sides scanned without result listener, results of both sides are dropped");
+                NativeImageTracker.dispose(mFrontSideImage);
+                NativeImageTracker.dispose(documentImage);
+            }
+            mFrontSideResults = null;
+            mFrontSideImage = null;
+        } else if (session != null) {
+            session.onScanningDone(results, documentImage, scanStats);
+        } else {
+            BlinkID.getInstance().onScanningDone(results, documentImage);
+        }
+        soundNotification();
+        mHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                if (mScanListener != null) {
+                    mScanListener.onScanDone();
+                }
+            }
+        });
+    }
+
+    private void reportScanStatistics(ScanStats scanStats) {
+        CaptureProfile captureProfile = mConfiguration.getCaptureProfile();
+        if (captureProfile != null) {
+            Log.i(this, "Capture profile {} processed {} frames at {} fps, target is {} fps", captureProfile.getName(),
+                    mFrameRateMeter.getFrameCount(), mFrameRateMeter.getFramesPerSecond(), captureProfile.getTargetFps());
+        } else {
+            Log.i(this, "Processed {} frames at {} fps", mFrameRateMeter.getFrameCount(),
+                    mFrameRateMeter.getFramesPerSecond());
+        }
+        if (mQuadViewManager != null) {
+            Log.d(this, "Quad updates applied: {}, suppressed: {}", mQuadViewManager.getAppliedUpdateCount(),
+                    mQuadViewManager.getSuppressedUpdateCount());
+        }
+        Log.d(this, "Scan statistics: {}", scanStats);
+    }
+
+    @Override
+    public void onCameraPreviewStarted() {
+        // this method is called just after camera preview has started
+        enableTorchButtonIfPossible();
+    }
+
+    @Override
+    public void onCameraPreviewStopped() {
+        // this method is called just after camera preview has stopped
+    }
+
+    private void enableTorchButtonIfPossible() {
+        if (mRecognizerView.isCameraTorchSupported() && mTorchButton != null) {
+            mTorchButton.setVisibility(View.VISIBLE);
+            mTorchButton.setOnClickListener(new View.OnClickListener() {
+
+                @Override
+                public void onClick(View v) {
+                    mRecognizerView.setTorchState(!mTorchEnabled, new SuccessCallback() {
+                        @Override
+                        public void onOperationDone(final boolean success) {
+                            mHandler.post(new Runnable() {
+                                @Override
+                                public void run() {
+                                    if (success) {
+                                        mTorchEnabled = !mTorchEnabled;
+                                        if (mTorchEnabled) {
+                                            mTorchButton.setText(R.string.mbLightOn);
+                                            mTorchButton.setCompoundDrawablesWithIntrinsicBounds(R.drawable.lighton, 0, 0, 0);
+                                        } else {
+                                            mTorchButton.setText(R.string.mbLightOff);
+                                            mTorchButton.setCompoundDrawablesWithIntrinsicBounds(R.drawable.lightoff, 0, 0, 0);
+                                        }
+                                    }
+                                }
+                            });
+                        }
+                    });
+                }
+            });
+        }
+    }
+
+    @Override
+    public void onError(Throwable ex) {
+        // This method will be called when opening of camera resulted in exception or
+        // recognition process encountered an error.
+        // The error details will be given in ex parameter.
+        Log.e(this, ex, "Error");
+        if (!mFinishing) {
+            notifyError(ex);
+        }
+    }
+
+    private void notifyError(final Throwable error) {
+        mHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                if (mScanListener != null) {
+                    mScanListener.onScanError(error);
+                }
+            }
+        });
+    }
+
+    private void displayText(final int textId) {
+        mHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                mStatusTextView.setText(textId);
+            }
+        });
+    }
+
+    @Override
+    public void onAutofocusFailed() {
+        // this method is called if camera cannot perform autofocus
+        // this method is called from background (focusing) thread
+        // so make sure you post UI actions on UI thread
+        displayText(R.string.AutofocusFail);
+    }
+
+    @Override
+    public void onAutofocusStarted(Rect[] rects) {
+        if (Tracer.isEnabled(Tracer.LEVEL_DEBUG)) {
+            traceFocusAreas("Autofocus started", rects);
+        }
+    }
+
+    @Override
+    public void onAutofocusStopped(Rect[] rects) {
+        if (Tracer.isEnabled(Tracer.LEVEL_DEBUG)) {
+            traceFocusAreas("Autofocus stopped", rects);
+        }
+    }
+
+    private void traceFocusAreas(String event, Rect[] rects) {
+        if (rects == null) {
+            Tracer.trace(Tracer.LEVEL_DEBUG, this, "{} with focusing areas being null", event);
+        } else {
+            Tracer.trace(Tracer.LEVEL_DEBUG, this, event);
+            for (Rect rect : rects) {
+                Tracer.trace(Tracer.LEVEL_VERBOSE, this, "Focus area: Rect({}, {} - {}, {})",
+                        rect.left, rect.top, rect.right, rect.bottom);
+            }
+        }
+    }
+
+    @Override
+    public void onSizeChanged(int width, int height) {
+        // this is called whenever size of the BlinkIDView changes
+        // we will use this callback in this example to adjust the margins of buttons
+        int horizontalMargin = (int) (width * 0.07);
+        int verticalMargin = (int) (height * 0.07);
+        // set margins for back button
+        FrameLayout.LayoutParams backButtonParams = (FrameLayout.LayoutParams) mBackButton.getLayoutParams();
+        if (backButtonParams.leftMargin != horizontalMargin && backButtonParams.topMargin != verticalMargin) {
+            backButtonParams.setMargins(horizontalMargin, verticalMargin, horizontalMargin, verticalMargin);
+            mBackButton.setLayoutParams(backButtonParams);
+        }
+        // set margins for torch button
+        FrameLayout.LayoutParams torchButtonParams = (FrameLayout.LayoutParams) mTorchButton.getLayoutParams();
+        if (torchButtonParams.leftMargin != horizontalMargin && torchButtonParams.topMargin != verticalMargin) {
+            torchButtonParams.setMargins(horizontalMargin, verticalMargin, horizontalMargin, verticalMargin);
+            mTorchButton.setLayoutParams(torchButtonParams);
+        }
+        // set margins for text view
+        FrameLayout.LayoutParams statusViewParams = (FrameLayout.LayoutParams) mStatusTextView.getLayoutParams();
+        if (statusViewParams.bottomMargin != verticalMargin) {
+            if (android.os.Build.VERSION.SDK_INT <= 7) {
+                statusViewParams.setMargins(0, verticalMargin, 0, verticalMargin);
+            } else {
+                statusViewParams.setMargins(horizontalMargin, verticalMargin, horizontalMargin, verticalMargin);
+            }
+            mStatusTextView.setLayoutParams(statusViewParams);
+        }
+    }
+
+    /**
+     * Displays message about detection status to the user.
+     *
+     * @param detectionStatus The detection status.
+     */
+    private void displayDetectionStatus(DetectionStatus detectionStatus) {
+        if (detectionStatus == DetectionStatus.SUCCESS) {
+            displayText(R.string.Processing);
+        } else if (detectionStatus == DetectionStatus.FAIL) {
+            displayText(mScanningBackSide ? R.string.ScanBackSide : R.string.Align);
+        } else if (detectionStatus == DetectionStatus.CAMERA_TOO_HIGH) {
+            displayText(R.string.CameraTooHigh);
+        } else if (detectionStatus == DetectionStatus.PARTIAL_OBJECT) {
+            displayText(R.string.PartialDetected);
+        }
+    }
+
+    @Override
+    public void onMetadataAvailable(Metadata metadata) {
+        TraceSection.begin(TraceSection.METADATA_AVAILABLE);
+        try {
+            if (metadata instanceof DetectionMetadata) {
+                // detection metadata is reported once for each processed frame
+                long now = System.nanoTime();
+                mFrameRateMeter.onFrame(now);
+                if (mGovernor != null) {
+                    governFrame(now);
+                }
+                DetectionRecorder recorder = mDetectionRecorder;
+                if (recorder != null) {
+                    recorder.onFrame(now);
+                }
+                if (mDetectionPresenter != null) {
+                    mDetectionPresenter.onFrame(now);
+                }
+                DetectorResult detectionResult = ((DetectionMetadata) metadata).getDetectionResult();
+                if (detectionResult instanceof MultiDetectorResult) {
+                    DetectorResult[] results = ((MultiDetectorResult) detectionResult).getDetectionResults();
+                    if (results != null) {
+                        for (DetectorResult dr : results) {
+                            if (dr != null) {
+                                onDetectorResultAvailable(now, dr);
+                            }
+                        }
+                    }
+                } else {
+                    onDetectorResultAvailable(now, detectionResult);
+                }
+            } else if (metadata instanceof ImageMetadata) {
+                // here we will get dewarped image
+                Image img = ((ImageMetadata) metadata).getImage();
+                if (img.getImageType() == ImageType.DEWARPED && mAcceptedImageNames.contains(img.getImageName())) {
+                    // only the image of the latest frame is kept, clone of the previous one is released now
+                    NativeImageTracker.dispose(mLastDewarpedImage);
+                    mLastDewarpedImage = NativeImageTracker.track(img.clone(), getImageOwner());
+                    mScanStats.recordImageCloned();
+                }
+            }
+        } finally {
+            TraceSection.end();
+        }
+    }
+
+    /**
+     * Feeds frame recognition time to the governor, applies its level and lowers the frame
+     * processing rate by pausing scanning until the minimum frame interval passes.
+     *
+     * Recognizer does not report when it starts a frame, and the interval between two frames
+     * also contains the time in which it waited for the camera. So recognition time is measured
+     * only for the first frame after scanning was resumed, from the resume to the detection of
+     * that frame. When frames are not throttled, scanning is briefly paused every
+     * {@link #GOVERNOR_MEASUREMENT_INTERVAL_FRAMES} frames to measure it.
+     */
+    private void governFrame(long frameNanos) {
+        long frameStartNanos = mFrameStartNanos;
+        if (frameStartNanos != 0) {
+            mGovernor.onFrameProcessed((frameNanos - frameStartNanos) / 1000000);
+            mFrameStartNanos = 0;
+            mFramesSinceMeasurement = 0;
+        } else {
+            ++mFramesSinceMeasurement;
+        }
+        if (mGovernor.evaluate()) {
+            applyGovernorLevel(mGovernor.getLevel());
+        }
+        long minFrameInterval = mGovernor.getLevel().getMinFrameIntervalMs();
+        boolean measure = mFramesSinceMeasurement >= GOVERNOR_MEASUREMENT_INTERVAL_FRAMES;
+        if ((minFrameInterval > 0 || measure) && !mFinishing && !mThrottlePaused) {
+            mThrottlePaused = true;
+            mRecognizerView.pauseScanning();
+            mHandler.postDelayed(mResumeThrottledScanning, minFrameInterval);
+        }
+    }
+
+    private void applyGovernorLevel(ProcessingGovernor.Level level) {
+        Log.i(this, "Processing level changed to {}", level);
+        boolean animationsEnabled = level.areOverlayAnimationsEnabled();
+        if (mQuadViewManager != null) {
+            mQuadViewManager.setAnimationsEnabled(animationsEnabled);
+        }
+        if (mPointSetRenderer != null) {
+            mPointSetRenderer.setAnimationsEnabled(animationsEnabled);
+        }
+        if (!mAcceptedImageNames.isEmpty() && level.isDewarpedImageAllowed() != mDewarpedImageAllowed) {
+            mDewarpedImageAllowed = level.isDewarpedImageAllowed();
+            if (!mDewarpedImageAllowed && mLastDewarpedImage != null) {
+                // image of an earlier frame would not match the results
+                NativeImageTracker.dispose(mLastDewarpedImage);
+                mLastDewarpedImage = null;
+            }
+            mRecognizerView.setMetadataListener(this, createMetadataSettings(mDewarpedImageAllowed));
+        }
+    }
+
+    private void onDetectorResultAvailable(long timestampNanos, DetectorResult detectorResult) {
+        TraceSection.begin(TraceSection.DETECTOR_RESULT_AVAILABLE);
+        try {
+            // DetectionMetadata contains DetectorResult which is null if object detection
+            // has failed and non-null otherwise
+            if (detectorResult == null) {
+                onDetection(timestampNanos, DetectionStatus.FAIL, null, null);
+            } else if (mPointSetRenderer != null && detectorResult instanceof PointsDetectorResult) {
+                List<Point> pointList = ((PointsDetectorResult) detectorResult).getTransformedPointSet().getPoints();
+                List<XPoint> xPointList = new ArrayList<>();
+                for (Point p : pointList) {
+                    xPointList.add(new XPoint(p.getX(), p.getY()));
+                }
+                onDetection(timestampNanos, detectorResult.getDetectionStatus(), null, new PointSetWrapper(xPointList));
+            } else if (detectorResult instanceof QuadDetectorResult) {
+                QuadDetectorResult quadResult = (QuadDetectorResult) detectorResult;
+                Quadrilateral quad = quadResult.getTransformedDisplayLocation();
+                onDetection(timestampNanos, quadResult.getDetectionStatus(),
+                        quad != null ? toDetectedQuad(quad) : null, null);
+            }
+        } finally {
+            TraceSection.end();
+        }
+    }
+
+    private void onDetection(long timestampNanos, DetectionStatus status, @Nullable QuadrilateralWrapper quad,
+                             @Nullable PointSetWrapper pointSet) {
+        DetectionRecorder recorder = mDetectionRecorder;
+        if (recorder != null) {
+            recorder.onDetection(timestampNanos, status, quad, pointSet);
+        }
+        if (mDetectionPresenter != null) {
+            mDetectionPresenter.onDetection(timestampNanos, status, quad, pointSet);
+        }
+        displayDetectionStatus(status);
+    }
+
+    /**
+     * Host must forward the permission request result to this method on API level 23 and newer.
+     */
+    @TargetApi(23)
+    public void onRequestPermissionsResult(int requestCode, String[] permissions, int[] grantResults) {
+        // on API level 23, request permission result should be passed to camera permission manager
+        if (mCameraPermissionManager != null) {
+            mCameraPermissionManager.onRequestPermissionsResult(requestCode, permissions, grantResults);
+        }
+    }
+
+    @Override
+    @TargetApi(23)
+    public void onCameraPermissionDenied() {
+        // this method is called on Android 6.0 and newer if camera permission was not given
+        // by user
+
+        // ask user to give a camera permission. Provided manager asks for
+        // permission only if it has not been already granted.
+        // on API level < 23, this method does nothing
+        if (mCameraPermissionManager != null) {
+            mCameraPermissionManager.askForCameraPermission();
+        }
+    }
+
+    /**
+     * Copies the quad into the reused detection quad, listeners must not keep it after the call.
+     */
+    private QuadrilateralWrapper toDetectedQuad(Quadrilateral q) {
+        mDetectedQuad.set(q);
+        return mDetectedQuad;
+    }
+}
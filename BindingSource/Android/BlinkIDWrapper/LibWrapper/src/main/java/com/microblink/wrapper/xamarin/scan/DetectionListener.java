@@ -0,0 +1,33 @@
+package com.microblink.wrapper.xamarin.scan;
+
+import android.support.annotation.Nullable;
+
+import com.microblink.view.recognition.DetectionStatus;
+import com.microblink.wrapper.xamarin.scan.dots.PointSetWrapper;
+import com.microblink.wrapper.xamarin.scan.quadview.QuadrilateralWrapper;
+
+/**
+ * Receives the stream of detection metadata converted from SDK detector results. Scan view
+ * feeds it from the recognizer, {@link com.microblink.wrapper.xamarin.scan.replay.DetectionReplayer}
+ * feeds it from a recorded file. All methods are called on the same thread.
+ */
+public interface DetectionListener {
+
+    /**
+     * Called once for each frame with detection metadata, before its detections.
+     * @param timestampNanos Timestamp of the frame.
+     */
+    void onFrame(long timestampNanos);
+
+    /**
+     * Called for each detector result of the frame. When detection failed, both quad and point
+     * set are {@code null}.
+     * @param timestampNanos Timestamp of the frame.
+     * @param status Detection status.
+     * @param quad Detected quad in display coordinates, or {@code null}. Quad may be reused for
+     *             the next detection, so listener must copy it if it is needed after the call.
+     * @param pointSet Detected points in display coordinates, or {@code null}.
+     */
+    void onDetection(long timestampNanos, @Nullable DetectionStatus status, @Nullable QuadrilateralWrapper quad,
+                     @Nullable PointSetWrapper pointSet);
+}
@@ -0,0 +1,81 @@
+package com.microblink.wrapper.xamarin.scan;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.support.annotation.NonNull;
+import android.view.View;
+
+import com.microblink.wrapper.xamarin.scan.dots.PointSetRenderer;
+import com.microblink.wrapper.xamarin.scan.quadview.QuadRenderer;
+import com.microblink.wrapper.xamarin.trace.TraceSection;
+
+/**
+ * Single overlay that draws both the viewfinder quad and detected point sets in one pass.
+ * Both renderers are advanced with the same frame time, so one view and one layer are
+ * composited over the camera preview instead of two full-screen views.
+ */
+public class DetectionOverlayView extends View {
+
+    private final QuadRenderer mQuadRenderer;
+    private final PointSetRenderer mPointSetRenderer;
+
+    /**
+     * @param context Context.
+     * @param horizontalMargin Horizontal margin of the default quad, relative to view width.
+     * @param verticalMargin Vertical margin of the default quad, relative to view height.
+     * @param hostActivityOrientation Orientation of the host activity.
+     */
+    public DetectionOverlayView(Context context, double horizontalMargin, double verticalMargin, int hostActivityOrientation) {
+        super(context);
+        mQuadRenderer = new QuadRenderer(this, horizontalMargin, verticalMargin, hostActivityOrientation);
+        mPointSetRenderer = new PointSetRenderer(this, hostActivityOrientation);
+
+        if (!isInEditMode() && android.os.Build.VERSION.SDK_INT >= 11) {
+            setLayerType(View.LAYER_TYPE_HARDWARE, mQuadRenderer.getPaint());
+        }
+    }
+
+    @NonNull
+    public QuadRenderer getQuadRenderer() {
+        return mQuadRenderer;
+    }
+
+    @NonNull
+    public PointSetRenderer getPointSetRenderer() {
+        return mPointSetRenderer;
+    }
+
+    public void setHostActivityOrientation(int hostActivityOrientation) {
+        mQuadRenderer.setHostActivityOrientation(hostActivityOrientation);
+        mPointSetRenderer.setHostActivityOrientation(hostActivityOrientation);
+    }
+
+    /**
+     * @return {@code true} if quad or points are animated.
+     */
+    public boolean isAnimationInProgress() {
+        return mQuadRenderer.isAnimationInProgress() || mPointSetRenderer.isAnimationInProgress();
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+        mQuadRenderer.setSize(getWidth(), getHeight());
+        mPointSetRenderer.setSize(getWidth(), getHeight());
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        TraceSection.begin(TraceSection.DETECTION_OVERLAY_DRAW);
+        try {
+            long frameNanos = System.nanoTime();
+            boolean animating = mQuadRenderer.draw(canvas, frameNanos);
+            // points are drawn over the quad, as when they were drawn by a separate view
+            animating |= mPointSetRenderer.draw(canvas, frameNanos);
+            if (animating) {
+                invalidate();
+            }
+        } finally {
+            TraceSection.end();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.microblink.wrapper.xamarin.scan;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.microblink.view.recognition.DetectionStatus;
+import com.microblink.wrapper.xamarin.scan.dots.PointSetRenderer;
+import com.microblink.wrapper.xamarin.scan.dots.PointSetWrapper;
+import com.microblink.wrapper.xamarin.scan.quadview.QuadViewManager;
+import com.microblink.wrapper.xamarin.scan.quadview.QuadrilateralWrapper;
+
+/**
+ * Presents detections on the quad and point set overlays and counts them in {@link ScanStats}.
+ * Scan view and replayed recordings drive the overlays through this class, so replay exercises
+ * the same code as a live scan.
+ */
+public class DetectionPresenter implements DetectionListener {
+
+    private final QuadViewManager mQuadViewManager;
+    private final PointSetRenderer mPointSetRenderer;
+    private final ScanStats mScanStats;
+
+    /**
+     * @param quadViewManager Manager of the quad overlay, or {@code null} if quad is not drawn.
+     * @param pointSetRenderer Renderer of detected points, or {@code null} if points are not drawn.
+     * @param scanStats Statistics to which frames and detections are recorded.
+     */
+    public DetectionPresenter(@Nullable QuadViewManager quadViewManager, @Nullable PointSetRenderer pointSetRenderer,
+                              @NonNull ScanStats scanStats) {
+        mQuadViewManager = quadViewManager;
+        mPointSetRenderer = pointSetRenderer;
+        mScanStats = scanStats;
+    }
+
+    @Override
+    public void onFrame(long timestampNanos) {
+        mScanStats.recordFrame(timestampNanos);
+    }
+
+    @Override
+    public void onDetection(long timestampNanos, @Nullable DetectionStatus status, @Nullable QuadrilateralWrapper quad,
+                            @Nullable PointSetWrapper pointSet) {
+        mScanStats.recordDetection(status);
+        if (pointSet != null) {
+            if (mPointSetRenderer != null) {
+                mPointSetRenderer.setTransformedPointSet(pointSet);
+            }
+            return;
+        }
+        if (mQuadViewManager != null) {
+            if (quad == null) {
+                mQuadViewManager.animateQuadToDefaultPosition();
+            } else {
+                mQuadViewManager.animateQuadToDetectionPosition(quad, status == DetectionStatus.SUCCESS);
+            }
+        }
+        if (mPointSetRenderer != null) {
+            mPointSetRenderer.setTransformedPointSet(null);
+        }
+    }
+}
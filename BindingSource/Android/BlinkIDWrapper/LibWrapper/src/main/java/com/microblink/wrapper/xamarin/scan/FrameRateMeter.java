@@ -0,0 +1,54 @@
+package com.microblink.wrapper.xamarin.scan;
+
+/**
+ * Measures the rate of processed frames. Recognizer reports detection metadata once for each
+ * processed frame, so frame rate is measured from timestamps of metadata callbacks.
+ */
+public class FrameRateMeter {
+
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private long mFirstFrameNanos;
+    private long mLastFrameNanos;
+    private int mFrameCount;
+
+    /**
+     * Records one processed frame.
+     * @param timestampNanos Timestamp of the frame, e.g. {@link System#nanoTime()}.
+     */
+    public synchronized void onFrame(long timestampNanos) {
+        if (mFrameCount == 0) {
+            mFirstFrameNanos = timestampNanos;
+        }
+        mLastFrameNanos = timestampNanos;
+        ++mFrameCount;
+    }
+
+    /**
+     * @return Number of recorded frames since last reset.
+     */
+    public synchronized int getFrameCount() {
+        return mFrameCount;
+    }
+
+    /**
+     * @return Average number of processed frames per second since last reset, or 0 if less than
+     *         two frames were recorded.
+     */
+    public synchronized float getFramesPerSecond() {
+        long elapsed = mLastFrameNanos - mFirstFrameNanos;
+        if (mFrameCount < 2 || elapsed <= 0) {
+            return 0.f;
+        }
+        return (float) ((mFrameCount - 1) * NANOS_PER_SECOND / elapsed);
+    }
+
+    /**
+     * Discards all recorded frames.
+     */
+    public synchronized void reset() {
+        mFrameCount = 0;
+        mFirstFrameNanos = 0;
+        mLastFrameNanos = 0;
+    }
+}
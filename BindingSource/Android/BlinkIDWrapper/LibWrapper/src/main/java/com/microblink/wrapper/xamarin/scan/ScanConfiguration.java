@@ -0,0 +1,215 @@
+package com.microblink.wrapper.xamarin.scan;
+
+import android.os.Bundle;
+import android.os.Parcelable;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.microblink.hardware.camera.CameraType;
+import com.microblink.recognizers.settings.RecognitionSettings;
+import com.microblink.util.Log;
+import com.microblink.wrapper.xamarin.CaptureProfile;
+import com.microblink.wrapper.xamarin.result.ResultValidator;
+import com.microblink.wrapper.xamarin.result.ResultValidators;
+
+/**
+ * Already built settings that are used by {@link BlinkIDScanActivity}. Configuration is handed
+ * over to the activity with its {@link com.microblink.wrapper.xamarin.ScanSession} through
+ * {@link ScanSessionRegistry}, so it does not have to be marshalled through the intent.
+ */
+public class ScanConfiguration {
+
+    private static final String STATE_RECOGNITION_SETTINGS = "STATE_RECOGNITION_SETTINGS";
+    private static final String STATE_CAMERA_TYPE = "STATE_CAMERA_TYPE";
+    private static final String STATE_ACCEPTED_IMAGE_NAMES_ARRAY = "STATE_ACCEPTED_IMAGE_NAMES_ARRAY";
+    private static final String STATE_CAPTURE_PROFILE = "STATE_CAPTURE_PROFILE";
+    private static final String STATE_BACK_SIDE_RECOGNITION_SETTINGS = "STATE_BACK_SIDE_RECOGNITION_SETTINGS";
+    private static final String STATE_PARSER_IDENTIFIERS_ARRAY = "STATE_PARSER_IDENTIFIERS_ARRAY";
+    private static final String STATE_RESULT_VALIDATOR_ARRAY = "STATE_RESULT_VALIDATOR_ARRAY";
+
+    private final RecognitionSettings mRecognitionSettings;
+    private final CameraType mCameraType;
+    private final String[] mAcceptedImageNames;
+    private final CaptureProfile mCaptureProfile;
+    private final RecognitionSettings mBackSideRecognitionSettings;
+    private final String[] mParserIdentifiers;
+    private final ResultValidator mResultValidator;
+
+    /**
+     * @param recognitionSettings Recognition settings for the recognizer view.
+     * @param cameraType Camera type that will be used.
+     * @param acceptedImageNames Names of the dewarped images that will be accepted.
+     */
+    public ScanConfiguration(@NonNull RecognitionSettings recognitionSettings, @NonNull CameraType cameraType,
+                             @NonNull String[] acceptedImageNames) {
+        this(recognitionSettings, cameraType, acceptedImageNames, null);
+    }
+
+    /**
+     * @param recognitionSettings Recognition settings for the recognizer view.
+     * @param cameraType Camera type that will be used.
+     * @param acceptedImageNames Names of the dewarped images that will be accepted.
+     * @param captureProfile Camera capture profile, or {@code null} for default camera settings.
+     */
+    public ScanConfiguration(@NonNull RecognitionSettings recognitionSettings, @NonNull CameraType cameraType,
+                             @NonNull String[] acceptedImageNames, @Nullable CaptureProfile captureProfile) {
+        this(recognitionSettings, cameraType, acceptedImageNames, captureProfile, null);
+    }
+
+    /**
+     * @param recognitionSettings Recognition settings for the recognizer view, in two-sided
+     *                            scanning these are settings of the front side.
+     * @param cameraType Camera type that will be used.
+     * @param acceptedImageNames Names of the dewarped images that will be accepted.
+     * @param captureProfile Camera capture profile, or {@code null} for default camera settings.
+     * @param backSideRecognitionSettings Recognition settings to which recognizers are
+     *                                    reconfigured after the front side is scanned, or
+     *                                    {@code null} if only one side is scanned.
+     */
+    public ScanConfiguration(@NonNull RecognitionSettings recognitionSettings, @NonNull CameraType cameraType,
+                             @NonNull String[] acceptedImageNames, @Nullable CaptureProfile captureProfile,
+                             @Nullable RecognitionSettings backSideRecognitionSettings) {
+        this(recognitionSettings, cameraType, acceptedImageNames, captureProfile, backSideRecognitionSettings, null);
+    }
+
+    /**
+     * @param recognitionSettings Recognition settings for the recognizer view, in two-sided
+     *                            scanning these are settings of the front side.
+     * @param cameraType Camera type that will be used.
+     * @param acceptedImageNames Names of the dewarped images that will be accepted.
+     * @param captureProfile Camera capture profile, or {@code null} for default camera settings.
+     * @param backSideRecognitionSettings Recognition settings to which recognizers are
+     *                                    reconfigured after the front side is scanned, or
+     *                                    {@code null} if only one side is scanned.
+     * @param parserIdentifiers Identifiers of OCR parsers, used to convert results of a scan
+     *                          restored after process death, or {@code null} if there are none.
+     */
+    public ScanConfiguration(@NonNull RecognitionSettings recognitionSettings, @NonNull CameraType cameraType,
+                             @NonNull String[] acceptedImageNames, @Nullable CaptureProfile captureProfile,
+                             @Nullable RecognitionSettings backSideRecognitionSettings,
+                             @Nullable String[] parserIdentifiers) {
+        this(recognitionSettings, cameraType, acceptedImageNames, captureProfile, backSideRecognitionSettings,
+                parserIdentifiers, null);
+    }
+
+    /**
+     * @param recognitionSettings Recognition settings for the recognizer view, in two-sided
+     *                            scanning these are settings of the front side.
+     * @param cameraType Camera type that will be used.
+     * @param acceptedImageNames Names of the dewarped images that will be accepted.
+     * @param captureProfile Camera capture profile, or {@code null} for default camera settings.
+     * @param backSideRecognitionSettings Recognition settings to which recognizers are
+     *                                    reconfigured after the front side is scanned, or
+     *                                    {@code null} if only one side is scanned.
+     * @param parserIdentifiers Identifiers of OCR parsers, used to convert results of a scan
+     *                          restored after process death, or {@code null} if there are none.
+     * @param resultValidator Validator of results before the scan is finished, or {@code null}
+     *                        to accept all results. Only validators built of
+     *                        {@link ResultValidators} are restored after process death.
+     */
+    public ScanConfiguration(@NonNull RecognitionSettings recognitionSettings, @NonNull CameraType cameraType,
+                             @NonNull String[] acceptedImageNames, @Nullable CaptureProfile captureProfile,
+                             @Nullable RecognitionSettings backSideRecognitionSettings,
+                             @Nullable String[] parserIdentifiers, @Nullable ResultValidator resultValidator) {
+        mRecognitionSettings = recognitionSettings;
+        mCameraType = cameraType;
+        mAcceptedImageNames = acceptedImageNames;
+        mCaptureProfile = captureProfile;
+        mBackSideRecognitionSettings = backSideRecognitionSettings;
+        mParserIdentifiers = parserIdentifiers != null ? parserIdentifiers : new String[0];
+        mResultValidator = resultValidator;
+    }
+
+    @NonNull
+    public RecognitionSettings getRecognitionSettings() {
+        return mRecognitionSettings;
+    }
+
+    @NonNull
+    public CameraType getCameraType() {
+        return mCameraType;
+    }
+
+    @NonNull
+    public String[] getAcceptedImageNames() {
+        return mAcceptedImageNames;
+    }
+
+    @Nullable
+    public CaptureProfile getCaptureProfile() {
+        return mCaptureProfile;
+    }
+
+    /**
+     * @return Recognition settings of the back side, or {@code null} if only one side is scanned.
+     */
+    @Nullable
+    public RecognitionSettings getBackSideRecognitionSettings() {
+        return mBackSideRecognitionSettings;
+    }
+
+    /**
+     * @return Identifiers of OCR parsers, empty if there are no parsers.
+     */
+    @NonNull
+    public String[] getParserIdentifiers() {
+        return mParserIdentifiers;
+    }
+
+    /**
+     * @return Validator of results before the scan is finished, or {@code null} if all results
+     *         are accepted.
+     */
+    @Nullable
+    public ResultValidator getResultValidator() {
+        return mResultValidator;
+    }
+
+    /**
+     * @return {@code true} if front and back side of the document are scanned one after another.
+     */
+    public boolean isTwoSided() {
+        return mBackSideRecognitionSettings != null;
+    }
+
+    /**
+     * Saves the configuration to given bundle. This is used only as a fallback for restoring
+     * the scan activity after process death.
+     * @param outState Bundle to which configuration is saved.
+     */
+    void saveTo(@NonNull Bundle outState) {
+        outState.putParcelable(STATE_RECOGNITION_SETTINGS, mRecognitionSettings);
+        outState.putParcelable(STATE_CAMERA_TYPE, (Parcelable) mCameraType);
+        outState.putStringArray(STATE_ACCEPTED_IMAGE_NAMES_ARRAY, mAcceptedImageNames);
+        outState.putParcelable(STATE_CAPTURE_PROFILE, mCaptureProfile);
+        outState.putParcelable(STATE_BACK_SIDE_RECOGNITION_SETTINGS, mBackSideRecognitionSettings);
+        outState.putStringArray(STATE_PARSER_IDENTIFIERS_ARRAY, mParserIdentifiers);
+        String[] validatorDescription = ResultValidators.describe(mResultValidator);
+        if (mResultValidator != null && validatorDescription == null) {
+            Log.w(this, "Custom result validator cannot be restored after process death");
+        }
+        outState.putStringArray(STATE_RESULT_VALIDATOR_ARRAY, validatorDescription);
+    }
+
+    /**
+     * Restores the configuration saved with {@link #saveTo(Bundle)}.
+     * @param savedState Bundle with saved configuration.
+     * @return Restored configuration, or {@code null} if bundle does not contain configuration.
+     */
+    @Nullable
+    static ScanConfiguration restoreFrom(@NonNull Bundle savedState) {
+        RecognitionSettings recognitionSettings = savedState.getParcelable(STATE_RECOGNITION_SETTINGS);
+        if (recognitionSettings == null) {
+            return null;
+        }
+        CameraType cameraType = savedState.getParcelable(STATE_CAMERA_TYPE);
+        String[] acceptedImageNames = savedState.getStringArray(STATE_ACCEPTED_IMAGE_NAMES_ARRAY);
+        CaptureProfile captureProfile = savedState.getParcelable(STATE_CAPTURE_PROFILE);
+        RecognitionSettings backSideRecognitionSettings = savedState.getParcelable(STATE_BACK_SIDE_RECOGNITION_SETTINGS);
+        return new ScanConfiguration(recognitionSettings,
+                cameraType != null ? cameraType : CameraType.CAMERA_DEFAULT,
+                acceptedImageNames != null ? acceptedImageNames : new String[0], captureProfile,
+                backSideRecognitionSettings, savedState.getStringArray(STATE_PARSER_IDENTIFIERS_ARRAY),
+                ResultValidators.fromDescription(savedState.getStringArray(STATE_RESULT_VALIDATOR_ARRAY)));
+    }
+}
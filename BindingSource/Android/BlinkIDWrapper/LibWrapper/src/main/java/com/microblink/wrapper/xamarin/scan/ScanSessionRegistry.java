@@ -0,0 +1,63 @@
+package com.microblink.wrapper.xamarin.scan;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.microblink.wrapper.xamarin.ScanSession;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * In-process registry of scan sessions. Scan intent carries only the token under which
+ * session is registered and scan activity obtains the same session object from the registry,
+ * without marshalling its settings through Binder.
+ *
+ * Tokens are random, so token of a session registered before process death never
+ * matches a session registered after it.
+ */
+public final class ScanSessionRegistry {
+
+    private static final Map<String, ScanSession> sSessions = new HashMap<>();
+
+    private ScanSessionRegistry() {
+    }
+
+    /**
+     * Registers the session.
+     * @param session Scan session.
+     * @return Token under which session is registered.
+     */
+    @NonNull
+    public static String register(@NonNull ScanSession session) {
+        String token = UUID.randomUUID().toString();
+        synchronized (sSessions) {
+            sSessions.put(token, session);
+        }
+        return token;
+    }
+
+    /**
+     * Returns the session registered under given token.
+     * @param token Token returned by {@link #register(ScanSession)}.
+     * @return Registered session, or {@code null} if there is no session for given
+     *         token, for example because process was restarted.
+     */
+    @Nullable
+    public static ScanSession get(@NonNull String token) {
+        synchronized (sSessions) {
+            return sSessions.get(token);
+        }
+    }
+
+    /**
+     * Removes the session registered under given token.
+     * @param token Token returned by {@link #register(ScanSession)}.
+     */
+    public static void unregister(@NonNull String token) {
+        synchronized (sSessions) {
+            sSessions.remove(token);
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.microblink.wrapper.xamarin.scan;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.microblink.view.recognition.DetectionStatus;
+
+import java.util.Locale;
+
+/**
+ * Counters of a single scan: processed frames, detections by {@link DetectionStatus}, cloned
+ * native images, started overlay animations, time spent converting results and time spent in
+ * the result listener that streams them, together with the name of the capture profile with which frames were processed. Scan view
+ * records the counters while scanning and hands a copy over with the results, so it is
+ * delivered to {@link com.microblink.wrapper.xamarin.BlinkIdResultListener#onScanStatsAvailable(ScanStats)}.
+ *
+ * Statistics of several scans or sessions can be aggregated with {@link #add(ScanStats)}, e.g.
+ * separately for each capture profile to compare their frame rates.
+ */
+public class ScanStats {
+
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final double NANOS_PER_MILLISECOND = 1e6;
+
+    private int mFrameCount;
+    /** Timestamp of the last recorded frame, 0 if no frame was recorded */
+    private long mLastFrameNanos;
+    private int mFrameIntervalCount;
+    private long mFrameIntervalNanos;
+    private final int[] mDetectionCounts = new int[DetectionStatus.values().length];
+    private int mClonedImageCount;
+    private int mOverlayAnimationCount;
+    private int mScanCount;
+    private long mConversionNanos;
+    private long mResultListenerNanos;
+    private String mCaptureProfileName;
+
+    public ScanStats() {
+    }
+
+    /**
+     * Creates a copy of given statistics.
+     */
+    public ScanStats(@NonNull ScanStats other) {
+        add(other);
+        mLastFrameNanos = other.getLastFrameNanos();
+    }
+
+    /**
+     * Records one frame with metadata.
+     * @param timestampNanos Timestamp of the frame, e.g. {@link System#nanoTime()}.
+     */
+    public synchronized void recordFrame(long timestampNanos) {
+        if (mLastFrameNanos != 0) {
+            ++mFrameIntervalCount;
+            mFrameIntervalNanos += timestampNanos - mLastFrameNanos;
+        }
+        mLastFrameNanos = timestampNanos;
+        ++mFrameCount;
+    }
+
+    /**
+     * Records one detection. Failed detection without detector result is recorded as
+     * {@link DetectionStatus#FAIL}.
+     * @param status Detection status, detections without status are ignored.
+     */
+    public synchronized void recordDetection(@Nullable DetectionStatus status) {
+        if (status != null) {
+            ++mDetectionCounts[status.ordinal()];
+        }
+    }
+
+    /**
+     * Records one native image cloned from image metadata.
+     */
+    public synchronized void recordImageCloned() {
+        ++mClonedImageCount;
+    }
+
+    /**
+     * Records started overlay animations.
+     * @param count Number of started animations.
+     */
+    public synchronized void recordOverlayAnimations(int count) {
+        mOverlayAnimationCount += count;
+    }
+
+    /**
+     * Records conversion of results of one scan.
+     * @param nanos Time spent converting results and document image.
+     */
+    public synchronized void recordConversion(long nanos) {
+        ++mScanCount;
+        mConversionNanos += nanos;
+    }
+
+    /**
+     * Records the time spent in
+     * {@link com.microblink.wrapper.xamarin.BlinkIdResultListener#onRecognitionResultsAvailable}.
+     * It is kept apart from the conversion time, because it measures application code.
+     * @param nanos Time spent in the result listener for one scan.
+     */
+    public synchronized void recordResultListener(long nanos) {
+        mResultListenerNanos += nanos;
+    }
+
+    /**
+     * Defines the capture profile with which frames were processed.
+     * @param captureProfileName Name of the capture profile, or {@code null} if default camera
+     *                           settings were used.
+     */
+    public synchronized void setCaptureProfileName(@Nullable String captureProfileName) {
+        mCaptureProfileName = captureProfileName;
+    }
+
+    /**
+     * Adds counters of other statistics to these statistics, e.g. to aggregate statistics of
+     * all sessions. Capture profile name is kept only if both statistics have the same profile,
+     * or these statistics are empty.
+     */
+    public void add(@NonNull ScanStats other) {
+        // copy other first, so locks of both statistics are never held at the same time
+        ScanStats copy;
+        synchronized (other) {
+            copy = new ScanStats();
+            copy.mFrameCount = other.mFrameCount;
+            copy.mFrameIntervalCount = other.mFrameIntervalCount;
+            copy.mFrameIntervalNanos = other.mFrameIntervalNanos;
+            System.arraycopy(other.mDetectionCounts, 0, copy.mDetectionCounts, 0, mDetectionCounts.length);
+            copy.mClonedImageCount = other.mClonedImageCount;
+            copy.mOverlayAnimationCount = other.mOverlayAnimationCount;
+            copy.mScanCount = other.mScanCount;
+            copy.mConversionNanos = other.mConversionNanos;
+            copy.mResultListenerNanos = other.mResultListenerNanos;
+            copy.mCaptureProfileName = other.mCaptureProfileName;
+        }
+        synchronized (this) {
+            if (mFrameCount == 0 && mScanCount == 0) {
+                mCaptureProfileName = copy.mCaptureProfileName;
+            } else if (mCaptureProfileName != null && !mCaptureProfileName.equals(copy.mCaptureProfileName)) {
+                mCaptureProfileName = null;
+            }
+            mFrameCount += copy.mFrameCount;
+            mFrameIntervalCount += copy.mFrameIntervalCount;
+            mFrameIntervalNanos += copy.mFrameIntervalNanos;
+            for (int i = 0; i < mDetectionCounts.length; ++i) {
+                mDetectionCounts[i] += copy.mDetectionCounts[i];
+            }
+            mClonedImageCount += copy.mClonedImageCount;
+            mOverlayAnimationCount += copy.mOverlayAnimationCount;
+            mScanCount += copy.mScanCount;
+            mConversionNanos += copy.mConversionNanos;
+            mResultListenerNanos += copy.mResultListenerNanos;
+        }
+    }
+
+    /**
+     * Resets all counters.
+     */
+    public synchronized void reset() {
+        mFrameCount = 0;
+        mLastFrameNanos = 0;
+        mFrameIntervalCount = 0;
+        mFrameIntervalNanos = 0;
+        for (int i = 0; i < mDetectionCounts.length; ++i) {
+            mDetectionCounts[i] = 0;
+        }
+        mClonedImageCount = 0;
+        mOverlayAnimationCount = 0;
+        mScanCount = 0;
+        mConversionNanos = 0;
+        mResultListenerNanos = 0;
+        mCaptureProfileName = null;
+    }
+
+    private synchronized long getLastFrameNanos() {
+        return mLastFrameNanos;
+    }
+
+    /**
+     * @return Name of the capture profile with which frames were processed, or {@code null} if
+     *         default camera settings were used or statistics of different profiles were added.
+     */
+    @Nullable
+    public synchronized String getCaptureProfileName() {
+        return mCaptureProfileName;
+    }
+
+    /**
+     * @return Number of frames with metadata.
+     */
+    public synchronized int getFrameCount() {
+        return mFrameCount;
+    }
+
+    /**
+     * @return Average number of frames with metadata per second, or 0 if less than two frames
+     *         of the same scan were recorded.
+     */
+    public synchronized float getFramesPerSecond() {
+        if (mFrameIntervalCount == 0 || mFrameIntervalNanos <= 0) {
+            return 0.f;
+        }
+        return (float) (mFrameIntervalCount * NANOS_PER_SECOND / mFrameIntervalNanos);
+    }
+
+    /**
+     * @return Number of detections with given status.
+     */
+    public synchronized int getDetectionCount(@NonNull DetectionStatus status) {
+        return mDetectionCounts[status.ordinal()];
+    }
+
+    public int getSuccessfulDetectionCount() {
+        return getDetectionCount(DetectionStatus.SUCCESS);
+    }
+
+    public int getFailedDetectionCount() {
+        return getDetectionCount(DetectionStatus.FAIL);
+    }
+
+    public int getPartialDetectionCount() {
+        return getDetectionCount(DetectionStatus.PARTIAL_OBJECT);
+    }
+
+    /**
+     * @return Number of native images cloned from image metadata.
+     */
+    public synchronized int getClonedImageCount() {
+        return mClonedImageCount;
+    }
+
+    /**
+     * @return Number of started quad and point set animations.
+     */
+    public synchronized int getOverlayAnimationCount() {
+        return mOverlayAnimationCount;
+    }
+
+    /**
+     * @return Number of scans whose results were converted.
+     */
+    public synchronized int getScanCount() {
+        return mScanCount;
+    }
+
+    /**
+     * @return Total time in milliseconds spent converting results and document images, without
+     *         the time spent in the result listener.
+     */
+    public synchronized double getConversionTimeMs() {
+        return mConversionNanos / NANOS_PER_MILLISECOND;
+    }
+
+    /**
+     * @return Total time in milliseconds spent in the result listener that receives results
+     *         before they are converted.
+     */
+    public synchronized double getResultListenerTimeMs() {
+        return mResultListenerNanos / NANOS_PER_MILLISECOND;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format(Locale.US, "%s: %d frames at %.1f fps, detections %d/%d/%d (success/fail/partial), "
+                        + "%d images cloned, %d overlay animations, %d scans converted in %.1f ms, "
+                        + "%.1f ms in result listener",
+                mCaptureProfileName != null ? mCaptureProfileName : "default profile", mFrameCount,
+                getFramesPerSecond(), getSuccessfulDetectionCount(), getFailedDetectionCount(),
+                getPartialDetectionCount(), mClonedImageCount, mOverlayAnimationCount, mScanCount,
+                getConversionTimeMs(), getResultListenerTimeMs());
+    }
+}
@@ -0,0 +1,86 @@
+package com.microblink.wrapper.xamarin.scan;
+
+import android.content.pm.ActivityInfo;
+
+/**
+ * Affine transform from unit detection coordinates to view coordinates. Transform depends only
+ * on view size and host activity orientation, so it is computed once and reused for every
+ * detection until {@link #invalidate()} is called or the view size or orientation changes.
+ *
+ * Detections are already corrected for camera mirroring, so mirroring is not part of the
+ * transform.
+ */
+public final class ViewTransform {
+
+    private int mWidth = -1;
+    private int mHeight = -1;
+    private int mOrientation = ActivityInfo.SCREEN_ORIENTATION_PORTRAIT;
+    private boolean mValid = false;
+
+    // x' = mA * x + mB * y + mC
+    // y' = mD * x + mE * y + mF
+    private float mA, mB, mC, mD, mE, mF;
+
+    /**
+     * Marks the transform as stale, it is recomputed on the next {@link #update(int, int, int)}.
+     */
+    public synchronized void invalidate() {
+        mValid = false;
+    }
+
+    /**
+     * Recomputes the transform if it is stale or if size or orientation differ from the cached ones.
+     * @param width View width.
+     * @param height View height.
+     * @param hostActivityOrientation Orientation of the host activity.
+     */
+    public synchronized void update(int width, int height, int hostActivityOrientation) {
+        if (mValid && width == mWidth && height == mHeight && hostActivityOrientation == mOrientation) {
+            return;
+        }
+        mWidth = width;
+        mHeight = height;
+        mOrientation = hostActivityOrientation;
+
+        boolean reverse = hostActivityOrientation == ActivityInfo.SCREEN_ORIENTATION_REVERSE_PORTRAIT
+                || hostActivityOrientation == ActivityInfo.SCREEN_ORIENTATION_REVERSE_LANDSCAPE;
+        boolean portrait = hostActivityOrientation == ActivityInfo.SCREEN_ORIENTATION_PORTRAIT
+                || hostActivityOrientation == ActivityInfo.SCREEN_ORIENTATION_REVERSE_PORTRAIT;
+        // reverse orientations mirror unit coordinates around both axes before mapping
+        float sign = reverse ? -1.f : 1.f;
+        float offset = reverse ? 1.f : 0.f;
+        if (portrait) {
+            // x' = (1 - v) * width, y' = u * height
+            mA = 0.f;
+            mB = -sign * width;
+            mC = (1.f - offset) * width;
+            mD = sign * height;
+            mE = 0.f;
+            mF = offset * height;
+        } else {
+            // x' = u * width, y' = v * height
+            mA = sign * width;
+            mB = 0.f;
+            mC = offset * width;
+            mD = 0.f;
+            mE = sign * height;
+            mF = offset * height;
+        }
+        mValid = true;
+    }
+
+    /**
+     * Transforms packed coordinates in place.
+     * @param coordinates Coordinates packed as x0, y0, x1, y1, ...
+     * @param pointCount Number of points to transform.
+     */
+    public synchronized void apply(float[] coordinates, int pointCount) {
+        final float a = mA, b = mB, c = mC, d = mD, e = mE, f = mF;
+        for (int i = 0, end = 2 * pointCount; i < end; i += 2) {
+            float x = coordinates[i];
+            float y = coordinates[i + 1];
+            coordinates[i] = a * x + b * y + c;
+            coordinates[i + 1] = d * x + e * y + f;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.microblink.wrapper.xamarin.scan.dots;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.support.annotation.NonNull;
+
+import com.microblink.wrapper.xamarin.scan.quadview.PointBuffer;
+
+import java.util.Arrays;
+
+/**
+ * Point set packed into a single float array as x0, y0, x1, y1, ..., so the whole set can be
+ * sent to another process with one bulk write instead of parceling every point separately.
+ */
+public class PackedPointSet implements Parcelable {
+
+    private final float[] mCoordinates;
+
+    /**
+     * @param coordinates Packed coordinates, array is copied.
+     * @param pointCount Number of points in the array.
+     */
+    public PackedPointSet(@NonNull float[] coordinates, int pointCount) {
+        mCoordinates = Arrays.copyOf(coordinates, 2 * pointCount);
+    }
+
+    /**
+     * Packs the points of given point set.
+     */
+    public PackedPointSet(@NonNull PointSetWrapper pointSet) {
+        mCoordinates = new float[2 * pointSet.getPointCount()];
+        pointSet.getCoordinates(mCoordinates);
+    }
+
+    /**
+     * Packs the points of given point buffer.
+     */
+    public PackedPointSet(@NonNull PointBuffer points) {
+        mCoordinates = new float[2 * points.size()];
+        points.getPacked(mCoordinates);
+    }
+
+    public int getPointCount() {
+        return mCoordinates.length / 2;
+    }
+
+    /**
+     * Copies packed coordinates to given array.
+     * @param out Array of at least 2 * {@link #getPointCount()} elements.
+     */
+    public void getCoordinates(float[] out) {
+        System.arraycopy(mCoordinates, 0, out, 0, mCoordinates.length);
+    }
+
+    /**
+     * @return New point set with packed points.
+     */
+    @NonNull
+    public PointSetWrapper toPointSet() {
+        return new PointSetWrapper(mCoordinates, getPointCount());
+    }
+
+    @Override
+    public String toString() {
+        return "PackedPointSet{" +
+                "mCoordinates=" + Arrays.toString(mCoordinates) +
+                '}';
+    }
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    @Override
+    public void writeToParcel(Parcel dest, int flags) {
+        dest.writeFloatArray(this.mCoordinates);
+    }
+
+    protected PackedPointSet(Parcel in) {
+        this.mCoordinates = in.createFloatArray();
+    }
+
+    public static final Creator<PackedPointSet> CREATOR = new Creator<PackedPointSet>() {
+        public PackedPointSet createFromParcel(Parcel source) {
+            return new PackedPointSet(source);
+        }
+
+        public PackedPointSet[] newArray(int size) {
+            return new PackedPointSet[size];
+        }
+    };
+}
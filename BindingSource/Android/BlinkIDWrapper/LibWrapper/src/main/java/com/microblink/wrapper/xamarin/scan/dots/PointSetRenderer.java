@@ -0,0 +1,198 @@
+package com.microblink.wrapper.xamarin.scan.dots;
+
+import android.content.Context;
+import android.content.pm.ActivityInfo;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.os.Handler;
+import android.util.DisplayMetrics;
+import android.view.View;
+
+import com.microblink.wrapper.xamarin.R;
+import com.microblink.wrapper.xamarin.scan.ViewTransform;
+import com.microblink.wrapper.xamarin.scan.quadview.QuadSpringAnimator;
+
+/**
+ * Renders detected point sets into the canvas of its host view. Newly detected points fade in
+ * while previously detected points fade out. Renderer does not own a view, so points can be
+ * drawn together with other overlays in a single pass.
+ */
+public class PointSetRenderer {
+
+    private static final long kAnimationDuration = 250;
+
+    private final View mHost;
+    private final Paint mPaint;
+
+    private int mWidth = -1;
+    private int mHeight = -1;
+    private int mHostActivityOrientation;
+
+    private final ViewTransform mViewTransform = new ViewTransform();
+    /** Packed coordinates of the point set that is being transformed, grown on demand */
+    private float[] mCoordinates = new float[32];
+
+    private int mPointRadius;
+
+    private volatile PointSetWrapper mAppearingPointSet = null; // used for drawing points on QR code detection
+    private volatile PointSetWrapper mDisappearingPointSet = null;
+
+    private long mAnimationDurationNanos = kAnimationDuration * 1000000L;
+    /** Start of the fade animation, negative if animation was never started */
+    private volatile long mAnimationStartNanos = -1;
+    /** Number of point set changes, each one starts the fade animation */
+    private volatile int mStartedAnimations = 0;
+
+    private final int mTargetColor;
+    private final int mTargetColorWithAlpha0;
+
+    private final Handler mHandler = new Handler();
+
+    private final Runnable mStartAnimation = new Runnable() {
+        @Override
+        public void run() {
+            mAnimationStartNanos = System.nanoTime();
+            mHost.invalidate();
+        }
+    };
+
+    /**
+     * Creates renderer for host activity in portrait orientation.
+     * @param host View into which points are drawn, it is invalidated while points are animated.
+     */
+    public PointSetRenderer(View host) {
+        this(host, ActivityInfo.SCREEN_ORIENTATION_PORTRAIT);
+    }
+
+    /**
+     * @param host View into which points are drawn, it is invalidated while points are animated.
+     * @param hostActivityOrientation Orientation of the host activity.
+     */
+    @SuppressWarnings("deprecation")
+    public PointSetRenderer(View host, int hostActivityOrientation) {
+        mHost = host;
+        mHostActivityOrientation = hostActivityOrientation;
+        Context context = host.getContext();
+
+        mPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+        DisplayMetrics dm = context.getResources().getDisplayMetrics();
+        int frameBorderWidth = (dm.densityDpi + 49) / 50;
+        mPointRadius = frameBorderWidth * 2;
+        mPaint.setStrokeWidth(frameBorderWidth);
+        mPaint.setStrokeCap(Paint.Cap.ROUND);
+
+        mTargetColor = context.getResources().getColor(R.color.recognized_frame);
+        mTargetColorWithAlpha0 = (mTargetColor & 0x00FFFFFF);
+    }
+
+    /**
+     * @return Paint used for drawing the points.
+     */
+    public Paint getPaint() {
+        return mPaint;
+    }
+
+    /**
+     * Enables or disables point animation. When animation is disabled, points are replaced immediately.
+     * @param enabled Whether points should be animated.
+     */
+    public void setAnimationsEnabled(boolean enabled) {
+        mAnimationDurationNanos = enabled ? kAnimationDuration * 1000000L : 0;
+    }
+
+    public void setHostActivityOrientation(int hostActivityOrientation) {
+        mHostActivityOrientation = hostActivityOrientation;
+        mViewTransform.invalidate();
+    }
+
+    public boolean isAnimationInProgress() {
+        long start = mAnimationStartNanos;
+        return start >= 0 && System.nanoTime() - start < mAnimationDurationNanos;
+    }
+
+    public void setTransformedPointSet(PointSetWrapper pointSet) {
+        mDisappearingPointSet = mAppearingPointSet;
+        if (pointSet != null) {
+            mAppearingPointSet = convertToViewCoordinates(pointSet);
+        } else {
+            mAppearingPointSet = null;
+        }
+        ++mStartedAnimations;
+        mHandler.removeCallbacks(mStartAnimation);
+        mHandler.post(mStartAnimation);
+    }
+
+    /**
+     * @return Number of animations started by point set changes.
+     */
+    public int getStartedAnimationCount() {
+        return mStartedAnimations;
+    }
+
+    public void resetStartedAnimationCount() {
+        mStartedAnimations = 0;
+    }
+
+    /**
+     * Defines the size of the host view.
+     */
+    public void setSize(int width, int height) {
+        mWidth = width;
+        mHeight = height;
+        mViewTransform.invalidate();
+    }
+
+    /**
+     * Draws the points as they appear at given frame time.
+     * @param canvas Canvas of the host view.
+     * @param frameNanos Time of the frame that is drawn.
+     * @return {@code true} if points are still animated and next frame should be drawn.
+     */
+    public boolean draw(Canvas canvas, long frameNanos) {
+        if (mWidth == -1) {
+            mWidth = canvas.getWidth();
+        }
+        if (mHeight == -1) {
+            mHeight = canvas.getHeight();
+        }
+
+        float fraction = 1.f;
+        long start = mAnimationStartNanos;
+        if (start >= 0 && mAnimationDurationNanos > 0) {
+            fraction = Math.max(0.f, Math.min(1.f, (float) (frameNanos - start) / mAnimationDurationNanos));
+        }
+        // accelerate-decelerate interpolation
+        float eased = (float) (Math.cos((fraction + 1) * Math.PI) / 2.0) + 0.5f;
+
+        PointSetWrapper appearingPointSet, disappearingPointSet;
+
+        appearingPointSet = mAppearingPointSet;
+        disappearingPointSet = mDisappearingPointSet;
+
+        if (appearingPointSet != null) {
+            mPaint.setColor(QuadSpringAnimator.blendColors(mTargetColorWithAlpha0, mTargetColor, eased));
+            appearingPointSet.draw(canvas, mPaint, mPointRadius);
+        }
+        if (disappearingPointSet != null) {
+            mPaint.setColor(QuadSpringAnimator.blendColors(mTargetColor, mTargetColorWithAlpha0, eased));
+            disappearingPointSet.draw(canvas, mPaint, mPointRadius);
+        }
+        return fraction < 1.f;
+    }
+
+    /**
+     * Transforms unit point set to view coordinates in place.
+     */
+    private PointSetWrapper convertToViewCoordinates(PointSetWrapper unitPs) {
+        int pointCount = unitPs.getPointCount();
+        if (mCoordinates.length < 2 * pointCount) {
+            mCoordinates = new float[2 * pointCount];
+        }
+        mViewTransform.update(mWidth, mHeight, mHostActivityOrientation);
+        unitPs.getCoordinates(mCoordinates);
+        mViewTransform.apply(mCoordinates, pointCount);
+        unitPs.setCoordinates(mCoordinates);
+        return unitPs;
+    }
+}
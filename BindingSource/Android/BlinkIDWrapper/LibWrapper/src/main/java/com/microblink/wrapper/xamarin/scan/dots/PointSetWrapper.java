@@ -27,6 +27,19 @@ public class PointSetWrapper {
         mPointSet = new PointSet(pointsList);
     }
 
+    /**
+     * Creates point set from coordinates packed as x0, y0, x1, y1, ...
+     * @param coordinates Packed coordinates.
+     * @param pointCount Number of points in the array.
+     */
+    public PointSetWrapper(@Size(multiple = 2) float[] coordinates, int pointCount) {
+        List<Point> pointsList = new ArrayList<>(pointCount);
+        for (int i = 0; i < pointCount; ++i) {
+            pointsList.add(new Point(coordinates[2 * i], coordinates[2 * i + 1]));
+        }
+        mPointSet = new PointSet(pointsList);
+    }
+
     public List<XPoint> getPoints() {
         List<XPoint> pointsList = new ArrayList<>();
         for (Point p : mPointSet.getPoints()) {
@@ -35,6 +48,37 @@ public class PointSetWrapper {
         return pointsList;
     }
 
+    /**
+     * @return Number of points in the set.
+     */
+    public int getPointCount() {
+        return mPointSet.getPoints().size();
+    }
+
+    /**
+     * Copies point coordinates packed as x0, y0, x1, y1, ...
+     * @param out Array of at least 2 * {@link #getPointCount()} elements.
+     */
+    public void getCoordinates(float[] out) {
+        int i = 0;
+        for (Point p : mPointSet.getPoints()) {
+            out[i++] = p.getX();
+            out[i++] = p.getY();
+        }
+    }
+
+    /**
+     * Moves points in place to coordinates packed in the order used by {@link #getCoordinates(float[])}.
+     * @param coordinates Array of at least 2 * {@link #getPointCount()} elements.
+     */
+    public void setCoordinates(float[] coordinates) {
+        int i = 0;
+        for (Point p : mPointSet.getPoints()) {
+            p.setX(coordinates[i++]);
+            p.setY(coordinates[i++]);
+        }
+    }
+
     public PointSetWrapper(@Size(multiple = 2) float[] points, @IntRange(from=1) int width, @IntRange(from=1) int height, int hostActivityOrientation, boolean mirrorXY) {
         mPointSet = new PointSet(points, width, height, hostActivityOrientation, mirrorXY);
     }
@@ -0,0 +1,73 @@
+package com.microblink.wrapper.xamarin.scan.governor;
+
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.os.BatteryManager;
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+
+/**
+ * Device signals read from the sticky {@link Intent#ACTION_BATTERY_CHANGED} broadcast. Battery
+ * temperature is used as the thermal signal, because it is available on all API levels.
+ */
+public class BatteryDeviceSignals implements DeviceSignals {
+
+    /** Battery state is read at most once in this interval */
+    private static final long REFRESH_INTERVAL_MS = 2000;
+
+    private final Context mContext;
+    private final IntentFilter mFilter = new IntentFilter(Intent.ACTION_BATTERY_CHANGED);
+
+    private long mLastRefreshMs = -1;
+    private float mTemperature = Float.NaN;
+    private float mLevel = -1.f;
+    private boolean mCharging = false;
+
+    public BatteryDeviceSignals(@NonNull Context context) {
+        mContext = context.getApplicationContext() != null ? context.getApplicationContext() : context;
+    }
+
+    @Override
+    public long getUptimeMillis() {
+        return SystemClock.elapsedRealtime();
+    }
+
+    @Override
+    public float getBatteryTemperature() {
+        refresh();
+        return mTemperature;
+    }
+
+    @Override
+    public float getBatteryLevel() {
+        refresh();
+        return mLevel;
+    }
+
+    @Override
+    public boolean isCharging() {
+        refresh();
+        return mCharging;
+    }
+
+    private void refresh() {
+        long now = SystemClock.elapsedRealtime();
+        if (mLastRefreshMs >= 0 && now - mLastRefreshMs < REFRESH_INTERVAL_MS) {
+            return;
+        }
+        mLastRefreshMs = now;
+        // sticky broadcast is returned immediately, no receiver is registered
+        Intent battery = mContext.registerReceiver(null, mFilter);
+        if (battery == null) {
+            return;
+        }
+        int temperature = battery.getIntExtra(BatteryManager.EXTRA_TEMPERATURE, Integer.MIN_VALUE);
+        // temperature is reported in tenths of degree Celsius
+        mTemperature = temperature != Integer.MIN_VALUE ? temperature / 10.f : Float.NaN;
+        int level = battery.getIntExtra(BatteryManager.EXTRA_LEVEL, -1);
+        int scale = battery.getIntExtra(BatteryManager.EXTRA_SCALE, -1);
+        mLevel = level >= 0 && scale > 0 ? (float) level / scale : -1.f;
+        mCharging = battery.getIntExtra(BatteryManager.EXTRA_PLUGGED, 0) != 0;
+    }
+}
@@ -0,0 +1,28 @@
+package com.microblink.wrapper.xamarin.scan.governor;
+
+/**
+ * Source of device state signals used by {@link ProcessingGovernor}. Production implementation
+ * is {@link BatteryDeviceSignals}, fake implementations can be used to drive the governor on JVM.
+ */
+public interface DeviceSignals {
+
+    /**
+     * @return Monotonic time in milliseconds.
+     */
+    long getUptimeMillis();
+
+    /**
+     * @return Battery temperature in degrees Celsius, or {@link Float#NaN} if it is not known.
+     */
+    float getBatteryTemperature();
+
+    /**
+     * @return Battery charge level in range [0, 1], or negative value if it is not known.
+     */
+    float getBatteryLevel();
+
+    /**
+     * @return {@code true} if device is connected to a power source.
+     */
+    boolean isCharging();
+}
@@ -0,0 +1,178 @@
+package com.microblink.wrapper.xamarin.scan.governor;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Decides how much work scanner may do from frame processing time, battery state and battery
+ * temperature. Governor does not touch the camera, host applies the actions of the current
+ * {@link Level}. It contains no Android dependencies, so it can be driven by a fake
+ * {@link DeviceSignals} on JVM.
+ *
+ * Level is raised as soon as any signal crosses its threshold. It is lowered one step at a time,
+ * only after signals stayed below the current level for {@link #COOL_DOWN_MS}, so scanner does
+ * not oscillate around a threshold.
+ */
+public class ProcessingGovernor {
+
+    /**
+     * Processing level, each level includes the actions of the previous ones.
+     */
+    public enum Level {
+        /** Full processing */
+        NORMAL(0),
+        /** Overlay animations are dropped */
+        REDUCED(0),
+        /** Frame processing rate is lowered */
+        THROTTLED(100),
+        /** Frame processing rate is lowered further and dewarped images are disabled */
+        CRITICAL(250);
+
+        private final long mMinFrameIntervalMs;
+
+        Level(long minFrameIntervalMs) {
+            mMinFrameIntervalMs = minFrameIntervalMs;
+        }
+
+        /**
+         * @return Minimum time in milliseconds between two processed frames, 0 if not limited.
+         */
+        public long getMinFrameIntervalMs() {
+            return mMinFrameIntervalMs;
+        }
+
+        /**
+         * @return {@code true} if overlay animations should be played.
+         */
+        public boolean areOverlayAnimationsEnabled() {
+            return this == NORMAL;
+        }
+
+        /**
+         * @return {@code true} if dewarped image metadata may be requested.
+         */
+        public boolean isDewarpedImageAllowed() {
+            return this != CRITICAL;
+        }
+    }
+
+    /** Signals are evaluated at most once in this interval */
+    public static final long EVALUATION_INTERVAL_MS = 1000;
+    /** Time during which signals must stay low before the level is lowered */
+    public static final long COOL_DOWN_MS = 10000;
+
+    private static final float TEMPERATURE_REDUCED = 39.f;
+    private static final float TEMPERATURE_THROTTLED = 42.f;
+    private static final float TEMPERATURE_CRITICAL = 45.f;
+
+    private static final float FRAME_TIME_REDUCED_MS = 150.f;
+    private static final float FRAME_TIME_THROTTLED_MS = 300.f;
+
+    private static final float BATTERY_REDUCED = 0.15f;
+    private static final float BATTERY_THROTTLED = 0.05f;
+
+    /** Weight of the newest frame time in the moving average */
+    private static final float FRAME_TIME_SMOOTHING = 0.1f;
+
+    private final DeviceSignals mSignals;
+
+    private Level mLevel = Level.NORMAL;
+    private float mAverageFrameTimeMs = -1.f;
+    private long mLastEvaluationMs = -1;
+    private long mCalmSinceMs = -1;
+
+    public ProcessingGovernor(@NonNull DeviceSignals signals) {
+        mSignals = signals;
+    }
+
+    /**
+     * Records processing time of one frame.
+     * @param frameTimeMs Time in milliseconds from the start of frame processing to its metadata.
+     */
+    public void onFrameProcessed(long frameTimeMs) {
+        if (mAverageFrameTimeMs < 0) {
+            mAverageFrameTimeMs = frameTimeMs;
+        } else {
+            mAverageFrameTimeMs += FRAME_TIME_SMOOTHING * (frameTimeMs - mAverageFrameTimeMs);
+        }
+    }
+
+    /**
+     * Evaluates the signals, if evaluation interval has passed since the last evaluation.
+     * @return {@code true} if level has changed.
+     */
+    public boolean evaluate() {
+        long now = mSignals.getUptimeMillis();
+        if (mLastEvaluationMs >= 0 && now - mLastEvaluationMs < EVALUATION_INTERVAL_MS) {
+            return false;
+        }
+        mLastEvaluationMs = now;
+
+        Level target = computeTargetLevel();
+        if (target.ordinal() > mLevel.ordinal()) {
+            mLevel = target;
+            mCalmSinceMs = -1;
+            return true;
+        } else if (target.ordinal() < mLevel.ordinal()) {
+            if (mCalmSinceMs < 0) {
+                mCalmSinceMs = now;
+            } else if (now - mCalmSinceMs >= COOL_DOWN_MS) {
+                mLevel = Level.values()[mLevel.ordinal() - 1];
+                // next step down needs another cool down period
+                mCalmSinceMs = mLevel == target ? -1 : now;
+                return true;
+            }
+        } else {
+            mCalmSinceMs = -1;
+        }
+        return false;
+    }
+
+    private Level computeTargetLevel() {
+        Level target = Level.NORMAL;
+
+        float temperature = mSignals.getBatteryTemperature();
+        if (temperature >= TEMPERATURE_CRITICAL) {
+            target = Level.CRITICAL;
+        } else if (temperature >= TEMPERATURE_THROTTLED) {
+            target = Level.THROTTLED;
+        } else if (temperature >= TEMPERATURE_REDUCED) {
+            target = Level.REDUCED;
+        }
+
+        if (mAverageFrameTimeMs >= FRAME_TIME_THROTTLED_MS) {
+            target = max(target, Level.THROTTLED);
+        } else if (mAverageFrameTimeMs >= FRAME_TIME_REDUCED_MS) {
+            target = max(target, Level.REDUCED);
+        }
+
+        float batteryLevel = mSignals.getBatteryLevel();
+        if (batteryLevel >= 0 && !mSignals.isCharging()) {
+            if (batteryLevel <= BATTERY_THROTTLED) {
+                target = max(target, Level.THROTTLED);
+            } else if (batteryLevel <= BATTERY_REDUCED) {
+                target = max(target, Level.REDUCED);
+            }
+        }
+        return target;
+    }
+
+    private static Level max(Level a, Level b) {
+        return a.ordinal() >= b.ordinal() ? a : b;
+    }
+
+    /**
+     * @return Current processing level.
+     */
+    @NonNull
+    public Level getLevel() {
+        return mLevel;
+    }
+
+    /**
+     * @return Moving average of frame processing time in milliseconds, or negative value if no
+     *         frame was recorded.
+     */
+    public float getAverageFrameTimeMs() {
+        return mAverageFrameTimeMs;
+    }
+}
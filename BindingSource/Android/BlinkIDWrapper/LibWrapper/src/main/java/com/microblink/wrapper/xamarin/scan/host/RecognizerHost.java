@@ -0,0 +1,98 @@
+package com.microblink.wrapper.xamarin.scan.host;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+import android.view.View;
+
+import com.microblink.hardware.SuccessCallback;
+import com.microblink.hardware.camera.CameraType;
+import com.microblink.hardware.camera.VideoResolutionPreset;
+import com.microblink.hardware.orientation.Orientation;
+import com.microblink.metadata.MetadataListener;
+import com.microblink.metadata.MetadataSettings;
+import com.microblink.recognition.InvalidLicenceKeyException;
+import com.microblink.recognizers.settings.RecognitionSettings;
+import com.microblink.view.CameraAspectMode;
+import com.microblink.view.CameraEventsListener;
+import com.microblink.view.OnSizeChangedListener;
+import com.microblink.view.OrientationAllowedListener;
+import com.microblink.view.recognition.ScanResultListener;
+
+/**
+ * Part of {@link com.microblink.view.recognition.RecognizerView} used by
+ * {@link com.microblink.wrapper.xamarin.scan.BlinkIDScanView}. Scan view runs on
+ * {@link RecognizerViewHost} with camera and recognizer, or on {@link ScriptedRecognizerHost}
+ * that emits scripted metadata and results, so the whole scan flow can run without a device.
+ */
+public interface RecognizerHost {
+
+    /**
+     * Creates the host for a scan view.
+     */
+    interface Factory {
+        @NonNull
+        RecognizerHost create(@NonNull Context context);
+    }
+
+    /**
+     * @return View that shows the camera preview and child views.
+     */
+    @NonNull
+    View getView();
+
+    void setLicenseKey(String licenseKey) throws InvalidLicenceKeyException;
+
+    void setCameraType(CameraType cameraType);
+
+    void setRecognitionSettings(RecognitionSettings recognitionSettings);
+
+    void reconfigureRecognizers(RecognitionSettings recognitionSettings);
+
+    void setScanResultListener(ScanResultListener listener);
+
+    void setCameraEventsListener(CameraEventsListener listener);
+
+    void setOrientationAllowedListener(OrientationAllowedListener listener);
+
+    void setOnSizeChangedListener(OnSizeChangedListener listener);
+
+    void setMetadataListener(MetadataListener listener, MetadataSettings metadataSettings);
+
+    void setInitialOrientation(Orientation orientation);
+
+    void setAnimateRotation(boolean animateRotation);
+
+    void setAspectMode(CameraAspectMode aspectMode);
+
+    void setVideoResolutionPreset(VideoResolutionPreset videoResolutionPreset);
+
+    void setPhotoMode(boolean photoMode);
+
+    int getHostScreenOrientation();
+
+    void addChildView(View view, boolean rotatable);
+
+    void addChildView(View view, boolean rotatable, int index);
+
+    void create();
+
+    void start();
+
+    void resume();
+
+    void pause();
+
+    void stop();
+
+    void destroy();
+
+    void pauseScanning();
+
+    void resumeScanning(boolean resetState);
+
+    void resetRecognitionState();
+
+    boolean isCameraTorchSupported();
+
+    void setTorchState(boolean enabled, SuccessCallback callback);
+}
@@ -0,0 +1,186 @@
+package com.microblink.wrapper.xamarin.scan.host;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+import android.view.View;
+
+import com.microblink.hardware.SuccessCallback;
+import com.microblink.hardware.camera.CameraType;
+import com.microblink.hardware.camera.VideoResolutionPreset;
+import com.microblink.hardware.orientation.Orientation;
+import com.microblink.metadata.MetadataListener;
+import com.microblink.metadata.MetadataSettings;
+import com.microblink.recognition.InvalidLicenceKeyException;
+import com.microblink.recognizers.settings.RecognitionSettings;
+import com.microblink.view.CameraAspectMode;
+import com.microblink.view.CameraEventsListener;
+import com.microblink.view.OnSizeChangedListener;
+import com.microblink.view.OrientationAllowedListener;
+import com.microblink.view.recognition.RecognizerView;
+import com.microblink.view.recognition.ScanResultListener;
+
+/**
+ * {@link RecognizerHost} backed by {@link RecognizerView} with camera and recognizer.
+ */
+public class RecognizerViewHost implements RecognizerHost {
+
+    public static final Factory FACTORY = new Factory() {
+        @NonNull
+        @Override
+        public RecognizerHost create(@NonNull Context context) {
+            return new RecognizerViewHost(new RecognizerView(context));
+        }
+    };
+
+    private final RecognizerView mRecognizerView;
+
+    public RecognizerViewHost(@NonNull RecognizerView recognizerView) {
+        mRecognizerView = recognizerView;
+    }
+
+    @NonNull
+    @Override
+    public View getView() {
+        return mRecognizerView;
+    }
+
+    @Override
+    public void setLicenseKey(String licenseKey) throws InvalidLicenceKeyException {
+        mRecognizerView.setLicenseKey(licenseKey);
+    }
+
+    @Override
+    public void setCameraType(CameraType cameraType) {
+        mRecognizerView.setCameraType(cameraType);
+    }
+
+    @Override
+    public void setRecognitionSettings(RecognitionSettings recognitionSettings) {
+        mRecognizerView.setRecognitionSettings(recognitionSettings);
+    }
+
+    @Override
+    public void reconfigureRecognizers(RecognitionSettings recognitionSettings) {
+        mRecognizerView.reconfigureRecognizers(recognitionSettings);
+    }
+
+    @Override
+    public void setScanResultListener(ScanResultListener listener) {
+        mRecognizerView.setScanResultListener(listener);
+    }
+
+    @Override
+    public void setCameraEventsListener(CameraEventsListener listener) {
+        mRecognizerView.setCameraEventsListener(listener);
+    }
+
+    @Override
+    public void setOrientationAllowedListener(OrientationAllowedListener listener) {
+        mRecognizerView.setOrientationAllowedListener(listener);
+    }
+
+    @Override
+    public void setOnSizeChangedListener(OnSizeChangedListener listener) {
+        mRecognizerView.setOnSizeChangedListener(listener);
+    }
+
+    @Override
+    public void setMetadataListener(MetadataListener listener, MetadataSettings metadataSettings) {
+        mRecognizerView.setMetadataListener(listener, metadataSettings);
+    }
+
+    @Override
+    public void setInitialOrientation(Orientation orientation) {
+        mRecognizerView.setInitialOrientation(orientation);
+    }
+
+    @Override
+    public void setAnimateRotation(boolean animateRotation) {
+        mRecognizerView.setAnimateRotation(animateRotation);
+    }
+
+    @Override
+    public void setAspectMode(CameraAspectMode aspectMode) {
+        mRecognizerView.setAspectMode(aspectMode);
+    }
+
+    @Override
+    public void setVideoResolutionPreset(VideoResolutionPreset videoResolutionPreset) {
+        mRecognizerView.setVideoResolutionPreset(videoResolutionPreset);
+    }
+
+    @Override
+    public void setPhotoMode(boolean photoMode) {
+        mRecognizerView.setPhotoMode(photoMode);
+    }
+
+    @Override
+    public int getHostScreenOrientation() {
+        return mRecognizerView.getHostScreenOrientation();
+    }
+
+    @Override
+    public void addChildView(View view, boolean rotatable) {
+        mRecognizerView.addChildView(view, rotatable);
+    }
+
+    @Override
+    public void addChildView(View view, boolean rotatable, int index) {
+        mRecognizerView.addChildView(view, rotatable, index);
+    }
+
+    @Override
+    public void create() {
+        mRecognizerView.create();
+    }
+
+    @Override
+    public void start() {
+        mRecognizerView.start();
+    }
+
+    @Override
+    public void resume() {
+        mRecognizerView.resume();
+    }
+
+    @Override
+    public void pause() {
+        mRecognizerView.pause();
+    }
+
+    @Override
+    public void stop() {
+        mRecognizerView.stop();
+    }
+
+    @Override
+    public void destroy() {
+        mRecognizerView.destroy();
+    }
+
+    @Override
+    public void pauseScanning() {
+        mRecognizerView.pauseScanning();
+    }
+
+    @Override
+    public void resumeScanning(boolean resetState) {
+        mRecognizerView.resumeScanning(resetState);
+    }
+
+    @Override
+    public void resetRecognitionState() {
+        mRecognizerView.resetRecognitionState();
+    }
+
+    @Override
+    public boolean isCameraTorchSupported() {
+        return mRecognizerView.isCameraTorchSupported();
+    }
+
+    @Override
+    public void setTorchState(boolean enabled, SuccessCallback callback) {
+        mRecognizerView.setTorchState(enabled, callback);
+    }
+}
@@ -0,0 +1,352 @@
+package com.microblink.wrapper.xamarin.scan.host;
+
+import android.content.Context;
+import android.content.pm.ActivityInfo;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import com.microblink.hardware.SuccessCallback;
+import com.microblink.hardware.camera.CameraType;
+import com.microblink.hardware.camera.VideoResolutionPreset;
+import com.microblink.hardware.orientation.Orientation;
+import com.microblink.metadata.Metadata;
+import com.microblink.metadata.MetadataListener;
+import com.microblink.metadata.MetadataSettings;
+import com.microblink.recognizers.RecognitionResults;
+import com.microblink.recognizers.settings.RecognitionSettings;
+import com.microblink.view.CameraAspectMode;
+import com.microblink.view.CameraEventsListener;
+import com.microblink.view.OnSizeChangedListener;
+import com.microblink.view.OrientationAllowedListener;
+import com.microblink.view.recognition.ScanResultListener;
+
+import java.util.ArrayDeque;
+
+/**
+ * {@link RecognizerHost} without camera and recognizer that emits scripted metadata, results
+ * and errors on the main thread. It is used to drive
+ * {@link com.microblink.wrapper.xamarin.scan.BlinkIDScanView} and
+ * {@link com.microblink.wrapper.xamarin.scan.BlinkIDScanActivity} headless, e.g. under
+ * Robolectric, with {@link com.microblink.wrapper.xamarin.scan.BlinkIDScanView#setRecognizerHostFactory}.
+ *
+ * Script runs while the host is resumed and scanning is not paused, like frames of a real
+ * recognizer: after the scan view pauses scanning on scanning done, remaining steps wait until
+ * scanning is resumed.
+ */
+public class ScriptedRecognizerHost implements RecognizerHost {
+
+    private final FrameLayout mView;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final ArrayDeque<Step> mScript = new ArrayDeque<>();
+
+    private ScanResultListener mScanResultListener;
+    private CameraEventsListener mCameraEventsListener;
+    private OnSizeChangedListener mOnSizeChangedListener;
+    private MetadataListener mMetadataListener;
+    private MetadataSettings mMetadataSettings;
+    private RecognitionSettings mRecognitionSettings;
+    private String mLicenseKey;
+
+    private boolean mResumed = false;
+    private boolean mScanningPaused = false;
+    /** Whether the next step is posted to the handler */
+    private boolean mStepPosted = false;
+    /** Time of the last scanning done delivery, 0 if results were not delivered */
+    private long mScanningDoneNanos = 0;
+
+    private final Runnable mRunStep = new Runnable() {
+        @Override
+        public void run() {
+            mStepPosted = false;
+            if (!canRunScript()) {
+                return;
+            }
+            Step step = mScript.poll();
+            if (step != null) {
+                step.run();
+                scheduleNextStep();
+            }
+        }
+    };
+
+    public ScriptedRecognizerHost(@NonNull Context context) {
+        mView = new FrameLayout(context);
+    }
+
+    /**
+     * Appends metadata to the script.
+     * @param delayMs Delay after the previous step.
+     * @param metadata Metadata, e.g. {@link com.microblink.metadata.DetectionMetadata}.
+     */
+    public ScriptedRecognizerHost addMetadata(long delayMs, @NonNull final Metadata metadata) {
+        return addStep(new Step(delayMs) {
+            @Override
+            void run() {
+                if (mMetadataListener != null) {
+                    mMetadataListener.onMetadataAvailable(metadata);
+                }
+            }
+        });
+    }
+
+    /**
+     * Appends scanning done with given results to the script.
+     * @param delayMs Delay after the previous step.
+     * @param results Recognition results.
+     */
+    public ScriptedRecognizerHost addScanningDone(long delayMs, @NonNull final RecognitionResults results) {
+        return addStep(new Step(delayMs) {
+            @Override
+            void run() {
+                if (mScanResultListener != null) {
+                    mScanningDoneNanos = System.nanoTime();
+                    mScanResultListener.onScanningDone(results);
+                }
+            }
+        });
+    }
+
+    /**
+     * Appends camera or recognition error to the script.
+     * @param delayMs Delay after the previous step.
+     * @param error Error details.
+     */
+    public ScriptedRecognizerHost addError(long delayMs, @NonNull final Throwable error) {
+        return addStep(new Step(delayMs) {
+            @Override
+            void run() {
+                if (mCameraEventsListener != null) {
+                    mCameraEventsListener.onError(error);
+                }
+            }
+        });
+    }
+
+    private ScriptedRecognizerHost addStep(Step step) {
+        mScript.add(step);
+        scheduleNextStep();
+        return this;
+    }
+
+    /**
+     * @return Number of script steps that were not run yet.
+     */
+    public int getPendingStepCount() {
+        return mScript.size();
+    }
+
+    /**
+     * @return {@link System#nanoTime()} at which the last results were delivered to the scan
+     *         result listener, 0 if no results were delivered. Used to measure latency from
+     *         scanning done to delivery to the result listener.
+     */
+    public long getScanningDoneNanos() {
+        return mScanningDoneNanos;
+    }
+
+    /**
+     * @return Recognition settings of the last configuration.
+     */
+    @Nullable
+    public RecognitionSettings getRecognitionSettings() {
+        return mRecognitionSettings;
+    }
+
+    @Nullable
+    public MetadataSettings getMetadataSettings() {
+        return mMetadataSettings;
+    }
+
+    @Nullable
+    public String getLicenseKey() {
+        return mLicenseKey;
+    }
+
+    public boolean isScanningPaused() {
+        return mScanningPaused;
+    }
+
+    private boolean canRunScript() {
+        return mResumed && !mScanningPaused;
+    }
+
+    private void scheduleNextStep() {
+        Step next = mScript.peek();
+        if (next == null || mStepPosted || !canRunScript()) {
+            return;
+        }
+        mStepPosted = true;
+        mHandler.postDelayed(mRunStep, next.mDelayMs);
+    }
+
+    private void cancelNextStep() {
+        mHandler.removeCallbacks(mRunStep);
+        mStepPosted = false;
+    }
+
+    @NonNull
+    @Override
+    public View getView() {
+        return mView;
+    }
+
+    @Override
+    public void setLicenseKey(String licenseKey) {
+        mLicenseKey = licenseKey;
+    }
+
+    @Override
+    public void setCameraType(CameraType cameraType) {
+    }
+
+    @Override
+    public void setRecognitionSettings(RecognitionSettings recognitionSettings) {
+        mRecognitionSettings = recognitionSettings;
+    }
+
+    @Override
+    public void reconfigureRecognizers(RecognitionSettings recognitionSettings) {
+        mRecognitionSettings = recognitionSettings;
+    }
+
+    @Override
+    public void setScanResultListener(ScanResultListener listener) {
+        mScanResultListener = listener;
+    }
+
+    @Override
+    public void setCameraEventsListener(CameraEventsListener listener) {
+        mCameraEventsListener = listener;
+    }
+
+    @Override
+    public void setOrientationAllowedListener(OrientationAllowedListener listener) {
+    }
+
+    @Override
+    public void setOnSizeChangedListener(OnSizeChangedListener listener) {
+        mOnSizeChangedListener = listener;
+    }
+
+    @Override
+    public void setMetadataListener(MetadataListener listener, MetadataSettings metadataSettings) {
+        mMetadataListener = listener;
+        mMetadataSettings = metadataSettings;
+    }
+
+    @Override
+    public void setInitialOrientation(Orientation orientation) {
+    }
+
+    @Override
+    public void setAnimateRotation(boolean animateRotation) {
+    }
+
+    @Override
+    public void setAspectMode(CameraAspectMode aspectMode) {
+    }
+
+    @Override
+    public void setVideoResolutionPreset(VideoResolutionPreset videoResolutionPreset) {
+    }
+
+    @Override
+    public void setPhotoMode(boolean photoMode) {
+    }
+
+    @Override
+    public int getHostScreenOrientation() {
+        return ActivityInfo.SCREEN_ORIENTATION_PORTRAIT;
+    }
+
+    @Override
+    public void addChildView(View view, boolean rotatable) {
+        mView.addView(view);
+    }
+
+    @Override
+    public void addChildView(View view, boolean rotatable, int index) {
+        mView.addView(view, index);
+    }
+
+    @Override
+    public void create() {
+    }
+
+    @Override
+    public void start() {
+    }
+
+    @Override
+    public void resume() {
+        mResumed = true;
+        if (mCameraEventsListener != null) {
+            mCameraEventsListener.onCameraPreviewStarted();
+        }
+        if (mOnSizeChangedListener != null && mView.getWidth() > 0) {
+            mOnSizeChangedListener.onSizeChanged(mView.getWidth(), mView.getHeight());
+        }
+        scheduleNextStep();
+    }
+
+    @Override
+    public void pause() {
+        mResumed = false;
+        cancelNextStep();
+        if (mCameraEventsListener != null) {
+            mCameraEventsListener.onCameraPreviewStopped();
+        }
+    }
+
+    @Override
+    public void stop() {
+    }
+
+    @Override
+    public void destroy() {
+        cancelNextStep();
+        mScript.clear();
+    }
+
+    @Override
+    public void pauseScanning() {
+        mScanningPaused = true;
+        cancelNextStep();
+    }
+
+    @Override
+    public void resumeScanning(boolean resetState) {
+        mScanningPaused = false;
+        scheduleNextStep();
+    }
+
+    @Override
+    public void resetRecognitionState() {
+    }
+
+    @Override
+    public boolean isCameraTorchSupported() {
+        return false;
+    }
+
+    @Override
+    public void setTorchState(boolean enabled, SuccessCallback callback) {
+        if (callback != null) {
+            callback.onOperationDone(false);
+        }
+    }
+
+    private abstract static class Step {
+        final long mDelayMs;
+
+        Step(long delayMs) {
+            mDelayMs = delayMs;
+        }
+
+        abstract void run();
+    }
+}
@@ -0,0 +1,61 @@
+package com.microblink.wrapper.xamarin.scan.quadview;
+
+/**
+ * Sorts packed quad corners in place, in the same order as
+ * {@link com.microblink.geometry.Quadrilateral#getSortedQuad()}: corners are ordered by their
+ * angle around the quad center and the corner closest to the origin becomes the upper left one.
+ * Unlike the quadrilateral method, sorter allocates no objects after construction.
+ */
+final class CornerSorter {
+
+    private final double[] mAngles = new double[4];
+    private final int[] mOrder = new int[4];
+    private final float[] mInput = new float[QuadSpringAnimator.COORDINATE_COUNT];
+
+    /**
+     * @param corners Corners in order upper left, upper right, lower left, lower right, x before y,
+     *                they are replaced with sorted corners.
+     */
+    void sort(float[] corners) {
+        System.arraycopy(corners, 0, mInput, 0, mInput.length);
+        float centerX = (mInput[0] + mInput[2] + mInput[4] + mInput[6]) / 4.f;
+        float centerY = (mInput[1] + mInput[3] + mInput[5] + mInput[7]) / 4.f;
+        for (int i = 0; i < 4; ++i) {
+            mAngles[i] = Math.atan2(mInput[2 * i + 1] - centerY, mInput[2 * i] - centerX);
+            mOrder[i] = i;
+        }
+        for (int i = 0; i < 4; ++i) {
+            for (int j = i + 1; j < 4; ++j) {
+                if (mAngles[i] > mAngles[j]) {
+                    double angle = mAngles[i];
+                    mAngles[i] = mAngles[j];
+                    mAngles[j] = angle;
+                    int index = mOrder[i];
+                    mOrder[i] = mOrder[j];
+                    mOrder[j] = index;
+                }
+            }
+        }
+        float minNorm = Float.MAX_VALUE;
+        int first = 0;
+        for (int i = 0; i < 4; ++i) {
+            int corner = mOrder[i];
+            float norm = (float) Math.sqrt(mInput[2 * corner] * mInput[2 * corner]
+                    + mInput[2 * corner + 1] * mInput[2 * corner + 1]);
+            if (norm < minNorm) {
+                minNorm = norm;
+                first = i;
+            }
+        }
+        // corners are assigned to the same slots as in Quadrilateral.getSortedQuad
+        copyCorner(mOrder[first], corners, 0);
+        copyCorner(mOrder[(first + 3) % 4], corners, 2);
+        copyCorner(mOrder[(first + 1) % 4], corners, 4);
+        copyCorner(mOrder[(first + 2) % 4], corners, 6);
+    }
+
+    private void copyCorner(int corner, float[] out, int offset) {
+        out[offset] = mInput[2 * corner];
+        out[offset + 1] = mInput[2 * corner + 1];
+    }
+}
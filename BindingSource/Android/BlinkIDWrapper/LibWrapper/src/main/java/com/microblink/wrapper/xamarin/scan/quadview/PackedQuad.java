@@ -0,0 +1,119 @@
+package com.microblink.wrapper.xamarin.scan.quadview;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.support.annotation.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * Quadrilateral packed into a single float array, so it can be sent to another process with
+ * one bulk write instead of parceling every corner separately.
+ */
+public class PackedQuad implements Parcelable {
+
+    private static final int CORNER_COORDINATES = 8;
+
+    private final float[] mCorners;
+    private final int mColor;
+    private final boolean mDefaultQuad;
+
+    /**
+     * @param corners Corners packed in the order used by {@link QuadrilateralWrapper#getCorners(float[])},
+     *                array is copied.
+     * @param color Color of the quad.
+     */
+    public PackedQuad(@NonNull float[] corners, int color) {
+        this(corners, color, false);
+    }
+
+    /**
+     * @param corners Corners packed in the order used by {@link QuadrilateralWrapper#getCorners(float[])},
+     *                array is copied.
+     * @param color Color of the quad.
+     * @param defaultQuad Whether quad is the default viewfinder quad instead of a detection.
+     */
+    public PackedQuad(@NonNull float[] corners, int color, boolean defaultQuad) {
+        if (corners.length < CORNER_COORDINATES) {
+            throw new IllegalArgumentException("Expected " + CORNER_COORDINATES + " corner coordinates, got " + corners.length);
+        }
+        mCorners = Arrays.copyOf(corners, CORNER_COORDINATES);
+        mColor = color;
+        mDefaultQuad = defaultQuad;
+    }
+
+    /**
+     * Packs the corners, color and default flag of given quad.
+     */
+    public PackedQuad(@NonNull QuadrilateralWrapper quad) {
+        mCorners = new float[CORNER_COORDINATES];
+        quad.getCorners(mCorners);
+        mColor = quad.getColor();
+        mDefaultQuad = quad.isDefaultQuad();
+    }
+
+    /**
+     * Copies packed corners to given array.
+     * @param out Array of at least 8 elements.
+     */
+    public void getCorners(float[] out) {
+        System.arraycopy(mCorners, 0, out, 0, CORNER_COORDINATES);
+    }
+
+    public int getColor() {
+        return mColor;
+    }
+
+    public boolean isDefaultQuad() {
+        return mDefaultQuad;
+    }
+
+    /**
+     * @return New quad with packed corners, color and default flag.
+     */
+    @NonNull
+    public QuadrilateralWrapper toQuadrilateral() {
+        QuadrilateralWrapper quad = new QuadrilateralWrapper();
+        quad.setCorners(mCorners);
+        quad.setColor(mColor);
+        quad.setIsDefaultQuad(mDefaultQuad);
+        return quad;
+    }
+
+    @Override
+    public String toString() {
+        return "PackedQuad{" +
+                "mCorners=" + Arrays.toString(mCorners) +
+                ", mColor=" + mColor +
+                ", mDefaultQuad=" + mDefaultQuad +
+                '}';
+    }
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    @Override
+    public void writeToParcel(Parcel dest, int flags) {
+        dest.writeFloatArray(this.mCorners);
+        dest.writeInt(this.mColor);
+        dest.writeByte(this.mDefaultQuad ? (byte) 1 : (byte) 0);
+    }
+
+    protected PackedQuad(Parcel in) {
+        this.mCorners = in.createFloatArray();
+        this.mColor = in.readInt();
+        this.mDefaultQuad = in.readByte() != 0;
+    }
+
+    public static final Creator<PackedQuad> CREATOR = new Creator<PackedQuad>() {
+        public PackedQuad createFromParcel(Parcel source) {
+            return new PackedQuad(source);
+        }
+
+        public PackedQuad[] newArray(int size) {
+            return new PackedQuad[size];
+        }
+    };
+}
@@ -0,0 +1,257 @@
+package com.microblink.wrapper.xamarin.scan.quadview;
+
+import java.util.Arrays;
+
+/**
+ * Growable buffer of points stored as structure of arrays. Batch operations run as plain loops
+ * over {@code float[]} and modify points in place, so transforming a whole point set does not
+ * allocate an {@link XPoint} for every point and every intermediate result.
+ */
+public class PointBuffer {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private float[] mX;
+    private float[] mY;
+    private int mSize;
+
+    public PointBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity Initial number of points that can be stored without growing the buffer.
+     */
+    public PointBuffer(int capacity) {
+        mX = new float[capacity];
+        mY = new float[capacity];
+    }
+
+    /**
+     * @return Number of points in the buffer.
+     */
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * Removes all points, capacity is retained.
+     */
+    public void clear() {
+        mSize = 0;
+    }
+
+    /**
+     * Appends the point.
+     */
+    public void add(float x, float y) {
+        ensureCapacity(mSize + 1);
+        mX[mSize] = x;
+        mY[mSize] = y;
+        ++mSize;
+    }
+
+    /**
+     * Appends the point.
+     */
+    public void add(XPoint point) {
+        add(point.getX(), point.getY());
+    }
+
+    /**
+     * Appends points packed as x0, y0, x1, y1, ...
+     * @param coordinates Packed coordinates.
+     * @param pointCount Number of points to append.
+     */
+    public void addPacked(float[] coordinates, int pointCount) {
+        ensureCapacity(mSize + pointCount);
+        for (int i = 0; i < pointCount; ++i) {
+            mX[mSize + i] = coordinates[2 * i];
+            mY[mSize + i] = coordinates[2 * i + 1];
+        }
+        mSize += pointCount;
+    }
+
+    /**
+     * Copies points packed as x0, y0, x1, y1, ...
+     * @param out Array of at least 2 * {@link #size()} elements.
+     */
+    public void getPacked(float[] out) {
+        final int size = mSize;
+        for (int i = 0; i < size; ++i) {
+            out[2 * i] = mX[i];
+            out[2 * i + 1] = mY[i];
+        }
+    }
+
+    public float getX(int index) {
+        checkIndex(index);
+        return mX[index];
+    }
+
+    public float getY(int index) {
+        checkIndex(index);
+        return mY[index];
+    }
+
+    public void set(int index, float x, float y) {
+        checkIndex(index);
+        mX[index] = x;
+        mY[index] = y;
+    }
+
+    /**
+     * @return New point with coordinates of the point at given index.
+     */
+    public XPoint toXPoint(int index) {
+        checkIndex(index);
+        return new XPoint(mX[index], mY[index]);
+    }
+
+    /**
+     * Translates all points by (dx, dy).
+     */
+    public void translate(float dx, float dy) {
+        final float[] xs = mX, ys = mY;
+        final int size = mSize;
+        for (int i = 0; i < size; ++i) {
+            xs[i] += dx;
+            ys[i] += dy;
+        }
+    }
+
+    /**
+     * Adds points of other buffer to points of this buffer, element by element.
+     * @param other Buffer with at least {@link #size()} points.
+     */
+    public void add(PointBuffer other) {
+        if (other.mSize < mSize) {
+            throw new IllegalArgumentException("Other buffer has " + other.mSize + " points, expected at least " + mSize);
+        }
+        final float[] xs = mX, ys = mY, oxs = other.mX, oys = other.mY;
+        final int size = mSize;
+        for (int i = 0; i < size; ++i) {
+            xs[i] += oxs[i];
+            ys[i] += oys[i];
+        }
+    }
+
+    /**
+     * Multiplies all points with scalar.
+     */
+    public void scale(float factor) {
+        scale(factor, factor);
+    }
+
+    /**
+     * Multiplies x coordinates with xFactor and y coordinates with yFactor.
+     */
+    public void scale(float xFactor, float yFactor) {
+        final float[] xs = mX, ys = mY;
+        final int size = mSize;
+        for (int i = 0; i < size; ++i) {
+            xs[i] *= xFactor;
+            ys[i] *= yFactor;
+        }
+    }
+
+    /**
+     * Mirrors all points around both X and Y axis, as {@link XPoint#mirrorXY(float, float)}.
+     * @param maxXDimension Maximum dimension of X axis.
+     * @param maxYDimension Maximum dimension of Y axis.
+     */
+    public void mirrorXY(float maxXDimension, float maxYDimension) {
+        final float[] xs = mX, ys = mY;
+        final int size = mSize;
+        for (int i = 0; i < size; ++i) {
+            xs[i] = maxXDimension - xs[i];
+            ys[i] = maxYDimension - ys[i];
+        }
+    }
+
+    /**
+     * Calculates norm of every point.
+     * @param out Array of at least {@link #size()} elements.
+     */
+    public void norms(float[] out) {
+        final float[] xs = mX, ys = mY;
+        final int size = mSize;
+        for (int i = 0; i < size; ++i) {
+            out[i] = (float) Math.sqrt(xs[i] * xs[i] + ys[i] * ys[i]);
+        }
+    }
+
+    /**
+     * Calculates distances between points of this and other buffer, element by element.
+     * @param other Buffer with at least {@link #size()} points.
+     * @param out Array of at least {@link #size()} elements.
+     */
+    public void distances(PointBuffer other, float[] out) {
+        if (other.mSize < mSize) {
+            throw new IllegalArgumentException("Other buffer has " + other.mSize + " points, expected at least " + mSize);
+        }
+        final float[] xs = mX, ys = mY, oxs = other.mX, oys = other.mY;
+        final int size = mSize;
+        for (int i = 0; i < size; ++i) {
+            float xdiff = xs[i] - oxs[i];
+            float ydiff = ys[i] - oys[i];
+            out[i] = (float) Math.sqrt(xdiff * xdiff + ydiff * ydiff);
+        }
+    }
+
+    /**
+     * @return Largest distance between points of this and other buffer, element by element.
+     */
+    public float maxDistance(PointBuffer other) {
+        if (other.mSize < mSize) {
+            throw new IllegalArgumentException("Other buffer has " + other.mSize + " points, expected at least " + mSize);
+        }
+        final float[] xs = mX, ys = mY, oxs = other.mX, oys = other.mY;
+        final int size = mSize;
+        float maxSquared = 0.f;
+        for (int i = 0; i < size; ++i) {
+            float xdiff = xs[i] - oxs[i];
+            float ydiff = ys[i] - oys[i];
+            maxSquared = Math.max(maxSquared, xdiff * xdiff + ydiff * ydiff);
+        }
+        return (float) Math.sqrt(maxSquared);
+    }
+
+    /**
+     * Clamps norm of every point to given range, as {@link XPoint#clamp(float, float)}. Zero
+     * points are left unchanged.
+     * @param minLength Minimum norm of the point.
+     * @param maxLength Maximum norm of the point.
+     */
+    public void clamp(float minLength, float maxLength) {
+        final float[] xs = mX, ys = mY;
+        final int size = mSize;
+        for (int i = 0; i < size; ++i) {
+            float norm = (float) Math.sqrt(xs[i] * xs[i] + ys[i] * ys[i]);
+            float factor;
+            if (norm > maxLength) {
+                factor = maxLength / norm;
+            } else if (norm < minLength && norm > 0.f) {
+                factor = minLength / norm;
+            } else {
+                continue;
+            }
+            xs[i] *= factor;
+            ys[i] *= factor;
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > mX.length) {
+            int newCapacity = Math.max(capacity, 2 * mX.length);
+            mX = Arrays.copyOf(mX, newCapacity);
+            mY = Arrays.copyOf(mY, newCapacity);
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= mSize) {
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + mSize);
+        }
+    }
+}
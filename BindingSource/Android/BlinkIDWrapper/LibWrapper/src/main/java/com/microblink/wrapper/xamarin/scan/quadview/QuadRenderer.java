@@ -0,0 +1,347 @@
+/**
+ * Copyright (c)2011 MicroBlink Ltd. All rights reserved.
+ *
+ * ANY UNAUTHORIZED USE OR SALE, DUPLICATION, OR DISTRIBUTION
+ * OF THIS PROGRAM OR ANY OF ITS PARTS, IN SOURCE OR BINARY FORMS,
+ * WITH OR WITHOUT MODIFICATION, WITH THE PURPOSE OF ACQUIRING
+ * UNLAWFUL MATERIAL OR ANY OTHER BENEFIT IS PROHIBITED!
+ * THIS PROGRAM IS PROTECTED BY COPYRIGHT LAWS AND YOU MAY NOT
+ * REVERSE ENGINEER, DECOMPILE, OR DISASSEMBLE IT.
+ */
+
+package com.microblink.wrapper.xamarin.scan.quadview;
+
+import android.content.pm.ActivityInfo;
+import android.content.res.Resources;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.os.Handler;
+import android.view.View;
+
+import com.microblink.geometry.quadDrawers.QuadrilateralDrawer;
+import com.microblink.util.Log;
+import com.microblink.wrapper.xamarin.R;
+import com.microblink.wrapper.xamarin.scan.ViewTransform;
+import com.microblink.wrapper.xamarin.trace.Tracer;
+
+/**
+ * Renders the animated viewfinder quadrilateral into the canvas of its host view. Renderer
+ * does not own a view, so quad can be drawn together with other overlays in a single pass.
+ */
+public class QuadRenderer {
+
+    private final View mHost;
+
+    private double mHMargin = 0.11;
+    private double mVMargin = 0.11;
+
+    private int mWidth = -1;
+    private int mHeight = -1;
+    private int mTop = -1, mLeft = -1, mRight = -1, mBottom = -1;
+
+    private static final long DEFAULT_ANIMATION_DURATION = 500;
+
+    private QuadrilateralWrapper mCurrent = new QuadrilateralWrapper();
+    /** Target is updated in place, so a detection does not allocate a new quad */
+    private final QuadrilateralWrapper mTarget = new QuadrilateralWrapper();
+    private QuadrilateralDrawer mQuadDrawer;
+    private Resources mResources = null;
+    /** Single animator that follows the latest target, it is never recreated */
+    private final QuadSpringAnimator mAnimator = new QuadSpringAnimator(DEFAULT_ANIMATION_DURATION);
+    /** Smooths detected corners and suppresses updates that would not visibly move the quad */
+    private final QuadSmoothingFilter mSmoothingFilter = new QuadSmoothingFilter();
+    /** Whether target has changed since animation was last retargeted */
+    private boolean mTargetChanged = false;
+    private volatile int mAppliedUpdates = 0;
+    private volatile int mSuppressedUpdates = 0;
+    /** Time of the last drawn animation frame */
+    private long mLastFrameNanos = 0;
+
+    private final Runnable mRetargetAnimation = new Runnable() {
+        @Override
+        public void run() {
+            Tracer.trace(Tracer.LEVEL_VERBOSE, QuadRenderer.this, "Retargeting quad animation");
+            if (mAnimator.isAtRest()) {
+                // motion starts now, not at the end of the previous motion
+                mLastFrameNanos = System.nanoTime();
+            }
+            mAnimator.retarget(mTarget, mCurrent);
+            mHost.invalidate();
+        }
+    };
+
+    private int mHostActivityOrientation = ActivityInfo.SCREEN_ORIENTATION_PORTRAIT;
+    private boolean mMirrored = false;
+    private final ViewTransform mViewTransform = new ViewTransform();
+    /** Packed corners of the detection that is being transformed, used only by {@link #setNewTarget} */
+    private final float[] mCorners = new float[QuadSpringAnimator.COORDINATE_COUNT];
+    private final CornerSorter mCornerSorter = new CornerSorter();
+    private final Handler mHandler = new Handler();
+    private boolean mMovableViewfinder = true;
+
+    /**
+     * @param host View into which quad is drawn, it is invalidated when quad moves.
+     * @param horizontalMargin Horizontal margin of the default quad, relative to view width.
+     * @param verticalMargin Vertical margin of the default quad, relative to view height.
+     * @param hostActivityOrientation Orientation of the host activity.
+     */
+    public QuadRenderer(View host, double horizontalMargin, double verticalMargin, int hostActivityOrientation) {
+        mHost = host;
+        mQuadDrawer = new QuadrilateralDrawer(host.getContext());
+        mQuadDrawer.setLineLengthPerc(0.05f);
+        mQuadDrawer.setDesiredLength(54);
+
+        mVMargin = verticalMargin;
+        mHMargin = horizontalMargin;
+
+        // Initialize these once for performance rather than calling them every
+        // time in draw().
+        mResources = host.getResources();
+        mHostActivityOrientation = hostActivityOrientation;
+    }
+
+    /**
+     * @return Paint used for drawing the quad.
+     */
+    public Paint getPaint() {
+        return mQuadDrawer.getPaint();
+    }
+
+    public void setMovable(boolean isMovable) {
+        mMovableViewfinder = isMovable;
+    }
+
+    private boolean isConfigurationChanged(int hostActivityOrientation) {
+        return ((mHostActivityOrientation == ActivityInfo.SCREEN_ORIENTATION_PORTRAIT || mHostActivityOrientation == ActivityInfo.SCREEN_ORIENTATION_REVERSE_PORTRAIT) &&
+                (hostActivityOrientation == ActivityInfo.SCREEN_ORIENTATION_LANDSCAPE || hostActivityOrientation == ActivityInfo.SCREEN_ORIENTATION_REVERSE_LANDSCAPE))
+                || ((mHostActivityOrientation == ActivityInfo.SCREEN_ORIENTATION_LANDSCAPE || mHostActivityOrientation == ActivityInfo.SCREEN_ORIENTATION_REVERSE_LANDSCAPE) &&
+                (hostActivityOrientation == ActivityInfo.SCREEN_ORIENTATION_PORTRAIT || hostActivityOrientation == ActivityInfo.SCREEN_ORIENTATION_REVERSE_PORTRAIT));
+    }
+
+    public void setHostActivityOrientation(int hostActivityOrientation) {
+        boolean shouldSwapMargins = isConfigurationChanged(hostActivityOrientation);
+        mHostActivityOrientation = hostActivityOrientation;
+        mViewTransform.invalidate();
+        if (shouldSwapMargins) {
+            double t = mVMargin;
+            mVMargin = mHMargin;
+            mHMargin = t;
+        }
+    }
+
+    public void setMirrored(boolean mirrored) {
+        mMirrored = mirrored;
+    }
+
+    public boolean isAnimationInProgress() {
+        return !mAnimator.isAtRest();
+    }
+
+    public void setDefaultTarget() {
+        // next detection must not be smoothed with the lost one
+        mSmoothingFilter.reset();
+        if (mTop != mBottom && mTarget.isDefaultQuad()
+                && mTarget.matchesMargins(mTop, mBottom, mLeft, mRight, mHostActivityOrientation)) {
+            // quad is already moving to the default position
+            ++mSuppressedUpdates;
+            return;
+        }
+        ++mAppliedUpdates;
+        mTargetChanged = true;
+        mTarget.setMargins(mTop, mBottom, mLeft, mRight, mHostActivityOrientation);
+        mTarget.setIsDefaultQuad(true);
+        if(mMirrored) {
+            mTarget.mirror(mWidth, mHeight, mHostActivityOrientation);
+        }
+        if (mTop != mBottom) {
+            startAnimation();
+        }
+    }
+
+    private void startAnimation() {
+        mTargetChanged = false;
+        // pending retarget is replaced, animator always follows only the latest target
+        mHandler.removeCallbacks(mRetargetAnimation);
+        mHandler.post(mRetargetAnimation);
+    }
+
+    /**
+     * Defines the time in which quad reaches its target.
+     * @param animationDuration Time in milliseconds, 0 to move quad without animation.
+     */
+    public void setAnimationDuration(long animationDuration) {
+        mAnimator.setSettleTime(animationDuration);
+    }
+
+    /**
+     * Configures smoothing of detected quads.
+     * @param smoothing Weight of the newest detection in range (0, 1], 1 disables smoothing.
+     * @param thresholdPx Detection is ignored if every corner moved less than this many pixels.
+     */
+    public void setSmoothing(float smoothing, float thresholdPx) {
+        mSmoothingFilter.configure(smoothing, thresholdPx);
+    }
+
+    /**
+     * @return Number of target updates that moved the quad.
+     */
+    public int getAppliedUpdateCount() {
+        return mAppliedUpdates;
+    }
+
+    /**
+     * @return Number of target updates that were suppressed because quad would not visibly move.
+     */
+    public int getSuppressedUpdateCount() {
+        return mSuppressedUpdates;
+    }
+
+    public void resetUpdateCounters() {
+        mAppliedUpdates = 0;
+        mSuppressedUpdates = 0;
+    }
+
+    public void setNewTarget(QuadrilateralWrapper quad) {
+        if (mMovableViewfinder) {
+            quad.getCorners(mCorners);
+            mCornerSorter.sort(mCorners);
+            transformToViewCoordinates(mCorners);
+            if (mTarget.isDefaultQuad()) {
+                // first detection after the default quad is not smoothed with older detections
+                mSmoothingFilter.reset();
+            }
+            if (!mSmoothingFilter.filter(mCorners)) {
+                ++mSuppressedUpdates;
+                return;
+            }
+            // target keeps its color until new detection status is published
+            mTarget.setCorners(mCorners);
+            mTarget.setIsDefaultQuad(false);
+        } else {
+            mCurrent.getCorners(mCorners);
+            mTarget.setCorners(mCorners);
+            mTarget.setColor(mCurrent.getColor());
+            mTarget.setIsDefaultQuad(mCurrent.isDefaultQuad());
+        }
+        ++mAppliedUpdates;
+        mTargetChanged = true;
+    }
+
+    @SuppressWarnings("deprecation")
+    public void publishDetectionStatus(boolean detectionSuccessful) {
+        int color;
+        if (detectionSuccessful) {
+            color = mResources.getColor(R.color.recognized_frame);
+        } else {
+            color = mResources.getColor(R.color.default_frame);
+        }
+        boolean colorChanged = mTarget.getColor() != color;
+        mTarget.setColor(color);
+        // nothing visible changed, so animation is not retargeted and view is not redrawn
+        if ((colorChanged || mTargetChanged) && mTop != mBottom) {
+            startAnimation();
+        }
+    }
+
+    /**
+     * Defines the size of the host view.
+     */
+    public void setSize(int width, int height) {
+        mWidth = width;
+        mHeight = height;
+        mViewTransform.invalidate();
+        Log.d(this, "Quad renderer layouting to size: {}x{}", mWidth, mHeight);
+    }
+
+    /**
+     * Advances the animation to given frame time and draws the quad.
+     * @param canvas Canvas of the host view.
+     * @param frameNanos Time of the frame that is drawn.
+     * @return {@code true} if quad is still moving and next frame should be drawn.
+     */
+    @SuppressWarnings("deprecation")
+    public boolean draw(Canvas canvas, long frameNanos) {
+        boolean cornersUnknown = (mBottom <= 0);
+
+        if (mWidth == -1) {
+            mWidth = canvas.getWidth();
+        }
+        if (mHeight == -1) {
+            mHeight = canvas.getHeight();
+        }
+
+        int effectiveWidth = (int) (mWidth * (1. - mHMargin));
+        int effectiveHeight = (int) (mHeight * (1. - mVMargin));
+
+        mTop = (mHeight - effectiveHeight) / 2;
+        mLeft = (mWidth - effectiveWidth) / 2;
+        mRight = mWidth - mLeft;
+        mBottom = mHeight - mTop;
+
+        if(mHostActivityOrientation == ActivityInfo.SCREEN_ORIENTATION_REVERSE_LANDSCAPE || mHostActivityOrientation == ActivityInfo.SCREEN_ORIENTATION_REVERSE_PORTRAIT) {
+            int tmp = mTop;
+            mTop = mBottom;
+            mBottom = tmp;
+
+            tmp = mLeft;
+            mLeft = mRight;
+            mRight = tmp;
+        }
+
+        if (cornersUnknown) {
+            mCurrent.setMargins(mTop, mBottom, mLeft, mRight, mHostActivityOrientation);
+            mCurrent.setColor(mResources.getColor(R.color.default_frame));
+            mCurrent.setIsDefaultQuad(true);
+            if(mMirrored) {
+                mCurrent.mirror(mWidth, mHeight, mHostActivityOrientation);
+            }
+
+            mTarget.setMargins(mTop, mBottom, mLeft, mRight, mHostActivityOrientation);
+            mTarget.setColor(mResources.getColor(R.color.default_frame));
+            mTarget.setIsDefaultQuad(true);
+            if(mMirrored) {
+                mTarget.mirror(mWidth, mHeight, mHostActivityOrientation);
+            }
+            mAnimator.snapTo(mCurrent);
+        } else if(mCurrent.isDefaultQuad() && !mCurrent.matchesMargins(mTop, mBottom, mLeft, mRight, mHostActivityOrientation)) {
+            mCurrent.setMargins(mTop, mBottom, mLeft, mRight, mHostActivityOrientation);
+            mCurrent.setColor(mResources.getColor(R.color.default_frame));
+            mCurrent.setIsDefaultQuad(true);
+            if(mMirrored) {
+                mCurrent.mirror(mWidth, mHeight, mHostActivityOrientation);
+            }
+
+            mTarget.setMargins(mTop, mBottom, mLeft, mRight, mHostActivityOrientation);
+            mTarget.setColor(mResources.getColor(R.color.default_frame));
+            mTarget.setIsDefaultQuad(true);
+            if(mMirrored) {
+                mTarget.mirror(mWidth, mHeight, mHostActivityOrientation);
+            }
+            mAnimator.snapTo(mCurrent);
+        }
+
+        // animator is driven by drawing, host draws next frame until quad reaches its target
+        boolean moving = mAnimator.step(frameNanos - mLastFrameNanos);
+        mLastFrameNanos = frameNanos;
+        mAnimator.apply(mCurrent);
+
+        mQuadDrawer.drawQuad(mCurrent.getQuadrilateral(), canvas);
+        return moving;
+    }
+
+    /**
+     * Transforms sorted unit corners to view coordinates in place.
+     */
+    private void transformToViewCoordinates(float[] unitCorners) {
+        if (Tracer.isEnabled(Tracer.LEVEL_VERBOSE)) {
+            // corners are traced by value, array is transformed in place below
+            Tracer.trace(Tracer.LEVEL_VERBOSE, this, "Building quad for view size ({}x{}) in host activity orientation {}.", mWidth, mHeight, mHostActivityOrientation);
+            Tracer.trace(Tracer.LEVEL_VERBOSE, this, "Unit quad upper corners: ({}, {}), ({}, {})", unitCorners[0], unitCorners[1], unitCorners[2], unitCorners[3]);
+            Tracer.trace(Tracer.LEVEL_VERBOSE, this, "Unit quad lower corners: ({}, {}), ({}, {})", unitCorners[4], unitCorners[5], unitCorners[6], unitCorners[7]);
+        }
+        // the points should already be corrected for mirror by transformation matrix
+        mViewTransform.update(mWidth, mHeight, mHostActivityOrientation);
+        mViewTransform.apply(unitCorners, 4);
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.microblink.wrapper.xamarin.scan.quadview;
+
+/**
+ * Smooths detected quadrilateral corners with per-corner exponential moving average and
+ * suppresses updates in which no corner moved more than a pixel threshold, so small noise
+ * in detections does not restart the viewfinder animation on every frame.
+ */
+public class QuadSmoothingFilter {
+
+    public static final float DEFAULT_SMOOTHING = 0.5f;
+    public static final float DEFAULT_THRESHOLD_PX = 2.f;
+
+    private final float[] mFiltered = new float[QuadSpringAnimator.COORDINATE_COUNT];
+    /** Corners of the last update that was not suppressed */
+    private final float[] mApplied = new float[QuadSpringAnimator.COORDINATE_COUNT];
+    private boolean mInitialized = false;
+
+    private float mSmoothing = DEFAULT_SMOOTHING;
+    private float mThresholdSquared = DEFAULT_THRESHOLD_PX * DEFAULT_THRESHOLD_PX;
+
+    /**
+     * Configures the filter.
+     * @param smoothing Weight of the newest detection in range (0, 1], 1 disables smoothing.
+     * @param thresholdPx Update is suppressed if every corner moved less than this many pixels,
+     *                    0 disables suppression.
+     */
+    public void configure(float smoothing, float thresholdPx) {
+        if (smoothing <= 0.f || smoothing > 1.f) {
+            throw new IllegalArgumentException("Smoothing must be in range (0, 1].");
+        }
+        if (thresholdPx < 0.f) {
+            throw new IllegalArgumentException("Threshold must not be negative.");
+        }
+        mSmoothing = smoothing;
+        mThresholdSquared = thresholdPx * thresholdPx;
+    }
+
+    /**
+     * Filters the detected corners in place.
+     * @param corners Detected corners in view coordinates, packed as in
+     *                {@link QuadrilateralWrapper#getCorners(float[])}. They are replaced with
+     *                filtered corners if update is applied.
+     * @return {@code true} if corners should be applied, {@code false} if update is suppressed.
+     */
+    public boolean filter(float[] corners) {
+        if (!mInitialized) {
+            System.arraycopy(corners, 0, mFiltered, 0, mFiltered.length);
+            System.arraycopy(corners, 0, mApplied, 0, mApplied.length);
+            mInitialized = true;
+            return true;
+        }
+        for (int i = 0; i < mFiltered.length; ++i) {
+            mFiltered[i] += mSmoothing * (corners[i] - mFiltered[i]);
+        }
+        boolean moved = false;
+        for (int i = 0; i < mFiltered.length && !moved; i += 2) {
+            float dx = mFiltered[i] - mApplied[i];
+            float dy = mFiltered[i + 1] - mApplied[i + 1];
+            moved = dx * dx + dy * dy >= mThresholdSquared;
+        }
+        if (!moved) {
+            return false;
+        }
+        System.arraycopy(mFiltered, 0, mApplied, 0, mFiltered.length);
+        System.arraycopy(mFiltered, 0, corners, 0, mFiltered.length);
+        return true;
+    }
+
+    /**
+     * Forgets the filter state, next detection is applied without smoothing.
+     */
+    public void reset() {
+        mInitialized = false;
+    }
+}
@@ -0,0 +1,175 @@
+package com.microblink.wrapper.xamarin.scan.quadview;
+
+/**
+ * Critically damped spring that moves quadrilateral corners toward the latest target.
+ *
+ * Animator is created once per view. New target is applied in place without restarting the
+ * motion: corner velocities are preserved, so quad smoothly follows detections that arrive on
+ * every frame instead of restarting its easing each time. Color is blended toward the target
+ * color by the same spring. Animator allocates no objects after construction.
+ */
+public class QuadSpringAnimator {
+
+    /** Number of coordinates of quad corners: upper left, upper right, lower left, lower right */
+    static final int COORDINATE_COUNT = 8;
+
+    /** Critically damped spring is within 0.1% of the target after this many time constants */
+    private static final float SETTLE_TIME_CONSTANTS = 6.6f;
+    /** Motion is considered finished when all corners are this close to the target, in pixels */
+    private static final float REST_DISTANCE = 0.5f;
+    private static final float REST_SPEED = 5.f;
+    /** Longest time step, larger steps happen only after view was not drawn for a while */
+    private static final float MAX_STEP_SECONDS = 0.1f;
+    /** Progress after which default quad target is drawn as default quad */
+    private static final float DEFAULT_QUAD_PROGRESS = 0.95f;
+
+    private final float[] mPosition = new float[COORDINATE_COUNT];
+    private final float[] mVelocity = new float[COORDINATE_COUNT];
+    private final float[] mTarget = new float[COORDINATE_COUNT];
+
+    /** Progress of the color blend and default quad transition since last retarget, in [0, 1] */
+    private float mProgress = 1.f;
+    private float mProgressVelocity = 0.f;
+    private int mStartColor;
+    private int mTargetColor;
+    private boolean mStartDefault;
+    private boolean mTargetDefault;
+
+    /** Angular frequency of the spring, 0 if animation is disabled */
+    private float mOmega;
+    private volatile boolean mAtRest = true;
+
+    /**
+     * @param settleTimeMs Time in which quad reaches its target.
+     */
+    public QuadSpringAnimator(long settleTimeMs) {
+        setSettleTime(settleTimeMs);
+    }
+
+    /**
+     * Defines the time in which quad reaches its target.
+     * @param settleTimeMs Settle time in milliseconds, 0 to jump to targets without animation.
+     */
+    public void setSettleTime(long settleTimeMs) {
+        mOmega = settleTimeMs > 0 ? SETTLE_TIME_CONSTANTS * 1000.f / settleTimeMs : 0.f;
+    }
+
+    /**
+     * Moves quad to given position immediately and stops the motion.
+     */
+    public void snapTo(QuadrilateralWrapper quad) {
+        quad.getCorners(mPosition);
+        System.arraycopy(mPosition, 0, mTarget, 0, COORDINATE_COUNT);
+        for (int i = 0; i < COORDINATE_COUNT; ++i) {
+            mVelocity[i] = 0.f;
+        }
+        mStartColor = mTargetColor = quad.getColor();
+        mStartDefault = mTargetDefault = quad.isDefaultQuad();
+        mProgress = 1.f;
+        mProgressVelocity = 0.f;
+        mAtRest = true;
+    }
+
+    /**
+     * Starts moving toward the new target from the current position and velocity.
+     * @param target New target.
+     * @param current Quad that is currently drawn, its color and default flag are the start of
+     *                the color transition.
+     */
+    public void retarget(QuadrilateralWrapper target, QuadrilateralWrapper current) {
+        target.getCorners(mTarget);
+        mStartColor = current.getColor();
+        mStartDefault = current.isDefaultQuad();
+        mTargetColor = target.getColor();
+        mTargetDefault = target.isDefaultQuad();
+        mProgress = 0.f;
+        mProgressVelocity = 0.f;
+        mAtRest = false;
+        if (mOmega == 0.f) {
+            // animation disabled, jump to the target
+            step(0);
+        }
+    }
+
+    /**
+     * Advances the motion.
+     * @param dtNanos Time elapsed since previous step.
+     * @return {@code true} if quad is still moving.
+     */
+    public boolean step(long dtNanos) {
+        if (mAtRest) {
+            return false;
+        }
+        if (mOmega == 0.f) {
+            System.arraycopy(mTarget, 0, mPosition, 0, COORDINATE_COUNT);
+            for (int i = 0; i < COORDINATE_COUNT; ++i) {
+                mVelocity[i] = 0.f;
+            }
+            mProgress = 1.f;
+            mProgressVelocity = 0.f;
+            mAtRest = true;
+            return false;
+        }
+        float dt = Math.min(dtNanos / 1e9f, MAX_STEP_SECONDS);
+        float decay = (float) Math.exp(-mOmega * dt);
+
+        boolean atRest = true;
+        for (int i = 0; i < COORDINATE_COUNT; ++i) {
+            float displacement = mPosition[i] - mTarget[i];
+            // exact solution of the critically damped oscillator over the time step
+            float c = mVelocity[i] + mOmega * displacement;
+            displacement = (displacement + c * dt) * decay;
+            mVelocity[i] = (mVelocity[i] - mOmega * c * dt) * decay;
+            mPosition[i] = mTarget[i] + displacement;
+            if (Math.abs(displacement) > REST_DISTANCE || Math.abs(mVelocity[i]) > REST_SPEED) {
+                atRest = false;
+            }
+        }
+
+        float progressDisplacement = mProgress - 1.f;
+        float c = mProgressVelocity + mOmega * progressDisplacement;
+        mProgress = 1.f + (progressDisplacement + c * dt) * decay;
+        mProgressVelocity = (mProgressVelocity - mOmega * c * dt) * decay;
+        if (1.f - mProgress > 1e-3f) {
+            atRest = false;
+        }
+
+        if (atRest) {
+            System.arraycopy(mTarget, 0, mPosition, 0, COORDINATE_COUNT);
+            mProgress = 1.f;
+        }
+        mAtRest = atRest;
+        return !atRest;
+    }
+
+    /**
+     * @return {@code true} if quad has reached its target.
+     */
+    public boolean isAtRest() {
+        return mAtRest;
+    }
+
+    /**
+     * Writes the current corners, color and default flag to the given quad.
+     */
+    public void apply(QuadrilateralWrapper out) {
+        out.setCorners(mPosition);
+        out.setColor(blendColors(mStartColor, mTargetColor, Math.min(1.f, Math.max(0.f, mProgress))));
+        out.setIsDefaultQuad(mTargetDefault && (mStartDefault || mProgress > DEFAULT_QUAD_PROGRESS));
+    }
+
+    /**
+     * Blends two ARGB colors channel by channel.
+     */
+    public static int blendColors(int from, int to, float fraction) {
+        int a = blendChannel(from >>> 24, to >>> 24, fraction);
+        int r = blendChannel((from >> 16) & 0xff, (to >> 16) & 0xff, fraction);
+        int g = blendChannel((from >> 8) & 0xff, (to >> 8) & 0xff, fraction);
+        int b = blendChannel(from & 0xff, to & 0xff, fraction);
+        return (a << 24) | (r << 16) | (g << 8) | b;
+    }
+
+    private static int blendChannel(int from, int to, float fraction) {
+        return from + (int) ((to - from) * fraction);
+    }
+}
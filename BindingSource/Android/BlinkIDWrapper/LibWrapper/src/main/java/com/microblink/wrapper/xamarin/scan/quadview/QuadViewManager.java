@@ -1,13 +1,19 @@
 package com.microblink.wrapper.xamarin.scan.quadview;
 
 /**
- * Class that manages animated quadrilateral view.
+ * Class that manages animated quadrilateral of the detection overlay.
  */
 public class QuadViewManager {
-    private QuadView mQuadView;
+    private static final long DEFAULT_ANIMATION_DURATION = 500;
 
-    public QuadViewManager(QuadView quadView) {
-        mQuadView = quadView;
+    private QuadRenderer mQuadRenderer;
+
+    /**
+     * Creates the manager of the quad drawn by given renderer.
+     * @param quadRenderer Quad renderer.
+     */
+    public QuadViewManager(QuadRenderer quadRenderer) {
+        mQuadRenderer = quadRenderer;
     }
 
     /**
@@ -15,8 +21,8 @@ public class QuadViewManager {
      * It is safe to call this method from non-UI thread.
      */
     public void animateQuadToDefaultPosition() {
-        mQuadView.setDefaultTarget();
-        mQuadView.publishDetectionStatus(false);
+        mQuadRenderer.setDefaultTarget();
+        mQuadRenderer.publishDetectionStatus(false);
     }
 
     /**
@@ -26,17 +32,51 @@ public class QuadViewManager {
      */
     public void animateQuadToDetectionPosition(QuadrilateralWrapper detection, boolean detectionSuccessful) {
         if (!detection.isEmpty()) {
-            mQuadView.setNewTarget(detection);
+            mQuadRenderer.setNewTarget(detection);
         }
-        mQuadView.publishDetectionStatus(detectionSuccessful);
+        mQuadRenderer.publishDetectionStatus(detectionSuccessful);
+    }
+
+    /**
+     * Enables or disables quad animation. When animation is disabled, quad jumps to its target.
+     * @param enabled Whether quad should be animated.
+     */
+    public void setAnimationsEnabled(boolean enabled) {
+        mQuadRenderer.setAnimationDuration(enabled ? DEFAULT_ANIMATION_DURATION : 0);
+    }
+
+    /**
+     * Configures smoothing of detected quads.
+     * @param smoothing Weight of the newest detection in range (0, 1], 1 disables smoothing.
+     * @param thresholdPx Detection is ignored if every corner moved less than this many pixels.
+     */
+    public void setSmoothing(float smoothing, float thresholdPx) {
+        mQuadRenderer.setSmoothing(smoothing, thresholdPx);
+    }
+
+    /**
+     * @return Number of quad updates that moved the quad.
+     */
+    public int getAppliedUpdateCount() {
+        return mQuadRenderer.getAppliedUpdateCount();
     }
 
+    /**
+     * @return Number of quad updates that were suppressed because quad would not visibly move.
+     */
+    public int getSuppressedUpdateCount() {
+        return mQuadRenderer.getSuppressedUpdateCount();
+    }
+
+    public void resetUpdateCounters() {
+        mQuadRenderer.resetUpdateCounters();
+    }
 
     /**
      * Returns true if quad view animation is currently in progress.
      * @return true if quad view animation is currently in progress.
      */
     public boolean isAnimationInProgress() {
-        return mQuadView.isAnimationInProgress();
+        return mQuadRenderer.isAnimationInProgress();
     }
 }
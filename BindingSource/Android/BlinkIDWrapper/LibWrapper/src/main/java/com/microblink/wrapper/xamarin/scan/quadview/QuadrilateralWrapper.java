@@ -37,6 +37,64 @@ public class QuadrilateralWrapper {
                 xPointToPoint(lleft), xPointToPoint(lright));
     }
 
+    /**
+     * Copies corner coordinates to given array in order upper left, upper right, lower left,
+     * lower right, x before y.
+     * @param out Array of at least 8 elements.
+     */
+    public void getCorners(float[] out) {
+        copyPoint(mQuadrilateral.getUpperLeft(), out, 0);
+        copyPoint(mQuadrilateral.getUpperRight(), out, 2);
+        copyPoint(mQuadrilateral.getLowerLeft(), out, 4);
+        copyPoint(mQuadrilateral.getLowerRight(), out, 6);
+    }
+
+    /**
+     * Moves corners in place to coordinates from given array, in the order used by
+     * {@link #getCorners(float[])}.
+     * @param corners Array of at least 8 elements.
+     */
+    public void setCorners(float[] corners) {
+        setPoint(mQuadrilateral.getUpperLeft(), corners, 0);
+        setPoint(mQuadrilateral.getUpperRight(), corners, 2);
+        setPoint(mQuadrilateral.getLowerLeft(), corners, 4);
+        setPoint(mQuadrilateral.getLowerRight(), corners, 6);
+    }
+
+    /**
+     * Copies corners, color and default flag of given quadrilateral into this quad, in place.
+     */
+    public void set(Quadrilateral quad) {
+        copyPoint(quad.getUpperLeft(), mQuadrilateral.getUpperLeft());
+        copyPoint(quad.getUpperRight(), mQuadrilateral.getUpperRight());
+        copyPoint(quad.getLowerLeft(), mQuadrilateral.getLowerLeft());
+        copyPoint(quad.getLowerRight(), mQuadrilateral.getLowerRight());
+        mQuadrilateral.setColor(quad.getColor());
+        mQuadrilateral.setIsDefaultQuad(quad.isDefaultQuad());
+    }
+
+    private static void copyPoint(Point from, Point to) {
+        to.setX(from.getX());
+        to.setY(from.getY());
+    }
+
+    private static void copyPoint(Point p, float[] out, int offset) {
+        out[offset] = p.getX();
+        out[offset + 1] = p.getY();
+    }
+
+    private static void setPoint(Point p, float[] corners, int offset) {
+        p.setX(corners[offset]);
+        p.setY(corners[offset + 1]);
+    }
+
+    /**
+     * Returns the quadrilateral that is drawn by quadrilateral drawer.
+     */
+    Quadrilateral getQuadrilateral() {
+        return mQuadrilateral;
+    }
+
     /**
      * Returns true if quadrilateral is empty, i.e. all 4 points are the same.
      * @return true if quadrilateral is empty, i.e. all 4 points are the same.
@@ -67,6 +67,7 @@ public class XPoint implements Parcelable {
     public void operatorPlusEquals(XPoint other) {
         mX+=other.mX;
         mY+=other.mY;
+        mNorm = -1.f;
     }
     
     /**
@@ -84,6 +85,7 @@ public class XPoint implements Parcelable {
     public XPoint operatorMinusEquals(XPoint other) {
         mX -= other.mX;
         mY -= other.mY;
+        mNorm = -1.f;
         return this;
     }
     
@@ -100,6 +102,7 @@ public class XPoint implements Parcelable {
     public XPoint operatorMultiplyEquals(float factor) {
         mX *= factor;
         mY *= factor;
+        mNorm = -1.f;
         return this;
     }
     
@@ -113,6 +116,7 @@ public class XPoint implements Parcelable {
     }
 
     public XPoint negative() {
+        // negation does not change the norm, so cached norm stays valid
         mX = -mX;
         mY = -mY;
         return this;
@@ -274,10 +278,12 @@ public class XPoint implements Parcelable {
 
     public void setX(float x) {
         mX = x;
+        mNorm = -1.f;
     }
 
     public void setY(float y) {
         mY = y;
+        mNorm = -1.f;
     }
 
     @Override
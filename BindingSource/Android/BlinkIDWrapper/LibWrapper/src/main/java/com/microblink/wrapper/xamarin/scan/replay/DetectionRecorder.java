@@ -0,0 +1,143 @@
+package com.microblink.wrapper.xamarin.scan.replay;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.microblink.util.Log;
+import com.microblink.view.recognition.DetectionStatus;
+import com.microblink.wrapper.xamarin.scan.DetectionListener;
+import com.microblink.wrapper.xamarin.scan.dots.PointSetWrapper;
+import com.microblink.wrapper.xamarin.scan.quadview.QuadrilateralWrapper;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Records the detection metadata stream of a real scan to a compact binary file, which can be
+ * replayed with {@link DetectionReplayer} without a camera.
+ *
+ * File starts with {@code [magic][version]}, followed by events. Each event is
+ * {@code [type][microseconds since previous event]}. Detection event continues with
+ * {@code [status ordinal or -1][geometry]}, where geometry is a quad
+ * ({@code [8 corner coordinates][color][is default]}) or a point set
+ * ({@code [point count][coordinates]}) or nothing when detection failed.
+ *
+ * Recorder is called on the metadata thread. Write errors are logged and stop the recording, so
+ * they never interrupt scanning.
+ */
+public class DetectionRecorder implements DetectionListener, Closeable {
+
+    static final int MAGIC = 0x4d424431; // "MBD1"
+    static final int VERSION = 1;
+
+    static final byte EVENT_FRAME = 0;
+    static final byte EVENT_DETECTION = 1;
+
+    static final byte GEOMETRY_NONE = 0;
+    static final byte GEOMETRY_QUAD = 1;
+    static final byte GEOMETRY_POINTS = 2;
+
+    private final DataOutputStream mOut;
+    private final float[] mCorners = new float[8];
+    private float[] mCoordinates = new float[32];
+    /** Timestamp of the previous event, 0 before the first event */
+    private long mLastTimestampNanos = 0;
+    private int mEventCount;
+    private boolean mFailed = false;
+
+    /**
+     * Writes the file header to given stream. Stream is closed by {@link #close()}.
+     * @param out Destination of the recording.
+     * @throws IOException If header cannot be written.
+     */
+    public DetectionRecorder(@NonNull OutputStream out) throws IOException {
+        mOut = new DataOutputStream(new BufferedOutputStream(out));
+        mOut.writeInt(MAGIC);
+        mOut.writeInt(VERSION);
+    }
+
+    @Override
+    public synchronized void onFrame(long timestampNanos) {
+        if (mFailed) {
+            return;
+        }
+        try {
+            writeEventHeader(EVENT_FRAME, timestampNanos);
+        } catch (IOException e) {
+            onWriteFailed(e);
+        }
+    }
+
+    @Override
+    public synchronized void onDetection(long timestampNanos, @Nullable DetectionStatus status,
+                                         @Nullable QuadrilateralWrapper quad, @Nullable PointSetWrapper pointSet) {
+        if (mFailed) {
+            return;
+        }
+        try {
+            writeEventHeader(EVENT_DETECTION, timestampNanos);
+            mOut.writeByte(status != null ? status.ordinal() : -1);
+            if (pointSet != null) {
+                int pointCount = pointSet.getPointCount();
+                if (mCoordinates.length < 2 * pointCount) {
+                    mCoordinates = new float[2 * pointCount];
+                }
+                pointSet.getCoordinates(mCoordinates);
+                mOut.writeByte(GEOMETRY_POINTS);
+                mOut.writeShort(pointCount);
+                for (int i = 0; i < 2 * pointCount; ++i) {
+                    mOut.writeFloat(mCoordinates[i]);
+                }
+            } else if (quad != null) {
+                quad.getCorners(mCorners);
+                mOut.writeByte(GEOMETRY_QUAD);
+                for (float c : mCorners) {
+                    mOut.writeFloat(c);
+                }
+                mOut.writeInt(quad.getColor());
+                mOut.writeBoolean(quad.isDefaultQuad());
+            } else {
+                mOut.writeByte(GEOMETRY_NONE);
+            }
+        } catch (IOException e) {
+            onWriteFailed(e);
+        }
+    }
+
+    /**
+     * @return Number of recorded events.
+     */
+    public synchronized int getEventCount() {
+        return mEventCount;
+    }
+
+    /**
+     * Flushes buffered events to the stream.
+     * @throws IOException If stream cannot be written.
+     */
+    public synchronized void flush() throws IOException {
+        mOut.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        mFailed = true;
+        mOut.close();
+    }
+
+    private void writeEventHeader(byte type, long timestampNanos) throws IOException {
+        long deltaMicros = mLastTimestampNanos != 0 ? (timestampNanos - mLastTimestampNanos) / 1000 : 0;
+        mLastTimestampNanos = timestampNanos;
+        mOut.writeByte(type);
+        mOut.writeInt((int) Math.max(0, Math.min(Integer.MAX_VALUE, deltaMicros)));
+        ++mEventCount;
+    }
+
+    private void onWriteFailed(IOException e) {
+        Log.e(this, e, "Failed to record detection event, recording is stopped");
+        mFailed = true;
+    }
+}
@@ -0,0 +1,170 @@
+package com.microblink.wrapper.xamarin.scan.replay;
+
+import android.support.annotation.NonNull;
+
+import com.microblink.view.recognition.DetectionStatus;
+import com.microblink.wrapper.xamarin.scan.DetectionListener;
+import com.microblink.wrapper.xamarin.scan.dots.PointSetWrapper;
+import com.microblink.wrapper.xamarin.scan.quadview.QuadrilateralWrapper;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replays a recording made by {@link DetectionRecorder} into a {@link DetectionListener}, e.g.
+ * {@link com.microblink.wrapper.xamarin.scan.DetectionPresenter} with overlays and scan
+ * statistics. Replay runs on the calling thread and needs neither camera nor recognizer, so
+ * overlay and statistics code can be benchmarked deterministically on a plain JVM.
+ *
+ * Recording is read to memory when the replayer is created. Quads and point sets are created
+ * anew for every replayed event, because listeners may keep and transform them.
+ */
+public class DetectionReplayer {
+
+    /** Replays events as fast as possible, with recorded timestamps */
+    public static final float SPEED_UNLIMITED = 0.f;
+
+    private static final DetectionStatus[] STATUSES = DetectionStatus.values();
+
+    private final List<Event> mEvents = new ArrayList<>();
+
+    /**
+     * Reads the recording. Stream is read to its end, but not closed.
+     * @param in Recording made by {@link DetectionRecorder}.
+     * @throws IOException If stream cannot be read or it is not a detection recording.
+     */
+    public DetectionReplayer(@NonNull InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        if (data.readInt() != DetectionRecorder.MAGIC) {
+            throw new IOException("Not a detection recording");
+        }
+        int version = data.readInt();
+        if (version != DetectionRecorder.VERSION) {
+            throw new IOException("Unsupported detection recording version " + version);
+        }
+        long timestampNanos = 0;
+        while (true) {
+            int type = data.read();
+            if (type < 0) {
+                break;
+            }
+            try {
+                timestampNanos += data.readInt() * 1000L;
+                mEvents.add(readEvent((byte) type, timestampNanos, data));
+            } catch (EOFException e) {
+                // recording was not closed, last event is incomplete
+                break;
+            }
+        }
+    }
+
+    private static Event readEvent(byte type, long timestampNanos, DataInputStream data) throws IOException {
+        Event event = new Event(timestampNanos);
+        if (type == DetectionRecorder.EVENT_FRAME) {
+            return event;
+        } else if (type != DetectionRecorder.EVENT_DETECTION) {
+            throw new IOException("Unknown event type " + type);
+        }
+        event.mDetection = true;
+        int status = data.readByte();
+        event.mStatus = status >= 0 && status < STATUSES.length ? STATUSES[status] : null;
+        byte geometry = data.readByte();
+        if (geometry == DetectionRecorder.GEOMETRY_QUAD) {
+            event.mCoordinates = readFloats(data, 8);
+            event.mPointCount = 4;
+            event.mColor = data.readInt();
+            event.mDefaultQuad = data.readBoolean();
+        } else if (geometry == DetectionRecorder.GEOMETRY_POINTS) {
+            event.mPointCount = data.readUnsignedShort();
+            event.mCoordinates = readFloats(data, 2 * event.mPointCount);
+        } else if (geometry != DetectionRecorder.GEOMETRY_NONE) {
+            throw new IOException("Unknown geometry " + geometry);
+        }
+        event.mQuad = geometry == DetectionRecorder.GEOMETRY_QUAD;
+        return event;
+    }
+
+    private static float[] readFloats(DataInputStream data, int count) throws IOException {
+        float[] values = new float[count];
+        for (int i = 0; i < count; ++i) {
+            values[i] = data.readFloat();
+        }
+        return values;
+    }
+
+    /**
+     * @return Number of recorded events.
+     */
+    public int getEventCount() {
+        return mEvents.size();
+    }
+
+    /**
+     * @return Duration of the recording in nanoseconds.
+     */
+    public long getDurationNanos() {
+        return mEvents.isEmpty() ? 0 : mEvents.get(mEvents.size() - 1).mTimestampNanos;
+    }
+
+    /**
+     * Replays all events to the listener.
+     * @param listener Listener that receives the events.
+     * @param speed Replay speed relative to the recording, e.g. 1 for recorded speed and 4 for
+     *              four times faster replay. Listener receives timestamps of the replay.
+     *              {@link #SPEED_UNLIMITED} replays events without waiting and listener receives
+     *              recorded timestamps, which makes the replay deterministic.
+     * @throws InterruptedException If calling thread was interrupted while waiting for the next event.
+     */
+    public void replay(@NonNull DetectionListener listener, float speed) throws InterruptedException {
+        long startNanos = System.nanoTime();
+        for (Event event : mEvents) {
+            long timestampNanos;
+            if (speed > 0) {
+                timestampNanos = startNanos + (long) (event.mTimestampNanos / speed);
+                long waitNanos;
+                // sleep rounds to milliseconds, so it may return before the event is due
+                while ((waitNanos = timestampNanos - System.nanoTime()) > 0) {
+                    Thread.sleep(waitNanos / 1000000, (int) (waitNanos % 1000000));
+                }
+            } else {
+                timestampNanos = event.mTimestampNanos;
+            }
+            if (event.mDetection) {
+                QuadrilateralWrapper quad = null;
+                PointSetWrapper pointSet = null;
+                if (event.mQuad) {
+                    quad = new QuadrilateralWrapper();
+                    quad.setCorners(event.mCoordinates);
+                    quad.setColor(event.mColor);
+                    quad.setIsDefaultQuad(event.mDefaultQuad);
+                } else if (event.mCoordinates != null) {
+                    pointSet = new PointSetWrapper(event.mCoordinates, event.mPointCount);
+                }
+                listener.onDetection(timestampNanos, event.mStatus, quad, pointSet);
+            } else {
+                listener.onFrame(timestampNanos);
+            }
+        }
+    }
+
+    private static final class Event {
+        /** Time since the first event of the recording */
+        final long mTimestampNanos;
+        boolean mDetection;
+        DetectionStatus mStatus;
+        boolean mQuad;
+        float[] mCoordinates;
+        int mPointCount;
+        int mColor;
+        boolean mDefaultQuad;
+
+        Event(long timestampNanos) {
+            mTimestampNanos = timestampNanos;
+        }
+    }
+}
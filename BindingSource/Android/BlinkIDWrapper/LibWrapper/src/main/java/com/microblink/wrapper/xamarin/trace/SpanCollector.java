@@ -0,0 +1,131 @@
+package com.microblink.wrapper.xamarin.trace;
+
+import android.support.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Collects durations of {@link TraceSection} spans and summarizes them into a report with count,
+ * mean and 95th percentile of each span. Collector contains no Android dependencies, so the
+ * same report can be produced in local benchmark runs on JVM.
+ */
+public class SpanCollector {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** Durations of a single span name, stored in a growable primitive array */
+    private static final class Samples {
+        long[] mDurations = new long[INITIAL_CAPACITY];
+        int mCount = 0;
+
+        void add(long durationNanos) {
+            if (mCount == mDurations.length) {
+                mDurations = Arrays.copyOf(mDurations, mCount * 2);
+            }
+            mDurations[mCount++] = durationNanos;
+        }
+    }
+
+    /**
+     * Summary of a single span.
+     */
+    public static final class Summary {
+        private final String mName;
+        private final int mCount;
+        private final double mMeanMs;
+        private final double mP95Ms;
+
+        Summary(String name, int count, double meanMs, double p95Ms) {
+            mName = name;
+            mCount = count;
+            mMeanMs = meanMs;
+            mP95Ms = p95Ms;
+        }
+
+        @NonNull
+        public String getName() {
+            return mName;
+        }
+
+        public int getCount() {
+            return mCount;
+        }
+
+        public double getMeanMs() {
+            return mMeanMs;
+        }
+
+        public double getP95Ms() {
+            return mP95Ms;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%s: count=%d mean=%.3fms p95=%.3fms", mName, mCount, mMeanMs, mP95Ms);
+        }
+    }
+
+    private final Map<String, Samples> mSamples = new HashMap<>();
+
+    /**
+     * Records one span.
+     * @param name Span name.
+     * @param durationNanos Duration of the span in nanoseconds.
+     */
+    public synchronized void record(@NonNull String name, long durationNanos) {
+        Samples samples = mSamples.get(name);
+        if (samples == null) {
+            samples = new Samples();
+            mSamples.put(name, samples);
+        }
+        samples.add(durationNanos);
+    }
+
+    /**
+     * @return Summaries of all recorded spans, sorted by span name.
+     */
+    @NonNull
+    public synchronized List<Summary> summarize() {
+        List<String> names = new ArrayList<>(mSamples.keySet());
+        Collections.sort(names);
+        List<Summary> summaries = new ArrayList<>(names.size());
+        for (String name : names) {
+            Samples samples = mSamples.get(name);
+            long[] sorted = Arrays.copyOf(samples.mDurations, samples.mCount);
+            Arrays.sort(sorted);
+            long total = 0;
+            for (long d : sorted) {
+                total += d;
+            }
+            // nearest-rank percentile
+            int p95Index = Math.max(0, (int) Math.ceil(0.95 * sorted.length) - 1);
+            summaries.add(new Summary(name, sorted.length, total / 1e6 / sorted.length, sorted[p95Index] / 1e6));
+        }
+        return summaries;
+    }
+
+    /**
+     * @return Report with one summary per line.
+     */
+    @NonNull
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        for (Summary summary : summarize()) {
+            sb.append(summary).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Removes all recorded spans.
+     */
+    public synchronized void clear() {
+        mSamples.clear();
+    }
+}
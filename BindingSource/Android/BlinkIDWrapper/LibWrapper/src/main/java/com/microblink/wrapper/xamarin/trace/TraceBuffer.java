@@ -0,0 +1,136 @@
+package com.microblink.wrapper.xamarin.trace;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Fixed-size ring buffer of trace records. Records are preallocated and overwritten in place,
+ * arguments are stored unformatted and formatted only when buffer is dumped.
+ */
+public class TraceBuffer {
+
+    private static final int MAX_NUMBERS = 4;
+
+    private static final class Record {
+        long mTimeNanos;
+        int mLevel;
+        Class<?> mTag;
+        String mFormat;
+        boolean mHasArg;
+        Object mArg;
+        int mNumberCount;
+        final double[] mNumbers = new double[MAX_NUMBERS];
+    }
+
+    private final Record[] mRecords;
+    /** Index of the slot which will be written next */
+    private int mHead = 0;
+    private int mSize = 0;
+
+    /**
+     * @param capacity Maximum number of records, older records are overwritten.
+     */
+    public TraceBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+        mRecords = new Record[capacity];
+        for (int i = 0; i < capacity; ++i) {
+            mRecords[i] = new Record();
+        }
+    }
+
+    /**
+     * Appends the record. Placeholders {@code {}} in format are replaced with the object argument,
+     * if present, followed by numeric arguments.
+     */
+    synchronized void record(int level, Object tag, String format, boolean hasArg, Object arg,
+                             int numberCount, double n0, double n1, double n2, double n3) {
+        Record r = mRecords[mHead];
+        r.mTimeNanos = System.nanoTime();
+        r.mLevel = level;
+        r.mTag = tag instanceof Class ? (Class<?>) tag : tag.getClass();
+        r.mFormat = format;
+        r.mHasArg = hasArg;
+        r.mArg = arg;
+        r.mNumberCount = numberCount;
+        r.mNumbers[0] = n0;
+        r.mNumbers[1] = n1;
+        r.mNumbers[2] = n2;
+        r.mNumbers[3] = n3;
+        mHead = (mHead + 1) % mRecords.length;
+        if (mSize < mRecords.length) {
+            ++mSize;
+        }
+    }
+
+    /**
+     * @return Number of records in the buffer.
+     */
+    public synchronized int size() {
+        return mSize;
+    }
+
+    /**
+     * @return Maximum number of records.
+     */
+    public int getCapacity() {
+        return mRecords.length;
+    }
+
+    /**
+     * Removes all records.
+     */
+    public synchronized void clear() {
+        for (Record r : mRecords) {
+            // release references to arguments
+            r.mArg = null;
+            r.mTag = null;
+            r.mFormat = null;
+        }
+        mHead = 0;
+        mSize = 0;
+    }
+
+    /**
+     * Formats all records, from the oldest to the newest, one record per line.
+     * @param out Builder to which records are appended.
+     */
+    public synchronized void dump(@NonNull StringBuilder out) {
+        int start = (mHead - mSize + mRecords.length) % mRecords.length;
+        for (int i = 0; i < mSize; ++i) {
+            Record r = mRecords[(start + i) % mRecords.length];
+            out.append(r.mTimeNanos / 1000000).append(' ')
+                    .append(Tracer.levelName(r.mLevel)).append(' ')
+                    .append(r.mTag.getSimpleName()).append(": ");
+            appendFormatted(out, r);
+            out.append('\n');
+        }
+    }
+
+    private static void appendFormatted(StringBuilder out, Record r) {
+        String format = r.mFormat;
+        int argIndex = r.mHasArg ? -1 : 0;
+        int pos = 0;
+        int placeholder;
+        while ((placeholder = format.indexOf("{}", pos)) >= 0 && argIndex < r.mNumberCount) {
+            out.append(format, pos, placeholder);
+            if (argIndex < 0) {
+                out.append(r.mArg);
+            } else {
+                appendNumber(out, r.mNumbers[argIndex]);
+            }
+            ++argIndex;
+            pos = placeholder + 2;
+        }
+        out.append(format, pos, format.length());
+    }
+
+    private static void appendNumber(StringBuilder out, double value) {
+        long integral = (long) value;
+        if (integral == value) {
+            out.append(integral);
+        } else {
+            out.append(value);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.microblink.wrapper.xamarin.trace;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Trace;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Begin/end sections around hot paths of the scan pipeline. Sections are written to the system
+ * trace with {@link Trace} on API level 18 and newer, so they are visible in systrace and Perfetto,
+ * and are also handed to the {@link SpanCollector}, if one is installed.
+ *
+ * Sections must be ended on the same thread on which they were begun, in reverse order, so each
+ * {@link #begin(String)} should be paired with {@link #end()} in a finally block.
+ */
+public final class TraceSection {
+
+    public static final String METADATA_AVAILABLE = "BlinkIDScanView.onMetadataAvailable";
+    public static final String DETECTOR_RESULT_AVAILABLE = "BlinkIDScanView.onDetectorResultAvailable";
+    public static final String DETECTION_OVERLAY_DRAW = "DetectionOverlayView.onDraw";
+    public static final String SCANNING_DONE = "ScanSession.onScanningDone";
+    public static final String CONVERT_TO_BITMAP = "Image.convertToBitmap";
+
+    private static final boolean SYSTEM_TRACE_AVAILABLE = isSystemTraceAvailable();
+
+    /** Maximum nesting depth of sections measured by span collector */
+    private static final int MAX_DEPTH = 16;
+
+    private static volatile SpanCollector sCollector;
+
+    /** Per thread stack of open sections, preallocated so that sections do not allocate */
+    private static final ThreadLocal<SectionStack> sStack = new ThreadLocal<SectionStack>() {
+        @Override
+        protected SectionStack initialValue() {
+            return new SectionStack();
+        }
+    };
+
+    private static final class SectionStack {
+        final String[] mNames = new String[MAX_DEPTH];
+        final long[] mStartNanos = new long[MAX_DEPTH];
+        /** Collector that was installed when the section began, {@code null} if it is not measured */
+        final SpanCollector[] mCollectors = new SpanCollector[MAX_DEPTH];
+        int mDepth = 0;
+    }
+
+    private TraceSection() {
+    }
+
+    /**
+     * Installs the collector which obtains durations of all sections begun after this call. Sections
+     * that are open while the collector changes are reported to the collector that was installed
+     * when they began.
+     * @param collector Span collector, or {@code null} to stop collecting.
+     */
+    public static void setSpanCollector(@Nullable SpanCollector collector) {
+        sCollector = collector;
+    }
+
+    @Nullable
+    public static SpanCollector getSpanCollector() {
+        return sCollector;
+    }
+
+    /**
+     * Begins the section.
+     * @param name Name of the section, at most 127 characters long.
+     */
+    public static void begin(@NonNull String name) {
+        if (SYSTEM_TRACE_AVAILABLE) {
+            beginSystemSection(name);
+        }
+        SpanCollector collector = sCollector;
+        SectionStack stack = sStack.get();
+        if (stack.mDepth < MAX_DEPTH) {
+            stack.mCollectors[stack.mDepth] = collector;
+            if (collector != null) {
+                stack.mNames[stack.mDepth] = name;
+                stack.mStartNanos[stack.mDepth] = System.nanoTime();
+            }
+        }
+        // depth is counted even past the limit and without collector, so that begin and end calls stay paired
+        ++stack.mDepth;
+    }
+
+    /**
+     * Ends the most recently begun section on this thread.
+     */
+    public static void end() {
+        SectionStack stack = sStack.get();
+        if (stack.mDepth > 0) {
+            --stack.mDepth;
+            if (stack.mDepth < MAX_DEPTH) {
+                SpanCollector collector = stack.mCollectors[stack.mDepth];
+                if (collector != null) {
+                    collector.record(stack.mNames[stack.mDepth], System.nanoTime() - stack.mStartNanos[stack.mDepth]);
+                    stack.mCollectors[stack.mDepth] = null;
+                    stack.mNames[stack.mDepth] = null;
+                }
+            }
+        }
+        if (SYSTEM_TRACE_AVAILABLE) {
+            endSystemSection();
+        }
+    }
+
+    private static boolean isSystemTraceAvailable() {
+        try {
+            return Build.VERSION.SDK_INT >= 18;
+        } catch (LinkageError e) {
+            // Android framework is not available when sections are collected in JVM benchmarks
+            return false;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    @TargetApi(18)
+    private static void beginSystemSection(String name) {
+        Trace.beginSection(name);
+    }
+
+    @TargetApi(18)
+    private static void endSystemSection() {
+        Trace.endSection();
+    }
+}
@@ -0,0 +1,139 @@
+package com.microblink.wrapper.xamarin.trace;
+
+import android.support.annotation.NonNull;
+
+import com.microblink.util.Log;
+
+/**
+ * Low-overhead tracing for per-frame code paths of the wrapper.
+ *
+ * Tracing is off by default. When a record is below the current level, trace methods return
+ * after a single field read, without formatting, boxing or allocating. Enabled records are
+ * written to a fixed-size in-memory {@link TraceBuffer} and formatted only when buffer is dumped.
+ * Trace methods take primitive arguments, so callers do not box numbers or build strings.
+ */
+public final class Tracer {
+
+    public static final int LEVEL_OFF = 0;
+    public static final int LEVEL_INFO = 1;
+    public static final int LEVEL_DEBUG = 2;
+    public static final int LEVEL_VERBOSE = 3;
+
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private static volatile int sLevel = LEVEL_OFF;
+    private static volatile TraceBuffer sBuffer = new TraceBuffer(DEFAULT_CAPACITY);
+
+    private Tracer() {
+    }
+
+    /**
+     * Defines the most detailed level that will be recorded.
+     * @param level One of LEVEL_* constants, {@link #LEVEL_OFF} disables tracing.
+     */
+    public static void setLevel(int level) {
+        sLevel = level;
+    }
+
+    public static int getLevel() {
+        return sLevel;
+    }
+
+    /**
+     * @return {@code true} if records of given level are recorded.
+     */
+    public static boolean isEnabled(int level) {
+        return level <= sLevel;
+    }
+
+    /**
+     * Replaces the trace buffer with an empty buffer of given capacity.
+     * @param capacity Maximum number of records kept in memory.
+     */
+    public static void setCapacity(int capacity) {
+        sBuffer = new TraceBuffer(capacity);
+    }
+
+    public static void trace(int level, @NonNull Object tag, @NonNull String message) {
+        if (level <= sLevel) {
+            sBuffer.record(level, tag, message, false, null, 0, 0, 0, 0, 0);
+        }
+    }
+
+    public static void trace(int level, @NonNull Object tag, @NonNull String format, Object arg) {
+        if (level <= sLevel) {
+            sBuffer.record(level, tag, format, true, arg, 0, 0, 0, 0, 0);
+        }
+    }
+
+    public static void trace(int level, @NonNull Object tag, @NonNull String format, double n0) {
+        if (level <= sLevel) {
+            sBuffer.record(level, tag, format, false, null, 1, n0, 0, 0, 0);
+        }
+    }
+
+    public static void trace(int level, @NonNull Object tag, @NonNull String format, double n0, double n1) {
+        if (level <= sLevel) {
+            sBuffer.record(level, tag, format, false, null, 2, n0, n1, 0, 0);
+        }
+    }
+
+    public static void trace(int level, @NonNull Object tag, @NonNull String format, double n0, double n1,
+                             double n2) {
+        if (level <= sLevel) {
+            sBuffer.record(level, tag, format, false, null, 3, n0, n1, n2, 0);
+        }
+    }
+
+    public static void trace(int level, @NonNull Object tag, @NonNull String format, double n0, double n1,
+                             double n2, double n3) {
+        if (level <= sLevel) {
+            sBuffer.record(level, tag, format, false, null, 4, n0, n1, n2, n3);
+        }
+    }
+
+    public static void trace(int level, @NonNull Object tag, @NonNull String format, Object arg, double n0,
+                             double n1, double n2) {
+        if (level <= sLevel) {
+            sBuffer.record(level, tag, format, true, arg, 3, n0, n1, n2, 0);
+        }
+    }
+
+    /**
+     * Formats all buffered records, from the oldest to the newest.
+     * @return Formatted records, one record per line.
+     */
+    @NonNull
+    public static String dump() {
+        StringBuilder sb = new StringBuilder();
+        sBuffer.dump(sb);
+        return sb.toString();
+    }
+
+    /**
+     * Writes all buffered records to the log.
+     */
+    public static void dumpToLog() {
+        Log.i(Tracer.class, "Trace buffer:\n{}", dump());
+    }
+
+    /**
+     * Removes all buffered records.
+     */
+    public static void clear() {
+        sBuffer.clear();
+    }
+
+    static String levelName(int level) {
+        switch (level) {
+            case LEVEL_INFO:
+                return "I";
+            case LEVEL_DEBUG:
+                return "D";
+            case LEVEL_VERBOSE:
+                return "V";
+            default:
+                return "?";
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.microblink.wrapper.xamarin;
+
+import android.content.Intent;
+import android.graphics.Bitmap;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.microblink.hardware.camera.CameraType;
+import com.microblink.image.Image;
+import com.microblink.recognizers.settings.RecognitionSettings;
+import com.microblink.recognizers.settings.RecognizerSettings;
+import com.microblink.wrapper.xamarin.scan.BlinkIDScanActivity;
+import com.microblink.wrapper.xamarin.scan.ScanSessionRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowApplication;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 23)
+public class BlinkIDTest {
+
+    @Test
+    public void resultsOfRestoredScanAreDeliveredToResultListener() {
+        // no scan was started in this process, as after process death
+        BlinkID blinkID = new BlinkID();
+        blinkID.setContext(RuntimeEnvironment.application);
+        blinkID.setLicenseKey("license");
+        ListResultListener listener = new ListResultListener();
+        blinkID.setResultListener(listener);
+
+        blinkID.onScanningDone(TestResults.recognitionResults(TestResults.ocrResult("restored")), (Image) null);
+
+        assertNotNull(listener.mResults);
+        assertEquals(1, listener.mResults.size());
+        assertEquals(BlinkID.OCR_RESULT_TYPE, listener.mResults.get(0).get(BlinkID.RESULT_TYPE_KEY));
+    }
+
+    @Test
+    public void restoredSessionUsesParserIdentifiersOfConfiguration() {
+        BlinkID blinkID = new BlinkID();
+        ListResultListener listener = new ListResultListener();
+        blinkID.setResultListener(listener);
+
+        ScanSession session = blinkID.restoreSession(RuntimeEnvironment.application, "license",
+                TestResults.configuration());
+        assertNotNull(session);
+        session.onScanningDone(TestResults.recognitionResults(TestResults.ocrResult("parsed")), (Image) null);
+
+        assertEquals("parsed", listener.mResults.get(0).get(TestResults.PARSER_ID));
+    }
+
+    @Test
+    public void scanUsesOverriddenRecognitionSettings() throws Exception {
+        final RecognitionSettings customSettings = new RecognitionSettings();
+        // recognizer settings require the native library, a placeholder makes the settings non-empty
+        customSettings.setRecognizerSettingsArray(new RecognizerSettings[1]);
+        BlinkID blinkID = new BlinkID() {
+            @Override
+            protected RecognitionSettings buildRecognitionSettings(BlinkIdScanSettings scanSettings, CameraType cameraType) {
+                return customSettings;
+            }
+        };
+        blinkID.setContext(RuntimeEnvironment.application);
+        blinkID.setLicenseKey("license");
+        blinkID.setResultListener(new ListResultListener());
+        BlinkIdScanSettings scanSettings = new BlinkIdScanSettings(RuntimeEnvironment.application);
+
+        blinkID.scan(scanSettings);
+
+        Intent intent = ShadowApplication.getInstance().getNextStartedActivity();
+        ScanSession session = ScanSessionRegistry.get(intent.getStringExtra(BlinkIDScanActivity.EXTRAS_SESSION_TOKEN));
+        assertNotNull(session);
+        assertSame(customSettings, session.getConfiguration().getRecognitionSettings());
+    }
+
+    private static final class ListResultListener extends BlinkIdResultListener {
+        List<Map<String, String>> mResults;
+
+        @Override
+        public void onResultsAvailable(@Nullable List<Map<String, String>> results) {
+            mResults = results;
+        }
+
+        @Override
+        public void onDocumentImageAvailable(@NonNull Bitmap image) {
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.microblink.wrapper.xamarin;
+
+import android.graphics.Bitmap;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.microblink.image.Image;
+import com.microblink.recognizers.BaseRecognitionResult;
+import com.microblink.recognizers.blinkid.mrtd.MRTDRecognitionResult;
+import com.microblink.wrapper.xamarin.result.RecognitionResultConverter;
+import com.microblink.wrapper.xamarin.result.ResultDeduplicator;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Stress test of concurrent result delivery: many sessions with distinct listeners deliver
+ * results from many threads at once, sharing a result deduplicator as applications do. Every
+ * other result is an MRTD result with dates, so date formatting of the session converter is
+ * used concurrently.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 23)
+public class ScanSessionConcurrencyTest {
+
+    private static final int SESSION_COUNT = 16;
+    private static final int THREAD_COUNT = 8;
+    private static final int SCANS_PER_THREAD = 500;
+
+    @Test
+    public void resultsAreNeverMisrouted() throws Exception {
+        ResultDeduplicator deduplicator = new ResultDeduplicator(ResultDeduplicator.Mode.MARK);
+        final ScanSession[] sessions = new ScanSession[SESSION_COUNT];
+        final RecordingListener[] listeners = new RecordingListener[SESSION_COUNT];
+        for (int i = 0; i < SESSION_COUNT; ++i) {
+            listeners[i] = new RecordingListener(sessionPrefix(i));
+            sessions[i] = new ScanSession(RuntimeEnvironment.application, "license", TestResults.configuration(),
+                    listeners[i]);
+            sessions[i].setResultDeduplicator(deduplicator);
+        }
+
+        final CountDownLatch startGate = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        List<Future<Void>> futures = new ArrayList<>();
+        for (int t = 0; t < THREAD_COUNT; ++t) {
+            final int thread = t;
+            futures.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    startGate.await();
+                    for (int scan = 0; scan < SCANS_PER_THREAD; ++scan) {
+                        // every thread delivers to every session, so sessions are always used concurrently
+                        int session = (thread + scan) % SESSION_COUNT;
+                        String value = sessionPrefix(session) + "thread-" + thread + "-scan-" + scan;
+                        BaseRecognitionResult result;
+                        if (scan % 2 == 0) {
+                            result = TestResults.ocrResult(value);
+                        } else {
+                            // expected date of birth is part of the document number
+                            int day = 1 + scan % 28;
+                            int month = 1 + thread % 12;
+                            int year = 1950 + scan % 50;
+                            result = TestResults.mrtdResult(
+                                    value + "-" + String.format("%02d/%02d/%04d", day, month, year), day, month, year);
+                        }
+                        sessions[session].onScanningDone(TestResults.recognitionResults(result), (Image) null, null);
+                    }
+                    return null;
+                }
+            }));
+        }
+        startGate.countDown();
+        for (Future<Void> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        int delivered = 0;
+        for (RecordingListener listener : listeners) {
+            assertTrue(listener.mMisrouted.toString(), listener.mMisrouted.isEmpty());
+            assertEquals(listener.mStreamedCount, listener.mDeliveredCount);
+            delivered += listener.mDeliveredCount;
+        }
+        assertEquals(THREAD_COUNT * SCANS_PER_THREAD, delivered);
+    }
+
+    private static String sessionPrefix(int session) {
+        return "session-" + session + "-";
+    }
+
+    /**
+     * Records values that do not belong to its session.
+     */
+    private static final class RecordingListener extends BlinkIdResultListener {
+        final String mPrefix;
+        final List<String> mMisrouted = new ArrayList<>();
+        int mStreamedCount;
+        int mDeliveredCount;
+
+        RecordingListener(String prefix) {
+            mPrefix = prefix;
+        }
+
+        @Override
+        public synchronized boolean onRecognitionResultsAvailable(@NonNull BaseRecognitionResult[] results,
+                                                                  @NonNull RecognitionResultConverter converter) {
+            for (BaseRecognitionResult result : results) {
+                String value = result instanceof MRTDRecognitionResult
+                        ? ((MRTDRecognitionResult) result).getDocumentNumber()
+                        : result.getStringElement("defaultParserGroup." + TestResults.PARSER_ID);
+                if (value == null || !value.startsWith(mPrefix)) {
+                    mMisrouted.add("streamed " + value);
+                }
+            }
+            ++mStreamedCount;
+            return false;
+        }
+
+        @Override
+        public synchronized void onResultsAvailable(@Nullable List<Map<String, String>> results) {
+            if (results == null || results.size() != 1) {
+                mMisrouted.add("results " + results);
+                return;
+            }
+            Map<String, String> result = results.get(0);
+            String value = result.get(BlinkID.DOCUMENT_NUMBER_KEY);
+            if (value != null) {
+                String dateOfBirth = value.substring(value.lastIndexOf('-') + 1);
+                if (!dateOfBirth.equals(result.get(BlinkID.DATE_OF_BIRTH_KEY))) {
+                    mMisrouted.add("date of birth " + result.get(BlinkID.DATE_OF_BIRTH_KEY) + " of " + value);
+                }
+            } else {
+                value = result.get(TestResults.PARSER_ID);
+            }
+            if (value == null || !value.startsWith(mPrefix)) {
+                mMisrouted.add("delivered " + value);
+            }
+            ++mDeliveredCount;
+        }
+
+        @Override
+        public void onDocumentImageAvailable(@NonNull Bitmap image) {
+        }
+    }
+}
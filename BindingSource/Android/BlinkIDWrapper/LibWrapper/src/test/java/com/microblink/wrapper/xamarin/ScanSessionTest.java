@@ -0,0 +1,244 @@
+package com.microblink.wrapper.xamarin;
+
+import android.graphics.Bitmap;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.microblink.hardware.camera.CameraType;
+import com.microblink.image.Image;
+import com.microblink.recognizers.BaseRecognitionResult;
+import com.microblink.recognizers.settings.RecognitionSettings;
+import com.microblink.wrapper.xamarin.result.RecognitionResultConverter;
+import com.microblink.wrapper.xamarin.result.ResultDeduplicator;
+import com.microblink.wrapper.xamarin.result.ResultValidators;
+import com.microblink.wrapper.xamarin.scan.ScanConfiguration;
+import com.microblink.wrapper.xamarin.scan.ScanStats;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 23)
+public class ScanSessionTest {
+
+    private static final long LISTENER_MS = 50;
+
+    @Test
+    public void resultListenerTimeIsNotConversionTime() {
+        SlowStreamingListener listener = new SlowStreamingListener();
+        ScanSession session = new ScanSession(RuntimeEnvironment.application, "license", TestResults.configuration(),
+                listener);
+        ScanStats stats = new ScanStats();
+
+        session.onScanningDone(TestResults.recognitionResults(TestResults.ocrResult("value")), (Image) null, stats);
+
+        assertEquals(1, listener.mDeliveredCount);
+        assertEquals(1, stats.getScanCount());
+        assertTrue(stats.toString(), stats.getResultListenerTimeMs() >= LISTENER_MS);
+        assertTrue(stats.toString(), stats.getConversionTimeMs() < LISTENER_MS);
+    }
+
+    @Test
+    public void twoSidedResultsAreStreamedBySideAndMergedWithBackSideType() {
+        SideRecordingListener listener = new SideRecordingListener();
+        ScanSession session = new ScanSession(RuntimeEnvironment.application, "license", TestResults.configuration(),
+                listener);
+        BaseRecognitionResult front = TestResults.ocrResult("front");
+        BaseRecognitionResult back = TestResults.ocrResult("back");
+
+        session.onScanningDone(TestResults.recognitionResults(front), null, TestResults.recognitionResults(back), null,
+                null);
+
+        assertEquals(1, listener.mFrontSideResults.length);
+        assertEquals(1, listener.mBackSideResults.length);
+        assertEquals("front", listener.mFrontSideResults[0].getStringElement("defaultParserGroup." + TestResults.PARSER_ID));
+        assertEquals("back", listener.mBackSideResults[0].getStringElement("defaultParserGroup." + TestResults.PARSER_ID));
+
+        assertNotNull(listener.mResults);
+        assertEquals(1, listener.mResults.size());
+        Map<String, String> merged = listener.mResults.get(0);
+        assertEquals("front", merged.get(TestResults.PARSER_ID));
+        String backType = new RecognitionResultConverter(new String[] {TestResults.PARSER_ID}).toMap(back).get(BlinkID.RESULT_TYPE_KEY);
+        assertNotNull(backType);
+        assertEquals(backType, merged.get(BlinkID.BACK_SIDE_RESULT_TYPE_KEY));
+    }
+
+    @Test
+    public void twoSidedResultsAreStreamedTogetherByDefault() {
+        StreamingListener listener = new StreamingListener();
+        ScanSession session = new ScanSession(RuntimeEnvironment.application, "license", TestResults.configuration(),
+                listener);
+
+        session.onScanningDone(TestResults.recognitionResults(TestResults.ocrResult("front")), null,
+                TestResults.recognitionResults(TestResults.ocrResult("back")), null, null);
+
+        assertEquals(2, listener.mStreamedResults.length);
+        assertEquals("front", listener.mStreamedResults[0].getStringElement("defaultParserGroup." + TestResults.PARSER_ID));
+        assertEquals("back", listener.mStreamedResults[1].getStringElement("defaultParserGroup." + TestResults.PARSER_ID));
+    }
+
+    @Test
+    public void repeatedResultsAreMarkedWhenStreamedInMarkMode() {
+        MarkRecordingListener listener = new MarkRecordingListener();
+        ScanSession session = new ScanSession(RuntimeEnvironment.application, "license", TestResults.configuration(),
+                listener);
+        session.setResultDeduplicator(new ResultDeduplicator(ResultDeduplicator.Mode.MARK));
+
+        session.onScanningDone(TestResults.recognitionResults(TestResults.mrtdResult("AB123", 1, 2, 1980)), (Image) null,
+                null);
+        assertNull(listener.mStreamedMap.get(BlinkID.REPEATED_SCAN_KEY));
+        assertNull(listener.mResults.get(0).get(BlinkID.REPEATED_SCAN_KEY));
+
+        session.onScanningDone(TestResults.recognitionResults(TestResults.mrtdResult("AB123", 1, 2, 1980)), (Image) null,
+                null);
+        assertEquals(Boolean.TRUE.toString(), listener.mStreamedMap.get(BlinkID.REPEATED_SCAN_KEY));
+        assertEquals(Boolean.TRUE.toString(), listener.mResults.get(0).get(BlinkID.REPEATED_SCAN_KEY));
+    }
+
+    @Test
+    public void restoredSessionValidatesResults() {
+        RejectionRecordingListener listener = new RejectionRecordingListener();
+        ScanConfiguration configuration = new ScanConfiguration(new RecognitionSettings(), CameraType.CAMERA_DEFAULT,
+                new String[0], null, null, null, ResultValidators.iban(TestResults.PARSER_ID));
+        ScanSession session = new ScanSession(RuntimeEnvironment.application, "license", configuration, listener);
+
+        assertFalse(session.validateResults(TestResults.recognitionResults(
+                TestResults.ocrResult("GB82WEST12345698765433"))));
+        assertEquals(1, listener.mRejectedCount);
+        assertTrue(session.validateResults(TestResults.recognitionResults(
+                TestResults.ocrResult("GB82WEST12345698765432"))));
+        assertEquals(1, listener.mRejectedCount);
+    }
+
+    /**
+     * Counts rejected scans.
+     */
+    private static final class RejectionRecordingListener extends BlinkIdResultListener {
+        int mRejectedCount;
+
+        @Override
+        public void onResultsRejected() {
+            ++mRejectedCount;
+        }
+
+        @Override
+        public void onResultsAvailable(@Nullable List<Map<String, String>> results) {
+        }
+
+        @Override
+        public void onDocumentImageAvailable(@NonNull Bitmap image) {
+        }
+    }
+
+    /**
+     * Records the streamed result converted with the given converter and the result maps.
+     */
+    private static final class MarkRecordingListener extends BlinkIdResultListener {
+        Map<String, String> mStreamedMap;
+        List<Map<String, String>> mResults;
+
+        @Override
+        public boolean onRecognitionResultsAvailable(@NonNull BaseRecognitionResult[] results,
+                                                     @NonNull RecognitionResultConverter converter) {
+            mStreamedMap = converter.toMap(results[0]);
+            return false;
+        }
+
+        @Override
+        public void onResultsAvailable(@Nullable List<Map<String, String>> results) {
+            mResults = results;
+        }
+
+        @Override
+        public void onDocumentImageAvailable(@NonNull Bitmap image) {
+        }
+    }
+
+    /**
+     * Records results of both sides and the merged result map.
+     */
+    private static final class SideRecordingListener extends BlinkIdResultListener {
+        BaseRecognitionResult[] mFrontSideResults;
+        BaseRecognitionResult[] mBackSideResults;
+        List<Map<String, String>> mResults;
+
+        @Override
+        public boolean onTwoSidedRecognitionResultsAvailable(@NonNull BaseRecognitionResult[] frontSideResults,
+                                                             @NonNull BaseRecognitionResult[] backSideResults,
+                                                             @NonNull RecognitionResultConverter converter) {
+            mFrontSideResults = frontSideResults;
+            mBackSideResults = backSideResults;
+            return false;
+        }
+
+        @Override
+        public void onResultsAvailable(@Nullable List<Map<String, String>> results) {
+            mResults = results;
+        }
+
+        @Override
+        public void onDocumentImageAvailable(@NonNull Bitmap image) {
+        }
+    }
+
+    /**
+     * Consumes results in the single-sided streaming callback.
+     */
+    private static final class StreamingListener extends BlinkIdResultListener {
+        BaseRecognitionResult[] mStreamedResults;
+
+        @Override
+        public boolean onRecognitionResultsAvailable(@NonNull BaseRecognitionResult[] results,
+                                                     @NonNull RecognitionResultConverter converter) {
+            mStreamedResults = results;
+            return true;
+        }
+
+        @Override
+        public void onResultsAvailable(@Nullable List<Map<String, String>> results) {
+            throw new AssertionError("Consumed results must not be delivered as maps");
+        }
+
+        @Override
+        public void onDocumentImageAvailable(@NonNull Bitmap image) {
+        }
+    }
+
+    /**
+     * Spends time in the streaming callback, as an application that converts results there.
+     */
+    private static final class SlowStreamingListener extends BlinkIdResultListener {
+        int mDeliveredCount;
+
+        @Override
+        public boolean onRecognitionResultsAvailable(@NonNull BaseRecognitionResult[] results,
+                                                     @NonNull RecognitionResultConverter converter) {
+            long end = System.nanoTime() + LISTENER_MS * 1000000L;
+            while (System.nanoTime() < end) {
+                converter.toMap(results[0]);
+            }
+            return false;
+        }
+
+        @Override
+        public void onResultsAvailable(@Nullable List<Map<String, String>> results) {
+            ++mDeliveredCount;
+        }
+
+        @Override
+        public void onDocumentImageAvailable(@NonNull Bitmap image) {
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.microblink.wrapper.xamarin;
+
+import android.os.Bundle;
+import android.os.Parcel;
+
+import com.microblink.hardware.camera.CameraType;
+import com.microblink.recognizers.BaseRecognitionResult;
+import com.microblink.recognizers.IResultHolder;
+import com.microblink.recognizers.RecognitionResults;
+import com.microblink.recognizers.blinkid.mrtd.MRTDRecognitionResult;
+import com.microblink.recognizers.blinkocr.BlinkOCRRecognitionResult;
+import com.microblink.recognizers.settings.RecognitionSettings;
+import com.microblink.recognizers.settings.RecognizerSettings;
+import com.microblink.results.date.DateResult;
+import com.microblink.view.recognition.RecognitionType;
+import com.microblink.wrapper.xamarin.scan.ScanConfiguration;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * Recognition results and settings that can be created on the JVM, without the native library.
+ */
+public final class TestResults {
+
+    /** Identifier of the OCR parser whose value is set in results created by {@link #ocrResult(String)} */
+    public static final String PARSER_ID = "value";
+
+    /** Prefix under which parsed results of the default parser group are stored */
+    private static final String DEFAULT_PARSER_GROUP_PREFIX = "defaultParserGroup.";
+
+    private TestResults() {
+    }
+
+    /**
+     * @return OCR result whose parser {@link #PARSER_ID} parsed given value.
+     */
+    public static BaseRecognitionResult ocrResult(String value) {
+        Bundle bundle = new Bundle();
+        bundle.putString(DEFAULT_PARSER_GROUP_PREFIX + PARSER_ID, value);
+        return new BlinkOCRRecognitionResult(bundle, false, false);
+    }
+
+    /**
+     * @return MRTD result with given document number, born on given date and expiring ten years
+     *         later. Native constructor of MRTD result is not called, its fields are read from
+     *         a bundle.
+     */
+    public static MRTDRecognitionResult mrtdResult(String documentNumber, int day, int month, int year) {
+        return withFields(MRTDRecognitionResult.class, mrtdFields(documentNumber, day, month, year));
+    }
+
+    /**
+     * @return Fields of an MRTD result, see {@link #mrtdResult(String, int, int, int)}.
+     */
+    public static Bundle mrtdFields(String documentNumber, int day, int month, int year) {
+        Bundle bundle = new Bundle();
+        bundle.putString("DocumentNumber", documentNumber);
+        bundle.putParcelable("DateOfBirth", DateResult.createFromDMY(day, month, year,
+                String.format("%02d%02d%02d", year % 100, month, day)));
+        bundle.putParcelable("DateOfExpiry", DateResult.createFromDMY(day, month, year + 10,
+                String.format("%02d%02d%02d", (year + 10) % 100, month, day)));
+        return bundle;
+    }
+
+    /**
+     * @return Result of given type, allocated without calling its constructor, whose getters read
+     *         given fields.
+     */
+    public static <T extends BaseRecognitionResult> T withFields(Class<T> resultClass, Bundle fields) {
+        T result = resultClass.cast(allocate(resultClass));
+        IResultHolder holder = new BlinkOCRRecognitionResult(fields, false, false).getResultHolder();
+        try {
+            for (Field field : BaseRecognitionResult.class.getDeclaredFields()) {
+                if (field.getType() == IResultHolder.class) {
+                    field.setAccessible(true);
+                    field.set(result, holder);
+                }
+            }
+        } catch (IllegalAccessException e) {
+            throw new AssertionError(e);
+        }
+        return result;
+    }
+
+    public static RecognitionResults recognitionResults(BaseRecognitionResult... results) {
+        return new RecognitionResults(results, RecognitionType.SUCCESSFUL);
+    }
+
+    /**
+     * @return Recognizer settings without native context. Constructor of recognizer settings
+     *         loads the native library, so the instance is allocated without calling it.
+     */
+    public static RecognizerSettings recognizerSettings() {
+        return (RecognizerSettings) allocate(PlaceholderRecognizerSettings.class);
+    }
+
+    /**
+     * @return Recognition settings with one placeholder recognizer, see {@link #recognizerSettings()}.
+     */
+    public static RecognitionSettings recognitionSettings() {
+        RecognitionSettings settings = new RecognitionSettings();
+        settings.setRecognizerSettingsArray(new RecognizerSettings[] {recognizerSettings()});
+        return settings;
+    }
+
+    /**
+     * @return Configuration of a scan with parser {@link #PARSER_ID}.
+     */
+    public static ScanConfiguration configuration() {
+        return new ScanConfiguration(new RecognitionSettings(), CameraType.CAMERA_DEFAULT, new String[0], null, null,
+                new String[] {PARSER_ID});
+    }
+
+    /**
+     * Allocates instance of given class without calling any of its constructors.
+     */
+    private static Object allocate(Class<?> cls) {
+        try {
+            Field unsafeField = Class.forName("sun.misc.Unsafe").getDeclaredField("theUnsafe");
+            unsafeField.setAccessible(true);
+            Object unsafe = unsafeField.get(null);
+            Method allocateInstance = unsafe.getClass().getMethod("allocateInstance", Class.class);
+            return allocateInstance.invoke(unsafe, cls);
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static final class PlaceholderRecognizerSettings extends RecognizerSettings {
+        @Override
+        public void writeToParcel(Parcel dest, int flags) {
+        }
+    }
+}
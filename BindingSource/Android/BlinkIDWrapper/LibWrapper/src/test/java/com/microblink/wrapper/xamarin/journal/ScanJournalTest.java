@@ -0,0 +1,153 @@
+package com.microblink.wrapper.xamarin.journal;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ScanJournalTest {
+
+    /** Offset of the format version in the file header */
+    private static final int VERSION_OFFSET = 4;
+    /** Size of length and checksum that precede record payload */
+    private static final int RECORD_HEADER_SIZE = 8;
+
+    @Rule
+    public TemporaryFolder mFolder = new TemporaryFolder();
+
+    @Test
+    public void recordsAreRecoveredAfterReopening() throws IOException {
+        File file = mFolder.newFile("journal");
+        ScanJournal journal = new ScanJournal(file);
+        journal.append(1, Collections.singletonList(result("DocumentNumber", "AB123")), Arrays.asList("image-1"));
+        journal.append(2, null, null);
+        journal.append(3, Collections.singletonList(result("Name", "Žana Ćosić 😀")), null);
+        int usedBytes = journal.getUsedBytes();
+        journal.close();
+
+        journal = new ScanJournal(file);
+        assertEquals(3, journal.getRecordCount());
+        assertEquals(usedBytes, journal.getUsedBytes());
+        List<ScanJournal.Record> records = replay(journal);
+        assertEquals(1, records.get(0).getTimestamp());
+        assertEquals("AB123", records.get(0).getResults().get(0).get("DocumentNumber"));
+        assertEquals(Arrays.asList("image-1"), records.get(0).getImageReferences());
+        assertNull(records.get(1).getResults());
+        assertTrue(records.get(1).getImageReferences().isEmpty());
+        assertEquals("Žana Ćosić 😀", records.get(2).getResults().get(0).get("Name"));
+        journal.close();
+    }
+
+    @Test
+    public void compactionKeepsOnlyFilteredRecords() throws IOException {
+        File file = mFolder.newFile("journal");
+        ScanJournal journal = new ScanJournal(file);
+        for (int i = 0; i < 10; ++i) {
+            journal.append(i, Collections.singletonList(result("Index", Integer.toString(i))), null);
+        }
+        int usedBytes = journal.getUsedBytes();
+
+        journal.compact(new ScanJournal.RecordFilter() {
+            @Override
+            public boolean shouldKeep(ScanJournal.Record record) {
+                return record.getTimestamp() % 2 == 0;
+            }
+        });
+
+        assertEquals(5, journal.getRecordCount());
+        assertTrue(journal.getUsedBytes() < usedBytes);
+        journal.append(10, Collections.singletonList(result("Index", "10")), null);
+        journal.close();
+
+        journal = new ScanJournal(file);
+        List<ScanJournal.Record> records = replay(journal);
+        assertEquals(6, records.size());
+        for (int i = 0; i < records.size(); ++i) {
+            assertEquals(2 * i, records.get(i).getTimestamp());
+            assertEquals(Integer.toString(2 * i), records.get(i).getResults().get(0).get("Index"));
+        }
+        journal.close();
+        assertFalse(new File(file.getPath() + ".compact").exists());
+    }
+
+    @Test
+    public void tornTailIsTruncated() throws IOException {
+        File file = mFolder.newFile("journal");
+        ScanJournal journal = new ScanJournal(file);
+        journal.append(1, Collections.singletonList(result("DocumentNumber", "AB123")), null);
+        int tornRecordPosition = journal.getUsedBytes();
+        journal.append(2, Collections.singletonList(result("DocumentNumber", "CD456")), null);
+        journal.close();
+        // payload of the last record was not completely written before the crash
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        raf.seek(tornRecordPosition + RECORD_HEADER_SIZE + 2);
+        raf.write(0xff);
+        raf.close();
+
+        journal = new ScanJournal(file);
+        assertEquals(1, journal.getRecordCount());
+        assertEquals(tornRecordPosition, journal.getUsedBytes());
+        // shorter record must not be followed by stale bytes of the torn one
+        journal.append(3, null, null);
+        journal.close();
+
+        journal = new ScanJournal(file);
+        List<ScanJournal.Record> records = replay(journal);
+        assertEquals(2, records.size());
+        assertEquals(1, records.get(0).getTimestamp());
+        assertEquals(3, records.get(1).getTimestamp());
+        journal.close();
+    }
+
+    @Test
+    public void journalOfOtherVersionIsRejected() throws IOException {
+        File file = mFolder.newFile("journal");
+        ScanJournal journal = new ScanJournal(file);
+        journal.append(1, Collections.singletonList(result("DocumentNumber", "AB123")), null);
+        journal.close();
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        raf.seek(VERSION_OFFSET);
+        raf.writeInt(2);
+        raf.close();
+
+        try {
+            new ScanJournal(file);
+            fail("Journal of unsupported version must not be opened");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage(), expected.getMessage().contains("version 2"));
+        }
+    }
+
+    private static Map<String, String> result(String key, String value) {
+        Map<String, String> result = new HashMap<>();
+        result.put(key, value);
+        return result;
+    }
+
+    private static List<ScanJournal.Record> replay(ScanJournal journal) throws IOException {
+        final List<ScanJournal.Record> records = new ArrayList<>();
+        journal.replay(new ScanJournal.RecordVisitor() {
+            @Override
+            public boolean onRecord(ScanJournal.Record record) {
+                records.add(record);
+                return true;
+            }
+        });
+        return records;
+    }
+}
@@ -0,0 +1,78 @@
+package com.microblink.wrapper.xamarin.recognizer;
+
+import com.microblink.recognizers.blinkbarcode.usdl.USDLScanResult;
+import com.microblink.recognizers.blinkid.austria.back.AustrianIDBackSideRecognizerSettings;
+import com.microblink.recognizers.blinkid.croatia.back.CroatianIDBackSideRecognitionResult;
+import com.microblink.recognizers.blinkid.croatia.back.CroatianIDBackSideRecognizerSettings;
+import com.microblink.recognizers.blinkid.croatia.front.CroatianIDFrontSideRecognitionResult;
+import com.microblink.recognizers.blinkid.croatia.front.CroatianIDFrontSideRecognizerSettings;
+import com.microblink.recognizers.blinkid.czechia.back.CzechIDBackSideRecognitionResult;
+import com.microblink.recognizers.blinkid.czechia.back.CzechIDBackSideRecognizerSettings;
+import com.microblink.recognizers.blinkid.germany.front.GermanIDFrontSideRecognizerSettings;
+import com.microblink.recognizers.blinkid.germany.mrz.GermanIDMRZSideRecognitionResult;
+import com.microblink.recognizers.blinkid.germany.mrz.GermanIDMRZSideRecognizerSettings;
+import com.microblink.recognizers.blinkid.malaysia.MyKadRecognizerSettings;
+import com.microblink.recognizers.blinkid.serbia.back.SerbianIDBackSideRecognizerSettings;
+import com.microblink.recognizers.blinkid.slovakia.back.SlovakIDBackSideRecognizerSettings;
+import com.microblink.recognizers.blinkid.slovenia.back.SlovenianIDBackSideRecognizerSettings;
+import com.microblink.recognizers.blinkid.mrtd.MRTDRecognitionResult;
+import com.microblink.recognizers.blinkid.mrtd.MRTDRecognizerSettings;
+import com.microblink.recognizers.blinkocr.BlinkOCRRecognitionResult;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RecognizerFamilyTest {
+
+    @Test
+    public void mrtdHasItsOwnFamily() {
+        assertEquals(RecognizerFamily.MRTD, RecognizerFamily.forClass(MRTDRecognitionResult.class));
+        assertEquals(RecognizerFamily.MRTD, RecognizerFamily.forClass(MRTDRecognizerSettings.class));
+    }
+
+    @Test
+    public void idCardResultExtendingMrtdResultIsNationalId() {
+        assertEquals(RecognizerFamily.NATIONAL_ID, RecognizerFamily.forClass(CzechIDBackSideRecognitionResult.class));
+        assertFalse(NationalIdRecognizers.isBackSide(MRTDRecognitionResult.class));
+    }
+
+    @Test
+    public void otherFamiliesAreResolvedFromPackage() {
+        assertEquals(RecognizerFamily.DRIVER_LICENSE, RecognizerFamily.forClass(USDLScanResult.class));
+        assertEquals(RecognizerFamily.OCR, RecognizerFamily.forClass(BlinkOCRRecognitionResult.class));
+        assertNull(RecognizerFamily.forClass(String.class));
+    }
+
+    @Test
+    public void sideIsResolvedPerRecognizer() {
+        Class<?>[] backSides = {
+                AustrianIDBackSideRecognizerSettings.class,
+                CroatianIDBackSideRecognizerSettings.class,
+                CroatianIDBackSideRecognitionResult.class,
+                CzechIDBackSideRecognizerSettings.class,
+                CzechIDBackSideRecognitionResult.class,
+                GermanIDMRZSideRecognizerSettings.class,
+                GermanIDMRZSideRecognitionResult.class,
+                SerbianIDBackSideRecognizerSettings.class,
+                SlovakIDBackSideRecognizerSettings.class,
+                SlovenianIDBackSideRecognizerSettings.class
+        };
+        for (Class<?> cls : backSides) {
+            assertTrue(cls.getName(), NationalIdRecognizers.isBackSide(cls));
+        }
+        Class<?>[] otherSides = {
+                CroatianIDFrontSideRecognizerSettings.class,
+                CroatianIDFrontSideRecognitionResult.class,
+                GermanIDFrontSideRecognizerSettings.class,
+                MyKadRecognizerSettings.class,
+                MRTDRecognizerSettings.class
+        };
+        for (Class<?> cls : otherSides) {
+            assertFalse(cls.getName(), NationalIdRecognizers.isBackSide(cls));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.microblink.wrapper.xamarin.result;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class CheckDigitsTest {
+
+    /** ICAO 9303 specimens, each row is MRZ text and whether its check digits are valid */
+    private static final Object[][] MRZ_CASES = {
+            // TD1
+            {"I<UTOD231458907<<<<<<<<<<<<<<<\n7408122F1204159UTO<<<<<<<<<<<6\nERIKSSON<<ANNA<MARIA<<<<<<<<<<", true},
+            {"I<UTOD231458908<<<<<<<<<<<<<<<\n7408122F1204159UTO<<<<<<<<<<<6\nERIKSSON<<ANNA<MARIA<<<<<<<<<<", false},
+            {"I<UTOD231458907<<<<<<<<<<<<<<<\n7408122F1204159UTO<<<<<<<<<<<7\nERIKSSON<<ANNA<MARIA<<<<<<<<<<", false},
+            // TD2
+            {"I<UTOERIKSSON<<ANNA<MARIA<<<<<<<<<<<\nD231458907UTO7408122F1204159<<<<<<<6", true},
+            {"I<UTOERIKSSON<<ANNA<MARIA<<<<<<<<<<<\nD231458907UTO7408123F1204159<<<<<<<6", false},
+            // TD3, with trailing line break as returned by the recognizer
+            {"P<UTOERIKSSON<<ANNA<MARIA<<<<<<<<<<<<<<<<<<<\nL898902C36UTO7408122F1204159ZE184226B<<<<<10\n", true},
+            {"P<UTOERIKSSON<<ANNA<MARIA<<<<<<<<<<<<<<<<<<<\nL898902C36UTO7408122F1204158ZE184226B<<<<<10", false},
+            {"P<UTOERIKSSON<<ANNA<MARIA<<<<<<<<<<<<<<<<<<<\nL898902C36UTO7408122F1204159ZE184226B<<<<<11", false},
+            {"P<UTOERIKSSON<<ANNA<MARIA<<<<<<<<<<<<<<<<<<<\nL898902C3#UTO7408122F1204159ZE184226B<<<<<10", false},
+            // visas and unknown formats are not checked
+            {"V<UTOERIKSSON<<ANNA<MARIA<<<<<<<<<<<<<<<<<<<\nL898902C36UTO7408122F1204159ZE184226B<<<<<11", true},
+            {"not an MRZ", true},
+    };
+
+    /** Each row is IBAN and whether it is valid */
+    private static final Object[][] IBAN_CASES = {
+            {"GB82WEST12345698765432", true},
+            {"GB82 WEST 1234 5698 7654 32", true},
+            {"DE89370400440532013000", true},
+            {"GB82WEST12345698765433", false},
+            {"GB28WEST12345698765432", false},
+            {"gb82WEST12345698765432", false},
+            {"1B82WEST12345698765432", false},
+            {"GB8AWEST12345698765432", false},
+            {"GB82WEST1234", false},
+            {"GB82WEST12345698765432-", false},
+    };
+
+    /** Each row is VIN and whether its check digit is valid */
+    private static final Object[][] VIN_CASES = {
+            {"1M8GDM9AXKP042788", true},
+            {"11111111111111111", true},
+            {"1M8GDM9A1KP042788", false},
+            {"1M8GDM9AXKP042789", false},
+            {"1M8GDM9AXKP04278", false},
+            {"1M8GDM9AXKI042788", false},
+            {"1m8GDM9AXKP042788", false},
+    };
+
+    @Test
+    public void mrzCheckDigits() {
+        for (Object[] row : MRZ_CASES) {
+            assertEquals((String) row[0], row[1], CheckDigits.isValidMrz((String) row[0]));
+        }
+    }
+
+    @Test
+    public void ibanChecksum() {
+        for (Object[] row : IBAN_CASES) {
+            assertEquals((String) row[0], row[1], CheckDigits.isValidIban((String) row[0]));
+        }
+    }
+
+    @Test
+    public void vinCheckDigit() {
+        for (Object[] row : VIN_CASES) {
+            assertEquals((String) row[0], row[1], CheckDigits.isValidVin((String) row[0]));
+        }
+    }
+}
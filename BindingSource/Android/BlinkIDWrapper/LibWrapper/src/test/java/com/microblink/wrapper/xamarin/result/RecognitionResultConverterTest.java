@@ -0,0 +1,130 @@
+package com.microblink.wrapper.xamarin.result;
+
+import android.os.Bundle;
+import android.util.JsonReader;
+import android.util.JsonToken;
+import android.util.JsonWriter;
+
+import com.microblink.recognizers.BaseRecognitionResult;
+import com.microblink.recognizers.blinkbarcode.pdf417.Pdf417ScanResult;
+import com.microblink.recognizers.blinkbarcode.usdl.USDLScanResult;
+import com.microblink.recognizers.blinkid.germany.mrz.GermanIDMRZSideRecognitionResult;
+import com.microblink.recognizers.blinkid.mrtd.MRTDRecognitionResult;
+import com.microblink.recognizers.detector.DetectorRecognitionResult;
+import com.microblink.results.date.DateResult;
+import com.microblink.wrapper.xamarin.BlinkID;
+import com.microblink.wrapper.xamarin.TestResults;
+import com.microblink.wrapper.xamarin.recognizer.RecognizerFamily;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 23)
+public class RecognitionResultConverterTest {
+
+    private final RecognitionResultConverter mConverter = new RecognitionResultConverter(
+            new String[] {TestResults.PARSER_ID});
+
+    @Test
+    public void jsonContainsSameFieldsAsMapForEveryFamily() throws IOException {
+        BaseRecognitionResult[] results = {
+                germanIdMrzSide(180),
+                TestResults.mrtdResult("AB123", 1, 2, 1980),
+                usdlResult(),
+                pdf417Result(),
+                TestResults.ocrResult("value"),
+                TestResults.withFields(DetectorRecognitionResult.class, new Bundle()),
+        };
+        Set<RecognizerFamily> families = EnumSet.noneOf(RecognizerFamily.class);
+        for (BaseRecognitionResult result : results) {
+            families.add(RecognizerFamily.forClass(result.getClass()));
+
+            Map<String, String> map = mConverter.toMap(result);
+            Map<String, String> json = readJson(result);
+            assertEquals(result.getClass().getSimpleName(), map, json);
+            assertTrue(result.getClass().getSimpleName(), map.size() > 0);
+        }
+        assertEquals(EnumSet.allOf(RecognizerFamily.class), families);
+    }
+
+    @Test
+    public void heightIsWrittenInCentimetersOnlyIfRead() {
+        assertEquals("180 cm", mConverter.toMap(germanIdMrzSide(180)).get(BlinkID.HEIGHT_KEY));
+        assertNull(mConverter.toMap(germanIdMrzSide(0)).get(BlinkID.HEIGHT_KEY));
+    }
+
+    @Test
+    public void mrtdDatesAreWrittenOnlyIfParsed() throws IOException {
+        Bundle fields = new Bundle();
+        fields.putString(BlinkID.DOCUMENT_NUMBER_KEY, "AB123");
+        // dates that were read, but could not be parsed
+        fields.putParcelable("DateOfBirth", DateResult.createFromDMY("991399"));
+        fields.putParcelable("DateOfExpiry", DateResult.createFromDMY("not a date"));
+        MRTDRecognitionResult result = TestResults.withFields(MRTDRecognitionResult.class, fields);
+
+        Map<String, String> map = mConverter.toMap(result);
+        assertEquals("AB123", map.get(BlinkID.DOCUMENT_NUMBER_KEY));
+        assertFalse(map.containsKey(BlinkID.DATE_OF_BIRTH_KEY));
+        assertFalse(map.containsKey(BlinkID.DATE_OF_EXPIRY_KEY));
+        assertEquals(map, readJson(result));
+    }
+
+    private Map<String, String> readJson(BaseRecognitionResult result) throws IOException {
+        StringWriter out = new StringWriter();
+        mConverter.writeJson(result, new JsonWriter(out));
+        JsonReader reader = new JsonReader(new StringReader(out.toString()));
+        Map<String, String> fields = new HashMap<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                fields.put(name, null);
+            } else {
+                fields.put(name, reader.nextString());
+            }
+        }
+        reader.endObject();
+        return fields;
+    }
+
+    private static GermanIDMRZSideRecognitionResult germanIdMrzSide(int height) {
+        Bundle fields = TestResults.mrtdFields("T22000129", 12, 8, 1964);
+        fields.putString("DeIDAddress.Address", "HEIDESTRASSE 17, KOLN");
+        fields.putString("DeIDEyeColour.EyeColour", "GRUEN");
+        if (height != 0) {
+            // parser reads the height together with its unit
+            fields.putString("DeIDHeight.Height", height + "cm");
+        }
+        return TestResults.withFields(GermanIDMRZSideRecognitionResult.class, fields);
+    }
+
+    private static USDLScanResult usdlResult() {
+        Bundle fields = new Bundle();
+        fields.putString(BlinkID.DOCUMENT_NUMBER_KEY, "D1234567");
+        fields.putString("CustomerFirstName", "JANE");
+        return TestResults.withFields(USDLScanResult.class, fields);
+    }
+
+    private static Pdf417ScanResult pdf417Result() {
+        Bundle fields = new Bundle();
+        fields.putString("BarcodeData", "barcode contents");
+        return TestResults.withFields(Pdf417ScanResult.class, fields);
+    }
+}
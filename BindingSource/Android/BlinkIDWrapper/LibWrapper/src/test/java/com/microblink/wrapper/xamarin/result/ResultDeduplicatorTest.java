@@ -0,0 +1,118 @@
+package com.microblink.wrapper.xamarin.result;
+
+import com.microblink.recognizers.BaseRecognitionResult;
+import com.microblink.wrapper.xamarin.BlinkID;
+import com.microblink.wrapper.xamarin.TestResults;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.text.SimpleDateFormat;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 23)
+public class ResultDeduplicatorTest {
+
+    private static final long WINDOW_MS = 1000;
+    private static final long NOW_MS = 100000;
+
+    private final RecognitionResultConverter mConverter = new RecognitionResultConverter(
+            new String[] {TestResults.PARSER_ID});
+
+    @Test
+    public void sameDocumentWithinWindowIsRepeatedInSkipMode() {
+        ResultDeduplicator deduplicator = new ResultDeduplicator(ResultDeduplicator.Mode.SKIP, WINDOW_MS, 4);
+
+        assertFalse(deduplicator.checkAndRecord(results(TestResults.mrtdResult("AB123", 1, 2, 1980)), mConverter, NOW_MS));
+        assertTrue(deduplicator.checkAndRecord(results(TestResults.mrtdResult("AB123", 1, 2, 1980)), mConverter,
+                NOW_MS + WINDOW_MS));
+    }
+
+    @Test
+    public void differentDocumentIsNotRepeated() {
+        ResultDeduplicator deduplicator = new ResultDeduplicator(ResultDeduplicator.Mode.SKIP, WINDOW_MS, 4);
+
+        assertFalse(deduplicator.checkAndRecord(results(TestResults.mrtdResult("AB123", 1, 2, 1980)), mConverter, NOW_MS));
+        assertFalse(deduplicator.checkAndRecord(results(TestResults.mrtdResult("AB124", 1, 2, 1980)), mConverter, NOW_MS));
+        assertFalse(deduplicator.checkAndRecord(results(TestResults.mrtdResult("AB123", 2, 2, 1980)), mConverter, NOW_MS));
+    }
+
+    @Test
+    public void documentIsNotRepeatedAfterWindow() {
+        ResultDeduplicator deduplicator = new ResultDeduplicator(ResultDeduplicator.Mode.SKIP, WINDOW_MS, 4);
+
+        assertFalse(deduplicator.checkAndRecord(results(TestResults.mrtdResult("AB123", 1, 2, 1980)), mConverter, NOW_MS));
+        assertFalse(deduplicator.checkAndRecord(results(TestResults.mrtdResult("AB123", 1, 2, 1980)), mConverter,
+                NOW_MS + WINDOW_MS + 1));
+    }
+
+    @Test
+    public void repeatRefreshesWindow() {
+        ResultDeduplicator deduplicator = new ResultDeduplicator(ResultDeduplicator.Mode.SKIP, WINDOW_MS, 4);
+        BaseRecognitionResult[] results = results(TestResults.mrtdResult("AB123", 1, 2, 1980));
+
+        assertFalse(deduplicator.checkAndRecord(results, mConverter, NOW_MS));
+        assertTrue(deduplicator.checkAndRecord(results, mConverter, NOW_MS + WINDOW_MS));
+        assertTrue(deduplicator.checkAndRecord(results, mConverter, NOW_MS + 2 * WINDOW_MS));
+    }
+
+    @Test
+    public void leastRecentlySeenDocumentIsEvictedWhenFull() {
+        ResultDeduplicator deduplicator = new ResultDeduplicator(ResultDeduplicator.Mode.SKIP, WINDOW_MS, 2);
+
+        assertFalse(deduplicator.checkAndRecord(results(TestResults.mrtdResult("A1", 1, 2, 1980)), mConverter, NOW_MS));
+        assertFalse(deduplicator.checkAndRecord(results(TestResults.mrtdResult("A2", 1, 2, 1980)), mConverter, NOW_MS));
+        assertFalse(deduplicator.checkAndRecord(results(TestResults.mrtdResult("A3", 1, 2, 1980)), mConverter, NOW_MS));
+
+        assertTrue(deduplicator.checkAndRecord(results(TestResults.mrtdResult("A3", 1, 2, 1980)), mConverter, NOW_MS));
+        assertFalse(deduplicator.checkAndRecord(results(TestResults.mrtdResult("A1", 1, 2, 1980)), mConverter, NOW_MS));
+    }
+
+    @Test
+    public void resultsWithoutIdentityAreNeverRepeated() {
+        ResultDeduplicator deduplicator = new ResultDeduplicator(ResultDeduplicator.Mode.SKIP, WINDOW_MS, 4);
+
+        assertFalse(deduplicator.checkAndRecord(results(TestResults.ocrResult("text")), mConverter, NOW_MS));
+        assertFalse(deduplicator.checkAndRecord(results(TestResults.ocrResult("text")), mConverter, NOW_MS));
+    }
+
+    @Test
+    public void identityDoesNotDependOnDateFormat() {
+        ResultDeduplicator deduplicator = new ResultDeduplicator(ResultDeduplicator.Mode.SKIP, WINDOW_MS, 4);
+        RecognitionResultConverter otherConverter = new RecognitionResultConverter(null);
+        otherConverter.setDateFormat(new SimpleDateFormat("yyyy"));
+
+        assertFalse(deduplicator.checkAndRecord(results(TestResults.mrtdResult("AB123", 1, 2, 1980)), mConverter, NOW_MS));
+        assertTrue(deduplicator.checkAndRecord(results(TestResults.mrtdResult("AB123", 1, 2, 1980)), otherConverter,
+                NOW_MS));
+    }
+
+    @Test
+    public void repeatIsMarkedInMarkMode() {
+        ResultDeduplicator deduplicator = new ResultDeduplicator(ResultDeduplicator.Mode.MARK, WINDOW_MS, 4);
+        BaseRecognitionResult result = TestResults.mrtdResult("AB123", 1, 2, 1980);
+
+        assertFalse(deduplicator.checkAndRecord(results(result), mConverter, NOW_MS));
+        assertTrue(deduplicator.checkAndRecord(results(result), mConverter, NOW_MS));
+        assertEquals(ResultDeduplicator.Mode.MARK, deduplicator.getMode());
+
+        Map<String, String> marked = mConverter.markedAsRepeated().toMap(result);
+        Map<String, String> unmarked = mConverter.toMap(result);
+        assertEquals(Boolean.TRUE.toString(), marked.get(BlinkID.REPEATED_SCAN_KEY));
+        assertNull(unmarked.get(BlinkID.REPEATED_SCAN_KEY));
+        marked.remove(BlinkID.REPEATED_SCAN_KEY);
+        assertEquals(unmarked, marked);
+    }
+
+    private static BaseRecognitionResult[] results(BaseRecognitionResult... results) {
+        return results;
+    }
+}
@@ -0,0 +1,102 @@
+package com.microblink.wrapper.xamarin.result;
+
+import android.os.Bundle;
+
+import com.microblink.recognizers.BaseRecognitionResult;
+import com.microblink.recognizers.blinkid.mrtd.MRTDRecognitionResult;
+import com.microblink.recognizers.blinkocr.BlinkOCRRecognitionResult;
+import com.microblink.wrapper.xamarin.TestResults;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 23)
+public class ResultValidatorsTest {
+
+    private static final String VALID_MRZ =
+            "P<UTOERIKSSON<<ANNA<MARIA<<<<<<<<<<<<<<<<<<<\nL898902C36UTO7408122F1204159ZE184226B<<<<<10\n";
+    private static final String INVALID_MRZ =
+            "P<UTOERIKSSON<<ANNA<MARIA<<<<<<<<<<<<<<<<<<<\nL898902C36UTO7408122F1204158ZE184226B<<<<<10\n";
+
+    private static final String IBAN_PARSER = "iban";
+    private static final String VIN_PARSER = "vin";
+
+    private final ResultValidator mValidator = ResultValidators.allOf(ResultValidators.mrz(),
+            ResultValidators.iban(IBAN_PARSER), ResultValidators.vin(VIN_PARSER));
+
+    @Test
+    public void validatorsCheckTheirResults() {
+        // each row is a result and whether the combined validator accepts it
+        Object[][] cases = {
+                {mrtdResult(VALID_MRZ), true},
+                {mrtdResult(INVALID_MRZ), false},
+                {mrtdResult(""), true},
+                {ocrResult(IBAN_PARSER, "GB82WEST12345698765432"), true},
+                {ocrResult(IBAN_PARSER, "GB82WEST12345698765433"), false},
+                {ocrResult(VIN_PARSER, "1M8GDM9AXKP042788"), true},
+                {ocrResult(VIN_PARSER, "1M8GDM9A1KP042788"), false},
+                {ocrResult(IBAN_PARSER, ""), true},
+                {ocrResult("other", "GB82WEST12345698765433"), true},
+        };
+        for (Object[] row : cases) {
+            BaseRecognitionResult result = (BaseRecognitionResult) row[0];
+            assertEquals(result.toString(), row[1], mValidator.isValid(result));
+        }
+    }
+
+    @Test
+    public void rejectedResultIsFound() {
+        BaseRecognitionResult invalid = mrtdResult(INVALID_MRZ);
+
+        assertSame(invalid, ResultValidators.findRejected(mValidator,
+                new BaseRecognitionResult[] {mrtdResult(VALID_MRZ), invalid}));
+        assertNull(ResultValidators.findRejected(mValidator, new BaseRecognitionResult[] {mrtdResult(VALID_MRZ)}));
+        assertNull(ResultValidators.findRejected(null, new BaseRecognitionResult[] {invalid}));
+    }
+
+    @Test
+    public void builtInValidatorsAreRebuiltFromDescription() {
+        String[] description = ResultValidators.describe(mValidator);
+        assertArrayEquals(new String[] {"mrz", "iban:" + IBAN_PARSER, "vin:" + VIN_PARSER}, description);
+
+        ResultValidator rebuilt = ResultValidators.fromDescription(description);
+        assertEquals(false, rebuilt.isValid(mrtdResult(INVALID_MRZ)));
+        assertEquals(false, rebuilt.isValid(ocrResult(VIN_PARSER, "1M8GDM9A1KP042788")));
+        assertEquals(true, rebuilt.isValid(ocrResult(IBAN_PARSER, "GB82WEST12345698765432")));
+        assertSame(ResultValidators.mrz(), ResultValidators.fromDescription(new String[] {"mrz"}));
+    }
+
+    @Test
+    public void customValidatorIsNotDescribed() {
+        ResultValidator custom = new ResultValidator() {
+            @Override
+            public boolean isValid(BaseRecognitionResult result) {
+                return true;
+            }
+        };
+
+        assertNull(ResultValidators.describe(custom));
+        assertNull(ResultValidators.describe(ResultValidators.allOf(ResultValidators.mrz(), custom)));
+        assertNull(ResultValidators.describe(null));
+    }
+
+    private static MRTDRecognitionResult mrtdResult(String mrzText) {
+        Bundle fields = new Bundle();
+        fields.putString("MRTDRaw", mrzText);
+        return TestResults.withFields(MRTDRecognitionResult.class, fields);
+    }
+
+    private static BaseRecognitionResult ocrResult(String parserId, String value) {
+        Bundle bundle = new Bundle();
+        bundle.putString("defaultParserGroup." + parserId, value);
+        return new BlinkOCRRecognitionResult(bundle, false, false);
+    }
+}
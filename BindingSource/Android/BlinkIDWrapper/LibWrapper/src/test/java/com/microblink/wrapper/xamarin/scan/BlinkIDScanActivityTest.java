@@ -0,0 +1,197 @@
+package com.microblink.wrapper.xamarin.scan;
+
+import android.content.Context;
+import android.content.Intent;
+import android.graphics.Bitmap;
+import android.os.Bundle;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.microblink.hardware.camera.CameraType;
+import com.microblink.recognizers.BaseRecognitionResult;
+import com.microblink.recognizers.blinkid.mrtd.MRTDRecognitionResult;
+import com.microblink.wrapper.xamarin.BlinkID;
+import com.microblink.wrapper.xamarin.BlinkIdResultListener;
+import com.microblink.wrapper.xamarin.ScanSession;
+import com.microblink.wrapper.xamarin.TestResults;
+import com.microblink.wrapper.xamarin.result.ResultValidators;
+import com.microblink.wrapper.xamarin.scan.host.RecognizerHost;
+import com.microblink.wrapper.xamarin.scan.host.ScriptedRecognizerHost;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowApplication;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Drives the scan activity headless with a scripted recognizer host, from the scan started by
+ * the session to delivery of results to the result listener.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = "src/test/robolectric/AndroidManifest.xml", resourceDir = "../../main/res", sdk = 23)
+public class BlinkIDScanActivityTest {
+
+    private static final long DELIVERY_TIMEOUT_MS = 5000;
+
+    private ScriptedRecognizerHost mHost;
+
+    @Before
+    public void setUp() {
+        BlinkIDScanView.setRecognizerHostFactory(new RecognizerHost.Factory() {
+            @Override
+            public RecognizerHost create(@NonNull Context context) {
+                mHost = new ScriptedRecognizerHost(context);
+                return mHost;
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        BlinkIDScanView.setRecognizerHostFactory(null);
+        BlinkID.getInstance().setResultListener(null);
+    }
+
+    @Test
+    public void resultsAndStatsAreDeliveredToResultListener() throws Exception {
+        RecordingListener listener = new RecordingListener();
+        BlinkID blinkID = new BlinkID();
+        blinkID.setResultListener(listener);
+        ScanConfiguration configuration = new ScanConfiguration(TestResults.recognitionSettings(),
+                CameraType.CAMERA_DEFAULT, new String[0], null, null, new String[] {TestResults.PARSER_ID});
+        ScanSession session = blinkID.restoreSession(RuntimeEnvironment.application, "license", configuration);
+        assertNotNull(session);
+        session.start();
+        Intent intent = ShadowApplication.getInstance().getNextStartedActivity();
+        assertNotNull(intent);
+
+        Robolectric.buildActivity(BlinkIDScanActivity.class).withIntent(intent).create().start().resume().visible();
+        assertNotNull(mHost);
+        assertEquals("license", mHost.getLicenseKey());
+        mHost.addScanningDone(0, TestResults.recognitionResults(TestResults.ocrResult("scanned")));
+
+        listener.awaitDelivery();
+
+        assertNotNull(listener.mResults);
+        assertEquals(1, listener.mResults.size());
+        assertEquals("scanned", listener.mResults.get(0).get(TestResults.PARSER_ID));
+        assertNotNull(listener.mScanStats);
+        assertEquals(1, listener.mScanStats.getScanCount());
+
+        long latencyNanos = listener.mResultsNanos - mHost.getScanningDoneNanos();
+        assertTrue(mHost.getScanningDoneNanos() > 0);
+        assertTrue("Delivered after " + latencyNanos + " ns", latencyNanos > 0);
+        assertTrue("Delivered after " + latencyNanos + " ns", latencyNanos < DELIVERY_TIMEOUT_MS * 1000000L);
+    }
+
+    @Test
+    public void bothSidesAreDeliveredWhenActivityIsRestoredWithoutResultListener() throws Exception {
+        ScanConfiguration configuration = new ScanConfiguration(TestResults.recognitionSettings(),
+                CameraType.CAMERA_DEFAULT, new String[0], null, TestResults.recognitionSettings(),
+                new String[] {TestResults.PARSER_ID});
+        Bundle savedState = new Bundle();
+        configuration.saveTo(savedState);
+        Intent intent = new Intent(RuntimeEnvironment.application, BlinkIDScanActivity.class);
+        intent.putExtra(BlinkIDScanActivity.EXTRAS_LICENSE_KEY, "license");
+
+        // activity restored after process death, before the application defines the result listener
+        Robolectric.buildActivity(BlinkIDScanActivity.class).withIntent(intent).create(savedState).start().resume()
+                .visible();
+        RecordingListener listener = new RecordingListener();
+        BlinkID.getInstance().setResultListener(listener);
+        assertNotNull(mHost);
+        mHost.addScanningDone(0, TestResults.recognitionResults(TestResults.ocrResult("front")));
+        mHost.addScanningDone(0, TestResults.recognitionResults(TestResults.ocrResult("back")));
+
+        listener.awaitDelivery();
+
+        assertEquals(0, mHost.getPendingStepCount());
+        assertNotNull(listener.mResults);
+        assertEquals(1, listener.mResults.size());
+        Map<String, String> merged = listener.mResults.get(0);
+        assertEquals("front", merged.get(TestResults.PARSER_ID));
+        assertNotNull(merged.get(BlinkID.BACK_SIDE_RESULT_TYPE_KEY));
+    }
+
+    @Test
+    public void resultsAreValidatedWhenActivityIsRestoredWithoutResultListener() throws Exception {
+        ScanConfiguration configuration = new ScanConfiguration(TestResults.recognitionSettings(),
+                CameraType.CAMERA_DEFAULT, new String[0], null, null, null, ResultValidators.mrz());
+        Bundle savedState = new Bundle();
+        configuration.saveTo(savedState);
+        Intent intent = new Intent(RuntimeEnvironment.application, BlinkIDScanActivity.class);
+        intent.putExtra(BlinkIDScanActivity.EXTRAS_LICENSE_KEY, "license");
+
+        Robolectric.buildActivity(BlinkIDScanActivity.class).withIntent(intent).create(savedState).start().resume()
+                .visible();
+        RecordingListener listener = new RecordingListener();
+        BlinkID.getInstance().setResultListener(listener);
+        assertNotNull(mHost);
+        mHost.addScanningDone(0, TestResults.recognitionResults(mrtdResult("L898902C3",
+                "P<UTOERIKSSON<<ANNA<MARIA<<<<<<<<<<<<<<<<<<<\nL898902C36UTO7408122F1204158ZE184226B<<<<<10")));
+        mHost.addScanningDone(0, TestResults.recognitionResults(mrtdResult("L898902C3",
+                "P<UTOERIKSSON<<ANNA<MARIA<<<<<<<<<<<<<<<<<<<\nL898902C36UTO7408122F1204159ZE184226B<<<<<10")));
+
+        listener.awaitDelivery();
+
+        assertEquals(0, mHost.getPendingStepCount());
+        assertNotNull(listener.mResults);
+        assertEquals(1, listener.mResults.size());
+        assertEquals("L898902C3", listener.mResults.get(0).get(BlinkID.DOCUMENT_NUMBER_KEY));
+        assertTrue(listener.mResults.get(0).get(BlinkID.MRZ_RAW_KEY).contains("1204159"));
+    }
+
+    private static BaseRecognitionResult mrtdResult(String documentNumber, String mrzText) {
+        Bundle fields = TestResults.mrtdFields(documentNumber, 12, 8, 1974);
+        fields.putString("MRTDRaw", mrzText);
+        return TestResults.withFields(MRTDRecognitionResult.class, fields);
+    }
+
+    /**
+     * Records delivered results and statistics.
+     */
+    private static final class RecordingListener extends BlinkIdResultListener {
+        volatile List<Map<String, String>> mResults;
+        volatile long mResultsNanos;
+        volatile ScanStats mScanStats;
+
+        @Override
+        public void onResultsAvailable(@Nullable List<Map<String, String>> results) {
+            mResultsNanos = System.nanoTime();
+            mResults = results;
+        }
+
+        @Override
+        public void onDocumentImageAvailable(@NonNull Bitmap image) {
+        }
+
+        @Override
+        public void onScanStatsAvailable(@NonNull ScanStats scanStats) {
+            mScanStats = scanStats;
+        }
+
+        /**
+         * Runs the main looper until statistics, which are delivered after the results, arrive.
+         */
+        void awaitDelivery() throws InterruptedException {
+            long deadline = System.currentTimeMillis() + DELIVERY_TIMEOUT_MS;
+            while (mScanStats == null && System.currentTimeMillis() < deadline) {
+                ShadowLooper.idleMainLooper(10);
+                Thread.sleep(10);
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.microblink.wrapper.xamarin.scan;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ScanStatsTest {
+
+    private static final long FRAME_NANOS = 50000000L;
+
+    @Test
+    public void framesPerSecondIsReportedWithCaptureProfile() {
+        ScanStats stats = new ScanStats();
+        stats.setCaptureProfileName("Document");
+        for (int i = 1; i <= 11; ++i) {
+            stats.recordFrame(i * FRAME_NANOS);
+        }
+
+        ScanStats copy = new ScanStats(stats);
+
+        assertEquals("Document", copy.getCaptureProfileName());
+        assertEquals(20.f, copy.getFramesPerSecond(), 0.01f);
+    }
+
+    @Test
+    public void statisticsOfSameProfileAreAggregated() {
+        ScanStats perProfile = new ScanStats();
+        perProfile.add(scanWithProfile("Barcode", FRAME_NANOS));
+        perProfile.add(scanWithProfile("Barcode", 2 * FRAME_NANOS));
+
+        assertEquals("Barcode", perProfile.getCaptureProfileName());
+        assertEquals(2, perProfile.getScanCount());
+        // 10 intervals of 50 ms and 10 intervals of 100 ms
+        assertEquals(20.f / 1.5f, perProfile.getFramesPerSecond(), 0.01f);
+    }
+
+    @Test
+    public void profileIsDroppedWhenDifferentProfilesAreAggregated() {
+        ScanStats all = new ScanStats();
+        all.add(scanWithProfile("Barcode", FRAME_NANOS));
+        all.add(scanWithProfile("Document", FRAME_NANOS));
+
+        assertNull(all.getCaptureProfileName());
+        assertEquals(2, all.getScanCount());
+    }
+
+    private static ScanStats scanWithProfile(String profileName, long frameNanos) {
+        ScanStats stats = new ScanStats();
+        stats.setCaptureProfileName(profileName);
+        for (int i = 1; i <= 11; ++i) {
+            stats.recordFrame(i * frameNanos);
+        }
+        stats.recordConversion(1000);
+        return stats;
+    }
+}
@@ -0,0 +1,183 @@
+package com.microblink.wrapper.xamarin.scan.governor;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ProcessingGovernorTest {
+
+    private FakeSignals mSignals;
+    private ProcessingGovernor mGovernor;
+
+    @Before
+    public void setUp() {
+        mSignals = new FakeSignals();
+        mGovernor = new ProcessingGovernor(mSignals);
+    }
+
+    @Test
+    public void staysNormalWhenSignalsAreLow() {
+        assertFalse(evaluateAfterInterval());
+        assertEquals(ProcessingGovernor.Level.NORMAL, mGovernor.getLevel());
+    }
+
+    @Test
+    public void escalatesAtEachTemperatureThreshold() {
+        mSignals.mTemperature = 38.9f;
+        assertFalse(evaluateAfterInterval());
+        assertEquals(ProcessingGovernor.Level.NORMAL, mGovernor.getLevel());
+
+        mSignals.mTemperature = 39.f;
+        assertTrue(evaluateAfterInterval());
+        assertEquals(ProcessingGovernor.Level.REDUCED, mGovernor.getLevel());
+
+        mSignals.mTemperature = 42.f;
+        assertTrue(evaluateAfterInterval());
+        assertEquals(ProcessingGovernor.Level.THROTTLED, mGovernor.getLevel());
+
+        mSignals.mTemperature = 45.f;
+        assertTrue(evaluateAfterInterval());
+        assertEquals(ProcessingGovernor.Level.CRITICAL, mGovernor.getLevel());
+    }
+
+    @Test
+    public void escalatesDirectlyToLevelOfHighestSignal() {
+        mSignals.mTemperature = 46.f;
+        assertTrue(evaluateAfterInterval());
+        assertEquals(ProcessingGovernor.Level.CRITICAL, mGovernor.getLevel());
+    }
+
+    @Test
+    public void escalatesAtEachBatteryThresholdWhenNotCharging() {
+        mSignals.mBatteryLevel = 0.16f;
+        assertFalse(evaluateAfterInterval());
+
+        mSignals.mBatteryLevel = 0.15f;
+        assertTrue(evaluateAfterInterval());
+        assertEquals(ProcessingGovernor.Level.REDUCED, mGovernor.getLevel());
+
+        mSignals.mBatteryLevel = 0.05f;
+        assertTrue(evaluateAfterInterval());
+        assertEquals(ProcessingGovernor.Level.THROTTLED, mGovernor.getLevel());
+    }
+
+    @Test
+    public void ignoresLowBatteryWhileCharging() {
+        mSignals.mBatteryLevel = 0.01f;
+        mSignals.mCharging = true;
+        assertFalse(evaluateAfterInterval());
+        assertEquals(ProcessingGovernor.Level.NORMAL, mGovernor.getLevel());
+    }
+
+    @Test
+    public void escalatesAtEachFrameTimeThreshold() {
+        mGovernor.onFrameProcessed(149);
+        assertFalse(evaluateAfterInterval());
+
+        mGovernor.onFrameProcessed(149 + 20);
+        // moving average 149 + 0.1 * 20 = 151
+        assertTrue(evaluateAfterInterval());
+        assertEquals(ProcessingGovernor.Level.REDUCED, mGovernor.getLevel());
+
+        for (int i = 0; i < 100; ++i) {
+            mGovernor.onFrameProcessed(320);
+        }
+        assertTrue(evaluateAfterInterval());
+        assertEquals(ProcessingGovernor.Level.THROTTLED, mGovernor.getLevel());
+    }
+
+    @Test
+    public void doesNotEvaluateMoreOftenThanEvaluationInterval() {
+        assertFalse(mGovernor.evaluate());
+        mSignals.mTemperature = 45.f;
+        mSignals.mUptimeMs += ProcessingGovernor.EVALUATION_INTERVAL_MS - 1;
+        assertFalse(mGovernor.evaluate());
+        assertEquals(ProcessingGovernor.Level.NORMAL, mGovernor.getLevel());
+
+        mSignals.mUptimeMs += 1;
+        assertTrue(mGovernor.evaluate());
+        assertEquals(ProcessingGovernor.Level.CRITICAL, mGovernor.getLevel());
+    }
+
+    @Test
+    public void coolsDownOneStepAtATime() {
+        mSignals.mTemperature = 45.f;
+        assertTrue(evaluateAfterInterval());
+        assertEquals(ProcessingGovernor.Level.CRITICAL, mGovernor.getLevel());
+
+        mSignals.mTemperature = 30.f;
+        ProcessingGovernor.Level[] expectedSteps = {
+                ProcessingGovernor.Level.THROTTLED, ProcessingGovernor.Level.REDUCED, ProcessingGovernor.Level.NORMAL
+        };
+        for (ProcessingGovernor.Level expected : expectedSteps) {
+            ProcessingGovernor.Level before = mGovernor.getLevel();
+            // signals must stay low for the whole cool down period before every step
+            long stepStartMs = mSignals.mUptimeMs;
+            while (!evaluateAfterInterval()) {
+                assertEquals(before, mGovernor.getLevel());
+                assertTrue("Cool down took too long", mSignals.mUptimeMs - stepStartMs
+                        <= ProcessingGovernor.COOL_DOWN_MS + 2 * ProcessingGovernor.EVALUATION_INTERVAL_MS);
+            }
+            assertTrue(mSignals.mUptimeMs - stepStartMs >= ProcessingGovernor.COOL_DOWN_MS);
+            assertEquals(expected, mGovernor.getLevel());
+        }
+        assertFalse(evaluateAfterInterval());
+        assertEquals(ProcessingGovernor.Level.NORMAL, mGovernor.getLevel());
+    }
+
+    @Test
+    public void coolDownRestartsWhenSignalRisesAgain() {
+        mSignals.mTemperature = 42.f;
+        assertTrue(evaluateAfterInterval());
+
+        mSignals.mTemperature = 30.f;
+        for (int i = 0; i < 5; ++i) {
+            assertFalse(evaluateAfterInterval());
+        }
+        mSignals.mTemperature = 42.f;
+        assertFalse(evaluateAfterInterval());
+
+        mSignals.mTemperature = 30.f;
+        long calmStartMs = mSignals.mUptimeMs + ProcessingGovernor.EVALUATION_INTERVAL_MS;
+        while (!evaluateAfterInterval()) {
+            assertEquals(ProcessingGovernor.Level.THROTTLED, mGovernor.getLevel());
+        }
+        assertTrue(mSignals.mUptimeMs - calmStartMs >= ProcessingGovernor.COOL_DOWN_MS);
+        assertEquals(ProcessingGovernor.Level.REDUCED, mGovernor.getLevel());
+    }
+
+    private boolean evaluateAfterInterval() {
+        mSignals.mUptimeMs += ProcessingGovernor.EVALUATION_INTERVAL_MS;
+        return mGovernor.evaluate();
+    }
+
+    private static final class FakeSignals implements DeviceSignals {
+        long mUptimeMs = 0;
+        float mTemperature = 30.f;
+        float mBatteryLevel = 1.f;
+        boolean mCharging = false;
+
+        @Override
+        public long getUptimeMillis() {
+            return mUptimeMs;
+        }
+
+        @Override
+        public float getBatteryTemperature() {
+            return mTemperature;
+        }
+
+        @Override
+        public float getBatteryLevel() {
+            return mBatteryLevel;
+        }
+
+        @Override
+        public boolean isCharging() {
+            return mCharging;
+        }
+    }
+}
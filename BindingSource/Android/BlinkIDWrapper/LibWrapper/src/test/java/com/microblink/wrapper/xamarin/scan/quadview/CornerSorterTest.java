@@ -0,0 +1,44 @@
+package com.microblink.wrapper.xamarin.scan.quadview;
+
+import com.microblink.geometry.Point;
+import com.microblink.geometry.Quadrilateral;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+
+public class CornerSorterTest {
+
+    @Test
+    public void sortsLikeQuadrilateral() {
+        Random random = new Random(42);
+        CornerSorter sorter = new CornerSorter();
+        float[] corners = new float[QuadSpringAnimator.COORDINATE_COUNT];
+        for (int n = 0; n < 1000; ++n) {
+            for (int i = 0; i < corners.length; ++i) {
+                corners[i] = random.nextFloat();
+            }
+            Quadrilateral quad = new Quadrilateral(new Point(corners[0], corners[1]), new Point(corners[2], corners[3]),
+                    new Point(corners[4], corners[5]), new Point(corners[6], corners[7]));
+            QuadrilateralWrapper expected = new QuadrilateralWrapper();
+            expected.set(quad.getSortedQuad());
+            float[] expectedCorners = new float[QuadSpringAnimator.COORDINATE_COUNT];
+            expected.getCorners(expectedCorners);
+
+            sorter.sort(corners);
+            assertArrayEquals(expectedCorners, corners, 0.f);
+        }
+    }
+
+    @Test
+    public void sortingSortedCornersKeepsThem() {
+        CornerSorter sorter = new CornerSorter();
+        float[] corners = {0.9f, 0.9f, 0.1f, 0.1f, 0.9f, 0.1f, 0.1f, 0.9f};
+        sorter.sort(corners);
+        float[] sorted = corners.clone();
+        sorter.sort(corners);
+        assertArrayEquals(sorted, corners, 0.f);
+    }
+}
@@ -0,0 +1,93 @@
+package com.microblink.wrapper.xamarin.scan.quadview;
+
+import android.os.Parcel;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 23)
+public class PackedQuadTest {
+
+    private static final float[] CORNERS = {10.f, 20.f, 110.f, 21.f, 12.f, 220.f, 111.f, 222.f};
+    private static final int COLOR = 0xff00ff00;
+
+    @Test
+    public void parcelRoundTripKeepsCornersColorAndDefaultFlag() {
+        for (boolean defaultQuad : new boolean[] {false, true}) {
+            PackedQuad restored = parcelRoundTrip(new PackedQuad(CORNERS, COLOR, defaultQuad));
+
+            float[] corners = new float[CORNERS.length];
+            restored.getCorners(corners);
+            assertArrayEquals(CORNERS, corners, 0.f);
+            assertEquals(COLOR, restored.getColor());
+            assertEquals(defaultQuad, restored.isDefaultQuad());
+        }
+    }
+
+    @Test
+    public void packingQuadKeepsDefaultFlag() {
+        QuadrilateralWrapper quad = new QuadrilateralWrapper();
+        quad.setCorners(CORNERS);
+        quad.setColor(COLOR);
+        quad.setIsDefaultQuad(true);
+
+        QuadrilateralWrapper restored = parcelRoundTrip(new PackedQuad(quad)).toQuadrilateral();
+        float[] corners = new float[CORNERS.length];
+        restored.getCorners(corners);
+        assertArrayEquals(CORNERS, corners, 0.f);
+        assertEquals(COLOR, restored.getColor());
+        assertTrue(restored.isDefaultQuad());
+
+        quad.setIsDefaultQuad(false);
+        assertFalse(parcelRoundTrip(new PackedQuad(quad)).toQuadrilateral().isDefaultQuad());
+    }
+
+    @Test
+    public void packedQuadIsSmallerThanParcelingEveryCorner() {
+        QuadrilateralWrapper quad = new QuadrilateralWrapper();
+        quad.setCorners(CORNERS);
+        quad.setColor(COLOR);
+
+        Parcel parcel = Parcel.obtain();
+        new PackedQuad(quad).writeToParcel(parcel, 0);
+        int packedSize = parcel.dataSize();
+        parcel.recycle();
+        parcel = Parcel.obtain();
+        writeCorners(parcel, quad);
+        int pointsSize = parcel.dataSize();
+        parcel.recycle();
+
+        assertTrue(packedSize < pointsSize);
+    }
+
+    private static PackedQuad parcelRoundTrip(PackedQuad quad) {
+        Parcel parcel = Parcel.obtain();
+        try {
+            quad.writeToParcel(parcel, 0);
+            parcel.setDataPosition(0);
+            return PackedQuad.CREATOR.createFromParcel(parcel);
+        } finally {
+            parcel.recycle();
+        }
+    }
+
+    /**
+     * Parcels the quad as before packing: every corner as a separate parcelable point.
+     */
+    private static void writeCorners(Parcel parcel, QuadrilateralWrapper quad) {
+        parcel.writeParcelable(quad.getUpperLeft(), 0);
+        parcel.writeParcelable(quad.getUpperRight(), 0);
+        parcel.writeParcelable(quad.getLowerLeft(), 0);
+        parcel.writeParcelable(quad.getLowerRight(), 0);
+        parcel.writeInt(quad.getColor());
+        parcel.writeByte(quad.isDefaultQuad() ? (byte) 1 : (byte) 0);
+    }
+}
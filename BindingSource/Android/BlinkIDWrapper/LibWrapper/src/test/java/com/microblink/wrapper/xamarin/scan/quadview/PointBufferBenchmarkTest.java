@@ -0,0 +1,108 @@
+package com.microblink.wrapper.xamarin.scan.quadview;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Compares batch operations of {@link PointBuffer} with the same operations done point by point
+ * with {@link XPoint} operators. Both paths must produce the same points and allocations of batch
+ * operations must not grow with the number of processed sets. Timings are not checked, because
+ * they depend on the machine that runs the tests.
+ */
+public class PointBufferBenchmarkTest {
+
+    private static final int POINT_COUNT = 64;
+    private static final int WARMUP_ITERATIONS = 20000;
+    private static final int MEASURED_ITERATIONS = 50000;
+    private static final int MEASURED_ROUNDS = 4;
+
+    private static final float DX = 3.f, DY = -2.f;
+    private static final float SCALE = 1.5f;
+    private static final float WIDTH = 1280.f, HEIGHT = 720.f;
+    private static final float MIN_NORM = 10.f, MAX_NORM = 1000.f;
+
+    private final float[] mCoordinates = new float[2 * POINT_COUNT];
+
+    public PointBufferBenchmarkTest() {
+        Random random = new Random(7);
+        for (int i = 0; i < mCoordinates.length; ++i) {
+            mCoordinates[i] = random.nextFloat() * 1000.f;
+        }
+    }
+
+    @Test
+    public void batchOperationsMatchPointOperations() {
+        PointBuffer buffer = new PointBuffer(POINT_COUNT);
+        float[] norms = new float[POINT_COUNT];
+        runBatch(buffer, norms);
+
+        List<XPoint> points = runPointByPoint();
+        for (int i = 0; i < POINT_COUNT; ++i) {
+            XPoint p = points.get(i);
+            assertEquals(p.getX(), buffer.getX(i), 1e-3f);
+            assertEquals(p.getY(), buffer.getY(i), 1e-3f);
+            assertEquals(p.norm(), norms[i], 1e-3f);
+        }
+    }
+
+    @Test
+    public void batchAllocationsDoNotGrowWithProcessedSets() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        assumeTrue(allocations.isThreadAllocatedMemorySupported());
+        long threadId = Thread.currentThread().getId();
+
+        PointBuffer buffer = new PointBuffer(POINT_COUNT);
+        float[] norms = new float[POINT_COUNT];
+        float sink = 0.f;
+        for (int i = 0; i < WARMUP_ITERATIONS; ++i) {
+            sink += runBatch(buffer, norms);
+            sink += runPointByPoint().get(0).norm();
+        }
+
+        // a few bytes may be allocated by the runtime during a round, so allocations are required
+        // to stay below one byte per set, which catches any allocation done for every set
+        for (int round = 0; round < MEASURED_ROUNDS; ++round) {
+            long start = allocations.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < MEASURED_ITERATIONS; ++i) {
+                sink += runBatch(buffer, norms);
+            }
+            long batchBytes = allocations.getThreadAllocatedBytes(threadId) - start;
+            assertTrue("Round " + round + " allocated " + batchBytes + " B (checksum " + sink + ")",
+                    batchBytes < MEASURED_ITERATIONS);
+        }
+    }
+
+    private float runBatch(PointBuffer buffer, float[] norms) {
+        buffer.clear();
+        buffer.addPacked(mCoordinates, POINT_COUNT);
+        buffer.translate(DX, DY);
+        buffer.scale(SCALE);
+        buffer.mirrorXY(WIDTH, HEIGHT);
+        buffer.clamp(MIN_NORM, MAX_NORM);
+        buffer.norms(norms);
+        return norms[0];
+    }
+
+    private List<XPoint> runPointByPoint() {
+        XPoint offset = new XPoint(DX, DY);
+        List<XPoint> points = new ArrayList<>(POINT_COUNT);
+        for (int i = 0; i < POINT_COUNT; ++i) {
+            XPoint p = new XPoint(mCoordinates[2 * i], mCoordinates[2 * i + 1]);
+            p = p.operatorPlus(offset).operatorMultiply(SCALE).mirrorXY(WIDTH, HEIGHT).clamp(MIN_NORM, MAX_NORM);
+            p.norm();
+            points.add(p);
+        }
+        return points;
+    }
+}
@@ -0,0 +1,65 @@
+package com.microblink.wrapper.xamarin.scan.quadview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class XPointTest {
+
+    private static final float EPS = 1e-6f;
+
+    @Test
+    public void plusEqualsInvalidatesNorm() {
+        XPoint p = cachedNorm(3.f, 4.f);
+        p.operatorPlusEquals(new XPoint(3.f, 4.f));
+        assertEquals(10.f, p.norm(), EPS);
+    }
+
+    @Test
+    public void minusEqualsInvalidatesNorm() {
+        XPoint p = cachedNorm(3.f, 4.f);
+        p.operatorMinusEquals(new XPoint(3.f, 0.f));
+        assertEquals(4.f, p.norm(), EPS);
+    }
+
+    @Test
+    public void multiplyEqualsInvalidatesNorm() {
+        XPoint p = cachedNorm(3.f, 4.f);
+        p.operatorMultiplyEquals(3.f);
+        assertEquals(15.f, p.norm(), EPS);
+    }
+
+    @Test
+    public void settersInvalidateNorm() {
+        XPoint p = cachedNorm(3.f, 4.f);
+        p.setX(0.f);
+        assertEquals(4.f, p.norm(), EPS);
+        p.setY(2.f);
+        assertEquals(2.f, p.norm(), EPS);
+    }
+
+    @Test
+    public void negativeKeepsNorm() {
+        XPoint p = cachedNorm(3.f, 4.f);
+        p.negative();
+        assertEquals(5.f, p.norm(), EPS);
+        assertEquals(-3.f, p.getX(), 0.f);
+        assertEquals(-4.f, p.getY(), 0.f);
+    }
+
+    @Test
+    public void derivedPointsDoNotShareNorm() {
+        XPoint p = cachedNorm(3.f, 4.f);
+        assertEquals(10.f, p.operatorMultiply(2.f).norm(), EPS);
+        assertEquals(1.f, p.normalize().norm(), EPS);
+        assertEquals(2.f, p.clamp(2.f).norm(), EPS);
+        assertEquals(5.f, p.norm(), EPS);
+    }
+
+    private static XPoint cachedNorm(float x, float y) {
+        XPoint p = new XPoint(x, y);
+        // caches the norm
+        assertEquals((float) Math.sqrt(x * x + y * y), p.norm(), EPS);
+        return p;
+    }
+}
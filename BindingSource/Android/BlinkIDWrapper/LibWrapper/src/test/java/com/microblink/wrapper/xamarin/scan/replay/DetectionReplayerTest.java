@@ -0,0 +1,184 @@
+package com.microblink.wrapper.xamarin.scan.replay;
+
+import android.support.annotation.Nullable;
+
+import com.microblink.view.recognition.DetectionStatus;
+import com.microblink.wrapper.xamarin.scan.DetectionListener;
+import com.microblink.wrapper.xamarin.scan.dots.PointSetWrapper;
+import com.microblink.wrapper.xamarin.scan.quadview.QuadrilateralWrapper;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 23)
+public class DetectionReplayerTest {
+
+    /** Arbitrary camera clock value of the first recorded event */
+    private static final long START_NANOS = 123456789000L;
+    private static final float[] CORNERS = {10.5f, 20.f, 110.f, 22.25f, 12.f, 80.f, 108.75f, 79.f};
+    private static final float[] POINTS = {1.f, 2.f, 3.5f, 4.5f, 640.f, 480.f};
+    private static final int COLOR = 0xff00ff00;
+
+    @Test
+    public void replayDeliversRecordedEvents() throws IOException, InterruptedException {
+        DetectionReplayer replayer = new DetectionReplayer(new ByteArrayInputStream(record(true)));
+        RecordingListener listener = new RecordingListener();
+
+        replayer.replay(listener, DetectionReplayer.SPEED_UNLIMITED);
+
+        assertEquals(5, replayer.getEventCount());
+        assertEquals(40000000L, replayer.getDurationNanos());
+        assertEquals(5, listener.mEvents.size());
+        // timestamps are relative to the first event
+        assertFrame(listener.mEvents.get(0), 0);
+        assertFrame(listener.mEvents.get(1), 16000000L);
+
+        Event quad = listener.mEvents.get(2);
+        assertDetection(quad, 16500000L, DetectionStatus.SUCCESS);
+        assertArrayEquals(CORNERS, quad.mCoordinates, 0.f);
+        assertEquals(COLOR, quad.mColor);
+        assertTrue(quad.mDefaultQuad);
+        assertFalse(quad.mPointSet);
+
+        Event points = listener.mEvents.get(3);
+        assertDetection(points, 33001000L, DetectionStatus.PARTIAL_OBJECT);
+        assertArrayEquals(POINTS, points.mCoordinates, 0.f);
+        assertTrue(points.mPointSet);
+
+        Event empty = listener.mEvents.get(4);
+        assertDetection(empty, 40000000L, DetectionStatus.FAIL);
+        assertNull(empty.mCoordinates);
+        assertFalse(empty.mPointSet);
+    }
+
+    @Test
+    public void unfinishedRecordingEndsWithLastCompleteEvent() throws IOException, InterruptedException {
+        byte[] recording = record(true);
+        // detection without geometry takes type, delta, status and geometry
+        byte[] torn = Arrays.copyOf(recording, recording.length - 2);
+
+        DetectionReplayer replayer = new DetectionReplayer(new ByteArrayInputStream(torn));
+        RecordingListener listener = new RecordingListener();
+        replayer.replay(listener, DetectionReplayer.SPEED_UNLIMITED);
+
+        assertEquals(4, replayer.getEventCount());
+        assertEquals(33001000L, replayer.getDurationNanos());
+        assertArrayEquals(POINTS, listener.mEvents.get(3).mCoordinates, 0.f);
+    }
+
+    @Test
+    public void replayKeepsRecordedPace() throws IOException, InterruptedException {
+        DetectionReplayer replayer = new DetectionReplayer(new ByteArrayInputStream(record(false)));
+        RecordingListener listener = new RecordingListener();
+        float speed = 2.f;
+        long[] recordedNanos = {0, 16000000L, 16500000L, 33001000L, 40000000L};
+
+        replayer.replay(listener, speed);
+
+        assertEquals(recordedNanos.length, listener.mEvents.size());
+        long replayStartNanos = listener.mEvents.get(0).mTimestampNanos;
+        for (int i = 0; i < recordedNanos.length; ++i) {
+            Event event = listener.mEvents.get(i);
+            // replay timestamps are on the System.nanoTime clock, scaled by the speed
+            assertEquals(replayStartNanos + (long) (recordedNanos[i] / speed), event.mTimestampNanos);
+            assertTrue("Event " + i + " delivered early", event.mReceivedNanos >= event.mTimestampNanos);
+        }
+    }
+
+    private static byte[] record(boolean close) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DetectionRecorder recorder = new DetectionRecorder(out);
+
+        QuadrilateralWrapper quad = new QuadrilateralWrapper();
+        quad.setCorners(CORNERS);
+        quad.setColor(COLOR);
+        quad.setIsDefaultQuad(true);
+
+        recorder.onFrame(START_NANOS);
+        recorder.onFrame(START_NANOS + 16000000L);
+        recorder.onDetection(START_NANOS + 16500000L, DetectionStatus.SUCCESS, quad, null);
+        recorder.onDetection(START_NANOS + 33001000L, DetectionStatus.PARTIAL_OBJECT, null,
+                new PointSetWrapper(POINTS, POINTS.length / 2));
+        recorder.onDetection(START_NANOS + 40000000L, DetectionStatus.FAIL, null, null);
+        assertEquals(5, recorder.getEventCount());
+        if (close) {
+            recorder.close();
+        } else {
+            recorder.flush();
+        }
+        return out.toByteArray();
+    }
+
+    private static void assertFrame(Event event, long timestampNanos) {
+        assertFalse(event.mDetection);
+        assertEquals(timestampNanos, event.mTimestampNanos);
+    }
+
+    private static void assertDetection(Event event, long timestampNanos, DetectionStatus status) {
+        assertTrue(event.mDetection);
+        assertEquals(timestampNanos, event.mTimestampNanos);
+        assertEquals(status, event.mStatus);
+    }
+
+    private static final class Event {
+        long mTimestampNanos;
+        long mReceivedNanos;
+        boolean mDetection;
+        DetectionStatus mStatus;
+        float[] mCoordinates;
+        boolean mPointSet;
+        int mColor;
+        boolean mDefaultQuad;
+    }
+
+    private static final class RecordingListener implements DetectionListener {
+        final List<Event> mEvents = new ArrayList<>();
+
+        @Override
+        public void onFrame(long timestampNanos) {
+            add(timestampNanos);
+        }
+
+        @Override
+        public void onDetection(long timestampNanos, @Nullable DetectionStatus status,
+                                @Nullable QuadrilateralWrapper quad, @Nullable PointSetWrapper pointSet) {
+            Event event = add(timestampNanos);
+            event.mDetection = true;
+            event.mStatus = status;
+            if (quad != null) {
+                event.mCoordinates = new float[8];
+                quad.getCorners(event.mCoordinates);
+                event.mColor = quad.getColor();
+                event.mDefaultQuad = quad.isDefaultQuad();
+            } else if (pointSet != null) {
+                event.mCoordinates = new float[2 * pointSet.getPointCount()];
+                pointSet.getCoordinates(event.mCoordinates);
+                event.mPointSet = true;
+            }
+        }
+
+        private Event add(long timestampNanos) {
+            Event event = new Event();
+            event.mTimestampNanos = timestampNanos;
+            event.mReceivedNanos = System.nanoTime();
+            mEvents.add(event);
+            return event;
+        }
+    }
+}
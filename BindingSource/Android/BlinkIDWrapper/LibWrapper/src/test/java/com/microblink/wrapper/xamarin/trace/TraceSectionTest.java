@@ -0,0 +1,65 @@
+package com.microblink.wrapper.xamarin.trace;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 23)
+public class TraceSectionTest {
+
+    @After
+    public void tearDown() {
+        TraceSection.setSpanCollector(null);
+    }
+
+    @Test
+    public void sectionBegunWithoutCollectorIsNotRecorded() {
+        SpanCollector collector = new SpanCollector();
+
+        TraceSection.setSpanCollector(collector);
+        TraceSection.begin("outer");
+        TraceSection.setSpanCollector(null);
+        TraceSection.begin("unmeasured");
+        TraceSection.setSpanCollector(collector);
+        TraceSection.end();
+        assertTrue(collector.summarize().isEmpty());
+        TraceSection.end();
+
+        List<SpanCollector.Summary> spans = collector.summarize();
+        assertEquals(1, spans.size());
+        assertSpan(spans.get(0), "outer");
+    }
+
+    @Test
+    public void sectionIsRecordedByCollectorInstalledWhenItBegan() {
+        SpanCollector first = new SpanCollector();
+        SpanCollector second = new SpanCollector();
+
+        TraceSection.setSpanCollector(first);
+        TraceSection.begin("outer");
+        TraceSection.setSpanCollector(second);
+        TraceSection.begin("inner");
+        TraceSection.end();
+        TraceSection.setSpanCollector(null);
+        TraceSection.end();
+
+        assertEquals(1, first.summarize().size());
+        assertSpan(first.summarize().get(0), "outer");
+        assertEquals(1, second.summarize().size());
+        assertSpan(second.summarize().get(0), "inner");
+    }
+
+    private static void assertSpan(SpanCollector.Summary span, String name) {
+        assertEquals(name, span.getName());
+        assertEquals(1, span.getCount());
+        assertTrue(span.getMeanMs() >= 0);
+    }
+}